@@ -16,6 +16,25 @@ public interface ModelGenerator extends ModelFacade {
 
 	void setMaxNumberOfSolutions(int maxNumberOfSolutions);
 
+	int getNumberOfWorkers();
+
+	/**
+	 * Sets the number of threads exploring the state space in parallel.
+	 *
+	 * @param numberOfWorkers The number of threads, {@code 1} by default.
+	 */
+	void setNumberOfWorkers(int numberOfWorkers);
+
+	SolutionListener getSolutionListener();
+
+	/**
+	 * Sets a listener to stream solutions while the generation is running, instead of waiting for
+	 * {@link #getMaxNumberOfSolutions()} solutions to be found.
+	 *
+	 * @param solutionListener The listener, or {@code null} to disable streaming.
+	 */
+	void setSolutionListener(SolutionListener solutionListener);
+
 	int getSolutionCount();
 
 	void loadSolution(int index);
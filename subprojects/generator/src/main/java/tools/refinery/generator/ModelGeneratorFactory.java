@@ -19,6 +19,7 @@ import tools.refinery.store.reasoning.literal.Concreteness;
 import tools.refinery.store.reasoning.translator.TranslationException;
 import tools.refinery.store.statecoding.StateCodeCalculatorFactory;
 import tools.refinery.store.statecoding.StateCoderAdapter;
+import tools.refinery.store.statecoding.neighborhood.IncrementalNeighborhoodCalculator;
 import tools.refinery.store.statecoding.neighborhood.NeighborhoodCalculator;
 
 import java.util.Collection;
@@ -101,6 +102,6 @@ public final class ModelGeneratorFactory extends ModelFacadeFactory<ModelGenerat
 	private StateCodeCalculatorFactory getStateCodeCalculatorFactory() {
 		return partialInterpretationBasedNeighborhoods ?
 				PartialNeighborhoodCalculator.factory(Concreteness.PARTIAL, stateCoderDepth) :
-				NeighborhoodCalculator.factory(stateCoderDepth);
+				IncrementalNeighborhoodCalculator.factory(stateCoderDepth);
 	}
 }
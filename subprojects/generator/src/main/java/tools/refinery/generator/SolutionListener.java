@@ -0,0 +1,21 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.generator;
+
+@FunctionalInterface
+public interface SolutionListener {
+	/**
+	 * Called as soon as a solution is found, while the generation is still running.
+	 * <p>
+	 * During the call, the model of {@code generator} is restored to the solution, so it can be read or serialized.
+	 * Calls are never concurrent, but may happen on any thread exploring the state space. Exploration is blocked
+	 * until the listener returns.
+	 * </p>
+	 *
+	 * @param generator The model generator holding the solution.
+	 */
+	void solutionFound(ModelGenerator generator);
+}
@@ -8,10 +8,12 @@ package tools.refinery.generator.impl;
 import tools.refinery.generator.GeneratorResult;
 import tools.refinery.generator.GeneratorTimeoutException;
 import tools.refinery.generator.ModelGenerator;
+import tools.refinery.generator.SolutionListener;
 import tools.refinery.language.model.problem.Problem;
 import tools.refinery.logic.AbstractValue;
 import tools.refinery.store.dse.propagation.PropagationRejectedException;
 import tools.refinery.store.dse.strategy.BestFirstStoreManager;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
 import tools.refinery.store.dse.transition.statespace.SolutionStore;
 import tools.refinery.store.map.Version;
 import tools.refinery.store.reasoning.interpretation.PartialInterpretation;
@@ -25,7 +27,11 @@ public class ModelGeneratorImpl extends ConcreteModelFacade implements ModelGene
 	private final CancellableCancellationToken cancellationToken;
 	private long randomSeed = 1;
 	private int maxNumberOfSolutions = 1;
+	private int numberOfWorkers = 1;
 	private SolutionStore solutionStore;
+	private SolutionListener solutionListener;
+	// Set while {@code solutionListener} is called with the model restored to a solution, guarded by {@code this}.
+	private boolean streamingSolution;
 
 	public ModelGeneratorImpl(Args args, CancellableCancellationToken cancellationToken) {
 		super(args);
@@ -55,6 +61,30 @@ public class ModelGeneratorImpl extends ConcreteModelFacade implements ModelGene
 		this.solutionStore = null;
 	}
 
+	@Override
+	public int getNumberOfWorkers() {
+		return numberOfWorkers;
+	}
+
+	@Override
+	public void setNumberOfWorkers(int numberOfWorkers) {
+		if (numberOfWorkers <= 0) {
+			throw new IllegalArgumentException("Number of workers must be positive, got %d"
+					.formatted(numberOfWorkers));
+		}
+		this.numberOfWorkers = numberOfWorkers;
+	}
+
+	@Override
+	public SolutionListener getSolutionListener() {
+		return solutionListener;
+	}
+
+	@Override
+	public void setSolutionListener(SolutionListener solutionListener) {
+		this.solutionListener = solutionListener;
+	}
+
 	@Override
 	public int getSolutionCount() {
 		if (!isLastGenerationSuccessful()) {
@@ -83,19 +113,41 @@ public class ModelGeneratorImpl extends ConcreteModelFacade implements ModelGene
 		solutionStore = null;
 		randomSeed++;
 		var bestFirst = new BestFirstStoreManager(getModelStore(), maxNumberOfSolutions);
+		var listener = solutionListener;
+		if (listener != null) {
+			bestFirst.setSolutionListener(solution -> streamSolution(listener, solution));
+		}
+		boolean solutionLoaded = false;
 		try {
-			bestFirst.startExploration(initialVersion, randomSeed);
+			bestFirst.startExploration(initialVersion, randomSeed, numberOfWorkers);
+			var solutions = bestFirst.getSolutionStore().getSolutions();
+			if (solutions.isEmpty()) {
+				return GeneratorResult.UNSATISFIABLE;
+			}
+			getModel().restore(solutions.getFirst().version());
+			solutionStore = bestFirst.getSolutionStore();
+			solutionLoaded = true;
+			return GeneratorResult.SUCCESS;
 		} catch (PropagationRejectedException e) {
 			// Fatal propagation error.
 			throw getDiagnostics().wrapPropagationRejectedException(e, getProblemTrace());
+		} finally {
+			if (listener != null && !solutionLoaded) {
+				// Streaming left the model at the last solution found, but the generation failed or timed out.
+				getModel().restore(initialVersion);
+			}
 		}
-		var solutions = bestFirst.getSolutionStore().getSolutions();
-		if (solutions.isEmpty()) {
-			return GeneratorResult.UNSATISFIABLE;
+	}
+
+	private synchronized void streamSolution(SolutionListener listener, VersionWithObjectiveValue solution) {
+		// The model of the generator is not used by the exploration workers, so we can restore it to the solution.
+		getModel().restore(solution.version());
+		streamingSolution = true;
+		try {
+			listener.solutionFound(this);
+		} finally {
+			streamingSolution = false;
 		}
-		getModel().restore(solutions.getFirst().version());
-		solutionStore = bestFirst.getSolutionStore();
-		return GeneratorResult.SUCCESS;
 	}
 
 	@Override
@@ -127,8 +179,12 @@ public class ModelGeneratorImpl extends ConcreteModelFacade implements ModelGene
 	}
 
 	private void checkSuccessfulGeneration() {
-		if (!isLastGenerationSuccessful()) {
+		if (!isLastGenerationSuccessful() && !isStreamingSolution()) {
 			throw new IllegalStateException("No generated model is available");
 		}
 	}
+
+	private synchronized boolean isStreamingSolution() {
+		return streamingSolution;
+	}
 }
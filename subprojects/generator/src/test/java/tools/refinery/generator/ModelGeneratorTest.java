@@ -0,0 +1,87 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.generator;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import org.junit.jupiter.api.Test;
+import tools.refinery.language.tests.InjectWithRefinery;
+import tools.refinery.logic.term.truthvalue.TruthValue;
+import tools.refinery.store.map.Cursor;
+import tools.refinery.store.map.Version;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@InjectWithRefinery
+class ModelGeneratorTest {
+	private static final String PROBLEM = """
+			class Foo.
+			scope Foo = 2..4.
+			""";
+
+	@Inject
+	private ProblemLoader loader;
+
+	@Inject
+	private Provider<ModelGeneratorFactory> generatorFactoryProvider;
+
+	@Test
+	void solutionListenerTest() throws IOException {
+		var problem = loader.loadString(PROBLEM);
+		try (var generator = generatorFactoryProvider.get().createGenerator(problem)) {
+			generator.setMaxNumberOfSolutions(3);
+			var foo = generator.getProblemTrace().getPartialRelation("Foo");
+			var streamedStates = new ArrayList<Version>();
+			generator.setSolutionListener(solutionGenerator -> {
+				streamedStates.add(solutionGenerator.getModel().getState());
+				int fooCount = countTrue(solutionGenerator.getPartialInterpretation(foo).getAll());
+				assertThat(fooCount >= 2 && fooCount <= 4, is(true));
+			});
+			generator.generate();
+
+			assertThat(new HashSet<>(streamedStates), hasSize(streamedStates.size()));
+			int solutionCount = generator.getSolutionCount();
+			assertThat(solutionCount > 0, is(true));
+			var solutionStates = new ArrayList<Version>(solutionCount);
+			for (int i = 0; i < solutionCount; i++) {
+				generator.loadSolution(i);
+				solutionStates.add(generator.getModel().getState());
+			}
+			assertThat(streamedStates.containsAll(solutionStates), is(true));
+		}
+	}
+
+	@Test
+	void failingSolutionListenerTest() throws IOException {
+		var problem = loader.loadString(PROBLEM);
+		try (var generator = generatorFactoryProvider.get().createGenerator(problem)) {
+			var initialState = generator.getModel().getState();
+			generator.setSolutionListener(ignoredGenerator -> {
+				throw new IllegalStateException("Solution rejected by listener");
+			});
+			assertThrows(IllegalStateException.class, generator::tryGenerate);
+			assertThat(generator.isLastGenerationSuccessful(), is(false));
+			assertThat(generator.getModel().getState(), is(initialState));
+		}
+	}
+
+	private static int countTrue(Cursor<?, TruthValue> cursor) {
+		int count = 0;
+		while (cursor.move()) {
+			if (cursor.getValue() == TruthValue.TRUE) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.rete.matcher;
+
+import tools.refinery.interpreter.matchers.backend.IQueryBackend;
+import tools.refinery.interpreter.matchers.context.IQueryBackendContext;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A {@link ReteBackendFactory} implementation that creates {@link ReteEngine}s that propagate updates through
+ * independent subnetworks of the RETE network concurrently.
+ * <p>
+ * Update listeners of the created engines may be called from the threads of the pool, but never concurrently for the
+ * same query.
+ * </p>
+ *
+ * @since 2.4
+ */
+public class ParallelReteBackendFactory extends ReteBackendFactory {
+	public static final ParallelReteBackendFactory COMMON_POOL = new ParallelReteBackendFactory(
+			ForkJoinPool.commonPool());
+
+	private final ForkJoinPool pool;
+	private final boolean deleteAndRederiveEvaluation;
+
+	public ParallelReteBackendFactory(ForkJoinPool pool) {
+		this(pool, false);
+	}
+
+	/**
+	 * @param pool                        the pool delivering the messages of independent subnetworks
+	 * @param deleteAndRederiveEvaluation whether the created engines use delete and re-derive evaluation, as in
+	 *                                    {@link DRedReteBackendFactory}
+	 */
+	public ParallelReteBackendFactory(ForkJoinPool pool, boolean deleteAndRederiveEvaluation) {
+		this.pool = Objects.requireNonNull(pool);
+		this.deleteAndRederiveEvaluation = deleteAndRederiveEvaluation;
+	}
+
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	public boolean isDeleteAndRederiveEvaluation() {
+		return deleteAndRederiveEvaluation;
+	}
+
+	@Override
+	public IQueryBackend create(IQueryBackendContext context) {
+		return create(context, deleteAndRederiveEvaluation, null);
+	}
+
+	@Override
+	public IQueryBackend create(IQueryBackendContext context, boolean deleteAndRederiveEvaluation,
+								TimelyConfiguration timelyConfiguration) {
+		var engine = (ReteEngine) super.create(context, deleteAndRederiveEvaluation, timelyConfiguration);
+		engine.setPropagationExecutor(pool);
+		return engine;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(ParallelReteBackendFactory.class, pool, deleteAndRederiveEvaluation);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		return obj instanceof ParallelReteBackendFactory other && pool == other.pool &&
+				deleteAndRederiveEvaluation == other.deleteAndRederiveEvaluation;
+	}
+}
@@ -32,6 +32,7 @@ import java.util.Collection;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 /**
  * @author Gabor Bergmann
@@ -68,6 +69,8 @@ public class ReteEngine implements IQueryBackend {
 
     private HintConfigurator hintConfigurator;
 
+	private ExecutorService propagationExecutor;
+
     /**
      * @param context
      *            the context of the pattern matcher, conveying all information from the outside world.
@@ -95,6 +98,27 @@ public class ReteEngine implements IQueryBackend {
         this.compiler = null;
     }
 
+	/**
+	 * @since 2.4
+	 */
+	public ExecutorService getPropagationExecutor() {
+		return propagationExecutor;
+	}
+
+	/**
+	 * Sets the executor used to propagate updates through independent subnetworks of the RETE network concurrently.
+	 *
+	 * @param propagationExecutor the executor to use, or {@code null} to propagate updates on the calling thread
+	 * @see Network#setPropagationExecutor(ExecutorService)
+	 * @since 2.4
+	 */
+	public void setPropagationExecutor(ExecutorService propagationExecutor) {
+		this.propagationExecutor = propagationExecutor;
+		if (reteNet != null) {
+			reteNet.setPropagationExecutor(propagationExecutor);
+		}
+	}
+
     /**
      * @since 1.6
      */
@@ -128,6 +152,7 @@ public class ReteEngine implements IQueryBackend {
         this.hintConfigurator = new HintConfigurator(context.getHintProvider());
 
         this.reteNet = new Network(reteThreads, this);
+		this.reteNet.setPropagationExecutor(propagationExecutor);
         this.boundary = new ReteBoundary(this); // prerequisite: network
 
         this.matchers = CollectionsFactory.createMap();
@@ -143,7 +168,7 @@ public class ReteEngine implements IQueryBackend {
     @Override
     public void flushUpdates() {
         for (ReteContainer container : this.reteNet.getContainers()) {
-            container.deliverMessagesSingleThreaded();
+            container.deliverMessages();
         }
     }
 
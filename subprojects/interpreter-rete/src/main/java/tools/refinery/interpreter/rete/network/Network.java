@@ -21,6 +21,7 @@ import tools.refinery.interpreter.rete.util.Options;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -56,6 +57,8 @@ public class Network {
     Map<ReteNodeRecipe, Address<? extends Node>> nodesByRecipe = CollectionsFactory.createMap();
     Set<RecipeTraceInfo> recipeTraces = CollectionsFactory.createSet();
 
+	private ExecutorService propagationExecutor;
+
     /**
      * @throws IllegalStateException
      *             if no node has been constructed for the recipe
@@ -339,7 +342,7 @@ public class Network {
                 }
             }
         } else
-            headContainer.deliverMessagesSingleThreaded();
+            headContainer.deliverMessages();
     }
 
     /**
@@ -365,7 +368,7 @@ public class Network {
                 action.run();
             }
         } else {
-            headContainer.deliverMessagesSingleThreaded();
+            headContainer.deliverMessages();
             action.run();
         }
 
@@ -401,4 +404,25 @@ public class Network {
         return engine;
     }
 
+	/**
+	 * @return the executor delivering independent subnetworks concurrently, or {@code null} if messages are delivered
+	 * on the calling thread
+	 * @since 2.4
+	 */
+	public ExecutorService getPropagationExecutor() {
+		return propagationExecutor;
+	}
+
+	/**
+	 * Sets the executor used to deliver the messages of independent subnetworks concurrently in single-threaded
+	 * operation mode. Timely evaluation always delivers messages on the calling thread.
+	 *
+	 * @param propagationExecutor the executor to use, or {@code null} to deliver messages on the calling thread
+	 * @see tools.refinery.interpreter.rete.network.communication.CommunicationTracker#deliverSubnetworksConcurrently
+	 * @since 2.4
+	 */
+	public void setPropagationExecutor(ExecutorService propagationExecutor) {
+		this.propagationExecutor = propagationExecutor;
+	}
+
 }
@@ -26,6 +26,7 @@ import tools.refinery.interpreter.matchers.tuple.Tuple;
 import tools.refinery.interpreter.matchers.util.Clearable;
 import tools.refinery.interpreter.matchers.util.CollectionsFactory;
 import tools.refinery.interpreter.matchers.util.Direction;
+import tools.refinery.interpreter.matchers.util.IntegerValueEncoding;
 import tools.refinery.interpreter.matchers.util.timeline.Timeline;
 import tools.refinery.interpreter.rete.matcher.TimelyConfiguration;
 import tools.refinery.interpreter.rete.remote.Address;
@@ -34,6 +35,7 @@ import tools.refinery.interpreter.rete.single.TrimmerNode;
 import tools.refinery.interpreter.rete.util.Options;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 
 /**
@@ -75,6 +77,8 @@ public final class ReteContainer {
 
 	private final CancellationToken cancellationToken;
 
+	private final IntegerValueEncoding integerValueEncoding;
+
     /**
      * @param threaded
      *            false if operating in a single-threaded environment
@@ -85,6 +89,7 @@ public final class ReteContainer {
         this.backendContext = network.getEngine().getBackendContext();
         this.timelyConfiguration = network.getEngine().getTimelyConfiguration();
 		cancellationToken = backendContext.getRuntimeContext().getCancellationToken();
+		integerValueEncoding = backendContext.getRuntimeContext().getIntegerValueEncoding();
 
         this.delayedCommandQueue = new LinkedHashSet<DelayedCommand>();
         this.delayedCommandBuffer = new LinkedHashSet<DelayedCommand>();
@@ -130,6 +135,14 @@ public final class ReteContainer {
         return this.timelyConfiguration;
     }
 
+	/**
+	 * Returns the encoding of model elements that indexer memories may store as primitive <code>int</code> values.
+	 * @since 2.4
+	 */
+	public IntegerValueEncoding getIntegerValueEncoding() {
+		return integerValueEncoding;
+	}
+
     /**
      * @since 1.6
      * @return the communication graph of the nodes, incl. message scheduling
@@ -583,6 +596,41 @@ public final class ReteContainer {
         }
     }
 
+	/**
+	 * Sends out all pending messages to their receivers, such that independent subnetworks are delivered concurrently
+	 * by the given executor. Returns only after all messages have been delivered.
+	 *
+	 * @see CommunicationTracker#deliverSubnetworksConcurrently(ExecutorService)
+	 * @since 2.4
+	 */
+	public void deliverMessagesConcurrently(ExecutorService executor) {
+		if (backendContext.areUpdatesDelayed()) {
+			return;
+		}
+		while (!tracker.isEmpty()) {
+			if (!tracker.deliverSubnetworksConcurrently(executor)) {
+				// Deliver shared nodes one by one until the rest of the network can be split into subnetworks.
+				tracker.getAndRemoveFirstGroup().deliverMessages();
+			}
+		}
+	}
+
+	/**
+	 * Sends out all pending messages to their receivers, concurrently if a propagation executor was set for the
+	 * network.
+	 *
+	 * @see Network#setPropagationExecutor(ExecutorService)
+	 * @since 2.4
+	 */
+	public void deliverMessages() {
+		var executor = network.getPropagationExecutor();
+		if (executor == null || isTimelyEvaluation()) {
+			deliverMessagesSingleThreaded();
+		} else {
+			deliverMessagesConcurrently(executor);
+		}
+	}
+
     private void localUpdateTermination(long incrementedClock) {
         network.reportLocalUpdateTermination(this, incrementedClock, terminationCriteria);
         terminationCriteria.clear();
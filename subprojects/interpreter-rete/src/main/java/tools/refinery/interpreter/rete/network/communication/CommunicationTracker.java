@@ -28,6 +28,10 @@ import tools.refinery.interpreter.rete.single.TransitiveClosureNode;
 import tools.refinery.interpreter.rete.single.TrimmerNode;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * An instance of this class is associated with every {@link ReteContainer}. The tracker serves two purposes: <br>
@@ -45,6 +49,8 @@ import java.util.*;
  */
 public abstract class CommunicationTracker {
 
+	private static final int SHARED_SUBNETWORK = -1;
+
     /**
      * The minimum group id assigned so far
      */
@@ -75,6 +81,19 @@ public abstract class CommunicationTracker {
      */
     protected final Queue<CommunicationGroup> groupQueue;
 
+	/**
+	 * Precomputed node -> independent subnetwork index map, or {@code null} if the dependency graph has changed since
+	 * the last computation
+	 */
+	private Map<Node, Integer> subnetworkMap;
+
+	/**
+	 * Priority queue of the active communication groups of the subnetwork delivered by the current thread
+	 */
+	private final ThreadLocal<Queue<CommunicationGroup>> subnetworkGroupQueue = new ThreadLocal<>();
+
+	private volatile boolean deliveringSubnetworks;
+
     // groups should have a simple integer flag which represents its position in a priority queue
     // priority queue only contains the ACTIVE groups
 
@@ -117,6 +136,7 @@ public abstract class CommunicationTracker {
 
     private void precomputeGroups() {
         groupMap.clear();
+		subnetworkMap = null;
 
         // reconstruct group map from dependency graph
         final Graph<Node> reducedGraph = getReducedGraph();
@@ -260,17 +280,17 @@ public abstract class CommunicationTracker {
     }
 
     public void activateUnenqueued(final CommunicationGroup group) {
-        groupQueue.add(group);
+        getActiveGroupQueue().add(group);
         group.isEnqueued = true;
     }
 
     public void deactivate(final CommunicationGroup group) {
-        groupQueue.remove(group);
+        getActiveGroupQueue().remove(group);
         group.isEnqueued = false;
     }
 
     public CommunicationGroup getAndRemoveFirstGroup() {
-        final CommunicationGroup group = groupQueue.poll();
+        final CommunicationGroup group = getActiveGroupQueue().poll();
 		if (group == null) {
 			throw new IllegalStateException("Group queue must not be empty");
 		}
@@ -279,9 +299,161 @@ public abstract class CommunicationTracker {
     }
 
     public boolean isEmpty() {
-        return groupQueue.isEmpty();
+        return getActiveGroupQueue().isEmpty();
     }
 
+	private Queue<CommunicationGroup> getActiveGroupQueue() {
+		if (!deliveringSubnetworks) {
+			return groupQueue;
+		}
+		final Queue<CommunicationGroup> queue = subnetworkGroupQueue.get();
+		if (queue == null) {
+			throw new IllegalStateException("Cannot schedule messages outside of a subnetwork during concurrent " +
+					"delivery");
+		}
+		return queue;
+	}
+
+	/**
+	 * Delivers the messages of the active groups, such that independent subnetworks of the RETE network are delivered
+	 * concurrently.
+	 * <p>
+	 * Two nodes belong to the same subnetwork if they are connected in the dependency graph (ignoring the direction of
+	 * the edges), or one of them is an indexer of the other. External input nodes and their indexers are shared
+	 * between subnetworks, because they are only read while the other nodes are being updated. Therefore, concurrent
+	 * delivery may only start when the shared nodes have no pending messages. Each subnetwork is delivered by a single
+	 * task in topological order, and this method only returns after all tasks have finished.
+	 * </p>
+	 * <p>
+	 * Listeners notified by the nodes (e.g., by production nodes) must tolerate being called from multiple threads.
+	 * The structure of the network must not change during the delivery.
+	 * </p>
+	 *
+	 * @param executor the executor to run the delivery tasks on
+	 * @return {@code false} if a shared node has pending messages, in which case nothing was delivered
+	 * @since 2.4
+	 */
+	public boolean deliverSubnetworksConcurrently(final ExecutorService executor) {
+		if (deliveringSubnetworks) {
+			throw new IllegalStateException("Subnetworks are already being delivered");
+		}
+		final Map<Integer, Queue<CommunicationGroup>> subnetworkQueues = new HashMap<>();
+		for (final CommunicationGroup group : groupQueue) {
+			final int subnetwork = getSubnetworkIndex(group.getRepresentative());
+			if (subnetwork == SHARED_SUBNETWORK) {
+				return false;
+			}
+			subnetworkQueues.computeIfAbsent(subnetwork, key -> new PriorityQueue<>()).add(group);
+		}
+		if (subnetworkQueues.size() <= 1) {
+			// Not worth scheduling a task if there is nothing to deliver concurrently.
+			while (!isEmpty()) {
+				getAndRemoveFirstGroup().deliverMessages();
+			}
+			return true;
+		}
+		groupQueue.clear();
+		final List<Callable<Void>> tasks = new ArrayList<>(subnetworkQueues.size());
+		for (final Queue<CommunicationGroup> queue : subnetworkQueues.values()) {
+			tasks.add(() -> {
+				deliverSubnetwork(queue);
+				return null;
+			});
+		}
+		deliveringSubnetworks = true;
+		try {
+			for (final Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while delivering messages", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException("Failed to deliver messages", e.getCause());
+		} finally {
+			deliveringSubnetworks = false;
+			// Groups left behind by failed tasks are kept for the next delivery.
+			for (final Queue<CommunicationGroup> queue : subnetworkQueues.values()) {
+				groupQueue.addAll(queue);
+			}
+		}
+		return true;
+	}
+
+	private void deliverSubnetwork(final Queue<CommunicationGroup> queue) {
+		subnetworkGroupQueue.set(queue);
+		try {
+			while (!queue.isEmpty()) {
+				getAndRemoveFirstGroup().deliverMessages();
+			}
+		} finally {
+			subnetworkGroupQueue.remove();
+		}
+	}
+
+	private int getSubnetworkIndex(final Node node) {
+		if (subnetworkMap == null) {
+			subnetworkMap = computeSubnetworks();
+		}
+		return subnetworkMap.getOrDefault(node, SHARED_SUBNETWORK);
+	}
+
+	private Map<Node, Integer> computeSubnetworks() {
+		// Indexers are updated by their active nodes and read by their listeners, so they are coupled to both.
+		final Map<Node, List<Node>> coupledNodes = new HashMap<>();
+		for (final Node node : dependencyGraph.getAllNodes()) {
+			if (node instanceof Indexer indexer) {
+				couple(coupledNodes, indexer, indexer.getActiveNode());
+				couple(coupledNodes, indexer, indexer.getParent());
+			}
+		}
+		final Map<Node, Integer> subnetworks = new HashMap<>();
+		final Deque<Node> stack = new ArrayDeque<>();
+		int subnetworkCount = 0;
+		for (final Node node : dependencyGraph.getAllNodes()) {
+			if (subnetworks.containsKey(node) || isShared(node)) {
+				continue;
+			}
+			final int subnetwork = subnetworkCount;
+			subnetworkCount++;
+			subnetworks.put(node, subnetwork);
+			stack.push(node);
+			while (!stack.isEmpty()) {
+				final Node current = stack.pop();
+				final List<Node> neighbors = new ArrayList<>(coupledNodes.getOrDefault(current, List.of()));
+				if (dependencyGraph.getAllNodes().contains(current)) {
+					neighbors.addAll(dependencyGraph.getTargetNodes(current).distinctValues());
+					neighbors.addAll(dependencyGraph.getSourceNodes(current).distinctValues());
+				}
+				for (final Node neighbor : neighbors) {
+					if (!isShared(neighbor) && subnetworks.putIfAbsent(neighbor, subnetwork) == null) {
+						stack.push(neighbor);
+					}
+				}
+			}
+		}
+		return subnetworks;
+	}
+
+	private static void couple(final Map<Node, List<Node>> coupledNodes, final Node first, final Node second) {
+		if (second == null || first == second) {
+			return;
+		}
+		coupledNodes.computeIfAbsent(first, key -> new ArrayList<>()).add(second);
+		coupledNodes.computeIfAbsent(second, key -> new ArrayList<>()).add(first);
+	}
+
+	private static boolean isShared(final Node node) {
+		if (node instanceof Indexer indexer) {
+			return indexer.getActiveNode() instanceof ExternalInputEnumeratorNode ||
+					indexer.getParent() instanceof ExternalInputEnumeratorNode;
+		}
+		return node instanceof ExternalInputEnumeratorNode;
+	}
+
     protected abstract CommunicationGroup createGroup(final Node representative, final int index);
 
     protected CommunicationGroup createAndStoreGroup(final Node representative, final int index) {
@@ -315,6 +487,7 @@ public abstract class CommunicationTracker {
 
             // insert the edge
             dependencyGraph.insertEdge(source, target);
+			subnetworkMap = null;
 
             // create groups if they do not yet exist
             CommunicationGroup sourceGroup = groupMap.get(sourceRepresentative);
@@ -395,6 +568,7 @@ public abstract class CommunicationTracker {
     public void unregisterDependency(final Node source, final Node target) {
         // delete the edge first, and then query the SCC info provider
         this.dependencyGraph.deleteEdgeIfExists(source, target);
+		subnetworkMap = null;
 
         final Node sourceRepresentative = getRepresentative(source);
         final Node targetRepresentative = getRepresentative(target);
@@ -15,6 +15,7 @@ import tools.refinery.interpreter.matchers.tuple.ITuple;
 import tools.refinery.interpreter.matchers.tuple.Tuple;
 import tools.refinery.interpreter.matchers.tuple.TupleMask;
 import tools.refinery.interpreter.matchers.util.Accuracy;
+import tools.refinery.interpreter.matchers.util.IntegerValueEncoding;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.Optional;
@@ -284,4 +285,12 @@ public interface IQueryRuntimeContext {
 	default CancellationToken getCancellationToken() {
 		return CancellationToken.NONE;
 	}
+
+	/**
+	 * Returns the encoding of model elements that indexer memories may store as primitive <code>int</code> values.
+	 * @since 2.4
+	 */
+	default IntegerValueEncoding getIntegerValueEncoding() {
+		return IntegerValueEncoding.INTEGERS;
+	}
 }
@@ -22,6 +22,7 @@ import tools.refinery.interpreter.matchers.tuple.Tuple;
 import tools.refinery.interpreter.matchers.tuple.TupleMask;
 import tools.refinery.interpreter.matchers.util.Clearable;
 import tools.refinery.interpreter.matchers.util.CollectionsFactory.MemoryType;
+import tools.refinery.interpreter.matchers.util.IntegerValueEncoding;
 import tools.refinery.interpreter.matchers.util.resumable.MaskedResumable;
 import tools.refinery.interpreter.matchers.util.timeline.Diff;
 import tools.refinery.interpreter.matchers.util.timeline.Timeline;
@@ -77,6 +78,21 @@ public abstract class MaskedTupleMemory<Timestamp extends Comparable<Timestamp>>
      */
     public static <T extends Comparable<T>> MaskedTupleMemory<T> create(final TupleMask mask,
             final MemoryType bucketType, final Object owner, final boolean isTimely, final boolean isLazy) {
+        return create(mask, bucketType, owner, isTimely, isLazy, null);
+    }
+
+    /**
+     * Creates a new memory for the given owner that indexes tuples according to the given mask, as in
+     * {@link #create(TupleMask, MemoryType, Object, boolean, boolean)}. <br>
+     * <br>
+     * If an integer value encoding is given, timeless memories of binary signatures store the signatures of encodable
+     * elements as primitive keys.
+     *
+     * @since 2.4
+     */
+    public static <T extends Comparable<T>> MaskedTupleMemory<T> create(final TupleMask mask,
+            final MemoryType bucketType, final Object owner, final boolean isTimely, final boolean isLazy,
+            final IntegerValueEncoding integerValueEncoding) {
         if (isTimely) {
             if (bucketType != MemoryType.SETS) {
                 throw new IllegalArgumentException("Timely memories only support SETS as the bucket type!");
@@ -100,6 +116,9 @@ public abstract class MaskedTupleMemory<Timestamp extends Comparable<Timestamp>>
                 return new NullaryMaskedTupleMemory<T>(mask, bucketType, owner);
             } else if (1 == mask.getSize()) {
                 return new UnaryMaskedTupleMemory<T>(mask, bucketType, owner);
+            } else if (integerValueEncoding != null && bucketType == MemoryType.SETS
+                    && PackedMaskedTupleMemory.SIGNATURE_SIZE == mask.getSize()) {
+                return new PackedMaskedTupleMemory<T>(mask, integerValueEncoding, owner);
             } else {
                 return new DefaultMaskedTupleMemory<T>(mask, bucketType, owner);
             }
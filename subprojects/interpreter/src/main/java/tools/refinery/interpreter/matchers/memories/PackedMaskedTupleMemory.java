@@ -0,0 +1,262 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.matchers.memories;
+
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+import tools.refinery.interpreter.matchers.tuple.ITuple;
+import tools.refinery.interpreter.matchers.tuple.Tuple;
+import tools.refinery.interpreter.matchers.tuple.TupleMask;
+import tools.refinery.interpreter.matchers.util.CollectionsFactory;
+import tools.refinery.interpreter.matchers.util.CollectionsFactory.MemoryType;
+import tools.refinery.interpreter.matchers.util.IMultiLookup;
+import tools.refinery.interpreter.matchers.util.IMultiLookup.ChangeGranularity;
+import tools.refinery.interpreter.matchers.util.IntegerValueEncoding;
+import tools.refinery.interpreter.matchers.util.timeline.Timeline;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Specialized for timeless masks of size {@link #SIGNATURE_SIZE} with set buckets. Signatures consisting of elements
+ * encodable by the given {@link IntegerValueEncoding} are packed into a primitive <code>long</code> key, so no
+ * signature tuples have to be kept in the memory. Other signatures are indexed by their projection tuple as in
+ * {@link DefaultMaskedTupleMemory}.
+ *
+ * @since 2.4
+ */
+public final class PackedMaskedTupleMemory<Timestamp extends Comparable<Timestamp>>
+		extends MaskedTupleMemory<Timestamp> {
+	/**
+	 * The mask size whose signatures can be packed into a <code>long</code> key.
+	 */
+	public static final int SIGNATURE_SIZE = 2;
+
+	private final IntegerValueEncoding encoding;
+	private final int keyPosition0;
+	private final int keyPosition1;
+
+	/**
+	 * Maps a packed signature to the single tuple with the given signature, or to the {@link Set} of tuples if there
+	 * are several of them.
+	 */
+	private final LongObjectHashMap<Object> packedSignatureToTuples = new LongObjectHashMap<>();
+
+	private IMultiLookup<Tuple, Tuple> signatureToTuples;
+
+	/**
+	 * @param mask     The mask used to index the matchings
+	 * @param encoding the encoding of tuple elements that are stored as primitive values
+	 * @param owner    the object "owning" this memory
+	 */
+	public PackedMaskedTupleMemory(TupleMask mask, IntegerValueEncoding encoding, Object owner) {
+		super(mask, owner);
+		if (mask.getSize() != SIGNATURE_SIZE) {
+			throw new IllegalArgumentException(mask.toString());
+		}
+		this.encoding = encoding;
+		keyPosition0 = mask.indices[0];
+		keyPosition1 = mask.indices[1];
+	}
+
+	@Override
+	public boolean add(Tuple tuple) {
+		if (isPackable(tuple, keyPosition0, keyPosition1)) {
+			return addPacked(tuple, pack(tuple, keyPosition0, keyPosition1));
+		}
+		return addUnpacked(tuple, mask.transform(tuple));
+	}
+
+	@Override
+	public boolean add(Tuple tuple, Tuple signature) {
+		if (isPackable(tuple, keyPosition0, keyPosition1)) {
+			return addPacked(tuple, pack(tuple, keyPosition0, keyPosition1));
+		}
+		return addUnpacked(tuple, signature);
+	}
+
+	@Override
+	public boolean remove(Tuple tuple) {
+		if (isPackable(tuple, keyPosition0, keyPosition1)) {
+			return removePacked(tuple, pack(tuple, keyPosition0, keyPosition1));
+		}
+		return removeUnpacked(tuple, mask.transform(tuple));
+	}
+
+	@Override
+	public boolean remove(Tuple tuple, Tuple signature) {
+		if (isPackable(tuple, keyPosition0, keyPosition1)) {
+			return removePacked(tuple, pack(tuple, keyPosition0, keyPosition1));
+		}
+		return removeUnpacked(tuple, signature);
+	}
+
+	private boolean addPacked(Tuple tuple, long key) {
+		var value = packedSignatureToTuples.get(key);
+		if (value == null) {
+			packedSignatureToTuples.put(key, tuple);
+			return true;
+		}
+		if (value instanceof Tuple singleTuple) {
+			if (singleTuple.equals(tuple)) {
+				throw raiseDuplicateInsertion(tuple);
+			}
+			Set<Tuple> bucket = CollectionsFactory.createSet();
+			bucket.add(singleTuple);
+			bucket.add(tuple);
+			packedSignatureToTuples.put(key, bucket);
+			return false;
+		}
+		if (!asBucket(value).add(tuple)) {
+			throw raiseDuplicateInsertion(tuple);
+		}
+		return false;
+	}
+
+	private boolean addUnpacked(Tuple tuple, Tuple signature) {
+		if (signatureToTuples == null) {
+			signatureToTuples = CollectionsFactory.createMultiLookup(Object.class, MemoryType.SETS, Object.class);
+		}
+		try {
+			return signatureToTuples.addPair(signature, tuple) == ChangeGranularity.KEY;
+		} catch (IllegalStateException ex) { // ignore worthless internal exception details
+			throw raiseDuplicateInsertion(tuple);
+		}
+	}
+
+	private boolean removePacked(Tuple tuple, long key) {
+		var value = packedSignatureToTuples.get(key);
+		if (value == null) {
+			throw raiseDuplicateDeletion(tuple);
+		}
+		if (value instanceof Tuple singleTuple) {
+			if (!singleTuple.equals(tuple)) {
+				throw raiseDuplicateDeletion(tuple);
+			}
+			packedSignatureToTuples.remove(key);
+			return true;
+		}
+		var bucket = asBucket(value);
+		if (!bucket.remove(tuple)) {
+			throw raiseDuplicateDeletion(tuple);
+		}
+		if (bucket.size() == 1) {
+			packedSignatureToTuples.put(key, bucket.iterator().next());
+		}
+		return false;
+	}
+
+	private boolean removeUnpacked(Tuple tuple, Tuple signature) {
+		if (signatureToTuples == null) {
+			throw raiseDuplicateDeletion(tuple);
+		}
+		try {
+			return signatureToTuples.removePair(signature, tuple) == ChangeGranularity.KEY;
+		} catch (IllegalStateException ex) { // ignore worthless internal exception details
+			throw raiseDuplicateDeletion(tuple);
+		}
+	}
+
+	@Override
+	public Map<Tuple, Timeline<Timestamp>> getWithTimeline(ITuple signature) {
+		throw new UnsupportedOperationException("Timeless memories do not support timestamp-based lookup!");
+	}
+
+	@Override
+	public Collection<Tuple> get(ITuple signature) {
+		if (isPackable(signature, 0, 1)) {
+			var value = packedSignatureToTuples.get(pack(signature, 0, 1));
+			if (value == null) {
+				return null;
+			}
+			if (value instanceof Tuple singleTuple) {
+				return Collections.singleton(singleTuple);
+			}
+			return Collections.unmodifiableSet(asBucket(value));
+		}
+		if (signatureToTuples == null) {
+			return null;
+		}
+		var bucket = signatureToTuples.lookupUnsafe(signature);
+		return bucket == null ? null : bucket.distinctValues();
+	}
+
+	@Override
+	public void clear() {
+		packedSignatureToTuples.clear();
+		signatureToTuples = null;
+	}
+
+	@Override
+	public Iterable<Tuple> getSignatures() {
+		return () -> {
+			Stream<Tuple> packedSignatures = packedSignatureToTuples.values().stream()
+					.map(value -> mask.transform(getRepresentative(value)));
+			if (signatureToTuples == null) {
+				return packedSignatures.iterator();
+			}
+			return Stream.concat(packedSignatures, signatureToTuples.distinctKeysStream()).iterator();
+		};
+	}
+
+	@Override
+	public Iterator<Tuple> iterator() {
+		Stream<Tuple> packedTuples = packedSignatureToTuples.values().stream()
+				.flatMap(PackedMaskedTupleMemory::streamValue);
+		if (signatureToTuples == null) {
+			return packedTuples.iterator();
+		}
+		return Stream.concat(packedTuples, signatureToTuples.distinctValuesStream()).iterator();
+	}
+
+	@Override
+	public int getTotalSize() {
+		int i = 0;
+		for (var value : packedSignatureToTuples.values()) {
+			i += value instanceof Tuple ? 1 : asBucket(value).size();
+		}
+		if (signatureToTuples != null) {
+			for (Tuple key : signatureToTuples.distinctKeys()) {
+				i += signatureToTuples.lookup(key).size();
+			}
+		}
+		return i;
+	}
+
+	@Override
+	public int getKeysetSize() {
+		int keysetSize = packedSignatureToTuples.size();
+		if (signatureToTuples != null) {
+			keysetSize += signatureToTuples.countKeys();
+		}
+		return keysetSize;
+	}
+
+	private boolean isPackable(ITuple tuple, int position0, int position1) {
+		return encoding.isEncodable(tuple.get(position0)) && encoding.isEncodable(tuple.get(position1));
+	}
+
+	private long pack(ITuple tuple, int position0, int position1) {
+		long value0 = encoding.encode(tuple.get(position0)) & 0xFFFFFFFFL;
+		return (value0 << 32) | (encoding.encode(tuple.get(position1)) & 0xFFFFFFFFL);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Set<Tuple> asBucket(Object value) {
+		return (Set<Tuple>) value;
+	}
+
+	private static Tuple getRepresentative(Object value) {
+		return value instanceof Tuple singleTuple ? singleTuple : asBucket(value).iterator().next();
+	}
+
+	private static Stream<Tuple> streamValue(Object value) {
+		return value instanceof Tuple singleTuple ? Stream.of(singleTuple) : asBucket(value).stream();
+	}
+}
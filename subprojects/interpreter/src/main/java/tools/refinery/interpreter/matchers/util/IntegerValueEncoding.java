@@ -0,0 +1,34 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.matchers.util;
+
+/**
+ * Encodes tuple elements of a single class injectively as <code>int</code> values.
+ * <p>
+ * Memories may use the encoding to store signatures of encodable elements as primitive keys instead of {@code Tuple}
+ * instances. Elements of other classes must be reported as not encodable, and elements that are not equal must not
+ * have the same encoding.
+ * </p>
+ *
+ * @since 2.4
+ */
+public interface IntegerValueEncoding {
+	IntegerValueEncoding INTEGERS = new IntegerValueEncoding() {
+		@Override
+		public boolean isEncodable(Object value) {
+			return value instanceof Integer;
+		}
+
+		@Override
+		public int encode(Object value) {
+			return (Integer) value;
+		}
+	};
+
+	boolean isEncodable(Object value);
+
+	int encode(Object value);
+}
@@ -0,0 +1,123 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.tests;
+
+import org.junit.Test;
+import tools.refinery.interpreter.matchers.memories.DefaultMaskedTupleMemory;
+import tools.refinery.interpreter.matchers.memories.IdentityMaskedTupleMemory;
+import tools.refinery.interpreter.matchers.memories.MaskedTupleMemory;
+import tools.refinery.interpreter.matchers.memories.PackedMaskedTupleMemory;
+import tools.refinery.interpreter.matchers.memories.UnaryMaskedTupleMemory;
+import tools.refinery.interpreter.matchers.tuple.Tuple;
+import tools.refinery.interpreter.matchers.tuple.TupleMask;
+import tools.refinery.interpreter.matchers.tuple.Tuples;
+import tools.refinery.interpreter.matchers.util.CollectionsFactory.MemoryType;
+import tools.refinery.interpreter.matchers.util.IntegerValueEncoding;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the behaviour of {@link PackedMaskedTupleMemory} for packable and non-packable signatures.
+ */
+public class PackedMaskedTupleMemoryTest {
+	private static final TupleMask BINARY_MASK = TupleMask.fromSelectedIndices(3, new int[]{2, 0});
+	private static final TupleMask UNARY_MASK = TupleMask.selectSingle(1, 3);
+
+	private static final Tuple TUPLE_1 = Tuples.staticArityFlatTupleOf(1, 2, 3);
+	private static final Tuple TUPLE_2 = Tuples.staticArityFlatTupleOf(1, 4, 3);
+	private static final Tuple TUPLE_3 = Tuples.staticArityFlatTupleOf(-1, 2, Integer.MAX_VALUE);
+	private static final Tuple TUPLE_4 = Tuples.staticArityFlatTupleOf(1, "foo", "bar");
+	private static final Tuple TUPLE_5 = Tuples.staticArityFlatTupleOf(1, "baz", "bar");
+
+	@Test
+	public void createSelectsPackedMemory() {
+		assertTrue(create(BINARY_MASK, MemoryType.SETS, IntegerValueEncoding.INTEGERS)
+				instanceof PackedMaskedTupleMemory<?>);
+		assertTrue(create(BINARY_MASK, MemoryType.MULTISETS, IntegerValueEncoding.INTEGERS)
+				instanceof DefaultMaskedTupleMemory<?>);
+		assertTrue(create(BINARY_MASK, MemoryType.SETS, null) instanceof DefaultMaskedTupleMemory<?>);
+		assertTrue(create(UNARY_MASK, MemoryType.SETS, IntegerValueEncoding.INTEGERS)
+				instanceof UnaryMaskedTupleMemory<?>);
+		assertTrue(create(TupleMask.identity(2), MemoryType.SETS, IntegerValueEncoding.INTEGERS)
+				instanceof IdentityMaskedTupleMemory<?>);
+	}
+
+	@Test
+	public void binaryLookupTest() {
+		var memory = createPacked();
+		assertTrue(memory.add(TUPLE_1));
+		assertFalse(memory.add(TUPLE_2));
+		assertTrue(memory.add(TUPLE_3));
+		assertTrue(memory.add(TUPLE_4));
+		assertFalse(memory.add(TUPLE_5, BINARY_MASK.transform(TUPLE_5)));
+
+		assertEquals(Set.of(TUPLE_1, TUPLE_2), Set.copyOf(memory.get(Tuples.staticArityFlatTupleOf(3, 1))));
+		assertEquals(Set.of(TUPLE_3), Set.copyOf(memory.get(Tuples.staticArityFlatTupleOf(Integer.MAX_VALUE, -1))));
+		assertEquals(Set.of(TUPLE_4, TUPLE_5), Set.copyOf(memory.get(Tuples.staticArityFlatTupleOf("bar", 1))));
+		assertNull(memory.get(Tuples.staticArityFlatTupleOf(1, 3)));
+		assertNull(memory.get(Tuples.staticArityFlatTupleOf("foo", "bar")));
+
+		assertEquals(3, memory.getKeysetSize());
+		assertEquals(5, memory.getTotalSize());
+		assertEquals(Set.of(Tuples.staticArityFlatTupleOf(3, 1), Tuples.staticArityFlatTupleOf(Integer.MAX_VALUE, -1),
+				Tuples.staticArityFlatTupleOf("bar", 1)), toSet(memory.getSignatures()));
+		assertEquals(Set.of(TUPLE_1, TUPLE_2, TUPLE_3, TUPLE_4, TUPLE_5), toSet(memory::iterator));
+
+		assertFalse(memory.remove(TUPLE_1));
+		assertTrue(memory.remove(TUPLE_2, BINARY_MASK.transform(TUPLE_2)));
+		assertFalse(memory.remove(TUPLE_4));
+		assertNull(memory.get(Tuples.staticArityFlatTupleOf(3, 1)));
+		assertEquals(2, memory.getKeysetSize());
+		assertEquals(2, memory.getTotalSize());
+	}
+
+	@Test
+	public void clearTest() {
+		var memory = createPacked();
+		memory.add(TUPLE_1);
+		memory.add(TUPLE_2);
+		memory.add(TUPLE_4);
+
+		memory.clear();
+		assertEquals(0, memory.getKeysetSize());
+		assertEquals(0, memory.getTotalSize());
+		assertNull(memory.get(Tuples.staticArityFlatTupleOf(3, 1)));
+		assertNull(memory.get(Tuples.staticArityFlatTupleOf("bar", 1)));
+		assertTrue(memory.add(TUPLE_1));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void duplicateInsertionTest() {
+		var memory = createPacked();
+		memory.add(TUPLE_1);
+		memory.add(TUPLE_1);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void duplicateDeletionTest() {
+		var memory = createPacked();
+		memory.remove(TUPLE_4);
+	}
+
+	private PackedMaskedTupleMemory<Integer> createPacked() {
+		return new PackedMaskedTupleMemory<>(BINARY_MASK, IntegerValueEncoding.INTEGERS, this);
+	}
+
+	private MaskedTupleMemory<Integer> create(TupleMask mask, MemoryType bucketType, IntegerValueEncoding encoding) {
+		return MaskedTupleMemory.create(mask, bucketType, this, false, false, encoding);
+	}
+
+	private static Set<Tuple> toSet(Iterable<Tuple> tuples) {
+		var set = new HashSet<Tuple>();
+		for (var tuple : tuples) {
+			assertTrue(set.add(tuple));
+		}
+		return set;
+	}
+}
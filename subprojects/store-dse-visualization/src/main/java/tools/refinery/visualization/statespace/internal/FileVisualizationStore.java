@@ -0,0 +1,104 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.visualization.statespace.internal;
+
+import tools.refinery.store.map.Version;
+import tools.refinery.visualization.statespace.VisualizationStore;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Visualization store that writes the explored state space to a DOT file as it is discovered.
+ * <p>
+ * Only the identifiers of the states are kept in memory, so this store is suitable for long explorations. The
+ * written file is only complete after the store is closed. Since the state space is not retained,
+ * {@link #getDesignSpaceStringBuilder()} is not supported.
+ * </p>
+ */
+public class FileVisualizationStore implements VisualizationStore, Closeable {
+	private final Map<Version, Integer> states = new HashMap<>();
+	private final Writer writer;
+	private int transitionCounter = 0;
+	private boolean closed;
+
+	public FileVisualizationStore(Path path) throws IOException {
+		this(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+	}
+
+	public FileVisualizationStore(Writer writer) throws IOException {
+		this.writer = writer;
+		writer.write("""
+				digraph designSpace {
+				nodesep=0
+				ranksep=5
+				node[
+				\tstyle=filled
+				\tfillcolor=white
+				]
+				""");
+	}
+
+	@Override
+	public synchronized void addState(Version state, String label) {
+		if (states.containsKey(state)) {
+			return;
+		}
+		int id = states.size();
+		states.put(state, id);
+		write(id + " [label = \"" + id + " (" + label + ")\"\nURL=\"./" + id + ".svg\"]\n");
+	}
+
+	@Override
+	public synchronized void addSolution(Version state) {
+		write(states.get(state) + " [peripheries = 2]\n");
+	}
+
+	@Override
+	public synchronized void addTransition(Version from, Version to, String label) {
+		write(states.get(from) + " -> " + states.get(to) + " [label=\"" + transitionCounter++ + ": " + label +
+				"\"]\n");
+	}
+
+	@Override
+	public StringBuilder getDesignSpaceStringBuilder() {
+		throw new UnsupportedOperationException("The design space is written to a file instead");
+	}
+
+	@Override
+	public synchronized Map<Version, Integer> getStates() {
+		return Collections.unmodifiableMap(states);
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			writer.write("}\n");
+		} finally {
+			writer.close();
+		}
+	}
+
+	private void write(String text) {
+		if (closed) {
+			throw new IllegalStateException("Visualization store was already closed");
+		}
+		try {
+			writer.write(text);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to write design space", e);
+		}
+	}
+}
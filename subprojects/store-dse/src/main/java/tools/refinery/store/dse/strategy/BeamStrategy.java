@@ -0,0 +1,32 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.strategy;
+
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+
+import java.util.Random;
+
+class BeamStrategy implements ExplorationStrategy {
+	private final int width;
+
+	private BeamStrategy(int width) {
+		this.width = width;
+	}
+
+	@Override
+	public VersionWithObjectiveValue selectNext(BestFirstWorker worker, Random random) {
+		return worker.restoreToRandomAmongBest(width, random);
+	}
+
+	static ExplorationStrategyFactory factory(int width) {
+		if (width <= 0) {
+			throw new IllegalArgumentException("Beam width must be positive, got %d".formatted(width));
+		}
+		// The strategy has no per-worker state, so it can be shared between workers.
+		var strategy = new BeamStrategy(width);
+		return () -> strategy;
+	}
+}
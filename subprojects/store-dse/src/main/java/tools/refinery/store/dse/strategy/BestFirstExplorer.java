@@ -11,11 +11,22 @@ import java.util.Random;
 
 public class BestFirstExplorer extends BestFirstWorker {
 	final long id;
+	final ExplorationStrategy strategy;
 	Random random;
 
 	public BestFirstExplorer(BestFirstStoreManager storeManager, Model model, long id) {
-		super(storeManager, model);
+		this(storeManager, model, id, 0);
+	}
+
+	public BestFirstExplorer(BestFirstStoreManager storeManager, Model model, long id, int workerIndex) {
+		this(storeManager, model, id, workerIndex, ExplorationStrategy.bestFirst().create());
+	}
+
+	public BestFirstExplorer(BestFirstStoreManager storeManager, Model model, long id, int workerIndex,
+							 ExplorationStrategy strategy) {
+		super(storeManager, model, workerIndex);
 		this.id = id;
+		this.strategy = strategy;
 		// The use of a non-cryptographic random generator is safe here, because we only use it to direct the state
 		// space exploration.
 		@SuppressWarnings("squid:S2245")
@@ -25,20 +36,19 @@ public class BestFirstExplorer extends BestFirstWorker {
 
 	private boolean shouldRun() {
 		model.checkCancelled();
-		return !hasEnoughSolution();
+		return !hasEnoughSolution() && !storeManager.isStopped();
 	}
 
 	public void explore() {
 		var lastBest = submit().newVersion();
 		while (shouldRun()) {
 			if (lastBest == null) {
-				if (random.nextInt(10) == 0) {
-					lastBest = restoreToRandom(random);
-				} else {
-					lastBest = restoreToBest();
-				}
+				lastBest = strategy.selectNext(this, random);
 				if (lastBest == null) {
-					return;
+					if (!storeManager.awaitFrontier(model)) {
+						return;
+					}
+					continue;
 				}
 			}
 			boolean tryActivation = true;
@@ -51,8 +61,7 @@ public class BestFirstExplorer extends BestFirstWorker {
 						restoreToLast();
 					} else {
 						var newVisit = newSubmit.newVersion();
-						int compareResult = compare(lastBest, newVisit);
-						if (compareResult >= 0)  {
+						if (strategy.shouldContinue(this, lastBest, newVisit)) {
 							lastBest = newVisit;
 						} else {
 							lastBest = null;
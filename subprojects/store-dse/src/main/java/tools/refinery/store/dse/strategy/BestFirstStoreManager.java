@@ -5,50 +5,137 @@
  */
 package tools.refinery.store.dse.strategy;
 
+import org.jetbrains.annotations.Nullable;
 import tools.refinery.store.dse.transition.DesignSpaceExplorationStoreAdapter;
 import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.dse.transition.objectives.Objective;
 import tools.refinery.store.dse.transition.statespace.ActivationStore;
 import tools.refinery.store.dse.transition.statespace.EquivalenceClassStore;
+import tools.refinery.store.dse.transition.statespace.EvictionPolicy;
 import tools.refinery.store.dse.transition.statespace.ObjectivePriorityQueue;
 import tools.refinery.store.dse.transition.statespace.SolutionStore;
-import tools.refinery.store.dse.transition.statespace.internal.ActivationStoreImpl;
+import tools.refinery.store.dse.transition.statespace.internal.BackgroundSymmetryResolver;
+import tools.refinery.store.dse.transition.statespace.internal.BoundedObjectivePriorityQueue;
+import tools.refinery.store.dse.transition.statespace.internal.CompleteEquivalenceClassStore;
+import tools.refinery.store.dse.transition.statespace.internal.ConcurrentActivationStore;
 import tools.refinery.store.dse.transition.statespace.internal.FastEquivalenceClassStore;
 import tools.refinery.store.dse.transition.statespace.internal.ObjectivePriorityQueueImpl;
 import tools.refinery.store.dse.transition.statespace.internal.SolutionStoreImpl;
+import tools.refinery.store.dse.transition.statistics.ExplorationStatistics;
 import tools.refinery.store.map.Version;
+import tools.refinery.store.model.Model;
 import tools.refinery.store.model.ModelStore;
 import tools.refinery.store.statecoding.StateCoderStoreAdapter;
 import tools.refinery.visualization.statespace.VisualizationStore;
-import tools.refinery.visualization.statespace.internal.VisualizationStoreImpl;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 
 public class BestFirstStoreManager {
+	/**
+	 * Idle workers wake up periodically to check for cancellation.
+	 */
+	private static final long IDLE_WAIT_MILLIS = 100;
 
 	ModelStore modelStore;
 	ObjectivePriorityQueue objectiveStore;
 	ActivationStore activationStore;
-	SolutionStore solutionStore;
+	SolutionStoreImpl solutionStore;
 	EquivalenceClassStore equivalenceClassStore;
-	VisualizationStore visualizationStore;
+	final ExplorationStatistics statistics = new ExplorationStatistics();
+	private final List<Objective> objectives;
+	@Nullable VisualizationStore visualizationStore;
+
+	// Solutions waiting for symmetry resolution, keyed by the version submitted to the equivalence class store.
+	private final Map<VersionWithObjectiveValue, PendingSolution> pendingSolutions = new ConcurrentHashMap<>();
+	private final int symmetryResolutionThreads;
+	private ExplorationStrategyFactory explorationStrategy = ExplorationStrategy.bestFirst();
+	private @Nullable Consumer<VersionWithObjectiveValue> solutionListener;
+	private final Object frontierLock = new Object();
+	// Number of workers that may still submit new versions, guarded by {@code frontierLock}.
+	private int activeWorkers;
+	private int numberOfWorkers = 1;
+	private volatile boolean stopped;
+	// Unlike {@code stopped}, cancellation is not cleared by starting a new exploration.
+	private volatile boolean cancelled;
+	private volatile boolean started;
 
 	public BestFirstStoreManager(ModelStore modelStore, int maxNumberOfSolutions) {
+		this(modelStore, maxNumberOfSolutions, true);
+	}
+
+	/**
+	 * Creates a new store manager.
+	 *
+	 * @param modelStore           The model store to explore.
+	 * @param maxNumberOfSolutions The maximal number of solutions to keep.
+	 * @param wideModelCodes       Whether to tell visited states apart by their 64-bit model codes. With 32-bit model
+	 *                             codes, collisions become likely after tens of thousands of states, and states that
+	 *                             collide with a visited state are never explored.
+	 */
+	public BestFirstStoreManager(ModelStore modelStore, int maxNumberOfSolutions, boolean wideModelCodes) {
+		this(modelStore, maxNumberOfSolutions, wideModelCodes, 0);
+	}
+
+	/**
+	 * Creates a new store manager.
+	 * <p>
+	 * If {@code symmetryResolutionThreads} is positive, visited states with the same model code are checked for
+	 * isomorphism on background threads, and only states that are not isomorphic to an already visited state are
+	 * explored further. Otherwise, states are told apart by their model codes only.
+	 * </p>
+	 *
+	 * @param modelStore                The model store to explore.
+	 * @param maxNumberOfSolutions      The maximal number of solutions to keep.
+	 * @param wideModelCodes            Whether to tell visited states apart by their 64-bit model codes.
+	 * @param symmetryResolutionThreads The number of threads checking for isomorphism, or {@code 0} to disable it.
+	 */
+	public BestFirstStoreManager(ModelStore modelStore, int maxNumberOfSolutions, boolean wideModelCodes,
+								 int symmetryResolutionThreads) {
+		if (symmetryResolutionThreads < 0) {
+			throw new IllegalArgumentException("Number of symmetry resolution threads must not be negative, got %d"
+					.formatted(symmetryResolutionThreads));
+		}
 		this.modelStore = modelStore;
+		this.symmetryResolutionThreads = symmetryResolutionThreads;
 		DesignSpaceExplorationStoreAdapter storeAdapter =
 				modelStore.getAdapter(DesignSpaceExplorationStoreAdapter.class);
 
-		objectiveStore = new ObjectivePriorityQueueImpl(storeAdapter.getObjectives());
+		objectives = storeAdapter.getObjectives();
+		objectiveStore = new ObjectivePriorityQueueImpl(objectives);
 		Consumer<VersionWithObjectiveValue> whenAllActivationsVisited = x -> objectiveStore.remove(x);
-		activationStore = new ActivationStoreImpl(storeAdapter.getTransformations().size(), whenAllActivationsVisited);
+		activationStore = new ConcurrentActivationStore(storeAdapter.getTransformations().size(),
+				whenAllActivationsVisited);
 		solutionStore = new SolutionStoreImpl(maxNumberOfSolutions);
-		equivalenceClassStore = new FastEquivalenceClassStore(modelStore.getAdapter(StateCoderStoreAdapter.class)) {
-			@Override
-			protected void delegate(VersionWithObjectiveValue version, int[] emptyActivations, boolean accept) {
-				throw new UnsupportedOperationException("This equivalence storage is not prepared to resolve " +
-						"symmetries!");
-			}
-		};
-		visualizationStore = new VisualizationStoreImpl();
+		var stateCoderStoreAdapter = modelStore.getAdapter(StateCoderStoreAdapter.class);
+		if (isResolvingSymmetries()) {
+			equivalenceClassStore = new CompleteEquivalenceClassStore(stateCoderStoreAdapter, wideModelCodes) {
+				@Override
+				protected void delegate(VersionWithObjectiveValue version, int[] emptyActivations, boolean accept) {
+					submitResolvedVersion(version, emptyActivations, accept);
+				}
+
+				@Override
+				protected void discard(VersionWithObjectiveValue version) {
+					pendingSolutions.remove(version);
+					newVersionSubmitted();
+				}
+			};
+		} else {
+			equivalenceClassStore = new FastEquivalenceClassStore(stateCoderStoreAdapter, wideModelCodes) {
+				@Override
+				protected void delegate(VersionWithObjectiveValue version, int[] emptyActivations, boolean accept) {
+					throw new UnsupportedOperationException("This equivalence storage is not prepared to resolve " +
+							"symmetries!");
+				}
+			};
+		}
 	}
 
 	public ModelStore getModelStore() {
@@ -67,22 +154,329 @@ public class BestFirstStoreManager {
 		return solutionStore;
 	}
 
+	/**
+	 * Gets the statistics of the exploration run by this manager.
+	 * <p>
+	 * The statistics are reset whenever an exploration is started, so they only cover the latest exploration.
+	 * </p>
+	 *
+	 * @return The exploration statistics of this manager.
+	 */
+	public ExplorationStatistics getStatistics() {
+		return statistics;
+	}
+
 	EquivalenceClassStore getEquivalenceClassStore() {
 		return equivalenceClassStore;
 	}
 
-	public VisualizationStore getVisualizationStore() {
+	public @Nullable VisualizationStore getVisualizationStore() {
 		return visualizationStore;
 	}
 
+	/**
+	 * Sets the store recording the explored states and transitions for visualization.
+	 * <p>
+	 * Visualization is disabled by default, because labeling every state and transition slows down exploration.
+	 * Must be called before starting the exploration.
+	 * </p>
+	 *
+	 * @param visualizationStore The visualization store, or {@code null} to disable visualization.
+	 */
+	public void setVisualizationStore(@Nullable VisualizationStore visualizationStore) {
+		this.visualizationStore = visualizationStore;
+	}
+
+	/**
+	 * Limits the number of versions in the frontier. Evicted versions are never explored further. Must be called
+	 * before starting the exploration.
+	 * <p>
+	 * When symmetries are resolved, the equivalence class store keeps a reference to every visited version, so the
+	 * memory of evicted versions is only reclaimed if symmetry resolution is disabled.
+	 * </p>
+	 * <p>
+	 * With multiple workers, a version may be evicted after another worker has already selected it from the frontier.
+	 * Its activations are removed from the activation store right away, so that worker gets a
+	 * {@code NOT_FOUND} (unsuccessful) visit result, drops the version, and selects the next one instead.
+	 * </p>
+	 *
+	 * @param capacity       The maximal number of versions in the frontier.
+	 * @param evictionPolicy The policy selecting the version to evict when the frontier is full.
+	 * @throws IllegalStateException If an exploration was already started.
+	 */
+	public void setFrontierCapacity(int capacity, EvictionPolicy evictionPolicy) {
+		if (started) {
+			throw new IllegalStateException("Cannot change the frontier capacity after the exploration has started");
+		}
+		objectiveStore = new BoundedObjectivePriorityQueue(objectives, capacity, evictionPolicy, this::evict);
+	}
+
+	/**
+	 * Sets a listener to be called with each accepted solution as soon as it is found. The listener may be called
+	 * concurrently from multiple worker threads. Must be called before starting the exploration.
+	 *
+	 * @param solutionListener The listener, or {@code null} to disable it.
+	 */
+	public void setSolutionListener(@Nullable Consumer<VersionWithObjectiveValue> solutionListener) {
+		this.solutionListener = solutionListener;
+	}
+
+	public ExplorationStrategyFactory getExplorationStrategy() {
+		return explorationStrategy;
+	}
+
+	/**
+	 * Sets the strategy deciding where workers continue the exploration. Must be called before starting the
+	 * exploration.
+	 *
+	 * @param explorationStrategy The exploration strategy, {@link ExplorationStrategy#bestFirst()} by default.
+	 */
+	public void setExplorationStrategy(ExplorationStrategyFactory explorationStrategy) {
+		this.explorationStrategy = explorationStrategy;
+	}
+
+	boolean isResolvingSymmetries() {
+		return symmetryResolutionThreads > 0;
+	}
+
 	public void startExploration(Version initial) {
 		startExploration(initial, 1);
 	}
 
 	public void startExploration(Version initial, long randomSeed) {
+		startExploration(initial, randomSeed, 1);
+	}
+
+	/**
+	 * Explores the state space with multiple workers running in parallel.
+	 * <p>
+	 * Each worker explores its own model, but the workers share the frontier, the activation store, and the
+	 * equivalence class store. The first worker uses {@code randomSeed}, and the seeds of the other workers are derived
+	 * from it with a mixing function, so managers started with adjacent seeds do not share worker seeds. Solutions
+	 * with equal objective values are ordered by the index of the worker that found them, and then by the order in
+	 * which that worker found them. Which solutions the workers find depends on the scheduling of the workers, so
+	 * explorations with more than one worker are not reproducible.
+	 * </p>
+	 *
+	 * @param initial         The initial version to explore from.
+	 * @param randomSeed      The random seed of the first worker.
+	 * @param numberOfWorkers The number of workers to run.
+	 */
+	public void startExploration(Version initial, long randomSeed, int numberOfWorkers) {
+		if (numberOfWorkers <= 0) {
+			throw new IllegalArgumentException("Number of workers must be positive, got %d"
+					.formatted(numberOfWorkers));
+		}
+		if (cancelled) {
+			return;
+		}
+		this.numberOfWorkers = numberOfWorkers;
+		started = true;
+		stopped = false;
+		statistics.reset();
+		synchronized (frontierLock) {
+			activeWorkers = numberOfWorkers;
+		}
+		if (!isResolvingSymmetries()) {
+			startWorkers(initial, randomSeed, numberOfWorkers);
+			return;
+		}
+		try (var resolver = new BackgroundSymmetryResolver((CompleteEquivalenceClassStore) equivalenceClassStore,
+				symmetryResolutionThreads, this::stop)) {
+			startWorkers(initial, randomSeed, numberOfWorkers);
+		}
+	}
+
+	private void startWorkers(Version initial, long randomSeed, int numberOfWorkers) {
+		if (numberOfWorkers == 1) {
+			explore(initial, randomSeed, 0);
+			return;
+		}
+		try (var executorService = Executors.newFixedThreadPool(numberOfWorkers)) {
+			List<Future<?>> futures = new ArrayList<>(numberOfWorkers);
+			for (int i = 0; i < numberOfWorkers; i++) {
+				int workerIndex = i;
+				futures.add(executorService.submit(() -> explore(initial, getWorkerSeed(randomSeed, workerIndex),
+						workerIndex)));
+			}
+			awaitWorkers(futures);
+		}
+	}
+
+	/**
+	 * Derives the random seed of a worker.
+	 * <p>
+	 * The seeds of the additional workers are scrambled with the finalizer of the SplitMix64 generator, so that they
+	 * do not coincide with the seeds of the workers of an exploration started from an adjacent seed.
+	 * </p>
+	 *
+	 * @param randomSeed  The random seed of the exploration.
+	 * @param workerIndex The index of the worker.
+	 * @return The random seed of the worker.
+	 */
+	static long getWorkerSeed(long randomSeed, int workerIndex) {
+		if (workerIndex == 0) {
+			return randomSeed;
+		}
+		long seed = randomSeed + workerIndex * 0x9e3779b97f4a7c15L;
+		seed = (seed ^ (seed >>> 30)) * 0xbf58476d1ce4e5b9L;
+		seed = (seed ^ (seed >>> 27)) * 0x94d049bb133111ebL;
+		return seed ^ (seed >>> 31);
+	}
+
+	private void explore(Version initial, long randomSeed, int workerIndex) {
 		try (var model = modelStore.createModelForState(initial)) {
-			BestFirstExplorer bestFirstExplorer = new BestFirstExplorer(this, model, randomSeed);
+			BestFirstExplorer bestFirstExplorer = new BestFirstExplorer(this, model, randomSeed, workerIndex,
+					explorationStrategy.create());
 			bestFirstExplorer.explore();
+		} catch (RuntimeException | Error e) {
+			stop();
+			throw e;
+		}
+	}
+
+	private void awaitWorkers(List<Future<?>> futures) {
+		Throwable failure = null;
+		for (var future : futures) {
+			try {
+				future.get();
+			} catch (ExecutionException e) {
+				if (failure == null) {
+					failure = e.getCause();
+				}
+			} catch (InterruptedException e) {
+				stop();
+				Thread.currentThread().interrupt();
+				if (failure == null) {
+					failure = e;
+				}
+			}
+		}
+		if (failure instanceof RuntimeException runtimeException) {
+			throw runtimeException;
+		}
+		if (failure instanceof Error error) {
+			throw error;
+		}
+		if (failure != null) {
+			throw new IllegalStateException("State space exploration was interrupted", failure);
+		}
+	}
+
+	void stop() {
+		stopped = true;
+		synchronized (frontierLock) {
+			frontierLock.notifyAll();
+		}
+	}
+
+	/**
+	 * Stops the current exploration and prevents any further explorations from starting, even if this method is called
+	 * before the exploration is started.
+	 */
+	void cancel() {
+		cancelled = true;
+		stop();
+	}
+
+	boolean isStopped() {
+		return stopped || cancelled;
+	}
+
+	void submitSolution(VersionWithObjectiveValue solution, int workerIndex, int solutionIndex) {
+		solutionStore.submit(solution, ((long) workerIndex << Integer.SIZE) | solutionIndex);
+		statistics.recordSolution();
+		if (solutionListener != null) {
+			solutionListener.accept(solution);
+		}
+	}
+
+	/**
+	 * Records a solution that will only be submitted if its version turns out to be new.
+	 *
+	 * @param version       The version submitted to the equivalence class store.
+	 * @param solution      The solution found from {@code version}, possibly after concretization.
+	 * @param workerIndex   The index of the worker that found the solution.
+	 * @param solutionIndex The number of solutions found by the worker before.
+	 */
+	void addPendingSolution(VersionWithObjectiveValue version, VersionWithObjectiveValue solution, int workerIndex,
+							int solutionIndex) {
+		pendingSolutions.put(version, new PendingSolution(solution, workerIndex, solutionIndex));
+	}
+
+	/**
+	 * Adds a new version to the frontier unless it has no activations.
+	 *
+	 * @param version          The new version.
+	 * @param emptyActivations The number of activations of each transformation in the version.
+	 */
+	void addToFrontier(VersionWithObjectiveValue version, int[] emptyActivations) {
+		// Mark the activations first, so that if the version is evicted from a bounded frontier right after its
+		// submission, it is also removed from the activation store.
+		if (activationStore.markNewAsVisited(version, emptyActivations).mayHaveMore()) {
+			objectiveStore.submit(version);
+		}
+	}
+
+	private void evict(VersionWithObjectiveValue version) {
+		// Drop references to the evicted version so that the model store can reclaim its memory. A worker that has
+		// already selected the version will find no activations for it and move on to another version.
+		activationStore.remove(version);
+		statistics.recordEviction();
+	}
+
+	private void submitResolvedVersion(VersionWithObjectiveValue version, int[] emptyActivations, boolean accept) {
+		addToFrontier(version, emptyActivations);
+		if (accept) {
+			var pendingSolution = pendingSolutions.remove(version);
+			if (pendingSolution != null) {
+				submitSolution(pendingSolution.solution(), pendingSolution.workerIndex(),
+						pendingSolution.solutionIndex());
+			}
+		}
+		newVersionSubmitted();
+	}
+
+	void newVersionSubmitted() {
+		if (numberOfWorkers > 1 || isResolvingSymmetries()) {
+			synchronized (frontierLock) {
+				frontierLock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Waits until other workers or symmetry resolution add versions to the frontier if it is empty.
+	 *
+	 * @param model The model of the waiting worker, used to check for cancellation.
+	 * @return {@code true} if the frontier has versions to explore, or {@code false} if the worker should stop,
+	 * because the frontier is empty and neither other workers nor symmetry resolution can add versions to it.
+	 */
+	boolean awaitFrontier(Model model) {
+		synchronized (frontierLock) {
+			activeWorkers--;
+			// Check for unresolved symmetries before the frontier, because versions are added to the frontier before
+			// their symmetry is marked as resolved.
+			while (!isStopped() && (activeWorkers > 0 || equivalenceClassStore.hasUnresolvedSymmetry()) &&
+					objectiveStore.getSize() == 0) {
+				model.checkCancelled();
+				try {
+					frontierLock.wait(IDLE_WAIT_MILLIS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("State space exploration was interrupted", e);
+				}
+			}
+			if (isStopped() || objectiveStore.getSize() == 0) {
+				// Wake up the other waiting workers so that they can stop, too.
+				frontierLock.notifyAll();
+				return false;
+			}
+			activeWorkers++;
+			return true;
 		}
 	}
+
+	private record PendingSolution(VersionWithObjectiveValue solution, int workerIndex, int solutionIndex) {
+	}
 }
@@ -11,9 +11,12 @@ import tools.refinery.store.dse.transition.DesignSpaceExplorationAdapter;
 import tools.refinery.store.dse.transition.ObjectiveValue;
 import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
 import tools.refinery.store.dse.transition.statespace.internal.ActivationStoreWorker;
+import tools.refinery.store.dse.transition.statistics.ExplorationPhase;
+import tools.refinery.store.dse.transition.statistics.ExplorationStatistics;
 import tools.refinery.store.map.Version;
 import tools.refinery.store.model.Model;
 import tools.refinery.store.query.ModelQueryAdapter;
+import tools.refinery.store.statecoding.StateCoderResult;
 import tools.refinery.store.statecoding.StateCoderAdapter;
 import tools.refinery.visualization.statespace.VisualizationStore;
 
@@ -29,10 +32,18 @@ public class BestFirstWorker {
 	final @Nullable PropagationAdapter propagationAdapter;
 	final VisualizationStore visualizationStore;
 	final boolean isVisualizationEnabled;
+	final ExplorationStatistics statistics;
+	final int workerIndex;
+	private int solutionCount;
 
 	public BestFirstWorker(BestFirstStoreManager storeManager, Model model) {
+		this(storeManager, model, 0);
+	}
+
+	public BestFirstWorker(BestFirstStoreManager storeManager, Model model, int workerIndex) {
 		this.storeManager = storeManager;
 		this.model = model;
+		this.workerIndex = workerIndex;
 
 		explorationAdapter = model.getAdapter(DesignSpaceExplorationAdapter.class);
 		stateCoderAdapter = model.getAdapter(StateCoderAdapter.class);
@@ -42,6 +53,7 @@ public class BestFirstWorker {
 				explorationAdapter.getTransformations());
 		visualizationStore = storeManager.getVisualizationStore();
 		isVisualizationEnabled = visualizationStore != null;
+		statistics = storeManager.getStatistics();
 	}
 
 	protected VersionWithObjectiveValue last = null;
@@ -55,31 +67,74 @@ public class BestFirstWorker {
 			return new SubmitResult(false, false, null, null);
 		}
 
-		var code = stateCoderAdapter.calculateStateCode();
+		var code = calculateStateCode();
+		if (storeManager.isResolvingSymmetries()) {
+			return submitForSymmetryResolution(code);
+		}
 		boolean isNew = storeManager.getEquivalenceClassStore().submit(code);
 		if (isNew) {
+			statistics.recordNewState();
 			return submitNew();
 		}
 
+		statistics.recordDuplicateState();
 		return new SubmitResult(false, false, null, null);
 	}
 
+	private SubmitResult submitForSymmetryResolution(StateCoderResult code) {
+		// Isomorphism can only be checked between committed versions, so we have to commit even if the model code
+		// was already seen.
+		Version version = commit();
+		ObjectiveValue objectiveValue = getObjectiveValue();
+		var versionWithObjectiveValue = new VersionWithObjectiveValue(version, objectiveValue);
+		int[] emptyActivations = activationStoreWorker.calculateEmptyActivationSize();
+		var solution = explorationAdapter.checkAccept() ? timedConcretizeIfNeeded(versionWithObjectiveValue) : null;
+		boolean accepted = solution != null;
+		if (accepted) {
+			storeManager.addPendingSolution(versionWithObjectiveValue, solution, workerIndex, solutionCount);
+			solutionCount++;
+		}
+
+		// The equivalence class store adds the version to the frontier if it is new, either now or after resolving
+		// its symmetry with a version that has the same model code.
+		boolean isNew = storeManager.getEquivalenceClassStore().submit(versionWithObjectiveValue, code,
+				emptyActivations, accepted);
+		if (!isNew) {
+			statistics.recordDuplicateState();
+			if (last != null) {
+				restore(last.version());
+			}
+			return new SubmitResult(false, false, null, null);
+		}
+
+		statistics.recordNewState();
+		last = versionWithObjectiveValue;
+		if (isVisualizationEnabled) {
+			visualizationStore.addState(version, objectiveValue.toString());
+			if (accepted) {
+				visualizationStore.addSolution(version);
+			}
+		}
+		return new SubmitResult(true, accepted, objectiveValue, last);
+	}
+
 	private SubmitResult submitNew() {
-		Version version = model.commit();
-		ObjectiveValue objectiveValue = explorationAdapter.getObjectiveValue();
+		Version version = commit();
+		ObjectiveValue objectiveValue = getObjectiveValue();
 		var versionWithObjectiveValue = new VersionWithObjectiveValue(version, objectiveValue);
 		last = versionWithObjectiveValue;
 		var accepted = explorationAdapter.checkAccept();
 
-		storeManager.getObjectiveStore().submit(last);
-		storeManager.getActivationStore().markNewAsVisited(last, activationStoreWorker.calculateEmptyActivationSize());
+		storeManager.addToFrontier(last, activationStoreWorker.calculateEmptyActivationSize());
+		storeManager.newVersionSubmitted();
 		if (accepted) {
-			versionWithObjectiveValue = concretizeIfNeeded(versionWithObjectiveValue);
+			versionWithObjectiveValue = timedConcretizeIfNeeded(versionWithObjectiveValue);
 			accepted = versionWithObjectiveValue != null;
 		}
 
 		if (accepted) {
-			storeManager.solutionStore.submit(versionWithObjectiveValue);
+			storeManager.submitSolution(versionWithObjectiveValue, workerIndex, solutionCount);
+			solutionCount++;
 		}
 
 		if (isVisualizationEnabled) {
@@ -92,6 +147,18 @@ public class BestFirstWorker {
 		return new SubmitResult(true, accepted, objectiveValue, last);
 	}
 
+	private VersionWithObjectiveValue timedConcretizeIfNeeded(VersionWithObjectiveValue originalValue) {
+		if (propagationAdapter == null) {
+			return originalValue;
+		}
+		long start = statistics.startTimer();
+		try {
+			return concretizeIfNeeded(originalValue);
+		} finally {
+			statistics.stopTimer(ExplorationPhase.CONCRETIZE, start);
+		}
+	}
+
 	private VersionWithObjectiveValue concretizeIfNeeded(VersionWithObjectiveValue originalValue) {
 		if (propagationAdapter == null) {
 			return originalValue;
@@ -100,11 +167,11 @@ public class BestFirstWorker {
 		if (propagationAdapter.concretizationRequested()) {
 			var concretizationResult = propagationAdapter.concretize();
 			if (concretizationResult.isRejected()) {
-				model.restore(version);
+				restore(version);
 				return null;
 			} else if (concretizationResult.isChanged()) {
 				var newValue = submitConcrete();
-				model.restore(version);
+				restore(version);
 				return newValue;
 			}
 		} else if (propagationAdapter.checkConcretization().isRejected()) {
@@ -121,41 +188,60 @@ public class BestFirstWorker {
 			return null;
 		}
 
-		var code = stateCoderAdapter.calculateStateCode();
+		var code = calculateStateCode();
 		if (!storeManager.getEquivalenceClassStore().submit(code)) {
 			return null;
 		}
 
-		var concreteVersion = model.commit();
-		var concreteObjectiveValue = explorationAdapter.getObjectiveValue();
+		var concreteVersion = commit();
+		var concreteObjectiveValue = getObjectiveValue();
 		var versionWithObjectiveValue = new VersionWithObjectiveValue(concreteVersion, concreteObjectiveValue);
 		return explorationAdapter.checkAccept() ? versionWithObjectiveValue : null;
 	}
 
 	public void restoreToLast() {
 		if (explorationAdapter.getModel().hasUncommittedChanges()) {
-			explorationAdapter.getModel().restore(last.version());
+			restore(last.version());
 		}
 	}
 
 	public VersionWithObjectiveValue restoreToBest() {
-		var bestVersion = storeManager.getObjectiveStore().getBest();
+		var objectiveStore = storeManager.getObjectiveStore();
+		statistics.recordFrontierSize(objectiveStore.getSize());
+		var bestVersion = objectiveStore.getBest();
 		last = bestVersion;
 		if (bestVersion != null) {
-			this.model.restore(bestVersion.version());
+			restore(bestVersion.version());
 		}
 		return last;
 	}
 
 	public VersionWithObjectiveValue restoreToRandom(Random random) {
 		var objectiveStore = storeManager.getObjectiveStore();
-		if (objectiveStore.getSize() == 0) {
+		int frontierSize = objectiveStore.getSize();
+		statistics.recordFrontierSize(frontierSize);
+		if (frontierSize == 0) {
 			return null;
 		}
 		var randomVersion = objectiveStore.getRandom(random);
 		last = randomVersion;
 		if (randomVersion != null) {
-			this.model.restore(randomVersion.version());
+			restore(randomVersion.version());
+		}
+		return last;
+	}
+
+	public VersionWithObjectiveValue restoreToRandomAmongBest(int count, Random random) {
+		var objectiveStore = storeManager.getObjectiveStore();
+		int frontierSize = objectiveStore.getSize();
+		statistics.recordFrontierSize(frontierSize);
+		if (frontierSize == 0) {
+			return null;
+		}
+		var randomVersion = objectiveStore.getRandomAmongBest(count, random);
+		last = randomVersion;
+		if (randomVersion != null) {
+			restore(randomVersion.version());
 		}
 		return last;
 	}
@@ -173,19 +259,25 @@ public class BestFirstWorker {
 			throw new IllegalStateException("The model has uncommitted changes!");
 		}
 
+		long start = statistics.startTimer();
 		var visitResult = activationStoreWorker.fireRandomActivation(this.last, random);
+		statistics.stopTimer(ExplorationPhase.FIRE, start);
 
 		if (!visitResult.successfulVisit()) {
 			return new RandomVisitResult(null, visitResult.mayHaveMore());
 		}
 
 		if (propagationAdapter != null) {
+			start = statistics.startTimer();
 			var propagationResult = propagationAdapter.propagate();
+			statistics.stopTimer(ExplorationPhase.PROPAGATE, start);
 			if (propagationResult.isRejected()) {
 				return new RandomVisitResult(null, visitResult.mayHaveMore());
 			}
 		}
+		start = statistics.startTimer();
 		queryAdapter.flushChanges();
+		statistics.stopTimer(ExplorationPhase.FLUSH, start);
 
 		Version oldVersion = null;
 		if (isVisualizationEnabled) {
@@ -204,6 +296,33 @@ public class BestFirstWorker {
 		return storeManager.solutionStore.hasEnoughSolution();
 	}
 
+	private StateCoderResult calculateStateCode() {
+		long start = statistics.startTimer();
+		var code = stateCoderAdapter.calculateStateCode();
+		statistics.stopTimer(ExplorationPhase.STATE_CODE, start);
+		return code;
+	}
+
+	private Version commit() {
+		long start = statistics.startTimer();
+		var version = model.commit();
+		statistics.stopTimer(ExplorationPhase.COMMIT, start);
+		return version;
+	}
+
+	private void restore(Version version) {
+		long start = statistics.startTimer();
+		model.restore(version);
+		statistics.stopTimer(ExplorationPhase.RESTORE, start);
+	}
+
+	private ObjectiveValue getObjectiveValue() {
+		long start = statistics.startTimer();
+		var objectiveValue = explorationAdapter.getObjectiveValue();
+		statistics.stopTimer(ExplorationPhase.OBJECTIVE, start);
+		return objectiveValue;
+	}
+
 	private void checkSynchronized() {
 		if (last != null && !last.version().equals(model.getState())) {
 			throw new AssertionError("Worker is not synchronized with model state");
@@ -0,0 +1,84 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.strategy;
+
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+
+import java.util.Random;
+
+/**
+ * Decides where a {@link BestFirstExplorer} continues the exploration.
+ * <p>
+ * A separate instance is created for each worker by an {@link ExplorationStrategyFactory}, so implementations may
+ * keep per-worker state without synchronization.
+ * </p>
+ */
+public interface ExplorationStrategy {
+	/**
+	 * Restores the model of the worker to the next version to explore from. Called whenever the worker has no
+	 * promising version to continue from.
+	 *
+	 * @param worker The worker to restore.
+	 * @param random The random generator of the worker.
+	 * @return The restored version, or {@code null} if the frontier is empty.
+	 */
+	VersionWithObjectiveValue selectNext(BestFirstWorker worker, Random random);
+
+	/**
+	 * Decides whether the worker should keep exploring from a newly discovered version.
+	 *
+	 * @param worker  The worker that discovered the version.
+	 * @param current The version the worker explored from.
+	 * @param next    The newly discovered version.
+	 * @return {@code true} to explore from {@code next}, or {@code false} to call {@link #selectNext(BestFirstWorker,
+	 * Random)} instead.
+	 */
+	default boolean shouldContinue(BestFirstWorker worker, VersionWithObjectiveValue current,
+								   VersionWithObjectiveValue next) {
+		return worker.compare(current, next) >= 0;
+	}
+
+	/**
+	 * Explores from the best version in the frontier, restarting from a random one with a probability of 10%.
+	 *
+	 * @return The default exploration strategy.
+	 */
+	static ExplorationStrategyFactory bestFirst() {
+		return RandomRestartStrategy.DEFAULT_FACTORY;
+	}
+
+	/**
+	 * Explores from the best version in the frontier, restarting from a random one with a probability of
+	 * {@code 1 / restartPeriod}.
+	 *
+	 * @param restartPeriod The average number of selections between restarts.
+	 * @return The exploration strategy.
+	 */
+	static ExplorationStrategyFactory bestFirst(int restartPeriod) {
+		return RandomRestartStrategy.factory(restartPeriod);
+	}
+
+	/**
+	 * Explores from the best version in the frontier, restarting from a random one after a number of steps following
+	 * the Luby sequence {@code 1, 1, 2, 1, 1, 2, 4, ...} multiplied by {@code unit}.
+	 *
+	 * @param unit The number of steps corresponding to {@code 1} in the Luby sequence.
+	 * @return The exploration strategy.
+	 */
+	static ExplorationStrategyFactory luby(int unit) {
+		return LubyRestartStrategy.factory(unit);
+	}
+
+	/**
+	 * Explores from a version chosen uniformly at random among the {@code width} best versions in the frontier.
+	 *
+	 * @param width The number of best versions to choose from.
+	 * @return The exploration strategy.
+	 */
+	static ExplorationStrategyFactory beam(int width) {
+		return BeamStrategy.factory(width);
+	}
+}
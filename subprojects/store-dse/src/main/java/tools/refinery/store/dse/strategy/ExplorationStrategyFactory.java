@@ -0,0 +1,11 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.strategy;
+
+@FunctionalInterface
+public interface ExplorationStrategyFactory {
+	ExplorationStrategy create();
+}
@@ -0,0 +1,67 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.strategy;
+
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+
+import java.util.Random;
+
+class LubyRestartStrategy implements ExplorationStrategy {
+	private final int unit;
+	private int restartIndex = 1;
+	private long remainingSteps;
+
+	private LubyRestartStrategy(int unit) {
+		this.unit = unit;
+		remainingSteps = unit;
+	}
+
+	@Override
+	public VersionWithObjectiveValue selectNext(BestFirstWorker worker, Random random) {
+		if (remainingSteps > 0) {
+			return worker.restoreToBest();
+		}
+		restartIndex++;
+		remainingSteps = unit * luby(restartIndex);
+		return worker.restoreToRandom(random);
+	}
+
+	@Override
+	public boolean shouldContinue(BestFirstWorker worker, VersionWithObjectiveValue current,
+								  VersionWithObjectiveValue next) {
+		remainingSteps--;
+		return remainingSteps > 0 && ExplorationStrategy.super.shouldContinue(worker, current, next);
+	}
+
+	/**
+	 * Computes the elements of the Luby sequence {@code 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, ...}.
+	 *
+	 * @param index The 1-based index of the element.
+	 * @return The element of the sequence at {@code index}.
+	 */
+	static long luby(long index) {
+		if (index <= 0) {
+			throw new IllegalArgumentException("Index must be positive, got %d".formatted(index));
+		}
+		long i = index;
+		while (true) {
+			// Find the smallest k such that 2^k - 1 >= i.
+			int k = Long.SIZE - Long.numberOfLeadingZeros(i);
+			if (i == (1L << k) - 1) {
+				return 1L << (k - 1);
+			}
+			// The sequence repeats itself after each power of two.
+			i -= (1L << (k - 1)) - 1;
+		}
+	}
+
+	static ExplorationStrategyFactory factory(int unit) {
+		if (unit <= 0) {
+			throw new IllegalArgumentException("Restart unit must be positive, got %d".formatted(unit));
+		}
+		return () -> new LubyRestartStrategy(unit);
+	}
+}
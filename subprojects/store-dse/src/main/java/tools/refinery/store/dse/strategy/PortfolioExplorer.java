@@ -0,0 +1,117 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.strategy;
+
+import tools.refinery.store.dse.transition.statespace.SolutionStore;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.model.ModelStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+
+/**
+ * Races independent explorations of the same state space with different strategies or random seeds.
+ * <p>
+ * Each exploration runs on its own thread with its own {@link BestFirstStoreManager}. The solutions of the first
+ * exploration that finishes with at least one solution are returned, and the other explorations are stopped. Since the
+ * time needed to find a solution varies greatly between random seeds, this is usually faster than running a single
+ * exploration.
+ * </p>
+ */
+public class PortfolioExplorer {
+	private final ModelStore modelStore;
+	private final int maxNumberOfSolutions;
+	private final List<Entry> entries = new ArrayList<>();
+
+	public PortfolioExplorer(ModelStore modelStore, int maxNumberOfSolutions) {
+		this.modelStore = modelStore;
+		this.maxNumberOfSolutions = maxNumberOfSolutions;
+	}
+
+	public PortfolioExplorer add(ExplorationStrategyFactory explorationStrategy, long randomSeed) {
+		entries.add(new Entry(explorationStrategy, randomSeed));
+		return this;
+	}
+
+	/**
+	 * Runs all explorations until one of them finishes with solutions, or all of them finish.
+	 *
+	 * @param initial The initial version to explore from.
+	 * @return The solutions found by the first exploration to finish with solutions, or the (empty) solutions of the
+	 * first exploration to finish if none of them found any solutions.
+	 */
+	public SolutionStore startExploration(Version initial) {
+		if (entries.isEmpty()) {
+			throw new IllegalStateException("No explorations were added to the portfolio");
+		}
+		var managers = new ArrayList<BestFirstStoreManager>(entries.size());
+		for (var entry : entries) {
+			var manager = new BestFirstStoreManager(modelStore, maxNumberOfSolutions);
+			manager.setExplorationStrategy(entry.explorationStrategy());
+			managers.add(manager);
+		}
+		try (var executorService = Executors.newFixedThreadPool(entries.size())) {
+			var completionService = new ExecutorCompletionService<BestFirstStoreManager>(executorService);
+			for (int i = 0; i < entries.size(); i++) {
+				var manager = managers.get(i);
+				long randomSeed = entries.get(i).randomSeed();
+				completionService.submit(() -> {
+					manager.startExploration(initial, randomSeed);
+					return manager;
+				});
+			}
+			try {
+				return awaitFirst(completionService, managers).getSolutionStore();
+			} finally {
+				// Explorations that have not started yet must not start after being cancelled.
+				for (var manager : managers) {
+					manager.cancel();
+				}
+			}
+		}
+	}
+
+	private BestFirstStoreManager awaitFirst(ExecutorCompletionService<BestFirstStoreManager> completionService,
+											 List<BestFirstStoreManager> managers) {
+		BestFirstStoreManager firstFinished = null;
+		Throwable failure = null;
+		for (int i = 0; i < managers.size(); i++) {
+			try {
+				var manager = completionService.take().get();
+				// An exploration that exhausted the state space without solutions only wins if all others do, too.
+				if (!manager.getSolutionStore().getSolutions().isEmpty()) {
+					return manager;
+				}
+				if (firstFinished == null) {
+					firstFinished = manager;
+				}
+			} catch (ExecutionException e) {
+				if (failure == null) {
+					failure = e.getCause();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("State space exploration was interrupted", e);
+			}
+		}
+		if (firstFinished != null) {
+			return firstFinished;
+		}
+		if (failure instanceof RuntimeException runtimeException) {
+			throw runtimeException;
+		}
+		if (failure instanceof Error error) {
+			throw error;
+		}
+		throw new IllegalStateException("All explorations failed", failure);
+	}
+
+	private record Entry(ExplorationStrategyFactory explorationStrategy, long randomSeed) {
+	}
+}
@@ -0,0 +1,37 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.strategy;
+
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+
+import java.util.Random;
+
+class RandomRestartStrategy implements ExplorationStrategy {
+	static final ExplorationStrategyFactory DEFAULT_FACTORY = factory(10);
+
+	private final int restartPeriod;
+
+	private RandomRestartStrategy(int restartPeriod) {
+		this.restartPeriod = restartPeriod;
+	}
+
+	@Override
+	public VersionWithObjectiveValue selectNext(BestFirstWorker worker, Random random) {
+		if (random.nextInt(restartPeriod) == 0) {
+			return worker.restoreToRandom(random);
+		}
+		return worker.restoreToBest();
+	}
+
+	static ExplorationStrategyFactory factory(int restartPeriod) {
+		if (restartPeriod <= 0) {
+			throw new IllegalArgumentException("Restart period must be positive, got %d".formatted(restartPeriod));
+		}
+		// The strategy has no per-worker state, so it can be shared between workers.
+		var strategy = new RandomRestartStrategy(restartPeriod);
+		return () -> strategy;
+	}
+}
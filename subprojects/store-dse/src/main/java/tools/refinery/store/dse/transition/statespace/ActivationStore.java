@@ -15,4 +15,13 @@ public interface ActivationStore {
 	VisitResult markNewAsVisited(VersionWithObjectiveValue to, int[] emptyEntrySizes);
 	boolean hasUnmarkedActivation(VersionWithObjectiveValue version);
 	VisitResult getRandomAndMarkAsVisited(VersionWithObjectiveValue version, Random random);
+
+	/**
+	 * Forgets the activations of a version without considering them visited, e.g., because the version was evicted
+	 * from the frontier. Later calls to {@link #getRandomAndMarkAsVisited(VersionWithObjectiveValue, Random)} for the
+	 * version return an unsuccessful visit result without more activations.
+	 *
+	 * @param version The version to forget.
+	 */
+	void remove(VersionWithObjectiveValue version);
 }
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -11,6 +11,13 @@ import tools.refinery.store.statecoding.StateCoderResult;
 public interface EquivalenceClassStore {
 	boolean submit(VersionWithObjectiveValue version, StateCoderResult stateCoderResult, int[] emptyActivations, boolean accept);
 	boolean submit(StateCoderResult stateCoderResult);
+
+	/**
+	 * Checks whether states are told apart by their 64-bit model codes instead of their 32-bit model codes.
+	 *
+	 * @return {@code true} if {@link StateCoderResult#wideModelCode()} is used.
+	 */
+	boolean isWideModelCodes();
 	boolean hasUnresolvedSymmetry();
 	void resolveOneSymmetry();
 	int getNumberOfUnresolvedSymmetries();
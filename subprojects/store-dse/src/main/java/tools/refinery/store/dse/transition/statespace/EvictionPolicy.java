@@ -0,0 +1,21 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace;
+
+/**
+ * Selects the version to remove from a full frontier.
+ */
+public enum EvictionPolicy {
+	/**
+	 * Evict the version with the worst objective value, breaking ties by evicting the newest version.
+	 */
+	WORST_OBJECTIVE,
+
+	/**
+	 * Evict the version that was added to the frontier first.
+	 */
+	OLDEST
+}
@@ -18,4 +18,5 @@ public interface ObjectivePriorityQueue {
 	int getSize();
 	VersionWithObjectiveValue getBest();
 	VersionWithObjectiveValue getRandom(Random random);
+	VersionWithObjectiveValue getRandomAmongBest(int count, Random random);
 }
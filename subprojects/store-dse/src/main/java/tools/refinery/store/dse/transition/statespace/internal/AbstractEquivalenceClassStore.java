@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -12,11 +12,15 @@ import tools.refinery.store.statecoding.StateCoderStoreAdapter;
 
 public abstract class AbstractEquivalenceClassStore implements EquivalenceClassStore {
 	protected final StateCoderStoreAdapter stateCoderStoreAdapter;
-	AbstractEquivalenceClassStore(StateCoderStoreAdapter stateCoderStoreAdapter) {
+	protected final boolean wideModelCodes;
+
+	AbstractEquivalenceClassStore(StateCoderStoreAdapter stateCoderStoreAdapter, boolean wideModelCodes) {
 		this.stateCoderStoreAdapter = stateCoderStoreAdapter;
+		this.wideModelCodes = wideModelCodes;
 	}
 
-	protected int numberOfUnresolvedSymmetries = 0;
+	// Written while holding the lock of the store, but read without it.
+	protected volatile int numberOfUnresolvedSymmetries = 0;
 
 	protected abstract void delegate(VersionWithObjectiveValue version, int[] emptyActivations, boolean accept);
 	protected abstract boolean tryToAdd(StateCoderResult stateCoderResult, VersionWithObjectiveValue newVersion,
@@ -42,6 +46,21 @@ public abstract class AbstractEquivalenceClassStore implements EquivalenceClassS
 		}
 	}
 
+	/**
+	 * Gets the model code used to tell states apart.
+	 *
+	 * @param stateCoderResult The state code of a model.
+	 * @return The 64-bit model code in wide mode, and the 32-bit model code otherwise.
+	 */
+	protected long getModelCode(StateCoderResult stateCoderResult) {
+		return wideModelCodes ? stateCoderResult.wideModelCode() : stateCoderResult.modelCode();
+	}
+
+	@Override
+	public boolean isWideModelCodes() {
+		return wideModelCodes;
+	}
+
 	@Override
 	public boolean hasUnresolvedSymmetry() {
 		return numberOfUnresolvedSymmetries > 0;
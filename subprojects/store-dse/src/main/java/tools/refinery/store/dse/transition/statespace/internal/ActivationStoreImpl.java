@@ -41,14 +41,23 @@ public class ActivationStoreImpl implements ActivationStore {
 			}
 		}
 		if (!hasMore) {
-			actionWhenAllActivationVisited.accept(to);
+			allActivationsVisited(to);
 		}
 		return new VisitResult(successful[0], hasMore, -1, -1);
 	}
 
+	@Override
+	public synchronized void remove(VersionWithObjectiveValue version) {
+		versionToActivations.remove(version);
+	}
+
 	public synchronized VisitResult visitActivation(VersionWithObjectiveValue from, int transformationIndex,
 													int activationIndex) {
 		var entries = versionToActivations.get(from);
+		if (entries == null) {
+			// All activations of the version were already visited and the version was released.
+			return new VisitResult(false, false, -1, -1);
+		}
 		var entry = entries.get(transformationIndex);
 		final int unvisited = entry.getNumberOfUnvisitedActivations();
 
@@ -81,7 +90,7 @@ public class ActivationStoreImpl implements ActivationStore {
 		}
 
 		if (!hasMore) {
-			actionWhenAllActivationVisited.accept(from);
+			allActivationsVisited(from);
 		}
 
 		return new VisitResult(successfulVisit, hasMore, transformation, activation);
@@ -90,6 +99,9 @@ public class ActivationStoreImpl implements ActivationStore {
 	@Override
 	public synchronized boolean hasUnmarkedActivation(VersionWithObjectiveValue version) {
 		var entries = versionToActivations.get(version);
+		if (entries == null) {
+			return false;
+		}
 		boolean hasMore = false;
 		for (var entry : entries) {
 			if (entry.getNumberOfUnvisitedActivations() > 0) {
@@ -103,6 +115,9 @@ public class ActivationStoreImpl implements ActivationStore {
 	@Override
 	public synchronized VisitResult getRandomAndMarkAsVisited(VersionWithObjectiveValue version, Random random) {
 		var entries = versionToActivations.get(version);
+		if (entries == null) {
+			return new VisitResult(false, false, -1, -1);
+		}
 
 		var weights = new double[entries.size()];
 		double totalWeight = 0;
@@ -117,7 +132,7 @@ public class ActivationStoreImpl implements ActivationStore {
 		}
 
 		if (numberOfAllUnvisitedActivations == 0) {
-			this.actionWhenAllActivationVisited.accept(version);
+			allActivationsVisited(version);
 			return new VisitResult(false, false, -1, -1);
 		}
 
@@ -135,4 +150,15 @@ public class ActivationStoreImpl implements ActivationStore {
 
 		throw new AssertionError("Unvisited activation %f not found".formatted(offset));
 	}
+
+	/**
+	 * Releases a version whose activations were all visited. The store no longer references the version, so unless
+	 * it is retained elsewhere (e.g., by the solution store), it can be garbage collected.
+	 *
+	 * @param version The fully expanded version.
+	 */
+	private void allActivationsVisited(VersionWithObjectiveValue version) {
+		versionToActivations.remove(version);
+		actionWhenAllActivationVisited.accept(version);
+	}
 }
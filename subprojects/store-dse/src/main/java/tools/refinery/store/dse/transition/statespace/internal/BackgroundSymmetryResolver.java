@@ -0,0 +1,97 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Resolves the symmetries queued in a {@link CompleteEquivalenceClassStore} on background threads, so that threads
+ * submitting versions don't have to wait for isomorphism checks.
+ */
+public class BackgroundSymmetryResolver implements AutoCloseable {
+	/**
+	 * Idle threads wake up periodically to check whether they should stop.
+	 */
+	private static final long IDLE_WAIT_MILLIS = 100;
+
+	private final CompleteEquivalenceClassStore equivalenceClassStore;
+	private final Runnable onFailure;
+	private final ExecutorService executorService;
+	private final List<Future<?>> futures;
+	private volatile boolean closed;
+
+	/**
+	 * Starts resolving symmetries.
+	 *
+	 * @param equivalenceClassStore The store with the queued symmetries.
+	 * @param numberOfThreads       The number of background threads.
+	 * @param onFailure             Called on the background thread if resolving a symmetry fails. The failure is
+	 *                              rethrown by {@link #close()}.
+	 */
+	public BackgroundSymmetryResolver(CompleteEquivalenceClassStore equivalenceClassStore, int numberOfThreads,
+									  Runnable onFailure) {
+		if (numberOfThreads <= 0) {
+			throw new IllegalArgumentException("Number of threads must be positive, got %d"
+					.formatted(numberOfThreads));
+		}
+		this.equivalenceClassStore = equivalenceClassStore;
+		this.onFailure = onFailure;
+		executorService = Executors.newFixedThreadPool(numberOfThreads);
+		futures = new ArrayList<>(numberOfThreads);
+		for (int i = 0; i < numberOfThreads; i++) {
+			futures.add(executorService.submit(this::resolveSymmetries));
+		}
+	}
+
+	private void resolveSymmetries() {
+		try {
+			while (!closed) {
+				equivalenceClassStore.resolveOneSymmetry(IDLE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (RuntimeException | Error e) {
+			onFailure.run();
+			throw e;
+		}
+	}
+
+	/**
+	 * Stops the background threads after they finish the symmetries they are currently resolving. Symmetries still in
+	 * the queue are left unresolved.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		executorService.shutdown();
+		Throwable failure = null;
+		boolean interrupted = false;
+		for (var future : futures) {
+			try {
+				future.get();
+			} catch (ExecutionException e) {
+				if (failure == null) {
+					failure = e.getCause();
+				}
+			} catch (InterruptedException e) {
+				interrupted = true;
+				break;
+			}
+		}
+		if (interrupted) {
+			executorService.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+		if (failure instanceof RuntimeException runtimeException) {
+			throw runtimeException;
+		}
+		if (failure instanceof Error error) {
+			throw error;
+		}
+	}
+}
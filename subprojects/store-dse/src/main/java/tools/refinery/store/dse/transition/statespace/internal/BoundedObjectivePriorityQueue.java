@@ -0,0 +1,135 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.dse.transition.objectives.Objective;
+import tools.refinery.store.dse.transition.statespace.EvictionPolicy;
+import tools.refinery.store.dse.transition.statespace.ObjectivePriorityQueue;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Frontier holding at most a fixed number of versions.
+ * <p>
+ * When a submitted version would exceed the capacity, a version selected by the {@link EvictionPolicy} is removed
+ * and passed to {@code actionWhenEvicted}, which should drop all other references to the version, so that the model
+ * store can reclaim its memory. The action is called without holding the lock of the queue.
+ * </p>
+ */
+public class BoundedObjectivePriorityQueue implements ObjectivePriorityQueue {
+	private final Comparator<VersionWithObjectiveValue> comparator;
+	private final int capacity;
+	private final EvictionPolicy evictionPolicy;
+	private final Consumer<VersionWithObjectiveValue> actionWhenEvicted;
+	// Ordered by objective value, the best version first.
+	private final TreeSet<Entry> entries;
+	// Ordered by submission, the oldest version first.
+	private final LinkedHashMap<VersionWithObjectiveValue, Entry> versionToEntry = new LinkedHashMap<>();
+	private long nextSequenceNumber;
+
+	public BoundedObjectivePriorityQueue(List<Objective> objectives, int capacity, EvictionPolicy evictionPolicy,
+										 Consumer<VersionWithObjectiveValue> actionWhenEvicted) {
+		if (objectives.size() != 1) {
+			throw new UnsupportedOperationException("Only single objective comparator is implemented currently!");
+		}
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive, got %d".formatted(capacity));
+		}
+		comparator = ObjectivePriorityQueueImpl.c1;
+		this.capacity = capacity;
+		this.evictionPolicy = evictionPolicy;
+		this.actionWhenEvicted = actionWhenEvicted;
+		entries = new TreeSet<>(Comparator.comparing(Entry::version, comparator)
+				.thenComparingLong(Entry::sequenceNumber));
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public EvictionPolicy getEvictionPolicy() {
+		return evictionPolicy;
+	}
+
+	@Override
+	public Comparator<VersionWithObjectiveValue> getComparator() {
+		return comparator;
+	}
+
+	@Override
+	public void submit(VersionWithObjectiveValue versionWithObjectiveValue) {
+		VersionWithObjectiveValue evicted = null;
+		synchronized (this) {
+			if (versionToEntry.containsKey(versionWithObjectiveValue)) {
+				return;
+			}
+			var entry = new Entry(versionWithObjectiveValue, nextSequenceNumber);
+			nextSequenceNumber++;
+			versionToEntry.put(versionWithObjectiveValue, entry);
+			entries.add(entry);
+			if (versionToEntry.size() > capacity) {
+				var victim = switch (evictionPolicy) {
+					case WORST_OBJECTIVE -> entries.last();
+					case OLDEST -> versionToEntry.values().iterator().next();
+				};
+				versionToEntry.remove(victim.version());
+				entries.remove(victim);
+				evicted = victim.version();
+			}
+		}
+		if (evicted != null) {
+			actionWhenEvicted.accept(evicted);
+		}
+	}
+
+	@Override
+	public synchronized void remove(VersionWithObjectiveValue versionWithObjectiveValue) {
+		var entry = versionToEntry.remove(versionWithObjectiveValue);
+		if (entry != null) {
+			entries.remove(entry);
+		}
+	}
+
+	@Override
+	public synchronized int getSize() {
+		return versionToEntry.size();
+	}
+
+	@Override
+	public synchronized VersionWithObjectiveValue getBest() {
+		return entries.isEmpty() ? null : entries.first().version();
+	}
+
+	@Override
+	public synchronized VersionWithObjectiveValue getRandom(Random random) {
+		int size = getSize();
+		return size == 0 ? null : getRandomAmongBest(size, random);
+	}
+
+	@Override
+	public synchronized VersionWithObjectiveValue getRandomAmongBest(int count, Random random) {
+		if (count <= 0) {
+			throw new IllegalArgumentException("Number of versions to choose from must be positive, got %d"
+					.formatted(count));
+		}
+		int size = getSize();
+		if (size == 0) {
+			return null;
+		}
+		int randomPosition = random.nextInt(Math.min(count, size));
+		for (var entry : entries) {
+			if (randomPosition-- == 0) {
+				return entry.version();
+			}
+		}
+		throw new IllegalStateException("The priority queue is inconsistent!");
+	}
+
+	private record Entry(VersionWithObjectiveValue version, long sequenceNumber) {
+	}
+}
@@ -1,104 +1,179 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
 package tools.refinery.store.dse.transition.statespace.internal;
 
-import org.eclipse.collections.api.factory.primitive.IntObjectMaps;
-import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.factory.primitive.LongObjectMaps;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
 import tools.refinery.store.dse.transition.statespace.EquivalenceClassStore;
 import tools.refinery.store.statecoding.StateCoderResult;
 import tools.refinery.store.statecoding.StateCoderStoreAdapter;
 import tools.refinery.store.statecoding.StateEquivalenceChecker;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Equivalence class store that checks whether versions with the same model code are isomorphic.
+ * <p>
+ * Versions with a new model code are passed to {@link #delegate(VersionWithObjectiveValue, int[], boolean)}
+ * immediately. Versions with a model code that was already seen are queued, and only passed on if
+ * {@link #resolveOneSymmetry()} finds them to be different from the first version with the same code. Symmetries may
+ * be resolved by other threads, e.g., with a {@link BackgroundSymmetryResolver}.
+ * </p>
+ */
 public abstract class CompleteEquivalenceClassStore extends AbstractEquivalenceClassStore implements EquivalenceClassStore {
-
-	static class SymmetryStoreArray extends ArrayList<VersionWithObjectiveValue> {
-		final int[] activationSizes;
-		final boolean accept;
-
-		SymmetryStoreArray(int[] activationSizes, boolean accept) {
-			super();
-			this.activationSizes = activationSizes;
-			this.accept = accept;
+	private record Representative(VersionWithObjectiveValue version, int[] emptyActivations, boolean accept) {
+		boolean maybeSymmetricWith(int[] otherEmptyActivations, boolean otherAccept) {
+			return accept == otherAccept && Arrays.equals(emptyActivations, otherEmptyActivations);
 		}
 	}
 
-	private final MutableIntObjectMap<Object> modelCode2Versions = IntObjectMaps.mutable.empty();
+	private record SymmetryCandidate(VersionWithObjectiveValue representative, VersionWithObjectiveValue version,
+									 int[] emptyActivations, boolean accept) {
+	}
+
+	// Model codes submitted without a version are mapped to {@code null}.
+	private final MutableLongObjectMap<Representative> representatives = LongObjectMaps.mutable.empty();
+	private final BlockingQueue<SymmetryCandidate> unresolvedSymmetries = new LinkedBlockingQueue<>();
+	private final AtomicLong numberOfCollisions = new AtomicLong();
+	private final AtomicLong numberOfUnknownEquivalences = new AtomicLong();
 
 	protected CompleteEquivalenceClassStore(StateCoderStoreAdapter stateCoderStoreAdapter) {
-		super(stateCoderStoreAdapter);
+		this(stateCoderStoreAdapter, false);
+	}
+
+	protected CompleteEquivalenceClassStore(StateCoderStoreAdapter stateCoderStoreAdapter, boolean wideModelCodes) {
+		super(stateCoderStoreAdapter, wideModelCodes);
+	}
+
+	/**
+	 * Called when a queued version turns out to be isomorphic to a version already in the store.
+	 *
+	 * @param version The version that won't be passed on.
+	 */
+	protected void discard(VersionWithObjectiveValue version) {
+		// Nothing to clean up by default.
 	}
 
 	@Override
-	protected boolean tryToAdd(StateCoderResult stateCoderResult, VersionWithObjectiveValue newVersion,
-					   int[] emptyActivations, boolean accept) {
-		int modelCode = stateCoderResult.modelCode();
-		Object old = modelCode2Versions.updateValue(
-				modelCode,
-				() -> newVersion,
-				x -> {
-					if (x instanceof SymmetryStoreArray array) {
-						if(array.accept != accept || array.activationSizes != emptyActivations) {
-							this.delegate(newVersion,emptyActivations,accept);
-							return x;
-						}
-						array.add(newVersion);
-						return array;
-					} else {
-						SymmetryStoreArray result = new SymmetryStoreArray(emptyActivations, accept);
-						result.add((VersionWithObjectiveValue) x);
-						result.add(newVersion);
-						return result;
-					}
-				});
-		return old == null;
+	protected synchronized boolean tryToAdd(StateCoderResult stateCoderResult, VersionWithObjectiveValue newVersion,
+											int[] emptyActivations, boolean accept) {
+		long modelCode = getModelCode(stateCoderResult);
+		if (representatives.containsKey(modelCode)) {
+			return false;
+		}
+		representatives.put(modelCode, new Representative(newVersion, emptyActivations, accept));
+		return true;
 	}
 
 	@Override
-	public void resolveOneSymmetry() {
-		var unresolvedSimilarity = getOneUnresolvedSymmetry();
-		if (unresolvedSimilarity == null) {
-			return;
+	public synchronized boolean tryToAdd(StateCoderResult stateCoderResult) {
+		long modelCode = getModelCode(stateCoderResult);
+		if (representatives.containsKey(modelCode)) {
+			return false;
 		}
-		var outcome = this.stateCoderStoreAdapter.checkEquivalence(unresolvedSimilarity.get(0).version(),
-				unresolvedSimilarity.get(1).version());
-		if (outcome != StateEquivalenceChecker.EquivalenceResult.ISOMORPHIC) {
-			delegate(unresolvedSimilarity.get(1), unresolvedSimilarity.activationSizes, unresolvedSimilarity.accept);
+		representatives.put(modelCode, null);
+		return true;
+	}
+
+	@Override
+	public boolean submit(VersionWithObjectiveValue version, StateCoderResult stateCoderResult,
+						  int[] emptyActivations, boolean accept) {
+		synchronized (this) {
+			if (!tryToAdd(stateCoderResult, version, emptyActivations, accept)) {
+				var representative = representatives.get(getModelCode(stateCoderResult));
+				if (representative == null) {
+					// Only the model code was submitted, so there is nothing to compare the version with.
+					return false;
+				}
+				if (representative.maybeSymmetricWith(emptyActivations, accept)) {
+					numberOfUnresolvedSymmetries++;
+					unresolvedSymmetries.add(new SymmetryCandidate(representative.version(), version,
+							emptyActivations, accept));
+					return false;
+				}
+			}
 		}
+		// Call the delegate without holding the lock, because it may notify the other stores.
+		delegate(version, emptyActivations, accept);
+		return true;
 	}
 
-	//record  UnresolvedSymmetryResult
+	@Override
+	public void resolveOneSymmetry() {
+		var candidate = unresolvedSymmetries.poll();
+		if (candidate != null) {
+			resolve(candidate);
+		}
+	}
 
-	private synchronized SymmetryStoreArray getOneUnresolvedSymmetry() {
-		if (numberOfUnresolvedSymmetries <= 0) {
-			return null;
+	/**
+	 * Waits for a queued version and checks whether it is isomorphic to the version with the same model code.
+	 *
+	 * @param timeout The maximal time to wait.
+	 * @param unit    The unit of {@code timeout}.
+	 * @return {@code true} if a symmetry was resolved, {@code false} if the timeout elapsed.
+	 * @throws InterruptedException If the thread was interrupted while waiting.
+	 */
+	public boolean resolveOneSymmetry(long timeout, TimeUnit unit) throws InterruptedException {
+		var candidate = unresolvedSymmetries.poll(timeout, unit);
+		if (candidate == null) {
+			return false;
 		}
+		resolve(candidate);
+		return true;
+	}
 
-		for (var entry : modelCode2Versions.keyValuesView()) {
-			int hash = entry.getOne();
-			var value = entry.getTwo();
-			if (value instanceof SymmetryStoreArray array) {
-				int size = array.size();
-				var representative = array.get(0);
-				var similar = array.get(size - 1);
-				array.remove(size - 1);
-
-				if (size <= 2) {
-					modelCode2Versions.put(hash, representative);
+	private void resolve(SymmetryCandidate candidate) {
+		boolean isomorphic;
+		try {
+			var outcome = stateCoderStoreAdapter.checkEquivalence(candidate.representative().version(),
+					candidate.version().version());
+			isomorphic = outcome == StateEquivalenceChecker.EquivalenceResult.ISOMORPHIC;
+			if (!isomorphic) {
+				if (outcome == StateEquivalenceChecker.EquivalenceResult.DIFFERENT) {
+					numberOfCollisions.incrementAndGet();
+				} else {
+					numberOfUnknownEquivalences.incrementAndGet();
 				}
-
-				var result = new SymmetryStoreArray(array.activationSizes, array.accept);
-				result.add(representative);
-				result.add(similar);
-				return result;
+				delegate(candidate.version(), candidate.emptyActivations(), candidate.accept());
 			}
+		} finally {
+			// Only decrement after calling the delegate, so that the new version is already visible to any thread
+			// that sees no unresolved symmetries.
+			synchronized (this) {
+				numberOfUnresolvedSymmetries--;
+			}
+		}
+		if (isomorphic) {
+			discard(candidate.version());
 		}
+	}
+
+	/**
+	 * Gets the number of resolved symmetries where the versions turned out to be different despite having the same
+	 * model code.
+	 *
+	 * @return The number of detected collisions.
+	 */
+	public long getNumberOfCollisions() {
+		return numberOfCollisions.get();
+	}
 
-		return null;
+	/**
+	 * Gets the number of resolved symmetries where the equivalence checker could not decide whether the versions are
+	 * isomorphic. These are treated as different versions, but might not be real collisions.
+	 *
+	 * @return The number of undecided symmetries.
+	 */
+	public long getNumberOfUnknownEquivalences() {
+		return numberOfUnknownEquivalences.get();
 	}
 }
@@ -0,0 +1,207 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.dse.transition.statespace.ActivationStore;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Activation store for exploring with multiple workers.
+ * <p>
+ * Unlike {@link ActivationStoreImpl}, which guards all versions with a single monitor, versions are looked up in a
+ * concurrent map and each version is locked separately, so workers exploring different versions never wait for each
+ * other. The visited activations of each transformation are stored in a bit vector, which is only allocated when the
+ * first activation of the transformation is visited. Visiting an activation allocates nothing apart from the returned
+ * {@link VisitResult}.
+ * </p>
+ */
+public class ConcurrentActivationStore implements ActivationStore {
+	private static final VisitResult NOT_FOUND = new VisitResult(false, false, -1, -1);
+	private static final VisitResult NEW_WITH_MORE = new VisitResult(true, true, -1, -1);
+	private static final VisitResult NEW_WITHOUT_MORE = new VisitResult(true, false, -1, -1);
+	private static final VisitResult EXISTING_WITH_MORE = new VisitResult(false, true, -1, -1);
+
+	private final int numberOfTransformations;
+	private final Consumer<VersionWithObjectiveValue> actionWhenAllActivationVisited;
+	private final ConcurrentHashMap<VersionWithObjectiveValue, Activations> versionToActivations =
+			new ConcurrentHashMap<>();
+
+	public ConcurrentActivationStore(int numberOfTransformations,
+									 Consumer<VersionWithObjectiveValue> actionWhenAllActivationVisited) {
+		this.numberOfTransformations = numberOfTransformations;
+		this.actionWhenAllActivationVisited = actionWhenAllActivationVisited;
+	}
+
+	int getNumberOfStoredVersions() {
+		return versionToActivations.size();
+	}
+
+	@Override
+	public VisitResult markNewAsVisited(VersionWithObjectiveValue to, int[] emptyEntrySizes) {
+		if (emptyEntrySizes.length != numberOfTransformations) {
+			throw new IllegalArgumentException("Expected %d activation sizes, got %d"
+					.formatted(numberOfTransformations, emptyEntrySizes.length));
+		}
+		boolean successful = false;
+		var activations = versionToActivations.get(to);
+		if (activations == null) {
+			var newActivations = new Activations(emptyEntrySizes);
+			activations = versionToActivations.putIfAbsent(to, newActivations);
+			if (activations == null) {
+				activations = newActivations;
+				successful = true;
+			}
+		}
+		boolean hasMore;
+		synchronized (activations) {
+			hasMore = activations.totalUnvisited > 0;
+			if (!hasMore) {
+				release(to, activations);
+			}
+		}
+		if (successful) {
+			return hasMore ? NEW_WITH_MORE : NEW_WITHOUT_MORE;
+		}
+		return hasMore ? EXISTING_WITH_MORE : NOT_FOUND;
+	}
+
+	@Override
+	public boolean hasUnmarkedActivation(VersionWithObjectiveValue version) {
+		var activations = versionToActivations.get(version);
+		if (activations == null) {
+			return false;
+		}
+		synchronized (activations) {
+			return activations.totalUnvisited > 0;
+		}
+	}
+
+	@Override
+	public VisitResult getRandomAndMarkAsVisited(VersionWithObjectiveValue version, Random random) {
+		var activations = versionToActivations.get(version);
+		if (activations == null) {
+			return NOT_FOUND;
+		}
+		synchronized (activations) {
+			if (activations.totalUnvisited == 0) {
+				release(version, activations);
+				return NOT_FOUND;
+			}
+			// Select a transformation with a probability proportional to its number of unvisited activations.
+			int offset = random.nextInt(activations.totalUnvisited);
+			int transformation = 0;
+			while (offset >= activations.numberOfUnvisited[transformation]) {
+				offset -= activations.numberOfUnvisited[transformation];
+				transformation++;
+			}
+			int startIndex = random.nextInt(activations.numberOfActivations[transformation]);
+			int activation = activations.visitFrom(transformation, startIndex);
+			boolean hasMore = activations.totalUnvisited > 0;
+			if (!hasMore) {
+				release(version, activations);
+			}
+			return new VisitResult(true, hasMore, transformation, activation);
+		}
+	}
+
+	@Override
+	public void remove(VersionWithObjectiveValue version) {
+		var activations = versionToActivations.get(version);
+		if (activations == null) {
+			return;
+		}
+		synchronized (activations) {
+			// Prevent calling {@code actionWhenAllActivationVisited} for the removed version.
+			activations.released = true;
+			versionToActivations.remove(version, activations);
+		}
+	}
+
+	/**
+	 * Releases a version whose activations were all visited. Must be called while holding the lock of
+	 * {@code activations}.
+	 *
+	 * @param version     The fully expanded version.
+	 * @param activations The activations of the version.
+	 */
+	private void release(VersionWithObjectiveValue version, Activations activations) {
+		if (activations.released) {
+			return;
+		}
+		activations.released = true;
+		versionToActivations.remove(version, activations);
+		actionWhenAllActivationVisited.accept(version);
+	}
+
+	private static final class Activations {
+		private static final int WORD_POSITION = 6; // log2 of Long.SIZE
+
+		final int[] numberOfActivations;
+		final int[] numberOfUnvisited;
+		// Bit vectors of visited activations for each transformation, allocated on the first visit.
+		final long[][] visited;
+		int totalUnvisited;
+		boolean released;
+
+		Activations(int[] emptyEntrySizes) {
+			numberOfActivations = emptyEntrySizes;
+			numberOfUnvisited = emptyEntrySizes.clone();
+			visited = new long[emptyEntrySizes.length][];
+			for (int size : emptyEntrySizes) {
+				totalUnvisited += size;
+			}
+		}
+
+		/**
+		 * Marks the first unvisited activation at or after {@code index} as visited, wrapping around to the first
+		 * activation if needed.
+		 *
+		 * @param transformation The index of a transformation with unvisited activations.
+		 * @param index          The activation to start searching from.
+		 * @return The index of the visited activation.
+		 */
+		int visitFrom(int transformation, int index) {
+			int size = numberOfActivations[transformation];
+			var bits = visited[transformation];
+			if (bits == null) {
+				bits = new long[((size - 1) >> WORD_POSITION) + 1];
+				visited[transformation] = bits;
+			}
+			int activation = nextClearBit(bits, index, size);
+			if (activation < 0) {
+				activation = nextClearBit(bits, 0, size);
+				if (activation < 0) {
+					throw new IllegalArgumentException("There is are no unvisited activations!");
+				}
+			}
+			bits[activation >> WORD_POSITION] |= 1L << activation;
+			numberOfUnvisited[transformation]--;
+			totalUnvisited--;
+			return activation;
+		}
+
+		private static int nextClearBit(long[] bits, int fromIndex, int size) {
+			int wordIndex = fromIndex >> WORD_POSITION;
+			// Shifts by {@code fromIndex} modulo {@code Long.SIZE}.
+			long word = ~bits[wordIndex] & (-1L << fromIndex);
+			while (true) {
+				if (word != 0) {
+					int result = (wordIndex << WORD_POSITION) + Long.numberOfTrailingZeros(word);
+					return result < size ? result : -1;
+				}
+				wordIndex++;
+				if (wordIndex == bits.length) {
+					return -1;
+				}
+				word = ~bits[wordIndex];
+			}
+		}
+	}
+}
@@ -1,12 +1,14 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
 package tools.refinery.store.dse.transition.statespace.internal;
 
 import org.eclipse.collections.api.factory.primitive.IntSets;
+import org.eclipse.collections.api.factory.primitive.LongSets;
 import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
 import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
 import tools.refinery.store.dse.transition.statespace.EquivalenceClassStore;
 import tools.refinery.store.statecoding.StateCoderResult;
@@ -14,20 +16,35 @@ import tools.refinery.store.statecoding.StateCoderStoreAdapter;
 
 public abstract class FastEquivalenceClassStore extends AbstractEquivalenceClassStore implements EquivalenceClassStore {
 
-	private final MutableIntSet codes = IntSets.mutable.empty();
+	// Only one of the sets is used, depending on the width of the model codes.
+	private final MutableIntSet codes;
+	private final MutableLongSet wideCodes;
 
 	protected FastEquivalenceClassStore(StateCoderStoreAdapter stateCoderStoreAdapter) {
-		super(stateCoderStoreAdapter);
+		this(stateCoderStoreAdapter, false);
+	}
+
+	protected FastEquivalenceClassStore(StateCoderStoreAdapter stateCoderStoreAdapter, boolean wideModelCodes) {
+		super(stateCoderStoreAdapter, wideModelCodes);
+		codes = wideModelCodes ? null : IntSets.mutable.empty();
+		wideCodes = wideModelCodes ? LongSets.mutable.empty() : null;
 	}
 
 	@Override
 	protected synchronized boolean tryToAdd(StateCoderResult stateCoderResult, VersionWithObjectiveValue newVersion,
 								int[] emptyActivations, boolean accept) {
-		return this.codes.add(stateCoderResult.modelCode());
+		return add(stateCoderResult);
 	}
 
 	public synchronized boolean tryToAdd(StateCoderResult stateCoderResult) {
-		return this.codes.add(stateCoderResult.modelCode());
+		return add(stateCoderResult);
+	}
+
+	private boolean add(StateCoderResult stateCoderResult) {
+		if (wideModelCodes) {
+			return wideCodes.add(stateCoderResult.wideModelCode());
+		}
+		return codes.add(stateCoderResult.modelCode());
 	}
 
 	@Override
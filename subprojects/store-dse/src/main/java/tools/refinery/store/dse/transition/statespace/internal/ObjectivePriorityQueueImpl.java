@@ -65,4 +65,40 @@ public class ObjectivePriorityQueueImpl implements ObjectivePriorityQueue {
 		}
 		throw new IllegalStateException("The priority queue is inconsistent!");
 	}
+
+	@Override
+	public synchronized VersionWithObjectiveValue getRandomAmongBest(int count, Random random) {
+		if (count <= 0) {
+			throw new IllegalArgumentException("Number of versions to choose from must be positive, got %d"
+					.formatted(count));
+		}
+		int size = getSize();
+		if (size == 0) {
+			return null;
+		}
+		if (count >= size) {
+			return getRandom(random);
+		}
+		if (count == 1) {
+			return getBest();
+		}
+		// Keep the best versions seen so far with the worst of them at the head.
+		var comparator = getComparator();
+		var bestVersions = new PriorityQueue<>(count, comparator.reversed());
+		for (VersionWithObjectiveValue entry : this.priorityQueue) {
+			if (bestVersions.size() < count) {
+				bestVersions.add(entry);
+			} else if (comparator.compare(entry, bestVersions.peek()) < 0) {
+				bestVersions.poll();
+				bestVersions.add(entry);
+			}
+		}
+		int randomPosition = random.nextInt(count);
+		for (VersionWithObjectiveValue entry : bestVersions) {
+			if (randomPosition-- == 0) {
+				return entry;
+			}
+		}
+		throw new IllegalStateException("The priority queue is inconsistent!");
+	}
 }
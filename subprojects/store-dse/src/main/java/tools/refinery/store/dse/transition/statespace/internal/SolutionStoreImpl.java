@@ -9,6 +9,7 @@ import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
 import tools.refinery.store.dse.transition.statespace.SolutionStore;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.PriorityQueue;
 
@@ -16,37 +17,86 @@ import java.util.PriorityQueue;
 public class SolutionStoreImpl implements SolutionStore {
 	final int maxNumberSolutions;
 	public static final int UNLIMITED = -1;
-	final PriorityQueue<VersionWithObjectiveValue> solutions;
+	private final Comparator<Entry> comparator;
+	private final PriorityQueue<Entry> solutions;
+	private long submissionCount;
 
 	public SolutionStoreImpl(int maxNumberSolutions) {
-		this.maxNumberSolutions = maxNumberSolutions;
-		solutions = new PriorityQueue<>(ObjectivePriorityQueueImpl.c1.reversed());
+		this(maxNumberSolutions, ObjectivePriorityQueueImpl.c1);
 	}
 
+	/**
+	 * Creates a solution store that keeps the best solutions according to a comparator.
+	 *
+	 * @param maxNumberSolutions The maximum number of solutions to keep, or {@link #UNLIMITED}.
+	 * @param comparator         Orders solutions from the best to the worst. Solutions the comparator considers equal
+	 *                           are ordered by the keys they were submitted with.
+	 */
+	public SolutionStoreImpl(int maxNumberSolutions, Comparator<VersionWithObjectiveValue> comparator) {
+		this.maxNumberSolutions = maxNumberSolutions;
+		this.comparator = Comparator.<Entry, VersionWithObjectiveValue>comparing(Entry::solution, comparator)
+				.thenComparingLong(Entry::key);
+		solutions = new PriorityQueue<>(this.comparator.reversed());
+	}
 
+	/**
+	 * Submits a solution. Solutions the comparator considers equal are ordered by their submission order.
+	 *
+	 * @param version The solution.
+	 * @return {@code true} if the solution was retained.
+	 */
 	@Override
 	public synchronized boolean submit(VersionWithObjectiveValue version) {
+		return submit(version, submissionCount);
+	}
+
+	/**
+	 * Submits a solution with a key that orders it among the solutions the comparator considers equal. Solutions
+	 * with smaller keys come first. The key is kept together with the solution, so it does not change while the
+	 * solution is retained.
+	 *
+	 * @param version The solution.
+	 * @param key     The key that breaks ties with other solutions.
+	 * @return {@code true} if the solution was retained.
+	 */
+	public synchronized boolean submit(VersionWithObjectiveValue version, long key) {
+		submissionCount++;
 		boolean removeLast = hasEnoughSolution();
-		solutions.add(version);
+		var entry = new Entry(version, key);
+		solutions.add(entry);
 		if(removeLast) {
 			var last = solutions.poll();
-			return last != version;
+			return last != entry;
 		} else {
 			return true;
 		}
 	}
 
+	/**
+	 * Gets the retained solutions.
+	 *
+	 * @return The solutions ordered from the best to the worst.
+	 */
 	@Override
-	public List<VersionWithObjectiveValue> getSolutions() {
-		return new ArrayList<>(solutions);
+	public synchronized List<VersionWithObjectiveValue> getSolutions() {
+		var entries = new ArrayList<>(solutions);
+		entries.sort(comparator);
+		var result = new ArrayList<VersionWithObjectiveValue>(entries.size());
+		for (var entry : entries) {
+			result.add(entry.solution());
+		}
+		return result;
 	}
 
 	@Override
-	public boolean hasEnoughSolution() {
+	public synchronized boolean hasEnoughSolution() {
 		if (maxNumberSolutions == UNLIMITED) {
 			return false;
 		} else {
 			return solutions.size() >= maxNumberSolutions;
 		}
 	}
+
+	private record Entry(VersionWithObjectiveValue solution, long key) {
+	}
 }
@@ -0,0 +1,48 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statistics;
+
+public enum ExplorationPhase {
+	/**
+	 * Selecting and firing an activation of a transformation.
+	 */
+	FIRE,
+
+	/**
+	 * Running the propagators after firing an activation.
+	 */
+	PROPAGATE,
+
+	/**
+	 * Flushing pending changes to the query engine.
+	 */
+	FLUSH,
+
+	/**
+	 * Calculating the state code of the model.
+	 */
+	STATE_CODE,
+
+	/**
+	 * Committing a new version of the model.
+	 */
+	COMMIT,
+
+	/**
+	 * Restoring a previously explored version of the model.
+	 */
+	RESTORE,
+
+	/**
+	 * Evaluating the objectives on a new version.
+	 */
+	OBJECTIVE,
+
+	/**
+	 * Concretizing an accepted version into a solution.
+	 */
+	CONCRETIZE
+}
@@ -0,0 +1,22 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statistics;
+
+import jdk.jfr.*;
+
+@Name("tools.refinery.store.dse.ExplorationPhase")
+@Label("Exploration Phase")
+@Category({"Refinery", "Design Space Exploration"})
+@Description("A phase of the design space exploration loop")
+@StackTrace(false)
+class ExplorationPhaseEvent extends Event {
+	@Label("Phase")
+	String phase;
+
+	@Label("Duration")
+	@Timespan(Timespan.NANOSECONDS)
+	long phaseDuration;
+}
@@ -0,0 +1,252 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statistics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms of the design space exploration loop.
+ * <p>
+ * Each {@link tools.refinery.store.dse.strategy.BestFirstStoreManager} keeps its own statistics, which aggregate the
+ * work of all of its exploration workers. Updates are thread-safe and lock-free. Reading the statistics while the exploration is running may return
+ * values that are slightly inconsistent with each other.
+ * </p>
+ * <p>
+ * If {@link #setJfrEventsEnabled(boolean)} is set, each timed phase is also reported as a Java Flight Recorder event
+ * named {@code tools.refinery.store.dse.ExplorationPhase}.
+ * </p>
+ */
+public class ExplorationStatistics {
+	/**
+	 * The number of histogram buckets. Bucket {@code i} counts the phases that took at least {@code 2^i} and less than
+	 * {@code 2^(i + 1)} nanoseconds, except for bucket {@code 0}, which also counts phases that took no time.
+	 */
+	public static final int HISTOGRAM_BUCKETS = Long.SIZE - 1;
+
+	private final PhaseStatistics[] phases;
+	private final LongAdder newStates = new LongAdder();
+	private final LongAdder duplicateStates = new LongAdder();
+	private final LongAdder solutions = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final AtomicInteger frontierSize = new AtomicInteger();
+	private final AtomicInteger maxFrontierSize = new AtomicInteger();
+	private volatile long startNanos = System.nanoTime();
+	private volatile boolean jfrEventsEnabled;
+
+	public ExplorationStatistics() {
+		var values = ExplorationPhase.values();
+		phases = new PhaseStatistics[values.length];
+		for (int i = 0; i < phases.length; i++) {
+			phases[i] = new PhaseStatistics();
+		}
+	}
+
+	public boolean isJfrEventsEnabled() {
+		return jfrEventsEnabled;
+	}
+
+	public void setJfrEventsEnabled(boolean jfrEventsEnabled) {
+		this.jfrEventsEnabled = jfrEventsEnabled;
+	}
+
+	/**
+	 * Starts timing a phase.
+	 *
+	 * @return The start time to pass to {@link #stopTimer(ExplorationPhase, long)}.
+	 */
+	public long startTimer() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Records the duration of a phase.
+	 *
+	 * @param phase      The timed phase.
+	 * @param startNanos The start time returned by {@link #startTimer()}.
+	 */
+	public void stopTimer(ExplorationPhase phase, long startNanos) {
+		long duration = Math.max(System.nanoTime() - startNanos, 0);
+		phases[phase.ordinal()].record(duration);
+		if (jfrEventsEnabled) {
+			var event = new ExplorationPhaseEvent();
+			if (event.shouldCommit()) {
+				event.phase = phase.name();
+				event.phaseDuration = duration;
+				event.commit();
+			}
+		}
+	}
+
+	public void recordNewState() {
+		newStates.increment();
+	}
+
+	public void recordDuplicateState() {
+		duplicateStates.increment();
+	}
+
+	public void recordSolution() {
+		solutions.increment();
+	}
+
+	public void recordEviction() {
+		evictions.increment();
+	}
+
+	public void recordFrontierSize(int size) {
+		frontierSize.set(size);
+		maxFrontierSize.accumulateAndGet(size, Math::max);
+	}
+
+	public long getCount(ExplorationPhase phase) {
+		return phases[phase.ordinal()].count.sum();
+	}
+
+	public long getTotalNanos(ExplorationPhase phase) {
+		return phases[phase.ordinal()].totalNanos.sum();
+	}
+
+	public long getMaxNanos(ExplorationPhase phase) {
+		return phases[phase.ordinal()].maxNanos.get();
+	}
+
+	public double getMeanNanos(ExplorationPhase phase) {
+		long count = getCount(phase);
+		return count == 0 ? 0 : (double) getTotalNanos(phase) / count;
+	}
+
+	/**
+	 * Gets the latency histogram of a phase.
+	 *
+	 * @param phase The timed phase.
+	 * @return The number of phases in each of the {@link #HISTOGRAM_BUCKETS} logarithmic buckets.
+	 */
+	public long[] getHistogram(ExplorationPhase phase) {
+		var buckets = phases[phase.ordinal()].buckets;
+		var histogram = new long[buckets.length];
+		for (int i = 0; i < buckets.length; i++) {
+			histogram[i] = buckets[i].sum();
+		}
+		return histogram;
+	}
+
+	public long getNewStateCount() {
+		return newStates.sum();
+	}
+
+	public long getDuplicateStateCount() {
+		return duplicateStates.sum();
+	}
+
+	public long getSolutionCount() {
+		return solutions.sum();
+	}
+
+	/**
+	 * Gets the ratio of submitted states that turned out to be already visited.
+	 *
+	 * @return The number of duplicate states divided by the number of submitted states, or {@code 0} if no states
+	 * were submitted.
+	 */
+	public double getDuplicateRatio() {
+		long duplicates = getDuplicateStateCount();
+		long total = getNewStateCount() + duplicates;
+		return total == 0 ? 0 : (double) duplicates / total;
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	public int getFrontierSize() {
+		return frontierSize.get();
+	}
+
+	public int getMaxFrontierSize() {
+		return maxFrontierSize.get();
+	}
+
+	public long getElapsedNanos() {
+		return System.nanoTime() - startNanos;
+	}
+
+	public double getStatesPerSecond() {
+		long elapsed = getElapsedNanos();
+		return elapsed <= 0 ? 0 : getNewStateCount() * 1e9 / elapsed;
+	}
+
+	/**
+	 * Clears all statistics and restarts the clock used for {@link #getStatesPerSecond()}. Should not be called while
+	 * an exploration is running.
+	 */
+	public void reset() {
+		for (var phase : phases) {
+			phase.reset();
+		}
+		newStates.reset();
+		duplicateStates.reset();
+		solutions.reset();
+		evictions.reset();
+		frontierSize.set(0);
+		maxFrontierSize.set(0);
+		startNanos = System.nanoTime();
+	}
+
+	@Override
+	public String toString() {
+		var builder = new StringBuilder();
+		builder.append("states: ").append(getNewStateCount())
+				.append(", duplicates: ").append(getDuplicateStateCount())
+				.append(" (%.1f%%)".formatted(getDuplicateRatio() * 100))
+				.append(", solutions: ").append(getSolutionCount())
+				.append(", states/s: ").append("%.1f".formatted(getStatesPerSecond()))
+				.append(", frontier: ").append(getFrontierSize())
+				.append(" (max ").append(getMaxFrontierSize()).append(")")
+				.append(", evictions: ").append(getEvictionCount());
+		for (var phase : ExplorationPhase.values()) {
+			long count = getCount(phase);
+			if (count == 0) {
+				continue;
+			}
+			builder.append("\n").append(phase).append(": ").append(count).append(" calls, ")
+					.append("%.3f ms total, %.1f us mean, %.3f ms max".formatted(getTotalNanos(phase) / 1e6,
+							getMeanNanos(phase) / 1e3, getMaxNanos(phase) / 1e6));
+		}
+		return builder.toString();
+	}
+
+	private static class PhaseStatistics {
+		final LongAdder count = new LongAdder();
+		final LongAdder totalNanos = new LongAdder();
+		final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+		final LongAdder[] buckets = new LongAdder[HISTOGRAM_BUCKETS];
+
+		PhaseStatistics() {
+			for (int i = 0; i < buckets.length; i++) {
+				buckets[i] = new LongAdder();
+			}
+		}
+
+		void record(long duration) {
+			count.increment();
+			totalNanos.add(duration);
+			maxNanos.accumulate(duration);
+			int bucket = duration == 0 ? 0 : Long.SIZE - 1 - Long.numberOfLeadingZeros(duration);
+			buckets[bucket].increment();
+		}
+
+		void reset() {
+			count.reset();
+			totalNanos.reset();
+			maxNanos.reset();
+			for (var bucket : buckets) {
+				bucket.reset();
+			}
+		}
+	}
+}
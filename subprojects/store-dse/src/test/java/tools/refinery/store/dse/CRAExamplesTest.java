@@ -29,6 +29,7 @@ import tools.refinery.store.statecoding.StateCoderAdapter;
 import tools.refinery.store.tuple.Tuple;
 import tools.refinery.visualization.ModelVisualizerAdapter;
 import tools.refinery.visualization.internal.FileFormat;
+import tools.refinery.visualization.statespace.internal.VisualizationStoreImpl;
 
 import java.util.List;
 
@@ -203,6 +204,7 @@ class CRAExamplesTest {
 			queryEngine.flushChanges();
 
 			var bestFirst = new BestFirstStoreManager(store, 50);
+			bestFirst.setVisualizationStore(new VisualizationStoreImpl());
 			bestFirst.startExploration(initialVersion);
 			var resultStore = bestFirst.getSolutionStore();
 			System.out.println("states size: " + resultStore.getSolutions().size());
@@ -0,0 +1,51 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.strategy;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.dse.tests.FriendshipExample;
+import tools.refinery.store.dse.transition.statespace.EvictionPolicy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BestFirstStoreManagerTest {
+	@Test
+	void statisticsPerManagerTest() {
+		var store = FriendshipExample.createStore();
+		var initialVersion = FriendshipExample.createInitialVersion(store);
+
+		var firstManager = new BestFirstStoreManager(store, 1);
+		firstManager.startExploration(initialVersion);
+		var firstStatistics = firstManager.getStatistics();
+		long newStateCount = firstStatistics.getNewStateCount();
+		assertTrue(newStateCount > 0);
+		assertEquals(1, firstStatistics.getSolutionCount());
+
+		var secondManager = new BestFirstStoreManager(store, 1);
+		secondManager.startExploration(initialVersion);
+		assertEquals(newStateCount, firstStatistics.getNewStateCount());
+		assertEquals(1, firstStatistics.getSolutionCount());
+		assertEquals(newStateCount, secondManager.getStatistics().getNewStateCount());
+		assertEquals(1, secondManager.getStatistics().getSolutionCount());
+
+		// Every state was already visited, so restarting the exploration does not find any new states.
+		firstManager.startExploration(initialVersion);
+		assertTrue(firstStatistics.getNewStateCount() < newStateCount);
+	}
+
+	@Test
+	void frontierCapacityAfterStartTest() {
+		var store = FriendshipExample.createStore();
+		var initialVersion = FriendshipExample.createInitialVersion(store);
+		var manager = new BestFirstStoreManager(store, 1);
+		manager.setFrontierCapacity(4, EvictionPolicy.WORST_OBJECTIVE);
+		manager.startExploration(initialVersion);
+		assertEquals(1, manager.getSolutionStore().getSolutions().size());
+		assertThrows(IllegalStateException.class, () -> manager.setFrontierCapacity(8, EvictionPolicy.OLDEST));
+	}
+}
@@ -0,0 +1,30 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.strategy;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExplorationStrategyTest {
+	@Test
+	void lubySequenceTest() {
+		var expected = new long[]{1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, 1};
+		var actual = new long[expected.length];
+		for (int i = 0; i < actual.length; i++) {
+			actual[i] = LubyRestartStrategy.luby(i + 1);
+		}
+		assertArrayEquals(expected, actual);
+	}
+
+	@Test
+	void invalidArgumentsTest() {
+		assertThrows(IllegalArgumentException.class, () -> ExplorationStrategy.bestFirst(0));
+		assertThrows(IllegalArgumentException.class, () -> ExplorationStrategy.luby(0));
+		assertThrows(IllegalArgumentException.class, () -> ExplorationStrategy.beam(-1));
+	}
+}
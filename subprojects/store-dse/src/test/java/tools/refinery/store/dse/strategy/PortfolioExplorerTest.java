@@ -0,0 +1,53 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.strategy;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.dse.tests.FriendshipExample;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PortfolioExplorerTest {
+	@Test
+	void portfolioTest() {
+		var store = FriendshipExample.createStore();
+		var initialVersion = FriendshipExample.createInitialVersion(store);
+
+		var solutionStore = new PortfolioExplorer(store, 1)
+				.add(ExplorationStrategy.bestFirst(), 1)
+				.add(ExplorationStrategy.luby(2), 2)
+				.add(ExplorationStrategy.beam(2), 3)
+				.startExploration(initialVersion);
+
+		assertEquals(1, solutionStore.getSolutions().size());
+		try (var model = store.createModelForState(solutionStore.getSolutions().get(0).version())) {
+			var friendInterpretation = model.getInterpretation(FriendshipExample.friend);
+			assertEquals(6, friendInterpretation.getSize());
+		}
+	}
+
+	@Test
+	void emptyPortfolioTest() {
+		var store = FriendshipExample.createStore();
+		var initialVersion = FriendshipExample.createInitialVersion(store);
+		var portfolio = new PortfolioExplorer(store, 1);
+		assertThrows(IllegalStateException.class, () -> portfolio.startExploration(initialVersion));
+	}
+
+	@Test
+	void cancelBeforeStartTest() {
+		var store = FriendshipExample.createStore();
+		var initialVersion = FriendshipExample.createInitialVersion(store);
+		var manager = new BestFirstStoreManager(store, 1);
+		manager.cancel();
+		manager.startExploration(initialVersion);
+		assertTrue(manager.isStopped());
+		assertTrue(manager.getSolutionStore().getSolutions().isEmpty());
+		assertEquals(0, manager.getStatistics().getNewStateCount());
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.tests;
+
+import tools.refinery.logic.dnf.Query;
+import tools.refinery.logic.dnf.RelationalQuery;
+import tools.refinery.store.dse.transition.DesignSpaceExplorationAdapter;
+import tools.refinery.store.dse.transition.Rule;
+import tools.refinery.store.dse.transition.objectives.Criteria;
+import tools.refinery.store.dse.transition.objectives.Objectives;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.ModelQueryAdapter;
+import tools.refinery.store.query.interpreter.QueryInterpreterAdapter;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.statecoding.StateCoderAdapter;
+import tools.refinery.store.tuple.Tuple;
+
+import static tools.refinery.logic.literal.Literals.not;
+import static tools.refinery.store.dse.transition.actions.ActionLiterals.add;
+
+/**
+ * Small exploration problem that adds friendships between three persons until everyone is friends with everyone
+ * else. It has a single solution with 6 friendships.
+ */
+public final class FriendshipExample {
+	public static final Symbol<Boolean> person = Symbol.of("Person", 1);
+	public static final Symbol<Boolean> friend = Symbol.of("Friend", 2);
+	private static final AnySymbolView personView = new KeyOnlyView<>(person);
+	private static final AnySymbolView friendView = new KeyOnlyView<>(friend);
+
+	private static final RelationalQuery missingFriend = Query.of("MissingFriend", (builder, p1, p2) -> builder
+			.clause(
+					personView.call(p1),
+					personView.call(p2),
+					p1.notEquivalent(p2),
+					not(friendView.call(p1, p2))
+			));
+
+	private static final Rule addFriendRule = Rule.of("AddFriend", (builder, p1, p2) -> builder
+			.clause(
+					missingFriend.call(p1, p2)
+			)
+			.action(
+					add(friend, p1, p2)
+			));
+
+	private FriendshipExample() {
+		throw new IllegalStateException("This is a static utility class and should not be instantiated directly");
+	}
+
+	public static ModelStore createStore() {
+		return ModelStore.builder()
+				.symbols(person, friend)
+				.with(QueryInterpreterAdapter.builder())
+				.with(StateCoderAdapter.builder())
+				.with(DesignSpaceExplorationAdapter.builder()
+						.transformations(addFriendRule)
+						.objectives(Objectives.count(missingFriend))
+						.accept(Criteria.whenNoMatch(missingFriend))
+						.exclude(new DummyCriterion(false)))
+				.build();
+	}
+
+	public static Version createInitialVersion(ModelStore store) {
+		try (var model = store.createEmptyModel()) {
+			var personInterpretation = model.getInterpretation(person);
+			for (int i = 0; i < 3; i++) {
+				personInterpretation.put(Tuple.of(i), true);
+			}
+			var initialVersion = model.commit();
+			model.getAdapter(ModelQueryAdapter.class).flushChanges();
+			return initialVersion;
+		}
+	}
+}
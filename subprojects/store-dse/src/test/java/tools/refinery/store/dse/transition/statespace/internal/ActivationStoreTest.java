@@ -0,0 +1,55 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.map.Version;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActivationStoreTest {
+	@Test
+	void fullyVisitedVersionIsReleasedTest() {
+		List<VersionWithObjectiveValue> fullyVisited = new ArrayList<>();
+		var store = new ActivationStoreImpl(2, fullyVisited::add);
+		var version = new VersionWithObjectiveValue(new Version() {
+		}, null);
+		assertTrue(store.markNewAsVisited(version, new int[]{1, 2}).mayHaveMore());
+		assertEquals(1, store.versionToActivations.size());
+
+		@SuppressWarnings("squid:S2245")
+		var random = new Random(1);
+		for (int i = 0; i < 3; i++) {
+			assertTrue(store.hasUnmarkedActivation(version));
+			assertTrue(store.getRandomAndMarkAsVisited(version, random).successfulVisit());
+		}
+
+		assertEquals(List.of(version), fullyVisited);
+		assertTrue(store.versionToActivations.isEmpty());
+		assertFalse(store.hasUnmarkedActivation(version));
+		var visitResult = store.getRandomAndMarkAsVisited(version, random);
+		assertFalse(visitResult.successfulVisit());
+		assertFalse(visitResult.mayHaveMore());
+	}
+
+	@Test
+	void versionWithoutActivationsIsReleasedTest() {
+		List<VersionWithObjectiveValue> fullyVisited = new ArrayList<>();
+		var store = new ActivationStoreImpl(1, fullyVisited::add);
+		var version = new VersionWithObjectiveValue(new Version() {
+		}, null);
+		var visitResult = store.markNewAsVisited(version, new int[]{0});
+		assertTrue(visitResult.successfulVisit());
+		assertFalse(visitResult.mayHaveMore());
+		assertEquals(List.of(version), fullyVisited);
+		assertTrue(store.versionToActivations.isEmpty());
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.dse.transition.ObjectiveValue;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.dse.transition.objectives.Objective;
+import tools.refinery.store.dse.transition.statespace.EvictionPolicy;
+import tools.refinery.store.map.Version;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedObjectivePriorityQueueTest {
+	private static final Objective OBJECTIVE = model -> {
+		throw new UnsupportedOperationException();
+	};
+
+	@Test
+	void evictWorstTest() {
+		List<VersionWithObjectiveValue> evicted = new ArrayList<>();
+		var queue = new BoundedObjectivePriorityQueue(List.of(OBJECTIVE), 2, EvictionPolicy.WORST_OBJECTIVE,
+				evicted::add);
+		var v2 = createVersion(2);
+		var v1 = createVersion(1);
+		var v3 = createVersion(3);
+		var v0 = createVersion(0);
+		queue.submit(v2);
+		queue.submit(v1);
+		assertTrue(evicted.isEmpty());
+		queue.submit(v3);
+		assertEquals(List.of(v3), evicted);
+		queue.submit(v0);
+		assertEquals(List.of(v3, v2), evicted);
+		assertEquals(2, queue.getSize());
+		assertEquals(v0, queue.getBest());
+	}
+
+	@Test
+	void evictOldestTest() {
+		List<VersionWithObjectiveValue> evicted = new ArrayList<>();
+		var queue = new BoundedObjectivePriorityQueue(List.of(OBJECTIVE), 2, EvictionPolicy.OLDEST, evicted::add);
+		var v2 = createVersion(2);
+		var v1 = createVersion(1);
+		var v3 = createVersion(3);
+		queue.submit(v2);
+		queue.submit(v1);
+		queue.remove(v2);
+		queue.submit(v3);
+		assertTrue(evicted.isEmpty());
+		var v0 = createVersion(0);
+		queue.submit(v0);
+		assertEquals(List.of(v1), evicted);
+		assertEquals(v0, queue.getBest());
+	}
+
+	@Test
+	void randomAmongBestTest() {
+		List<VersionWithObjectiveValue> evicted = new ArrayList<>();
+		var queue = new BoundedObjectivePriorityQueue(List.of(OBJECTIVE), 10, EvictionPolicy.WORST_OBJECTIVE,
+				evicted::add);
+		@SuppressWarnings("squid:S2245")
+		var random = new Random(1);
+		assertNull(queue.getRandom(random));
+		for (int i = 0; i < 5; i++) {
+			queue.submit(createVersion(i));
+		}
+		for (int i = 0; i < 20; i++) {
+			double value = objectiveValue(queue.getRandomAmongBest(2, random));
+			assertTrue(value == 0 || value == 1);
+		}
+		assertNotNull(queue.getRandom(random));
+		assertTrue(evicted.isEmpty());
+	}
+
+	private static VersionWithObjectiveValue createVersion(double objectiveValue) {
+		return new VersionWithObjectiveValue(new Version() {
+		}, ObjectiveValue.of(objectiveValue));
+	}
+
+	private static double objectiveValue(VersionWithObjectiveValue version) {
+		return version.objectiveValue().get(0);
+	}
+}
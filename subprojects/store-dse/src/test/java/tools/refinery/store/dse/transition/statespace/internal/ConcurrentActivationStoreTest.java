@@ -0,0 +1,164 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.map.Version;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentActivationStoreTest {
+	@Test
+	void fullyVisitedVersionIsReleasedTest() {
+		List<VersionWithObjectiveValue> fullyVisited = new ArrayList<>();
+		var store = new ConcurrentActivationStore(2, fullyVisited::add);
+		var version = createVersion();
+		assertTrue(store.markNewAsVisited(version, new int[]{1, 2}).mayHaveMore());
+		assertEquals(1, store.getNumberOfStoredVersions());
+
+		@SuppressWarnings("squid:S2245")
+		var random = new Random(1);
+		for (int i = 0; i < 3; i++) {
+			assertTrue(store.hasUnmarkedActivation(version));
+			assertTrue(store.getRandomAndMarkAsVisited(version, random).successfulVisit());
+		}
+
+		assertEquals(List.of(version), fullyVisited);
+		assertEquals(0, store.getNumberOfStoredVersions());
+		assertFalse(store.hasUnmarkedActivation(version));
+		var visitResult = store.getRandomAndMarkAsVisited(version, random);
+		assertFalse(visitResult.successfulVisit());
+		assertFalse(visitResult.mayHaveMore());
+	}
+
+	@Test
+	void versionWithoutActivationsIsReleasedTest() {
+		List<VersionWithObjectiveValue> fullyVisited = new ArrayList<>();
+		var store = new ConcurrentActivationStore(1, fullyVisited::add);
+		var version = createVersion();
+		var visitResult = store.markNewAsVisited(version, new int[]{0});
+		assertTrue(visitResult.successfulVisit());
+		assertFalse(visitResult.mayHaveMore());
+		assertEquals(List.of(version), fullyVisited);
+		assertEquals(0, store.getNumberOfStoredVersions());
+	}
+
+	@Test
+	void existingVersionIsNotMarkedAgainTest() {
+		var store = new ConcurrentActivationStore(1, version -> {
+		});
+		var version = createVersion();
+		assertTrue(store.markNewAsVisited(version, new int[]{3}).successfulVisit());
+		var visitResult = store.markNewAsVisited(version, new int[]{3});
+		assertFalse(visitResult.successfulVisit());
+		assertTrue(visitResult.mayHaveMore());
+	}
+
+	@Test
+	void removedVersionIsNotReleasedTest() {
+		List<VersionWithObjectiveValue> fullyVisited = new ArrayList<>();
+		var store = new ConcurrentActivationStore(1, fullyVisited::add);
+		var version = createVersion();
+		store.markNewAsVisited(version, new int[]{2});
+		store.remove(version);
+		assertEquals(0, store.getNumberOfStoredVersions());
+		assertFalse(store.hasUnmarkedActivation(version));
+		@SuppressWarnings("squid:S2245")
+		var random = new Random(1);
+		var visitResult = store.getRandomAndMarkAsVisited(version, random);
+		assertFalse(visitResult.successfulVisit());
+		assertFalse(visitResult.mayHaveMore());
+		assertTrue(fullyVisited.isEmpty());
+	}
+
+	@Test
+	void everyActivationIsVisitedOnceTest() {
+		var store = new ConcurrentActivationStore(3, version -> {
+		});
+		var version = createVersion();
+		// Sizes around word boundaries of the bit vectors.
+		var sizes = new int[]{63, 64, 130};
+		store.markNewAsVisited(version, sizes.clone());
+
+		@SuppressWarnings("squid:S2245")
+		var random = new Random(2);
+		var visited = new HashSet<List<Integer>>();
+		int total = Arrays.stream(sizes).sum();
+		for (int i = 0; i < total; i++) {
+			var visitResult = store.getRandomAndMarkAsVisited(version, random);
+			assertTrue(visitResult.successfulVisit());
+			assertEquals(i < total - 1, visitResult.mayHaveMore());
+			int transformation = visitResult.transformation();
+			int activation = visitResult.activation();
+			assertTrue(activation >= 0 && activation < sizes[transformation]);
+			assertTrue(visited.add(List.of(transformation, activation)));
+		}
+		assertFalse(store.hasUnmarkedActivation(version));
+	}
+
+	@Test
+	void concurrentVisitTest() throws ExecutionException, InterruptedException {
+		int numberOfThreads = 4;
+		int numberOfVersions = 16;
+		var sizes = new int[]{10, 0, 100};
+		int activationsPerVersion = Arrays.stream(sizes).sum();
+		List<VersionWithObjectiveValue> fullyVisited = new CopyOnWriteArrayList<>();
+		var store = new ConcurrentActivationStore(sizes.length, fullyVisited::add);
+		var versions = new ArrayList<VersionWithObjectiveValue>();
+		for (int i = 0; i < numberOfVersions; i++) {
+			var version = createVersion();
+			versions.add(version);
+			store.markNewAsVisited(version, sizes.clone());
+		}
+		Map<List<Object>, Boolean> visited = new ConcurrentHashMap<>();
+
+		var executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			var futures = new ArrayList<Future<?>>();
+			for (int i = 0; i < numberOfThreads; i++) {
+				int seed = i;
+				futures.add(executor.submit(() -> {
+					@SuppressWarnings("squid:S2245")
+					var random = new Random(seed);
+					for (var version : versions) {
+						while (true) {
+							var visitResult = store.getRandomAndMarkAsVisited(version, random);
+							if (!visitResult.successfulVisit()) {
+								break;
+							}
+							var key = List.<Object>of(version, visitResult.transformation(),
+									visitResult.activation());
+							assertNull(visited.put(key, true));
+						}
+					}
+				}));
+			}
+			for (var future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(numberOfVersions * activationsPerVersion, visited.size());
+		assertEquals(numberOfVersions, fullyVisited.size());
+		assertEquals(new HashSet<>(versions), new HashSet<>(fullyVisited));
+		assertEquals(0, store.getNumberOfStoredVersions());
+	}
+
+	private static VersionWithObjectiveValue createVersion() {
+		return new VersionWithObjectiveValue(new Version() {
+		}, null);
+	}
+}
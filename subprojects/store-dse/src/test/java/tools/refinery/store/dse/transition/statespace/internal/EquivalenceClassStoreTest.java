@@ -0,0 +1,117 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.model.Model;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.statecoding.StateCoderAdapter;
+import tools.refinery.store.statecoding.StateCoderResult;
+import tools.refinery.store.statecoding.StateCoderStoreAdapter;
+import tools.refinery.store.statecoding.StateEquivalenceChecker;
+import tools.refinery.store.statecoding.neighborhood.ObjectCodeImpl;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EquivalenceClassStoreTest {
+	private static final long CODE = 0x0000_0001_dead_beefL;
+	private static final long COLLIDING_CODE = 0x0000_0002_dead_beefL;
+
+	@Test
+	void narrowCollisionTest() {
+		var store = createStore(false);
+		assertTrue(store.submit(new StateCoderResult(CODE, new ObjectCodeImpl())));
+		assertFalse(store.submit(new StateCoderResult(COLLIDING_CODE, new ObjectCodeImpl())));
+		assertFalse(store.submit(new StateCoderResult(CODE, new ObjectCodeImpl())));
+	}
+
+	@Test
+	void wideCollisionTest() {
+		var store = createStore(true);
+		assertTrue(store.submit(new StateCoderResult(CODE, new ObjectCodeImpl())));
+		assertTrue(store.submit(new StateCoderResult(COLLIDING_CODE, new ObjectCodeImpl())));
+		assertFalse(store.submit(new StateCoderResult(CODE, new ObjectCodeImpl())));
+	}
+
+	@Test
+	void backgroundSymmetryResolutionTest() throws InterruptedException {
+		List<VersionWithObjectiveValue> delegated = new CopyOnWriteArrayList<>();
+		List<VersionWithObjectiveValue> discarded = new CopyOnWriteArrayList<>();
+		var store = new CompleteEquivalenceClassStore(new ShapeEquivalenceAdapter(), true) {
+			@Override
+			protected void delegate(VersionWithObjectiveValue version, int[] emptyActivations, boolean accept) {
+				delegated.add(version);
+			}
+
+			@Override
+			protected void discard(VersionWithObjectiveValue version) {
+				discarded.add(version);
+			}
+		};
+		var representative = new VersionWithObjectiveValue(new ShapeVersion(1, 1), null);
+		var symmetric = new VersionWithObjectiveValue(new ShapeVersion(2, 1), null);
+		var colliding = new VersionWithObjectiveValue(new ShapeVersion(3, 2), null);
+		var accepted = new VersionWithObjectiveValue(new ShapeVersion(4, 1), null);
+		var emptyActivations = new int[]{1, 2};
+		var code = new StateCoderResult(CODE, new ObjectCodeImpl());
+
+		try (var ignored = new BackgroundSymmetryResolver(store, 2, () -> {
+			// Failures are rethrown when the resolver is closed.
+		})) {
+			assertTrue(store.submit(representative, code, emptyActivations, false));
+			assertFalse(store.submit(symmetric, code, emptyActivations.clone(), false));
+			assertFalse(store.submit(colliding, code, emptyActivations, false));
+			// Accepted versions can't be isomorphic to versions that are not accepted.
+			assertTrue(store.submit(accepted, code, emptyActivations, true));
+			for (int i = 0; i < 100 && store.hasUnresolvedSymmetry(); i++) {
+				Thread.sleep(10);
+			}
+		}
+
+		assertFalse(store.hasUnresolvedSymmetry());
+		assertEquals(3, delegated.size());
+		assertTrue(delegated.containsAll(List.of(representative, colliding, accepted)));
+		assertEquals(List.of(symmetric), discarded);
+		assertEquals(1, store.getNumberOfCollisions());
+		assertEquals(0, store.getNumberOfUnknownEquivalences());
+	}
+
+	private static FastEquivalenceClassStore createStore(boolean wideModelCodes) {
+		return new FastEquivalenceClassStore(null, wideModelCodes) {
+			@Override
+			protected void delegate(VersionWithObjectiveValue version, int[] emptyActivations, boolean accept) {
+				// No versions are submitted in this test.
+			}
+		};
+	}
+
+	private record ShapeVersion(int id, int shape) implements Version {
+	}
+
+	private static class ShapeEquivalenceAdapter implements StateCoderStoreAdapter {
+		@Override
+		public StateEquivalenceChecker.EquivalenceResult checkEquivalence(Version v1, Version v2) {
+			return ((ShapeVersion) v1).shape() == ((ShapeVersion) v2).shape() ?
+					StateEquivalenceChecker.EquivalenceResult.ISOMORPHIC :
+					StateEquivalenceChecker.EquivalenceResult.DIFFERENT;
+		}
+
+		@Override
+		public ModelStore getStore() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public StateCoderAdapter createModelAdapter(Model model) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.dse.transition.ObjectiveValue;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.dse.transition.objectives.Objective;
+import tools.refinery.store.map.Version;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjectivePriorityQueueTest {
+	@Test
+	void randomAmongBestTest() {
+		Objective objective = model -> {
+			throw new UnsupportedOperationException();
+		};
+		var queue = new ObjectivePriorityQueueImpl(List.of(objective));
+		assertNull(queue.getRandomAmongBest(3, new Random(1)));
+		for (int i = 9; i >= 0; i--) {
+			queue.submit(new VersionWithObjectiveValue(new Version() {
+			}, ObjectiveValue.of(i)));
+		}
+
+		@SuppressWarnings("squid:S2245")
+		var random = new Random(1);
+		var selectedValues = new HashSet<ObjectiveValue>();
+		for (int i = 0; i < 100; i++) {
+			selectedValues.add(queue.getRandomAmongBest(3, random).objectiveValue());
+		}
+		assertEquals(new HashSet<>(List.of(ObjectiveValue.of(0), ObjectiveValue.of(1), ObjectiveValue.of(2))),
+				selectedValues);
+		assertEquals(ObjectiveValue.of(0), queue.getRandomAmongBest(1, random).objectiveValue());
+		assertNotNull(queue.getRandomAmongBest(20, random));
+	}
+}
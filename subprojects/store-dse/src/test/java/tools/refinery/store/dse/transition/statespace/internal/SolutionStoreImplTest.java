@@ -0,0 +1,71 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.dse.transition.ObjectiveValue;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.map.Version;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolutionStoreImplTest {
+	@Test
+	void maxNumberOfSolutionsTest() {
+		var store = new SolutionStoreImpl(2);
+		var v2 = createVersion(2);
+		var v1 = createVersion(1);
+		var v3 = createVersion(3);
+		var v0 = createVersion(0);
+		assertTrue(store.submit(v2));
+		assertTrue(store.submit(v1));
+		assertFalse(store.submit(v3));
+		assertTrue(store.submit(v0));
+		assertEquals(List.of(v0, v1), store.getSolutions());
+	}
+
+	@Test
+	void unlimitedTest() {
+		var store = new SolutionStoreImpl(SolutionStoreImpl.UNLIMITED);
+		for (int i = 0; i < 10; i++) {
+			assertTrue(store.submit(createVersion(i)));
+		}
+		assertEquals(10, store.getSolutions().size());
+	}
+
+	@Test
+	void tieBreakingKeyTest() {
+		var store = new SolutionStoreImpl(2);
+		var first = createVersion(1);
+		var second = createVersion(1);
+		var third = createVersion(1);
+		assertTrue(store.submit(third, 3));
+		assertTrue(store.submit(first, 1));
+		assertTrue(store.submit(second, 2));
+		assertEquals(List.of(first, second), store.getSolutions());
+		assertFalse(store.submit(createVersion(1), 4));
+		assertEquals(List.of(first, second), store.getSolutions());
+	}
+
+	@Test
+	void submissionOrderTest() {
+		var store = new SolutionStoreImpl(SolutionStoreImpl.UNLIMITED);
+		var first = createVersion(1);
+		var second = createVersion(1);
+		var best = createVersion(0);
+		store.submit(first);
+		store.submit(second);
+		store.submit(best);
+		assertEquals(List.of(best, first, second), store.getSolutions());
+	}
+
+	private static VersionWithObjectiveValue createVersion(double objectiveValue) {
+		return new VersionWithObjectiveValue(new Version() {
+		}, ObjectiveValue.of(objectiveValue));
+	}
+}
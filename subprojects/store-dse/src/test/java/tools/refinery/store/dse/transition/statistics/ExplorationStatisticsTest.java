@@ -0,0 +1,60 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExplorationStatisticsTest {
+	@Test
+	void phaseTimerTest() {
+		var statistics = new ExplorationStatistics();
+		statistics.setJfrEventsEnabled(true);
+		for (int i = 0; i < 3; i++) {
+			long start = statistics.startTimer();
+			statistics.stopTimer(ExplorationPhase.COMMIT, start);
+		}
+		// Start time in the future.
+		statistics.stopTimer(ExplorationPhase.COMMIT, System.nanoTime() + 1_000_000);
+
+		assertEquals(4, statistics.getCount(ExplorationPhase.COMMIT));
+		assertEquals(0, statistics.getCount(ExplorationPhase.RESTORE));
+		var histogram = statistics.getHistogram(ExplorationPhase.COMMIT);
+		assertEquals(ExplorationStatistics.HISTOGRAM_BUCKETS, histogram.length);
+		assertEquals(4, Arrays.stream(histogram).sum());
+		assertTrue(statistics.getMaxNanos(ExplorationPhase.COMMIT) <=
+				statistics.getTotalNanos(ExplorationPhase.COMMIT));
+	}
+
+	@Test
+	void stateCountersTest() {
+		var statistics = new ExplorationStatistics();
+		statistics.recordNewState();
+		statistics.recordNewState();
+		statistics.recordNewState();
+		statistics.recordDuplicateState();
+		statistics.recordSolution();
+		statistics.recordFrontierSize(5);
+		statistics.recordFrontierSize(2);
+
+		assertEquals(3, statistics.getNewStateCount());
+		assertEquals(1, statistics.getDuplicateStateCount());
+		assertEquals(0.25, statistics.getDuplicateRatio());
+		assertEquals(1, statistics.getSolutionCount());
+		assertEquals(2, statistics.getFrontierSize());
+		assertEquals(5, statistics.getMaxFrontierSize());
+		assertTrue(statistics.getStatesPerSecond() > 0);
+
+		statistics.reset();
+		assertEquals(0, statistics.getNewStateCount());
+		assertEquals(0.0, statistics.getDuplicateRatio());
+		assertEquals(0, statistics.getMaxFrontierSize());
+	}
+}
@@ -13,8 +13,10 @@ import tools.refinery.logic.rewriter.DnfRewriter;
 import tools.refinery.interpreter.api.InterpreterEngineOptions;
 import tools.refinery.interpreter.matchers.backend.IQueryBackendFactory;
 import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
+import tools.refinery.interpreter.rete.matcher.ParallelReteBackendFactory;
 
 import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 @SuppressWarnings("UnusedReturnValue")
@@ -29,6 +31,18 @@ public interface QueryInterpreterBuilder extends ModelQueryBuilder {
 
 	QueryInterpreterBuilder searchBackend(IQueryBackendFactory queryBackendFactory);
 
+	/**
+	 * Propagates model updates through independent subnetworks of the Rete network concurrently.
+	 * <p>
+	 * Replaces the default and the caching backend with a {@link ParallelReteBackendFactory}. Result set listeners
+	 * may be called from the threads of {@code pool}, but never concurrently for the same query.
+	 * </p>
+	 *
+	 * @param pool The pool delivering the updates of independent subnetworks.
+	 * @return This builder.
+	 */
+	QueryInterpreterBuilder parallelPropagation(ForkJoinPool pool);
+
 	@Override
 	default QueryInterpreterBuilder queries(AnyQuery... queries) {
 		ModelQueryBuilder.super.queries(queries);
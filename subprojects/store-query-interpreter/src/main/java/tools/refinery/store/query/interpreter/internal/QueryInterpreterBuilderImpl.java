@@ -27,9 +27,11 @@ import tools.refinery.interpreter.localsearch.matcher.integration.LocalSearchGen
 import tools.refinery.interpreter.localsearch.matcher.integration.LocalSearchHintOptions;
 import tools.refinery.interpreter.matchers.backend.IQueryBackendFactory;
 import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
+import tools.refinery.interpreter.rete.matcher.ParallelReteBackendFactory;
 import tools.refinery.interpreter.rete.matcher.ReteBackendFactory;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 public class QueryInterpreterBuilderImpl extends AbstractModelAdapterBuilder<QueryInterpreterStoreAdapterImpl>
@@ -89,6 +91,15 @@ public class QueryInterpreterBuilderImpl extends AbstractModelAdapterBuilder<Que
 		return this;
 	}
 
+	@Override
+	public QueryInterpreterBuilder parallelPropagation(ForkJoinPool pool) {
+		checkNotConfigured();
+		var reteBackendFactory = new ParallelReteBackendFactory(pool);
+		engineOptionsBuilder.withDefaultBackend(reteBackendFactory);
+		engineOptionsBuilder.withDefaultCachingBackend(reteBackendFactory);
+		return this;
+	}
+
 	@Override
 	public QueryInterpreterBuilder queries(Collection<? extends AnyQuery> queries) {
 		checkNotConfigured();
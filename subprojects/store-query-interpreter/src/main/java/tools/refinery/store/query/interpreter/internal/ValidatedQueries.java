@@ -8,6 +8,7 @@ package tools.refinery.store.query.interpreter.internal;
 import tools.refinery.interpreter.api.AdvancedInterpreterEngine;
 import tools.refinery.interpreter.api.GenericQueryGroup;
 import tools.refinery.interpreter.api.IQuerySpecification;
+import tools.refinery.interpreter.matchers.psystem.queries.PQuery;
 import tools.refinery.logic.dnf.AnyQuery;
 import tools.refinery.logic.dnf.FunctionalQuery;
 import tools.refinery.logic.dnf.Query;
@@ -42,6 +43,24 @@ class ValidatedQueries {
 		mutableAllQueries.addAll(vacuousQueries);
 		mutableAllQueries.addAll(alwaysTrueQueries);
 		this.allQueries = Collections.unmodifiableSet(mutableAllQueries);
+		initializeQueries();
+	}
+
+	private void initializeQueries() {
+		// Models of a store may create their query engines concurrently. The engines share our PQuery instances,
+		// which initialize their bodies and parameter names lazily without synchronization. Therefore, we initialize
+		// them before any engine is created.
+		var pQueries = new LinkedHashSet<PQuery>();
+		for (var querySpecification : querySpecifications.values()) {
+			var pQuery = querySpecification.getInternalQueryRepresentation();
+			pQuery.ensureInitialized();
+			pQueries.add(pQuery);
+			pQueries.addAll(pQuery.getAllReferredQueries());
+		}
+		for (var pQuery : pQueries) {
+			pQuery.ensureInitialized();
+			pQuery.getParameterNames();
+		}
 	}
 
 	public Map<AnyQuery, AnyQuery> getCanonicalQueryMap() {
@@ -12,8 +12,10 @@ import tools.refinery.interpreter.matchers.tuple.Tuple;
 import tools.refinery.interpreter.matchers.tuple.TupleMask;
 import tools.refinery.interpreter.matchers.tuple.Tuples;
 import tools.refinery.interpreter.matchers.util.Accuracy;
+import tools.refinery.interpreter.matchers.util.IntegerValueEncoding;
 import tools.refinery.store.model.Model;
 import tools.refinery.store.query.interpreter.internal.QueryInterpreterAdapterImpl;
+import tools.refinery.store.query.interpreter.internal.matcher.NodeIdentifierEncoding;
 import tools.refinery.store.query.interpreter.internal.pquery.SymbolViewWrapper;
 import tools.refinery.store.query.interpreter.internal.update.ModelUpdateListener;
 import tools.refinery.store.query.view.AnySymbolView;
@@ -201,4 +203,9 @@ public class RelationalRuntimeContext implements IQueryRuntimeContext {
 	public CancellationToken getCancellationToken() {
 		return cancellationToken;
 	}
+
+	@Override
+	public IntegerValueEncoding getIntegerValueEncoding() {
+		return NodeIdentifierEncoding.INSTANCE;
+	}
 }
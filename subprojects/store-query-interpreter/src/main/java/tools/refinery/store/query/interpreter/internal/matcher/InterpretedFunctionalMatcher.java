@@ -29,6 +29,7 @@ public class InterpretedFunctionalMatcher<T> extends AbstractInterpretedMatcher<
 	private final TupleMask emptyMask;
 	private final TupleMask omitOutputMask;
 	private final IterableIndexer omitOutputIndexer;
+	private final InterpreterTupleView tupleView = new InterpreterTupleView();
 
 	public InterpretedFunctionalMatcher(QueryInterpreterAdapterImpl adapter, FunctionalQuery<T> query,
 										RawPatternMatcher rawPatternMatcher) {
@@ -51,11 +52,11 @@ public class InterpretedFunctionalMatcher<T> extends AbstractInterpretedMatcher<
 
 	@Override
 	public T get(Tuple parameters) {
-		var tuple = MatcherUtils.toInterpreterTuple(parameters);
 		if (omitOutputIndexer == null) {
+			var tuple = MatcherUtils.toInterpreterTuple(parameters);
 			return MatcherUtils.getSingleValue(backend.getAllMatches(omitOutputMask, tuple).iterator());
 		} else {
-			return MatcherUtils.getSingleValue(omitOutputIndexer.get(tuple));
+			return MatcherUtils.getSingleValue(omitOutputIndexer.get(tupleView.setTuple(parameters)));
 		}
 	}
 
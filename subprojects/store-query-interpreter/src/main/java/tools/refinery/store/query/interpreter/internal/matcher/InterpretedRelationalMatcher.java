@@ -30,6 +30,7 @@ public class InterpretedRelationalMatcher extends AbstractInterpretedMatcher<Boo
 	private final TupleMask emptyMask;
 	private final TupleMask identityMask;
 	private final Indexer emptyMaskIndexer;
+	private final InterpreterTupleView tupleView = new InterpreterTupleView();
 
 	public InterpretedRelationalMatcher(QueryInterpreterAdapterImpl adapter, RelationalQuery query,
 										RawPatternMatcher rawPatternMatcher) {
@@ -46,12 +47,12 @@ public class InterpretedRelationalMatcher extends AbstractInterpretedMatcher<Boo
 
 	@Override
 	public Boolean get(Tuple parameters) {
-		var tuple = MatcherUtils.toInterpreterTuple(parameters);
 		if (emptyMaskIndexer == null) {
+			var tuple = MatcherUtils.toInterpreterTuple(parameters);
 			return backend.hasMatch(identityMask, tuple);
 		}
 		var matches = emptyMaskIndexer.get(Tuples.staticArityFlatTupleOf());
-		return matches != null && matches.contains(tuple);
+		return matches != null && matches.contains(tupleView.setTuple(parameters));
 	}
 
 	@Override
@@ -0,0 +1,42 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.internal.matcher;
+
+import tools.refinery.store.tuple.Tuple;
+
+/**
+ * Presents a Refinery tuple as a Refinery Interpreter tuple without copying its elements.
+ * <p>
+ * The view is mutable and meant to be reused for transient lookups in Rete indexers. It must not be stored in any
+ * collection, because its hash code and elements change whenever {@link #setTuple(Tuple)} is called. Use
+ * {@link #toImmutable()} to obtain a tuple that can be retained.
+ * </p>
+ */
+final class InterpreterTupleView extends tools.refinery.interpreter.matchers.tuple.Tuple {
+	private Tuple tuple = Tuple.of();
+
+	public InterpreterTupleView setTuple(Tuple tuple) {
+		this.tuple = tuple;
+		cachedHash = doCalcHash();
+		return this;
+	}
+
+	@Override
+	public int getSize() {
+		return tuple.getSize();
+	}
+
+	@Override
+	public Object get(int index) {
+		// Object ids are interned by {@link tools.refinery.store.tuple.Tuple1.Cache}, so wrapping them does not allocate.
+		return Tuple.of(tuple.get(index));
+	}
+
+	@Override
+	public tools.refinery.interpreter.matchers.tuple.Tuple toImmutable() {
+		return MatcherUtils.toInterpreterTuple(tuple);
+	}
+}
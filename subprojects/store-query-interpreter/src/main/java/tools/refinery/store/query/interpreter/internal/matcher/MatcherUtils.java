@@ -12,7 +12,7 @@ import tools.refinery.store.tuple.*;
 
 import java.util.Iterator;
 
-final class MatcherUtils {
+public final class MatcherUtils {
 	private MatcherUtils() {
 		throw new IllegalStateException("This is a static utility class and should not be instantiated directly");
 	}
@@ -0,0 +1,29 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.internal.matcher;
+
+import tools.refinery.interpreter.matchers.util.IntegerValueEncoding;
+import tools.refinery.store.tuple.Tuple1;
+
+/**
+ * Encodes the {@link Tuple1} wrappers of node identifiers in interpreter tuples by their node identifier.
+ */
+public final class NodeIdentifierEncoding implements IntegerValueEncoding {
+	public static final NodeIdentifierEncoding INSTANCE = new NodeIdentifierEncoding();
+
+	private NodeIdentifierEncoding() {
+	}
+
+	@Override
+	public boolean isEncodable(Object value) {
+		return value instanceof Tuple1;
+	}
+
+	@Override
+	public int encode(Object value) {
+		return ((Tuple1) value).value0();
+	}
+}
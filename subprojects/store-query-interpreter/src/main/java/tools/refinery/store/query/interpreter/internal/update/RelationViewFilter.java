@@ -24,6 +24,29 @@ public final class RelationViewFilter {
 		this.listener = listener;
 	}
 
+	/**
+	 * Gets the first bound position of the seed.
+	 *
+	 * @return The index of the first non-{@code null} element of the seed, or {@code -1} if the filter matches all
+	 * tuples.
+	 */
+	int getFirstBoundColumn() {
+		if (seed == null) {
+			return -1;
+		}
+		int size = seed.length;
+		for (int i = 0; i < size; i++) {
+			if (seed[i] != null) {
+				return i;
+			}
+		}
+		throw new IllegalStateException("Seed has no bound elements");
+	}
+
+	Object getSeedElement(int column) {
+		return seed[column];
+	}
+
 	public void update(Tuple updateTuple, boolean isInsertion) {
 		if (isMatching(updateTuple)) {
 			listener.update(inputKey, updateTuple, isInsertion);
@@ -0,0 +1,138 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.internal.update;
+
+import tools.refinery.interpreter.matchers.tuple.Tuple;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dispatches tuple changes to the {@link RelationViewFilter} instances that may match them.
+ * <p>
+ * Filters without a seed receive every change. Other filters are indexed by the value of their first bound column, so
+ * a change only has to be checked against the filters that agree with it in that column.
+ * </p>
+ */
+final class RelationViewFilterIndex {
+	private final List<RelationViewFilter> unseededFilters = new ArrayList<>();
+	private final List<ColumnIndex> columnIndexes = new ArrayList<>();
+	private int size;
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void add(RelationViewFilter filter) {
+		int column = filter.getFirstBoundColumn();
+		if (column < 0) {
+			unseededFilters.add(filter);
+		} else {
+			getOrCreateColumnIndex(column).add(filter);
+		}
+		size++;
+	}
+
+	public boolean remove(RelationViewFilter filter) {
+		int column = filter.getFirstBoundColumn();
+		boolean removed;
+		if (column < 0) {
+			removed = unseededFilters.remove(filter);
+		} else {
+			var columnIndex = getColumnIndex(column);
+			removed = columnIndex != null && columnIndex.remove(filter);
+			if (removed && columnIndex.isEmpty()) {
+				columnIndexes.remove(columnIndex);
+			}
+		}
+		if (removed) {
+			size--;
+		}
+		return removed;
+	}
+
+	public void update(Tuple tuple, boolean isInsertion) {
+		// Use for loops instead of for-each loops to avoid <code>Iterator</code> allocation overhead.
+		int unseededSize = unseededFilters.size();
+		//noinspection ForLoopReplaceableByForEach
+		for (int i = 0; i < unseededSize; i++) {
+			unseededFilters.get(i).update(tuple, isInsertion);
+		}
+		int columnIndexesSize = columnIndexes.size();
+		//noinspection ForLoopReplaceableByForEach
+		for (int i = 0; i < columnIndexesSize; i++) {
+			columnIndexes.get(i).update(tuple, isInsertion);
+		}
+	}
+
+	private ColumnIndex getColumnIndex(int column) {
+		int columnIndexesSize = columnIndexes.size();
+		//noinspection ForLoopReplaceableByForEach
+		for (int i = 0; i < columnIndexesSize; i++) {
+			var columnIndex = columnIndexes.get(i);
+			if (columnIndex.column == column) {
+				return columnIndex;
+			}
+		}
+		return null;
+	}
+
+	private ColumnIndex getOrCreateColumnIndex(int column) {
+		var columnIndex = getColumnIndex(column);
+		if (columnIndex == null) {
+			columnIndex = new ColumnIndex(column);
+			columnIndexes.add(columnIndex);
+		}
+		return columnIndex;
+	}
+
+	private static final class ColumnIndex {
+		private final int column;
+		private final Map<Object, List<RelationViewFilter>> filtersByValue = new HashMap<>();
+
+		private ColumnIndex(int column) {
+			this.column = column;
+		}
+
+		public boolean isEmpty() {
+			return filtersByValue.isEmpty();
+		}
+
+		public void add(RelationViewFilter filter) {
+			filtersByValue.computeIfAbsent(filter.getSeedElement(column), ignored -> new ArrayList<>(1)).add(filter);
+		}
+
+		public boolean remove(RelationViewFilter filter) {
+			var value = filter.getSeedElement(column);
+			var filters = filtersByValue.get(value);
+			if (filters == null || !filters.remove(filter)) {
+				return false;
+			}
+			if (filters.isEmpty()) {
+				filtersByValue.remove(value);
+			}
+			return true;
+		}
+
+		public void update(Tuple tuple, boolean isInsertion) {
+			var filters = filtersByValue.get(tuple.get(column));
+			if (filters == null) {
+				return;
+			}
+			int filtersSize = filters.size();
+			//noinspection ForLoopReplaceableByForEach
+			for (int i = 0; i < filtersSize; i++) {
+				filters.get(i).update(tuple, isInsertion);
+			}
+		}
+	}
+}
@@ -15,13 +15,10 @@ import tools.refinery.store.query.interpreter.internal.QueryInterpreterAdapterIm
 import tools.refinery.store.query.view.SymbolView;
 import tools.refinery.store.query.view.TuplePreservingView;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public abstract class SymbolViewUpdateListener<T> implements InterpretationListener<T> {
 	private final QueryInterpreterAdapterImpl adapter;
 	private final Interpretation<T> interpretation;
-	private final List<RelationViewFilter> filters = new ArrayList<>();
+	private final RelationViewFilterIndex filters = new RelationViewFilterIndex();
 
 	protected SymbolViewUpdateListener(QueryInterpreterAdapterImpl adapter, Interpretation<T> interpretation) {
 		this.adapter = adapter;
@@ -45,12 +42,7 @@ public abstract class SymbolViewUpdateListener<T> implements InterpretationListe
 
 	protected void processUpdate(Tuple tuple, boolean isInsertion) {
 		adapter.markAsPending();
-		int size = filters.size();
-		// Use a for loop instead of a for-each loop to avoid <code>Iterator</code> allocation overhead.
-		//noinspection ForLoopReplaceableByForEach
-		for (int i = 0; i < size; i++) {
-			filters.get(i).update(tuple, isInsertion);
-		}
+		filters.update(tuple, isInsertion);
 	}
 
 	public static <T> SymbolViewUpdateListener<T> of(QueryInterpreterAdapterImpl adapter,
@@ -0,0 +1,120 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.logic.dnf.Query;
+import tools.refinery.logic.dnf.RelationalQuery;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.ModelQueryAdapter;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static tools.refinery.store.query.interpreter.tests.QueryAssertions.assertResults;
+
+class MultipleModelsTest {
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private static final AnySymbolView friendView = new KeyOnlyView<>(friend);
+
+	private static final RelationalQuery friendOfFriend = Query.of("FriendOfFriend",
+			(builder, p1, p2) -> builder.clause(p3 -> List.of(
+					friendView.call(p1, p3),
+					friendView.call(p3, p2)
+			)));
+
+	private static final RelationalQuery transitiveFriend = Query.of("TransitiveFriend",
+			(builder, p1, p2) -> builder.clause(
+					friendView.callTransitive(p1, p2)
+			));
+
+	@Test
+	void sequentialModelsTest() {
+		var store = createStore();
+		for (int length = 1; length <= 4; length++) {
+			checkChain(store, length);
+		}
+	}
+
+	@Test
+	void overlappingModelsTest() {
+		var store = createStore();
+		try (var firstModel = store.createEmptyModel(); var secondModel = store.createEmptyModel()) {
+			firstModel.getInterpretation(friend).put(Tuple.of(0, 1), true);
+			firstModel.getInterpretation(friend).put(Tuple.of(1, 2), true);
+			secondModel.getInterpretation(friend).put(Tuple.of(2, 1), true);
+			firstModel.getAdapter(ModelQueryAdapter.class).flushChanges();
+			secondModel.getAdapter(ModelQueryAdapter.class).flushChanges();
+
+			var firstQueryEngine = firstModel.getAdapter(ModelQueryAdapter.class);
+			assertResults(Map.of(Tuple.of(0, 2), true), firstQueryEngine.getResultSet(friendOfFriend));
+			assertResults(Map.of(
+					Tuple.of(0, 1), true,
+					Tuple.of(0, 2), true,
+					Tuple.of(1, 2), true
+			), firstQueryEngine.getResultSet(transitiveFriend));
+			var secondQueryEngine = secondModel.getAdapter(ModelQueryAdapter.class);
+			assertResults(Map.of(), secondQueryEngine.getResultSet(friendOfFriend));
+			assertResults(Map.of(Tuple.of(2, 1), true), secondQueryEngine.getResultSet(transitiveFriend));
+		}
+	}
+
+	@Test
+	void concurrentModelsTest() throws InterruptedException, ExecutionException {
+		var store = createStore();
+		try (var executorService = Executors.newFixedThreadPool(4)) {
+			var futures = new ArrayList<Future<?>>();
+			for (int i = 0; i < 16; i++) {
+				int length = i % 4 + 1;
+				futures.add(executorService.submit(() -> checkChain(store, length)));
+			}
+			for (var future : futures) {
+				future.get();
+			}
+		}
+	}
+
+	private static ModelStore createStore() {
+		return ModelStore.builder()
+				.symbols(friend)
+				.with(QueryInterpreterAdapter.builder()
+						.queries(friendOfFriend, transitiveFriend))
+				.build();
+	}
+
+	private static void checkChain(ModelStore store, int length) {
+		try (var model = store.createEmptyModel()) {
+			var friendInterpretation = model.getInterpretation(friend);
+			var queryEngine = model.getAdapter(ModelQueryAdapter.class);
+			for (int i = 0; i < length; i++) {
+				friendInterpretation.put(Tuple.of(i, i + 1), true);
+			}
+			queryEngine.flushChanges();
+
+			var expectedFriendOfFriend = new HashMap<Tuple, Boolean>();
+			var expectedTransitiveFriend = new HashMap<Tuple, Boolean>();
+			for (int i = 0; i <= length; i++) {
+				for (int j = i + 1; j <= length; j++) {
+					expectedTransitiveFriend.put(Tuple.of(i, j), true);
+				}
+				if (i + 2 <= length) {
+					expectedFriendOfFriend.put(Tuple.of(i, i + 2), true);
+				}
+			}
+			assertResults(expectedFriendOfFriend, queryEngine.getResultSet(friendOfFriend));
+			assertResults(expectedTransitiveFriend, queryEngine.getResultSet(transitiveFriend));
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import tools.refinery.interpreter.rete.matcher.DRedReteBackendFactory;
+import tools.refinery.interpreter.rete.matcher.ParallelReteBackendFactory;
+import tools.refinery.logic.dnf.AnyQuery;
+import tools.refinery.logic.dnf.Query;
+import tools.refinery.logic.literal.Connectivity;
+import tools.refinery.logic.literal.RepresentativeElectionLiteral;
+import tools.refinery.logic.term.Variable;
+import tools.refinery.store.model.Model;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.ModelQueryAdapter;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static tools.refinery.logic.literal.Literals.not;
+
+class ParallelPropagationTest {
+	private static final int NODE_COUNT = 8;
+
+	private static final Symbol<Boolean> person = Symbol.of("Person", 1);
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private static final Symbol<Boolean> enemy = Symbol.of("enemy", 2);
+	private static final AnySymbolView personView = new KeyOnlyView<>(person);
+	private static final AnySymbolView friendView = new KeyOnlyView<>(friend);
+	private static final AnySymbolView enemyView = new KeyOnlyView<>(enemy);
+
+	private static final List<AnyQuery> queries = List.of(
+			Query.of("FriendOfFriend", (builder, p1, p2) -> builder.clause(p3 -> List.of(
+					friendView.call(p1, p3),
+					friendView.call(p3, p2)
+			))),
+			Query.of("TransitiveFriend", (builder, p1, p2) -> builder.clause(
+					friendView.callTransitive(p1, p2)
+			)),
+			Query.of("EnemyComponent", (builder, p1, p2) -> builder.clause(v1 -> List.of(
+					new RepresentativeElectionLiteral(Connectivity.STRONG, enemyView, p1, v1),
+					new RepresentativeElectionLiteral(Connectivity.STRONG, enemyView, p2, v1)
+			))),
+			Query.of("LonelyPerson", (builder, p1) -> builder.clause(
+					personView.call(p1),
+					not(friendView.call(p1, Variable.of()))
+			)),
+			Query.of("EnemyCount", Integer.class, (builder, p1, output) -> builder.clause(
+					personView.call(p1),
+					output.assign(enemyView.count(p1, Variable.of()))
+			))
+	);
+
+	@ParameterizedTest(name = "deleteAndRederiveEvaluation = {0}")
+	@ValueSource(booleans = {false, true})
+	void parallelPropagationTest(boolean deleteAndRederiveEvaluation) {
+		var sequentialBuilder = QueryInterpreterAdapter.builder();
+		var parallelBuilder = QueryInterpreterAdapter.builder();
+		try (var pool = new ForkJoinPool(4)) {
+			if (deleteAndRederiveEvaluation) {
+				sequentialBuilder.backend(DRedReteBackendFactory.INSTANCE);
+				parallelBuilder.backend(new ParallelReteBackendFactory(pool, true));
+			} else {
+				parallelBuilder.parallelPropagation(pool);
+			}
+			var sequentialStore = createStore(sequentialBuilder);
+			var parallelStore = createStore(parallelBuilder);
+
+			try (var sequentialModel = sequentialStore.createEmptyModel();
+				 var parallelModel = parallelStore.createEmptyModel()) {
+				var random = new Random(1);
+				for (int round = 0; round < 50; round++) {
+					for (int i = 0; i < 5; i++) {
+						applyRandomChange(random, sequentialModel, parallelModel);
+					}
+					sequentialModel.getAdapter(ModelQueryAdapter.class).flushChanges();
+					parallelModel.getAdapter(ModelQueryAdapter.class).flushChanges();
+					assertSameResults(sequentialModel, parallelModel);
+				}
+			}
+		}
+	}
+
+	private static ModelStore createStore(QueryInterpreterBuilder builder) {
+		return ModelStore.builder()
+				.symbols(person, friend, enemy)
+				.with(builder.queries(queries))
+				.build();
+	}
+
+	private static void applyRandomChange(Random random, Model... models) {
+		int kind = random.nextInt(3);
+		int first = random.nextInt(NODE_COUNT);
+		int second = random.nextInt(NODE_COUNT);
+		boolean value = random.nextInt(3) != 0;
+		for (var model : models) {
+			switch (kind) {
+			case 0 -> model.getInterpretation(person).put(Tuple.of(first), value);
+			case 1 -> model.getInterpretation(friend).put(Tuple.of(first, second), value);
+			case 2 -> model.getInterpretation(enemy).put(Tuple.of(first, second), value);
+			default -> throw new IllegalStateException("Unknown change: " + kind);
+			}
+		}
+	}
+
+	private static void assertSameResults(Model expectedModel, Model actualModel) {
+		var expectedAdapter = expectedModel.getAdapter(ModelQueryAdapter.class);
+		var actualAdapter = actualModel.getAdapter(ModelQueryAdapter.class);
+		for (var query : queries) {
+			var expected = getResults(expectedAdapter, (Query<?>) query);
+			var actual = getResults(actualAdapter, (Query<?>) query);
+			assertThat(query.name(), actual, is(expected));
+		}
+	}
+
+	private static Map<Tuple, Object> getResults(ModelQueryAdapter adapter, Query<?> query) {
+		var results = new HashMap<Tuple, Object>();
+		var cursor = adapter.getResultSet(query).getAll();
+		while (cursor.move()) {
+			results.put(cursor.getKey(), cursor.getValue());
+		}
+		return results;
+	}
+}
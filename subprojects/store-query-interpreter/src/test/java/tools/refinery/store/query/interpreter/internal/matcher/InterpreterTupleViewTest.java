@@ -0,0 +1,51 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.internal.matcher;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InterpreterTupleViewTest {
+	@ParameterizedTest
+	@MethodSource
+	void equalsImmutableTupleTest(Tuple tuple) {
+		var view = new InterpreterTupleView().setTuple(tuple);
+		var immutable = MatcherUtils.toInterpreterTuple(tuple);
+		assertEquals(immutable.hashCode(), view.hashCode());
+		assertEquals(immutable, view);
+		assertEquals(view, immutable);
+		assertEquals(immutable, view.toImmutable());
+	}
+
+	static Stream<Arguments> equalsImmutableTupleTest() {
+		return Stream.of(
+				Arguments.of(Tuple.of()),
+				Arguments.of(Tuple.of(2)),
+				Arguments.of(Tuple.of(2, 3)),
+				Arguments.of(Tuple.of(2, 3, 5)),
+				Arguments.of(Tuple.of(2, 3, 5, 7)),
+				Arguments.of(Tuple.of(2, 3, 5, 7, 11))
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource("equalsImmutableTupleTest")
+	void lookupTest(Tuple tuple) {
+		Set<tools.refinery.interpreter.matchers.tuple.Tuple> set = new HashSet<>();
+		set.add(MatcherUtils.toInterpreterTuple(tuple));
+		var view = new InterpreterTupleView();
+		assertTrue(set.contains(view.setTuple(tuple)));
+		assertFalse(set.contains(view.setTuple(Tuple.of(1, 1, 1))));
+	}
+}
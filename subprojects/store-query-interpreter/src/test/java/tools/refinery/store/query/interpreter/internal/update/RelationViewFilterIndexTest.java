@@ -0,0 +1,70 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.internal.update;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.interpreter.matchers.context.IInputKey;
+import tools.refinery.interpreter.matchers.context.IQueryRuntimeContextListener;
+import tools.refinery.interpreter.matchers.tuple.Tuple;
+import tools.refinery.interpreter.matchers.tuple.Tuples;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RelationViewFilterIndexTest {
+	private final RelationViewFilterIndex index = new RelationViewFilterIndex();
+
+	@Test
+	void unseededFilterTest() {
+		var listener = new RecordingListener();
+		index.add(new RelationViewFilter(null, Tuples.flatTupleOf(null, null), listener));
+		index.update(Tuples.flatTupleOf(0, 1), true);
+		index.update(Tuples.flatTupleOf(2, 3), false);
+		assertEquals(List.of(Tuples.flatTupleOf(0, 1), Tuples.flatTupleOf(2, 3)), listener.updates);
+	}
+
+	@Test
+	void seededFilterTest() {
+		var firstListener = new RecordingListener();
+		var secondListener = new RecordingListener();
+		var thirdListener = new RecordingListener();
+		index.add(new RelationViewFilter(null, Tuples.flatTupleOf(0, null), firstListener));
+		index.add(new RelationViewFilter(null, Tuples.flatTupleOf(0, 1), secondListener));
+		index.add(new RelationViewFilter(null, Tuples.flatTupleOf(null, 1), thirdListener));
+		index.update(Tuples.flatTupleOf(0, 1), true);
+		index.update(Tuples.flatTupleOf(0, 2), true);
+		index.update(Tuples.flatTupleOf(2, 1), true);
+		index.update(Tuples.flatTupleOf(2, 2), true);
+		assertEquals(List.of(Tuples.flatTupleOf(0, 1), Tuples.flatTupleOf(0, 2)), firstListener.updates);
+		assertEquals(List.of(Tuples.flatTupleOf(0, 1)), secondListener.updates);
+		assertEquals(List.of(Tuples.flatTupleOf(0, 1), Tuples.flatTupleOf(2, 1)), thirdListener.updates);
+	}
+
+	@Test
+	void removeFilterTest() {
+		var listener = new RecordingListener();
+		index.add(new RelationViewFilter(null, Tuples.flatTupleOf(0, null), listener));
+		index.add(new RelationViewFilter(null, Tuples.flatTupleOf(null, null), listener));
+		assertEquals(2, index.size());
+		assertFalse(index.remove(new RelationViewFilter(null, Tuples.flatTupleOf(1, null), listener)));
+		assertTrue(index.remove(new RelationViewFilter(null, Tuples.flatTupleOf(0, null), listener)));
+		assertTrue(index.remove(new RelationViewFilter(null, Tuples.flatTupleOf(null, null), listener)));
+		assertTrue(index.isEmpty());
+		index.update(Tuples.flatTupleOf(0, 1), true);
+		assertTrue(listener.updates.isEmpty());
+	}
+
+	private static class RecordingListener implements IQueryRuntimeContextListener {
+		private final List<Tuple> updates = new ArrayList<>();
+
+		@Override
+		public void update(IInputKey key, Tuple updateTuple, boolean isInsertion) {
+			updates.add(updateTuple);
+		}
+	}
+}
@@ -50,6 +50,17 @@ class PredicateScopeTest {
 	@ParameterizedTest
 	@ValueSource(ints = {1, 2, 3, 4, 5})
 	void generateTest(int randomSeed) {
+		generate(randomSeed, 1);
+	}
+
+	@Tag("slow")
+	@ParameterizedTest
+	@ValueSource(ints = {1, 2, 3, 4, 5})
+	void parallelGenerateTest(int randomSeed) {
+		generate(randomSeed, 4);
+	}
+
+	private void generate(int randomSeed, int numberOfWorkers) {
 		var store = createStore();
 		var newIndex = Tuple.of(0);
 		var modelSeed = ModelSeed.builder(1)
@@ -69,7 +80,7 @@ class PredicateScopeTest {
 		try (var model = store.getAdapter(ReasoningStoreAdapter.class).createInitialModel(modelSeed)) {
 			var initialVersion = model.commit();
 			var bestFistSearch = new BestFirstStoreManager(store, 1);
-			bestFistSearch.startExploration(initialVersion, randomSeed);
+			bestFistSearch.startExploration(initialVersion, randomSeed, numberOfWorkers);
 			model.restore(bestFistSearch.getSolutionStore().getSolutions().getFirst().version());
 			var reasoningAdapter = model.getAdapter(ReasoningAdapter.class);
 			var firstInterpretation = reasoningAdapter.getPartialInterpretation(Concreteness.CANDIDATE, first);
@@ -0,0 +1,60 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+public class VersionedMapBenchmark {
+	@Benchmark
+	public void commitBenchmark(VersionedMapExecutionPlan executionPlan, Blackhole blackhole) {
+		for (int i = 0; i < executionPlan.getMapCount(); i++) {
+			var map = executionPlan.getMap(i);
+			executionPlan.change(map);
+			blackhole.consume(map.commit());
+		}
+	}
+
+	@Benchmark
+	public void restoreBenchmark(VersionedMapExecutionPlan executionPlan, Blackhole blackhole) {
+		for (int i = 0; i < executionPlan.getMapCount(); i++) {
+			var map = executionPlan.getMap(i);
+			map.restore(executionPlan.getFirstVersion(i));
+			map.restore(executionPlan.getSecondVersion(i));
+			blackhole.consume(map);
+		}
+	}
+
+	@Benchmark
+	public void diffCursorBenchmark(VersionedMapExecutionPlan executionPlan, Blackhole blackhole) {
+		for (int i = 0; i < executionPlan.getMapCount(); i++) {
+			var cursor = executionPlan.getStore(i).getDiffCursor(executionPlan.getFirstVersion(i),
+					executionPlan.getSecondVersion(i));
+			while (cursor.move()) {
+				blackhole.consume(cursor.getKey());
+				blackhole.consume(cursor.getToValue());
+			}
+		}
+	}
+
+	@Benchmark
+	public void iterationBenchmark(VersionedMapExecutionPlan executionPlan, Blackhole blackhole) {
+		for (int i = 0; i < executionPlan.getMapCount(); i++) {
+			var cursor = executionPlan.getMap(i).getAll();
+			while (cursor.move()) {
+				blackhole.consume(cursor.getKey());
+				blackhole.consume(cursor.getValue());
+			}
+		}
+	}
+}
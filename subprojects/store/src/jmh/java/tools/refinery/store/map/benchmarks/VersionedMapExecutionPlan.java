@@ -0,0 +1,144 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.map.VersionedMap;
+import tools.refinery.store.map.VersionedMapStore;
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder.SharingStrategy;
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder.StoreStrategy;
+import tools.refinery.store.model.TupleHashProvider;
+import tools.refinery.store.model.TuplePackedKeyCodec;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+@State(Scope.Benchmark)
+public class VersionedMapExecutionPlan {
+	/**
+	 * Number of maps in the store group, like the interpretations of symbols with the same arity and value type.
+	 */
+	private static final int MAP_COUNT = 4;
+
+	public enum StoreConfiguration {
+		DELTA(StoreStrategy.DELTA, null),
+		STATE_NO_NODE_CACHE(StoreStrategy.STATE, SharingStrategy.NO_NODE_CACHE),
+		STATE_SHARED_NODE_CACHE(StoreStrategy.STATE, SharingStrategy.SHARED_NODE_CACHE),
+		STATE_SHARED_NODE_CACHE_IN_GROUP(StoreStrategy.STATE, SharingStrategy.SHARED_NODE_CACHE_IN_GROUP),
+		PACKED_STATE_NO_NODE_CACHE(StoreStrategy.PACKED_STATE, SharingStrategy.NO_NODE_CACHE),
+		PACKED_STATE_SHARED_NODE_CACHE(StoreStrategy.PACKED_STATE, SharingStrategy.SHARED_NODE_CACHE),
+		PACKED_STATE_SHARED_NODE_CACHE_IN_GROUP(StoreStrategy.PACKED_STATE,
+				SharingStrategy.SHARED_NODE_CACHE_IN_GROUP);
+
+		private final StoreStrategy strategy;
+		private final SharingStrategy sharingStrategy;
+
+		StoreConfiguration(StoreStrategy strategy, SharingStrategy sharingStrategy) {
+			this.strategy = strategy;
+			this.sharingStrategy = sharingStrategy;
+		}
+
+		List<VersionedMapStore<Tuple, Boolean>> createStores() {
+			var builder = VersionedMapStore.<Tuple, Boolean>builder()
+					.defaultValue(false)
+					.strategy(strategy);
+			switch (strategy) {
+				case STATE -> builder.stateBasedHashProvider(TupleHashProvider.INSTANCE)
+						.stateBasedSharingStrategy(sharingStrategy);
+				case PACKED_STATE -> builder.packedStateKeyCodec(TuplePackedKeyCodec.BINARY)
+						.stateBasedSharingStrategy(sharingStrategy);
+				case DELTA -> {
+					// Delta based stores do not cache nodes.
+				}
+			}
+			return builder.build().createGroup(MAP_COUNT);
+		}
+	}
+
+	@Param
+	public StoreConfiguration storeConfiguration;
+
+	@Param({"1000", "100000"})
+	public int nKeys;
+
+	@Param({"10", "1000"})
+	public int nChanges;
+
+	private Random random;
+
+	private int nNodes;
+
+	private List<VersionedMapStore<Tuple, Boolean>> stores;
+
+	private List<VersionedMap<Tuple, Boolean>> maps;
+
+	private Version[] firstVersions;
+
+	private Version[] secondVersions;
+
+	@Setup(Level.Trial)
+	public void setUpTrial() {
+		random = new Random(1);
+		// Half of the possible binary tuples are present, like in a dense relation.
+		nNodes = (int) Math.ceil(Math.sqrt(2.0 * nKeys));
+		stores = storeConfiguration.createStores();
+		maps = new ArrayList<>(MAP_COUNT);
+		firstVersions = new Version[MAP_COUNT];
+		secondVersions = new Version[MAP_COUNT];
+		for (int i = 0; i < MAP_COUNT; i++) {
+			var map = stores.get(i).createMap();
+			while (map.getSize() < nKeys) {
+				map.put(nextKey(), true);
+			}
+			var baseVersion = map.commit();
+			change(map);
+			firstVersions[i] = map.commit();
+			map.restore(baseVersion);
+			change(map);
+			secondVersions[i] = map.commit();
+			maps.add(map);
+		}
+	}
+
+	public int getMapCount() {
+		return MAP_COUNT;
+	}
+
+	public VersionedMapStore<Tuple, Boolean> getStore(int index) {
+		return stores.get(index);
+	}
+
+	public VersionedMap<Tuple, Boolean> getMap(int index) {
+		return maps.get(index);
+	}
+
+	/**
+	 * Gets a version which is a sibling of the corresponding {@link #getSecondVersion(int)}.
+	 *
+	 * @param index The index of the map.
+	 * @return The version.
+	 */
+	public Version getFirstVersion(int index) {
+		return firstVersions[index];
+	}
+
+	public Version getSecondVersion(int index) {
+		return secondVersions[index];
+	}
+
+	public Tuple nextKey() {
+		return Tuple.of(random.nextInt(nNodes), random.nextInt(nNodes));
+	}
+
+	public void change(VersionedMap<Tuple, Boolean> map) {
+		for (int i = 0; i < nChanges; i++) {
+			map.put(nextKey(), random.nextBoolean());
+		}
+	}
+}
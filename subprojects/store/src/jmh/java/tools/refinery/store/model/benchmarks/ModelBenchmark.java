@@ -0,0 +1,65 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+public class ModelBenchmark {
+	@Benchmark
+	public void commitBenchmark(ModelExecutionPlan executionPlan, Blackhole blackhole) {
+		executionPlan.change();
+		blackhole.consume(executionPlan.getModel().commit());
+	}
+
+	@Benchmark
+	public void restoreBenchmark(ModelExecutionPlan executionPlan, Blackhole blackhole) {
+		var model = executionPlan.getModel();
+		model.restore(executionPlan.getFirstVersion());
+		model.restore(executionPlan.getSecondVersion());
+		blackhole.consume(model.getState());
+	}
+
+	@Benchmark
+	public void diffCursorBenchmark(ModelExecutionPlan executionPlan, Blackhole blackhole) {
+		var model = executionPlan.getModel();
+		var diffCursor = model.getStore().getDiffCursor(executionPlan.getFirstVersion(),
+				executionPlan.getSecondVersion());
+		var cursor = diffCursor.getCursor(executionPlan.getFriendSymbol());
+		while (cursor.move()) {
+			blackhole.consume(cursor.getKey());
+			blackhole.consume(cursor.getToValue());
+		}
+	}
+
+	@Benchmark
+	public void getAllBenchmark(ModelExecutionPlan executionPlan, Blackhole blackhole) {
+		var cursor = executionPlan.getFriendInterpretation().getAll();
+		while (cursor.move()) {
+			blackhole.consume(cursor.getKey());
+			blackhole.consume(cursor.getValue());
+		}
+	}
+
+	@Benchmark
+	public void getAdjacentBenchmark(ModelExecutionPlan executionPlan, Blackhole blackhole) {
+		var interpretation = executionPlan.getFriendInterpretation();
+		int nodeCount = executionPlan.getNodeCount();
+		for (int node = 0; node < nodeCount; node++) {
+			var cursor = interpretation.getAdjacent(0, node);
+			while (cursor.move()) {
+				blackhole.consume(cursor.getKey());
+			}
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.model.Interpretation;
+import tools.refinery.store.model.Model;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.model.ModelStoreBuilder;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.Random;
+
+@State(Scope.Benchmark)
+public class ModelExecutionPlan {
+	/**
+	 * Average number of outgoing {@code friend} links of a node.
+	 */
+	private static final int FRIENDS_PER_NODE = 5;
+
+	private static final Symbol<Boolean> person = Symbol.of("Person", 1);
+	private static final Symbol<Integer> age = Symbol.of("age", 1, Integer.class);
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+
+	@Param({"100", "1000", "10000"})
+	public int nNodes;
+
+	@Param({"10", "1000"})
+	public int nChanges;
+
+	@Param({"false", "true"})
+	public boolean parallelCommitAndRestore;
+
+	private Random random;
+
+	private Model model;
+
+	private Interpretation<Boolean> personInterpretation;
+
+	private Interpretation<Integer> ageInterpretation;
+
+	private Interpretation<Boolean> friendInterpretation;
+
+	private Version firstVersion;
+
+	private Version secondVersion;
+
+	@Setup(Level.Trial)
+	public void setUpTrial() {
+		random = new Random(1);
+		ModelStoreBuilder builder = ModelStore.builder().symbols(person, age, friend);
+		if (parallelCommitAndRestore) {
+			builder.parallelCommitAndRestore();
+		}
+		model = builder.build().createEmptyModel();
+		personInterpretation = model.getInterpretation(person);
+		ageInterpretation = model.getInterpretation(age);
+		friendInterpretation = model.getInterpretation(friend);
+		for (int i = 0; i < nNodes; i++) {
+			personInterpretation.put(Tuple.of(i), true);
+			ageInterpretation.put(Tuple.of(i), random.nextInt(100));
+			for (int j = 0; j < FRIENDS_PER_NODE; j++) {
+				friendInterpretation.put(Tuple.of(i, nextNode()), true);
+			}
+		}
+		var baseVersion = model.commit();
+		change();
+		firstVersion = model.commit();
+		model.restore(baseVersion);
+		change();
+		secondVersion = model.commit();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDownTrial() {
+		model.close();
+	}
+
+	public Model getModel() {
+		return model;
+	}
+
+	public Interpretation<Boolean> getFriendInterpretation() {
+		return friendInterpretation;
+	}
+
+	/**
+	 * Gets a version which is a sibling of {@link #getSecondVersion()}.
+	 *
+	 * @return The version.
+	 */
+	public Version getFirstVersion() {
+		return firstVersion;
+	}
+
+	public Version getSecondVersion() {
+		return secondVersion;
+	}
+
+	public Symbol<Boolean> getFriendSymbol() {
+		return friend;
+	}
+
+	public int getNodeCount() {
+		return nNodes;
+	}
+
+	public int nextNode() {
+		return random.nextInt(nNodes);
+	}
+
+	public void change() {
+		for (int i = 0; i < nChanges; i++) {
+			switch (random.nextInt(3)) {
+				case 0 -> personInterpretation.put(Tuple.of(nextNode()), random.nextBoolean());
+				case 1 -> ageInterpretation.put(Tuple.of(nextNode()), random.nextInt(100));
+				default -> friendInterpretation.put(Tuple.of(nextNode(), nextNode()), random.nextBoolean());
+			}
+		}
+	}
+}
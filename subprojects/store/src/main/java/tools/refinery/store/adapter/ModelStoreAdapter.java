@@ -11,5 +11,15 @@ import tools.refinery.store.model.ModelStore;
 public interface ModelStoreAdapter {
 	ModelStore getStore();
 
+	/**
+	 * Creates the adapter of a new model of the store.
+	 * <p>
+	 * Models of the same store may be created from several threads at once, so this method must not modify state
+	 * shared between the models without synchronization.
+	 * </p>
+	 *
+	 * @param model The new model.
+	 * @return The adapter of the model.
+	 */
 	ModelAdapter createModelAdapter(Model model);
 }
@@ -0,0 +1,22 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map;
+
+/**
+ * Encodes keys of a fixed shape into primitive {@code long} values, so that
+ * {@link VersionedMapStoreFactoryBuilder.StoreStrategy#PACKED_STATE} stores can keep them in primitive arrays
+ * instead of referencing key objects.
+ * <p>
+ * The encoding must be injective, and {@code unpack(pack(key))} must be {@code equals} to {@code key}.
+ * </p>
+ *
+ * @param <K> Target java type.
+ */
+public interface PackedKeyCodec<K> {
+	long pack(K key);
+
+	K unpack(long packedKey);
+}
@@ -16,5 +16,15 @@ public non-sealed interface VersionedMap<K, V> extends AnyVersionedMap {
 
 	void putAll(Cursor<K, V> cursor);
 
+	/**
+	 * Determines whether {@link #putAll(Cursor)} builds this map in bulk when it is empty, instead of inserting the
+	 * entries one by one.
+	 *
+	 * @return {@code true} if callers should prefer a single {@link #putAll(Cursor)} call to load an empty map.
+	 */
+	default boolean isBulkLoadSupported() {
+		return false;
+	}
+
 	DiffCursor<K, V> getDiffCursor(Version state);
 }
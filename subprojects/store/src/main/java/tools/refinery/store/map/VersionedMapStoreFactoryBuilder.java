@@ -7,7 +7,11 @@ package tools.refinery.store.map;
 
 public interface VersionedMapStoreFactoryBuilder<K,V> {
 	enum StoreStrategy {
-		STATE, DELTA
+		STATE, DELTA,
+		/**
+		 * State based store with keys packed into primitive {@code long} values by a {@link PackedKeyCodec}.
+		 */
+		PACKED_STATE
 	}
 
 	enum DeltaTransactionStrategy {
@@ -18,12 +22,33 @@ public interface VersionedMapStoreFactoryBuilder<K,V> {
 		NO_NODE_CACHE, SHARED_NODE_CACHE, SHARED_NODE_CACHE_IN_GROUP
 	}
 
+	/**
+	 * Storage of committed nodes for the {@link StoreStrategy#PACKED_STATE} strategy.
+	 */
+	enum NodeStorage {
+		/**
+		 * Committed nodes are kept on the Java heap.
+		 */
+		HEAP,
+		/**
+		 * Committed nodes are stored in direct byte buffers outside the Java heap.
+		 */
+		OFF_HEAP,
+		/**
+		 * Committed nodes are stored in a memory-mapped temporary file, which lets the operating system page them
+		 * out.
+		 */
+		MEMORY_MAPPED
+	}
+
 	VersionedMapStoreFactoryBuilder<K,V> defaultValue(V defaultValue);
 	VersionedMapStoreFactoryBuilder<K,V> strategy(StoreStrategy strategy);
 	VersionedMapStoreFactoryBuilder<K,V> versionFreeing(boolean enabled);
 	VersionedMapStoreFactoryBuilder<K,V> stateBasedImmutableWhenCommitting(boolean transformToImmutable);
 	VersionedMapStoreFactoryBuilder<K,V> stateBasedSharingStrategy(SharingStrategy sharingStrategy);
 	VersionedMapStoreFactoryBuilder<K,V> stateBasedHashProvider(ContinuousHashProvider<K> hashProvider);
+	VersionedMapStoreFactoryBuilder<K,V> packedStateKeyCodec(PackedKeyCodec<K> keyCodec);
+	VersionedMapStoreFactoryBuilder<K,V> packedStateNodeStorage(NodeStorage nodeStorage);
 	VersionedMapStoreFactoryBuilder<K,V> deltaTransactionStrategy(DeltaTransactionStrategy deltaStrategy);
 
 	VersionedMapStoreFactory<K,V> build();
@@ -6,9 +6,11 @@
 package tools.refinery.store.map.internal;
 
 import tools.refinery.store.map.ContinuousHashProvider;
+import tools.refinery.store.map.PackedKeyCodec;
 import tools.refinery.store.map.VersionedMapStoreFactory;
 import tools.refinery.store.map.VersionedMapStoreFactoryBuilder;
 import tools.refinery.store.map.internal.delta.DeltaBasedVersionedMapStoreFactory;
+import tools.refinery.store.map.internal.packed.PackedStateBasedVersionedMapStoreFactory;
 import tools.refinery.store.map.internal.state.StateBasedVersionedMapStoreFactory;
 
 public class VersionedMapStoreFactoryBuilderImpl<K, V> implements VersionedMapStoreFactoryBuilder<K, V> {
@@ -20,17 +22,29 @@ public class VersionedMapStoreFactoryBuilderImpl<K, V> implements VersionedMapSt
 	private SharingStrategy sharingStrategy = null;
 	private Boolean enableVersionFreeing = null;
 	private ContinuousHashProvider<K> continuousHashProvider = null;
+	private PackedKeyCodec<K> packedKeyCodec = null;
+	private NodeStorage nodeStorage = null;
 	private DeltaTransactionStrategy deltaTransactionStrategy = null;
 
 	private StoreStrategy checkStrategy() {
 		StoreStrategy currentStrategy = strategy;
-		currentStrategy = mergeStrategies(currentStrategy, transformToImmutable, StoreStrategy.STATE);
-		currentStrategy = mergeStrategies(currentStrategy, sharingStrategy, StoreStrategy.STATE);
 		currentStrategy = mergeStrategies(currentStrategy, continuousHashProvider, StoreStrategy.STATE);
+		currentStrategy = mergeStrategies(currentStrategy, packedKeyCodec, StoreStrategy.PACKED_STATE);
+		currentStrategy = mergeStrategies(currentStrategy, nodeStorage, StoreStrategy.PACKED_STATE);
 		currentStrategy = mergeStrategies(currentStrategy, deltaTransactionStrategy, StoreStrategy.DELTA);
+		// Parameters of state based stores are shared by the STATE and PACKED_STATE strategies.
+		currentStrategy = mergeStateBasedStrategies(currentStrategy, transformToImmutable);
+		currentStrategy = mergeStateBasedStrategies(currentStrategy, sharingStrategy);
 		return currentStrategy;
 	}
 
+	private StoreStrategy mergeStateBasedStrategies(StoreStrategy old, Object parameter) {
+		if (parameter == null || old == StoreStrategy.PACKED_STATE) {
+			return old;
+		}
+		return mergeStrategies(old, StoreStrategy.STATE);
+	}
+
 	private StoreStrategy mergeStrategies(StoreStrategy old, StoreStrategy newStrategy) {
 		if (old != null && newStrategy != null && old != newStrategy) {
 			throw new IllegalArgumentException("Mixed strategy parametrization in VersionedMap builder!");
@@ -93,6 +107,20 @@ public class VersionedMapStoreFactoryBuilderImpl<K, V> implements VersionedMapSt
 		return this;
 	}
 
+	@Override
+	public VersionedMapStoreFactoryBuilder<K, V> packedStateKeyCodec(PackedKeyCodec<K> keyCodec) {
+		this.packedKeyCodec = keyCodec;
+		checkStrategy();
+		return this;
+	}
+
+	@Override
+	public VersionedMapStoreFactoryBuilder<K, V> packedStateNodeStorage(NodeStorage nodeStorage) {
+		this.nodeStorage = nodeStorage;
+		checkStrategy();
+		return this;
+	}
+
 	@Override
 	public VersionedMapStoreFactoryBuilder<K, V> deltaTransactionStrategy(DeltaTransactionStrategy deltaTransactionStrategy) {
 		this.deltaTransactionStrategy = deltaTransactionStrategy;
@@ -129,6 +157,17 @@ public class VersionedMapStoreFactoryBuilderImpl<K, V> implements VersionedMapSt
 						getOrDefault(enableVersionFreeing, true),
 						continuousHashProvider);
 			}
+			case PACKED_STATE -> {
+				if (packedKeyCodec == null) {
+					throw new IllegalArgumentException("Packed key codec is missing!");
+				}
+				yield new PackedStateBasedVersionedMapStoreFactory<>(defaultValue,
+						getOrDefault(transformToImmutable, true),
+						getOrDefault(sharingStrategy, SharingStrategy.SHARED_NODE_CACHE_IN_GROUP),
+						getOrDefault(enableVersionFreeing, true),
+						packedKeyCodec,
+						getOrDefault(nodeStorage, NodeStorage.HEAP));
+			}
 			case DELTA -> new DeltaBasedVersionedMapStoreFactory<>(defaultValue,
 					getOrDefault(deltaTransactionStrategy, DeltaTransactionStrategy.LIST));
 		};
@@ -144,6 +183,8 @@ public class VersionedMapStoreFactoryBuilderImpl<K, V> implements VersionedMapSt
 				", sharingStrategy=" + sharingStrategy +
 				", enableVersionFreeing=" + enableVersionFreeing +
 				", continuousHashProvider=" + continuousHashProvider +
+				", packedKeyCodec=" + packedKeyCodec +
+				", nodeStorage=" + nodeStorage +
 				", deltaTransactionStrategy=" + deltaTransactionStrategy +
 				'}';
 	}
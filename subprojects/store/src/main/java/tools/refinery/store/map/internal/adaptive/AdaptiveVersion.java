@@ -0,0 +1,20 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.adaptive;
+
+import tools.refinery.store.map.Version;
+import tools.refinery.store.map.VersionedMapStore;
+
+/**
+ * A version of an {@link AdaptiveVersionedMapStore} together with the backing store it was committed to.
+ *
+ * @param store   The backing store.
+ * @param version The version in the backing store.
+ * @param <K>     Key type.
+ * @param <V>     Value type.
+ */
+record AdaptiveVersion<K, V>(VersionedMapStore<K, V> store, Version version) implements Version {
+}
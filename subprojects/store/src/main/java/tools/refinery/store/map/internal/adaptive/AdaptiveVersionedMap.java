@@ -0,0 +1,191 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.adaptive;
+
+import tools.refinery.store.map.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Map of an {@link AdaptiveVersionedMapStore}, which delegates to a map of the current backing store.
+ * <p>
+ * Not thread-safe in itself.
+ * </p>
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public class AdaptiveVersionedMap<K, V> implements VersionedMap<K, V> {
+	private final AdaptiveVersionedMapStore<K, V> store;
+	private VersionedMapStore<K, V> backingStore;
+	private VersionedMap<K, V> backingMap;
+
+	// Writes since the last commit, only recorded while the store is profiling.
+	private final Set<K> changedKeys = new HashSet<>();
+	private int writeCount;
+
+	AdaptiveVersionedMap(AdaptiveVersionedMapStore<K, V> store, VersionedMapStore<K, V> backingStore,
+						 VersionedMap<K, V> backingMap) {
+		this.store = store;
+		this.backingStore = backingStore;
+		this.backingMap = backingMap;
+	}
+
+	@Override
+	public V getDefaultValue() {
+		return backingMap.getDefaultValue();
+	}
+
+	@Override
+	public V get(K key) {
+		return backingMap.get(key);
+	}
+
+	@Override
+	public Cursor<K, V> getAll() {
+		return backingMap.getAll();
+	}
+
+	@Override
+	public V put(K key, V value) {
+		var oldValue = backingMap.put(key, value);
+		if (store.isProfiling() && !Objects.equals(oldValue, value)) {
+			writeCount++;
+			changedKeys.add(key);
+		}
+		return oldValue;
+	}
+
+	@Override
+	public void putAll(Cursor<K, V> cursor) {
+		if (!store.isProfiling()) {
+			backingMap.putAll(cursor);
+			return;
+		}
+		// Buffer the cursor in case it depends on this map, and record the writes one by one.
+		List<K> keys = new ArrayList<>();
+		List<V> values = new ArrayList<>();
+		while (cursor.move()) {
+			keys.add(cursor.getKey());
+			values.add(cursor.getValue());
+		}
+		for (int i = 0; i < keys.size(); i++) {
+			put(keys.get(i), values.get(i));
+		}
+	}
+
+	@Override
+	public boolean isBulkLoadSupported() {
+		// While profiling, writes are recorded one by one anyway.
+		return !store.isProfiling() && backingMap.isBulkLoadSupported();
+	}
+
+	@Override
+	public long getSize() {
+		return backingMap.getSize();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public DiffCursor<K, V> getDiffCursor(Version state) {
+		var version = (AdaptiveVersion<K, V>) state;
+		if (version == null) {
+			return backingMap.getDiffCursor(null);
+		}
+		var migratedVersion = store.getMigratedVersion(version, backingStore);
+		if (migratedVersion != null) {
+			return backingMap.getDiffCursor(migratedVersion.version());
+		}
+		return new ContentDiffCursor<>(getDefaultValue(), backingMap.getAll(),
+				version.store().createMap(version.version()).getAll());
+	}
+
+	@Override
+	public Version commit() {
+		var currentStore = store.getCurrentStore();
+		if (backingStore != currentStore) {
+			migrate(currentStore, backingMap);
+		}
+		var version = backingMap.commit();
+		if (store.isProfiling()) {
+			store.recordCommit(changedKeys.size(), writeCount, backingMap.getSize());
+		}
+		clearProfile();
+		return version == null ? null : new AdaptiveVersion<>(backingStore, version);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void restore(Version state) {
+		var version = (AdaptiveVersion<K, V>) state;
+		var currentStore = store.getCurrentStore();
+		if (version != null && version.store() != currentStore) {
+			// The version was committed before the store migrated.
+			version = getOrMigrateVersion(version, currentStore);
+		}
+		var backingVersion = AdaptiveVersionedMapStore.unwrap(version);
+		if (backingStore == currentStore) {
+			backingMap.restore(backingVersion);
+		} else {
+			backingStore = currentStore;
+			backingMap = currentStore.createMap(backingVersion);
+		}
+		clearProfile();
+	}
+
+	private AdaptiveVersion<K, V> getOrMigrateVersion(AdaptiveVersion<K, V> version,
+													  VersionedMapStore<K, V> currentStore) {
+		var migratedVersion = store.getMigratedVersion(version, currentStore);
+		if (migratedVersion != null) {
+			return migratedVersion;
+		}
+		// Copy the contents of the version only once, and let later restores of the same version use the copy.
+		var targetMap = currentStore.createMap();
+		targetMap.putAll(version.store().createMap(version.version()).getAll());
+		var targetVersion = targetMap.commit();
+		if (targetVersion == null) {
+			// The version is empty, and the empty version is shared by all stores.
+			return null;
+		}
+		return store.putMigratedVersion(version, new AdaptiveVersion<>(currentStore, targetVersion));
+	}
+
+	private void migrate(VersionedMapStore<K, V> targetStore, VersionedMap<K, V> contents) {
+		var targetMap = targetStore.createMap();
+		targetMap.putAll(contents.getAll());
+		backingStore = targetStore;
+		backingMap = targetMap;
+	}
+
+	private void clearProfile() {
+		if (writeCount > 0) {
+			changedKeys.clear();
+			writeCount = 0;
+		}
+	}
+
+	@Override
+	public int contentHashCode(ContentHashCode mode) {
+		return backingMap.contentHashCode(mode);
+	}
+
+	@Override
+	public boolean contentEquals(AnyVersionedMap other) {
+		if (other instanceof AdaptiveVersionedMap<?, ?> otherMap) {
+			return backingMap.contentEquals(otherMap.backingMap);
+		}
+		return backingMap.contentEquals(other);
+	}
+
+	@Override
+	public void checkIntegrity() {
+		backingMap.checkIntegrity();
+	}
+}
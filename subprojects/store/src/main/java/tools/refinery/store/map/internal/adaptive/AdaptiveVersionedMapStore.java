@@ -0,0 +1,246 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.adaptive;
+
+import tools.refinery.store.map.*;
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder.DeltaTransactionStrategy;
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder.StoreStrategy;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Store that profiles how its maps are written during the first commits, and then migrates to the store strategy
+ * that suits the observed write pattern best.
+ * <p>
+ * Maps start in a delta-based store with {@link DeltaTransactionStrategy#LIST} transactions. After the profiled
+ * number of commits, the store switches to
+ * <ul>
+ *     <li>a state-based store if the maps change in most commits, because restoring a delta-based map would have to
+ *     replay a transaction for almost every commit along the path between two versions,</li>
+ *     <li>a delta-based store with {@link DeltaTransactionStrategy#SET} transactions if keys are written several
+ *     times before each commit, because summarizing such transactions makes them smaller,</li>
+ *     <li>or otherwise stays with the initial store.</li>
+ * </ul>
+ * Maps move to the new store when they are next committed or restored. Versions committed before the migration
+ * remain valid. The first restore of such a version copies its contents into the new store and commits the copy.
+ * Later restores and diff cursors of the same version use the copy.
+ * </p>
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public class AdaptiveVersionedMapStore<K, V> implements VersionedMapStore<K, V> {
+	/**
+	 * Maps that change in at least this fraction of commits are moved to a state-based store.
+	 */
+	static final double STATE_BASED_MIN_CHANGE_RATE = 0.5;
+
+	/**
+	 * Maps are only moved to a state-based store if a commit changes at most this fraction of their entries on
+	 * average, since state-based stores copy a path of the tree for every change.
+	 */
+	static final double STATE_BASED_MAX_CHANGED_FRACTION = 0.25;
+
+	/**
+	 * Delta-based stores summarize their transactions if a changed key is written at least this many times before a
+	 * commit on average.
+	 */
+	static final double SUMMARIZE_MIN_WRITES_PER_CHANGE = 2;
+
+	private final V defaultValue;
+	private final VersionedMapStoreFactory<K, V> stateBasedFactory;
+	private final StoreStrategy stateBasedStrategy;
+	private final VersionedMapStoreFactory<K, V> summarizingDeltaFactory;
+	private final int profiledCommits;
+
+	private volatile VersionedMapStore<K, V> currentStore;
+	private volatile StoreStrategy strategy = StoreStrategy.DELTA;
+	private volatile DeltaTransactionStrategy deltaTransactionStrategy = DeltaTransactionStrategy.LIST;
+	private volatile boolean profiling;
+
+	// Copies of versions committed before the migration. Keys are weak, so that unreferenced versions can still be
+	// reclaimed.
+	private final Map<AdaptiveVersion<K, V>, AdaptiveVersion<K, V>> migratedVersions =
+			Collections.synchronizedMap(new WeakHashMap<>());
+
+	// Write profile, guarded by {@code this}.
+	private int commitCount;
+	private int changedCommitCount;
+	private long changedKeyCount;
+	private long writeCount;
+	private long sizeSum;
+
+	/**
+	 * Creates a new adaptive store.
+	 *
+	 * @param defaultValue            The default value.
+	 * @param initialStore            A delta-based store with {@link DeltaTransactionStrategy#LIST} transactions to
+	 *                                start with.
+	 * @param stateBasedFactory       Factory of the state-based store to migrate to.
+	 * @param stateBasedStrategy      The strategy of the stores created by {@code stateBasedFactory}.
+	 * @param summarizingDeltaFactory Factory of the delta-based store with {@link DeltaTransactionStrategy#SET}
+	 *                                transactions to migrate to.
+	 * @param profiledCommits         The number of commits to profile before selecting a store.
+	 */
+	public AdaptiveVersionedMapStore(V defaultValue, VersionedMapStore<K, V> initialStore,
+									 VersionedMapStoreFactory<K, V> stateBasedFactory,
+									 StoreStrategy stateBasedStrategy,
+									 VersionedMapStoreFactory<K, V> summarizingDeltaFactory, int profiledCommits) {
+		if (profiledCommits <= 0) {
+			throw new IllegalArgumentException("Number of profiled commits must be positive, got %d"
+					.formatted(profiledCommits));
+		}
+		this.defaultValue = defaultValue;
+		this.currentStore = initialStore;
+		this.stateBasedFactory = stateBasedFactory;
+		this.stateBasedStrategy = stateBasedStrategy;
+		this.summarizingDeltaFactory = summarizingDeltaFactory;
+		this.profiledCommits = profiledCommits;
+		profiling = true;
+	}
+
+	V getDefaultValue() {
+		return defaultValue;
+	}
+
+	VersionedMapStore<K, V> getCurrentStore() {
+		return currentStore;
+	}
+
+	boolean isProfiling() {
+		return profiling;
+	}
+
+	public StoreStrategy getStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * Gets the transaction strategy of the current store.
+	 *
+	 * @return The transaction strategy, or {@code null} if the current store is not delta-based.
+	 */
+	public DeltaTransactionStrategy getDeltaTransactionStrategy() {
+		return deltaTransactionStrategy;
+	}
+
+	/**
+	 * Gets the copy of a version in the given backing store.
+	 *
+	 * @param version     The version.
+	 * @param targetStore The backing store.
+	 * @return The version itself if it is already in {@code targetStore}, the copy of the version in
+	 * {@code targetStore} if it was already migrated, or {@code null} otherwise.
+	 */
+	AdaptiveVersion<K, V> getMigratedVersion(AdaptiveVersion<K, V> version, VersionedMapStore<K, V> targetStore) {
+		if (version.store() == targetStore) {
+			return version;
+		}
+		var migratedVersion = migratedVersions.get(version);
+		return migratedVersion == null || migratedVersion.store() != targetStore ? null : migratedVersion;
+	}
+
+	/**
+	 * Records the copy of a version committed before the migration.
+	 *
+	 * @param version         The version.
+	 * @param migratedVersion The copy of the version in the current store.
+	 * @return The copy to use, which is the one recorded first if several maps migrated the version concurrently.
+	 */
+	AdaptiveVersion<K, V> putMigratedVersion(AdaptiveVersion<K, V> version, AdaptiveVersion<K, V> migratedVersion) {
+		var existingVersion = migratedVersions.putIfAbsent(version, migratedVersion);
+		return existingVersion == null ? migratedVersion : existingVersion;
+	}
+
+	/**
+	 * Records the writes of a map since its last commit.
+	 *
+	 * @param changedKeys The number of keys that were changed.
+	 * @param writes      The number of writes that changed a value.
+	 * @param size        The size of the map when it was committed.
+	 */
+	synchronized void recordCommit(int changedKeys, int writes, long size) {
+		if (!profiling) {
+			// Another map has already completed the profile.
+			return;
+		}
+		commitCount++;
+		if (changedKeys > 0) {
+			changedCommitCount++;
+		}
+		changedKeyCount += changedKeys;
+		writeCount += writes;
+		sizeSum += size;
+		if (commitCount >= profiledCommits) {
+			selectStore();
+			profiling = false;
+		}
+	}
+
+	private void selectStore() {
+		double changeRate = (double) changedCommitCount / commitCount;
+		double averageSize = Math.max((double) sizeSum / commitCount, 1);
+		double changedFraction = changedKeyCount / (commitCount * averageSize);
+		if (changeRate >= STATE_BASED_MIN_CHANGE_RATE && changedFraction <= STATE_BASED_MAX_CHANGED_FRACTION) {
+			currentStore = stateBasedFactory.createOne();
+			strategy = stateBasedStrategy;
+			deltaTransactionStrategy = null;
+		} else if (changedKeyCount > 0 && (double) writeCount / changedKeyCount >= SUMMARIZE_MIN_WRITES_PER_CHANGE) {
+			currentStore = summarizingDeltaFactory.createOne();
+			deltaTransactionStrategy = DeltaTransactionStrategy.SET;
+		}
+	}
+
+	@Override
+	public VersionedMap<K, V> createMap() {
+		var store = currentStore;
+		return new AdaptiveVersionedMap<>(this, store, store.createMap());
+	}
+
+	@Override
+	public VersionedMap<K, V> createMap(Version state) {
+		var map = createMap();
+		map.restore(state);
+		return map;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public DiffCursor<K, V> getDiffCursor(Version fromState, Version toState) {
+		var fromVersion = (AdaptiveVersion<K, V>) fromState;
+		var toVersion = (AdaptiveVersion<K, V>) toState;
+		if (fromVersion != null && toVersion != null && fromVersion.store() != toVersion.store()) {
+			// Compare the copies of migrated versions in the current store, if there are any.
+			var targetStore = currentStore;
+			var migratedFromVersion = getMigratedVersion(fromVersion, targetStore);
+			var migratedToVersion = getMigratedVersion(toVersion, targetStore);
+			if (migratedFromVersion != null && migratedToVersion != null) {
+				fromVersion = migratedFromVersion;
+				toVersion = migratedToVersion;
+			}
+		}
+		var fromStore = fromVersion == null ? null : fromVersion.store();
+		var toStore = toVersion == null ? null : toVersion.store();
+		var fromBackingVersion = unwrap(fromVersion);
+		var toBackingVersion = unwrap(toVersion);
+		if (fromStore == null || toStore == null || fromStore == toStore) {
+			// The empty version is shared by all stores.
+			var store = fromStore == null ? toStore : fromStore;
+			if (store == null) {
+				store = currentStore;
+			}
+			return store.getDiffCursor(fromBackingVersion, toBackingVersion);
+		}
+		return new ContentDiffCursor<>(defaultValue, fromStore.createMap(fromBackingVersion).getAll(),
+				toStore.createMap(toBackingVersion).getAll());
+	}
+
+	static Version unwrap(AdaptiveVersion<?, ?> version) {
+		return version == null ? null : version.version();
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.adaptive;
+
+import tools.refinery.store.map.VersionedMapStore;
+import tools.refinery.store.map.VersionedMapStoreFactory;
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder.DeltaTransactionStrategy;
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder.StoreStrategy;
+import tools.refinery.store.map.internal.delta.DeltaBasedVersionedMapStoreFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AdaptiveVersionedMapStoreFactory<K, V> implements VersionedMapStoreFactory<K, V> {
+	private final V defaultValue;
+	private final VersionedMapStoreFactory<K, V> initialFactory;
+	private final VersionedMapStoreFactory<K, V> stateBasedFactory;
+	private final StoreStrategy stateBasedStrategy;
+	private final VersionedMapStoreFactory<K, V> summarizingDeltaFactory;
+	private final int profiledCommits;
+
+	/**
+	 * Creates a factory of adaptive stores.
+	 *
+	 * @param defaultValue       The default value.
+	 * @param stateBasedFactory  Factory of the state-based stores to migrate to.
+	 * @param stateBasedStrategy The strategy of the stores created by {@code stateBasedFactory}.
+	 * @param profiledCommits    The number of commits to profile before selecting a store.
+	 */
+	public AdaptiveVersionedMapStoreFactory(V defaultValue, VersionedMapStoreFactory<K, V> stateBasedFactory,
+											StoreStrategy stateBasedStrategy, int profiledCommits) {
+		this.defaultValue = defaultValue;
+		initialFactory = new DeltaBasedVersionedMapStoreFactory<>(defaultValue, DeltaTransactionStrategy.LIST);
+		this.stateBasedFactory = stateBasedFactory;
+		this.stateBasedStrategy = stateBasedStrategy;
+		summarizingDeltaFactory = new DeltaBasedVersionedMapStoreFactory<>(defaultValue, DeltaTransactionStrategy.SET);
+		this.profiledCommits = profiledCommits;
+	}
+
+	@Override
+	public VersionedMapStore<K, V> createOne() {
+		return new AdaptiveVersionedMapStore<>(defaultValue, initialFactory.createOne(), stateBasedFactory,
+				stateBasedStrategy, summarizingDeltaFactory, profiledCommits);
+	}
+
+	@Override
+	public List<VersionedMapStore<K, V>> createGroup(int amount) {
+		// Each store selects its strategy independently, so they can't share any resources.
+		List<VersionedMapStore<K, V>> result = new ArrayList<>(amount);
+		for (int i = 0; i < amount; i++) {
+			result.add(createOne());
+		}
+		return result;
+	}
+}
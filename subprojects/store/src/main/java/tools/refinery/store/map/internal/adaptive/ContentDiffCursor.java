@@ -0,0 +1,92 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.adaptive;
+
+import tools.refinery.store.map.Cursor;
+import tools.refinery.store.map.DiffCursor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A cursor representing the difference between the contents of two maps, which may belong to different stores.
+ * <p>
+ * The difference is computed by reading both maps in full, so this cursor is only used when the versions have no
+ * common history to compare.
+ * </p>
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+class ContentDiffCursor<K, V> implements DiffCursor<K, V> {
+	private final List<K> keys = new ArrayList<>();
+	private final List<V> fromValues = new ArrayList<>();
+	private final List<V> toValues = new ArrayList<>();
+	private int index = -1;
+
+	public ContentDiffCursor(V defaultValue, Cursor<K, V> fromCursor, Cursor<K, V> toCursor) {
+		var fromEntries = new HashMap<K, V>();
+		while (fromCursor.move()) {
+			fromEntries.put(fromCursor.getKey(), fromCursor.getValue());
+		}
+		while (toCursor.move()) {
+			var key = toCursor.getKey();
+			var toValue = toCursor.getValue();
+			var fromValue = fromEntries.containsKey(key) ? fromEntries.remove(key) : defaultValue;
+			if (!Objects.equals(fromValue, toValue)) {
+				addChange(key, fromValue, toValue);
+			}
+		}
+		for (var entry : fromEntries.entrySet()) {
+			addChange(entry.getKey(), entry.getValue(), defaultValue);
+		}
+	}
+
+	private void addChange(K key, V fromValue, V toValue) {
+		keys.add(key);
+		fromValues.add(fromValue);
+		toValues.add(toValue);
+	}
+
+	@Override
+	public K getKey() {
+		return isValid() ? keys.get(index) : null;
+	}
+
+	@Override
+	public V getFromValue() {
+		return isValid() ? fromValues.get(index) : null;
+	}
+
+	@Override
+	public V getToValue() {
+		return isValid() ? toValues.get(index) : null;
+	}
+
+	@Override
+	public V getValue() {
+		return getToValue();
+	}
+
+	private boolean isValid() {
+		return index >= 0 && index < keys.size();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return index >= keys.size();
+	}
+
+	@Override
+	public boolean move() {
+		if (index < keys.size()) {
+			index++;
+		}
+		return index < keys.size();
+	}
+}
@@ -0,0 +1,199 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.packed;
+
+import tools.refinery.store.map.DiffCursor;
+import tools.refinery.store.map.PackedKeyCodec;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A diff cursor that compares two trees of {@link PackedNode}s structurally.
+ * <p>
+ * Sub-trees that are shared between the two versions (e.g., because of the node cache) are skipped without
+ * visiting their contents. The changes are collected into primitive arrays when the cursor is constructed, so the
+ * cursor does not depend on the compared maps afterward.
+ * </p>
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public class PackedDiffCursor<K, V> implements DiffCursor<K, V> {
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final PackedKeyCodec<K> keyCodec;
+	private final V defaultValue;
+
+	private long[] keys = new long[INITIAL_CAPACITY];
+	private Object[] fromValues = new Object[INITIAL_CAPACITY];
+	private Object[] toValues = new Object[INITIAL_CAPACITY];
+	private int size;
+	private int index = -1;
+
+	public PackedDiffCursor(PackedKeyCodec<K> keyCodec, V defaultValue, PackedNode<V> fromRoot,
+							PackedNode<V> toRoot) {
+		this.keyCodec = keyCodec;
+		this.defaultValue = defaultValue;
+		diffNodes(fromRoot, toRoot);
+	}
+
+	private void diffNodes(PackedNode<V> fromNode, PackedNode<V> toNode) {
+		if (fromNode == toNode || (fromNode != null && fromNode.isSameNode(toNode))) {
+			return;
+		}
+		if (fromNode == null) {
+			addAll(toNode, false);
+			return;
+		}
+		if (toNode == null) {
+			addAll(fromNode, true);
+			return;
+		}
+		int fromDataMap = fromNode.getDataMap();
+		int fromNodeMap = fromNode.getNodeMap();
+		int toDataMap = toNode.getDataMap();
+		int toNodeMap = toNode.getNodeMap();
+		for (int bits = fromDataMap | fromNodeMap | toDataMap | toNodeMap; bits != 0; bits &= bits - 1) {
+			int fragment = Integer.numberOfTrailingZeros(bits);
+			int bitPosition = 1 << fragment;
+			if ((fromDataMap & bitPosition) != 0) {
+				long fromKey = fromNode.getKeyAt(fragment);
+				V fromValue = fromNode.getValueAt(fragment);
+				if ((toDataMap & bitPosition) != 0) {
+					long toKey = toNode.getKeyAt(fragment);
+					V toValue = toNode.getValueAt(fragment);
+					if (fromKey == toKey) {
+						if (!Objects.equals(fromValue, toValue)) {
+							addChange(fromKey, fromValue, toValue);
+						}
+					} else {
+						addChange(fromKey, fromValue, defaultValue);
+						addChange(toKey, defaultValue, toValue);
+					}
+				} else if ((toNodeMap & bitPosition) != 0) {
+					diffEntryWithNode(fromKey, fromValue, toNode.getSubNodeAt(fragment), true);
+				} else {
+					addChange(fromKey, fromValue, defaultValue);
+				}
+			} else if ((fromNodeMap & bitPosition) != 0) {
+				var fromSubNode = fromNode.getSubNodeAt(fragment);
+				if ((toDataMap & bitPosition) != 0) {
+					diffEntryWithNode(toNode.getKeyAt(fragment), toNode.getValueAt(fragment), fromSubNode, false);
+				} else if ((toNodeMap & bitPosition) != 0) {
+					diffNodes(fromSubNode, toNode.getSubNodeAt(fragment));
+				} else {
+					addAll(fromSubNode, true);
+				}
+			} else if ((toDataMap & bitPosition) != 0) {
+				addChange(toNode.getKeyAt(fragment), defaultValue, toNode.getValueAt(fragment));
+			} else {
+				addAll(toNode.getSubNodeAt(fragment), false);
+			}
+		}
+	}
+
+	private void diffEntryWithNode(long key, V value, PackedNode<V> node, boolean entryIsFrom) {
+		boolean found = diffEntryWithSubTree(key, value, node, entryIsFrom);
+		if (!found) {
+			if (entryIsFrom) {
+				addChange(key, value, defaultValue);
+			} else {
+				addChange(key, defaultValue, value);
+			}
+		}
+	}
+
+	private boolean diffEntryWithSubTree(long key, V value, PackedNode<V> node, boolean entryIsFrom) {
+		boolean found = false;
+		for (int bits = node.getDataMap(); bits != 0; bits &= bits - 1) {
+			int fragment = Integer.numberOfTrailingZeros(bits);
+			long otherKey = node.getKeyAt(fragment);
+			V otherValue = node.getValueAt(fragment);
+			if (otherKey == key) {
+				found = true;
+				if (!Objects.equals(value, otherValue)) {
+					if (entryIsFrom) {
+						addChange(key, value, otherValue);
+					} else {
+						addChange(key, otherValue, value);
+					}
+				}
+			} else if (entryIsFrom) {
+				addChange(otherKey, defaultValue, otherValue);
+			} else {
+				addChange(otherKey, otherValue, defaultValue);
+			}
+		}
+		for (int bits = node.getNodeMap(); bits != 0; bits &= bits - 1) {
+			var subNode = node.getSubNodeAt(Integer.numberOfTrailingZeros(bits));
+			found |= diffEntryWithSubTree(key, value, subNode, entryIsFrom);
+		}
+		return found;
+	}
+
+	private void addAll(PackedNode<V> node, boolean isFrom) {
+		for (int bits = node.getDataMap(); bits != 0; bits &= bits - 1) {
+			int fragment = Integer.numberOfTrailingZeros(bits);
+			if (isFrom) {
+				addChange(node.getKeyAt(fragment), node.getValueAt(fragment), defaultValue);
+			} else {
+				addChange(node.getKeyAt(fragment), defaultValue, node.getValueAt(fragment));
+			}
+		}
+		for (int bits = node.getNodeMap(); bits != 0; bits &= bits - 1) {
+			addAll(node.getSubNodeAt(Integer.numberOfTrailingZeros(bits)), isFrom);
+		}
+	}
+
+	private void addChange(long key, V fromValue, V toValue) {
+		if (size == keys.length) {
+			int newCapacity = size * 2;
+			keys = Arrays.copyOf(keys, newCapacity);
+			fromValues = Arrays.copyOf(fromValues, newCapacity);
+			toValues = Arrays.copyOf(toValues, newCapacity);
+		}
+		keys[size] = key;
+		fromValues[size] = fromValue;
+		toValues[size] = toValue;
+		size++;
+	}
+
+	@Override
+	public K getKey() {
+		return keyCodec.unpack(keys[index]);
+	}
+
+	@Override
+	public V getValue() {
+		return getToValue();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V getFromValue() {
+		return (V) fromValues[index];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V getToValue() {
+		return (V) toValues[index];
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return index >= size;
+	}
+
+	@Override
+	public boolean move() {
+		if (index < size) {
+			index++;
+		}
+		return index < size;
+	}
+}
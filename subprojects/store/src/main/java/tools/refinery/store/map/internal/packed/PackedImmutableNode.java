@@ -0,0 +1,219 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.packed;
+
+import tools.refinery.store.map.Version;
+import tools.refinery.store.map.internal.state.OldValueBox;
+
+import java.util.Map;
+
+public class PackedImmutableNode<V> extends PackedNode<V> implements Version {
+	/**
+	 * Bitmap defining the stored key and values.
+	 */
+	final int dataMap;
+	/**
+	 * Bitmap defining the positions of further nodes.
+	 */
+	final int nodeMap;
+	/**
+	 * Stores the packed keys in the order of their positions.
+	 */
+	final long[] keys;
+	/**
+	 * Stores the values in the order of their positions, followed by the sub-nodes in the order of their positions.
+	 */
+	final Object[] content;
+	/**
+	 * Hash code derived from immutable hash code.
+	 */
+	final int precalculatedHash;
+
+	private PackedImmutableNode(int dataMap, int nodeMap, long[] keys, Object[] content, int precalculatedHash) {
+		this.dataMap = dataMap;
+		this.nodeMap = nodeMap;
+		this.keys = keys;
+		this.content = content;
+		this.precalculatedHash = precalculatedHash;
+	}
+
+	/**
+	 * Constructs an immutable node from a mutable one, and caches the immutable sub-nodes.
+	 *
+	 * @param node  The mutable node.
+	 * @param cache A cache of existing immutable nodes. It can be used to search and place reference immutable nodes.
+	 * @return an immutable version of the input node.
+	 */
+	static <V> PackedImmutableNode<V> constructImmutable(PackedMutableNode<V> node,
+														 Map<PackedNode<V>, PackedImmutableNode<V>> cache) {
+		// 1. try to return from cache
+		if (cache != null) {
+			PackedImmutableNode<V> cachedResult = cache.get(node);
+			if (cachedResult != null) {
+				// 1.1 Already cached, return from cache.
+				return cachedResult;
+			}
+		}
+
+		// 2. otherwise construct a new ImmutableNode
+		int dataMap = node.dataMap;
+		int nodeMap = node.nodeMap;
+		int dataCount = Integer.bitCount(dataMap);
+		long[] keys = new long[dataCount];
+		Object[] content = new Object[dataCount + Integer.bitCount(nodeMap)];
+		int dataUsed = 0;
+		for (int bits = dataMap; bits != 0; bits &= bits - 1) {
+			int fragment = Integer.numberOfTrailingZeros(bits);
+			keys[dataUsed] = node.keys[fragment];
+			content[dataUsed] = node.content[fragment];
+			dataUsed++;
+		}
+		int nodeUsed = dataCount;
+		for (int bits = nodeMap; bits != 0; bits &= bits - 1) {
+			int fragment = Integer.numberOfTrailingZeros(bits);
+			@SuppressWarnings("unchecked") var subNode = (PackedNode<V>) node.content[fragment];
+			content[nodeUsed] = subNode.toImmutable(cache);
+			nodeUsed++;
+		}
+
+		// 3. construct immutable node. The hash of the immutable node is the same as the hash of the mutable one.
+		PackedImmutableNode<V> newImmutableNode = new PackedImmutableNode<>(dataMap, nodeMap, keys, content,
+				node.hashCode());
+		if (cache != null) {
+			// Return the cached node if a concurrent commit has already saved an equal one.
+			var cachedResult = cache.putIfAbsent(newImmutableNode, newImmutableNode);
+			if (cachedResult != null) {
+				return cachedResult;
+			}
+		}
+		return newImmutableNode;
+	}
+
+	@Override
+	int getDataMap() {
+		return dataMap;
+	}
+
+	@Override
+	int getNodeMap() {
+		return nodeMap;
+	}
+
+	@Override
+	long getKeyAt(int fragment) {
+		return keys[index(dataMap, 1 << fragment)];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	V getValueAt(int fragment) {
+		return (V) content[index(dataMap, 1 << fragment)];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	PackedNode<V> getSubNodeAt(int fragment) {
+		return (PackedNode<V>) content[keys.length + index(nodeMap, 1 << fragment)];
+	}
+
+	@Override
+	public V getValue(long key, long hash, V defaultValue, int depth) {
+		int selectedHashFragment = hashFragment(hash, depth);
+		int bitPosition = 1 << selectedHashFragment;
+		if ((dataMap & bitPosition) != 0) {
+			int keyIndex = index(dataMap, bitPosition);
+			if (keys[keyIndex] == key) {
+				@SuppressWarnings("unchecked") V value = (V) content[keyIndex];
+				return value;
+			} else {
+				return defaultValue;
+			}
+		} else if ((nodeMap & bitPosition) != 0) {
+			@SuppressWarnings("unchecked") var subNode =
+					(PackedNode<V>) content[keys.length + index(nodeMap, bitPosition)];
+			return subNode.getValue(key, hash, defaultValue, depth + 1);
+		} else {
+			return defaultValue;
+		}
+	}
+
+	@Override
+	public PackedNode<V> putValue(long key, V value, OldValueBox<V> oldValue, long hash, V defaultValue, int depth) {
+		int selectedHashFragment = hashFragment(hash, depth);
+		int bitPosition = 1 << selectedHashFragment;
+		if ((dataMap & bitPosition) != 0) {
+			int keyIndex = index(dataMap, bitPosition);
+			if (keys[keyIndex] == key) {
+				if (value == content[keyIndex]) {
+					// don't change
+					oldValue.setOldValue(value);
+					return this;
+				}
+				// delete or update existing value
+				return toMutable().putValue(key, value, oldValue, hash, defaultValue, depth);
+			} else if (value == defaultValue) {
+				// don't change
+				oldValue.setOldValue(defaultValue);
+				return this;
+			} else {
+				// add new key + value
+				return toMutable().putValue(key, value, oldValue, hash, defaultValue, depth);
+			}
+		} else if ((nodeMap & bitPosition) != 0) {
+			@SuppressWarnings("unchecked") var subNode =
+					(PackedNode<V>) content[keys.length + index(nodeMap, bitPosition)];
+			var newSubNode = subNode.putValue(key, value, oldValue, hash, defaultValue, depth + 1);
+			if (subNode == newSubNode) {
+				// nothing changed
+				return this;
+			}
+			return toMutable().updateWithSubNode(selectedHashFragment, newSubNode);
+		} else if (value == defaultValue) {
+			// don't change
+			oldValue.setOldValue(defaultValue);
+			return this;
+		} else {
+			// add new key + value
+			return toMutable().putValue(key, value, oldValue, hash, defaultValue, depth);
+		}
+	}
+
+	@Override
+	PackedMutableNode<V> toMutable() {
+		return new PackedMutableNode<>(this);
+	}
+
+	@Override
+	public PackedImmutableNode<V> toImmutable(Map<PackedNode<V>, PackedImmutableNode<V>> cache) {
+		return this;
+	}
+
+	@Override
+	public void checkIntegrity(V defaultValue, int depth) {
+		if (Integer.bitCount(dataMap) != keys.length) {
+			throw new IllegalStateException("Data map and key array size do not match!");
+		}
+		if (keys.length + Integer.bitCount(nodeMap) != content.length) {
+			throw new IllegalStateException("Bitmaps and content array size do not match!");
+		}
+		checkData(defaultValue, depth);
+		for (int bits = nodeMap; bits != 0; bits &= bits - 1) {
+			var subNode = getSubNodeAt(Integer.numberOfTrailingZeros(bits));
+			if (!(subNode instanceof PackedImmutableNode<V>)) {
+				throw new IllegalStateException("Immutable node contains mutable sub-node!");
+			}
+			subNode.checkIntegrity(defaultValue, depth + 1);
+		}
+		if (precalculatedHash != calculateHashCode()) {
+			throw new IllegalStateException("Precalculated hash code does not match the content!");
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return precalculatedHash;
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.packed;
+
+import tools.refinery.store.map.AnyVersionedMap;
+import tools.refinery.store.map.ContentHashCode;
+import tools.refinery.store.map.Cursor;
+import tools.refinery.store.map.PackedKeyCodec;
+
+import java.util.ConcurrentModificationException;
+import java.util.Set;
+
+/**
+ * Cursor over a tree of {@link PackedNode}s. The traversal stack is kept in fixed size arrays, because the depth of
+ * the tree is bounded by {@link PackedNode#MAX_DEPTH}.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public class PackedMapCursor<K, V> implements Cursor<K, V> {
+	private static final int STACK_SIZE = PackedNode.MAX_DEPTH + 1;
+
+	// Tree stack
+	private final PackedNode<?>[] nodeStack = new PackedNode<?>[STACK_SIZE];
+	private final int[] fragmentStack = new int[STACK_SIZE];
+	private int stackTop;
+
+	// Values
+	private final PackedKeyCodec<K> keyCodec;
+	private K key;
+	private V value;
+
+	// Hash code for checking concurrent modifications
+	private final VersionedMapPackedImpl<K, V> map;
+	private final int creationHash;
+
+	public PackedMapCursor(PackedNode<V> root, VersionedMapPackedImpl<K, V> map) {
+		if (root == null) {
+			stackTop = -1;
+		} else {
+			nodeStack[0] = root;
+			fragmentStack[0] = -1;
+			stackTop = 0;
+		}
+		this.keyCodec = map.getKeyCodec();
+		this.map = map;
+		this.creationHash = map.contentHashCode(ContentHashCode.APPROXIMATE_FAST);
+	}
+
+	@Override
+	public K getKey() {
+		return key;
+	}
+
+	@Override
+	public V getValue() {
+		return value;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return stackTop < 0;
+	}
+
+	@Override
+	public boolean move() {
+		if (isDirty()) {
+			throw new ConcurrentModificationException();
+		}
+		while (stackTop >= 0) {
+			@SuppressWarnings("unchecked") var node = (PackedNode<V>) nodeStack[stackTop];
+			int fragment = fragmentStack[stackTop] + 1;
+			int remaining = fragment < PackedNode.FACTOR ?
+					(node.getDataMap() | node.getNodeMap()) & (-1 << fragment) : 0;
+			if (remaining == 0) {
+				nodeStack[stackTop] = null;
+				stackTop--;
+				continue;
+			}
+			fragment = Integer.numberOfTrailingZeros(remaining);
+			fragmentStack[stackTop] = fragment;
+			if ((node.getDataMap() & (1 << fragment)) != 0) {
+				key = keyCodec.unpack(node.getKeyAt(fragment));
+				value = node.getValueAt(fragment);
+				return true;
+			}
+			stackTop++;
+			nodeStack[stackTop] = node.getSubNodeAt(fragment);
+			fragmentStack[stackTop] = -1;
+		}
+		key = null;
+		value = null;
+		return false;
+	}
+
+	@Override
+	public boolean isDirty() {
+		return this.map.contentHashCode(ContentHashCode.APPROXIMATE_FAST) != this.creationHash;
+	}
+
+	@Override
+	public Set<AnyVersionedMap> getDependingMaps() {
+		return Set.of(this.map);
+	}
+}
@@ -0,0 +1,269 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.packed;
+
+import tools.refinery.store.map.internal.state.OldValueBox;
+
+import java.util.Map;
+
+public class PackedMutableNode<V> extends PackedNode<V> {
+	int dataMap;
+	int nodeMap;
+	final long[] keys;
+	final Object[] content;
+	int cachedHash;
+	protected boolean cachedHashValid;
+
+	protected PackedMutableNode() {
+		this.keys = new long[FACTOR];
+		this.content = new Object[FACTOR];
+		invalidateHash();
+	}
+
+	public static <V> PackedMutableNode<V> initialize(long key, V value, long hash, V defaultValue) {
+		if (value == defaultValue) {
+			return null;
+		} else {
+			int fragment = hashFragment(hash, 0);
+			PackedMutableNode<V> res = new PackedMutableNode<>();
+			res.setEntry(fragment, key, value);
+			return res;
+		}
+	}
+
+	/**
+	 * Constructs a {@link PackedMutableNode} as a copy of an immutable node.
+	 *
+	 * @param node to be transformed
+	 */
+	protected PackedMutableNode(PackedNode<V> node) {
+		this();
+		this.dataMap = node.getDataMap();
+		this.nodeMap = node.getNodeMap();
+		for (int bits = dataMap; bits != 0; bits &= bits - 1) {
+			int fragment = Integer.numberOfTrailingZeros(bits);
+			keys[fragment] = node.getKeyAt(fragment);
+			content[fragment] = node.getValueAt(fragment);
+		}
+		for (int bits = nodeMap; bits != 0; bits &= bits - 1) {
+			int fragment = Integer.numberOfTrailingZeros(bits);
+			content[fragment] = node.getSubNodeAt(fragment);
+		}
+	}
+
+	@Override
+	int getDataMap() {
+		return dataMap;
+	}
+
+	@Override
+	int getNodeMap() {
+		return nodeMap;
+	}
+
+	@Override
+	long getKeyAt(int fragment) {
+		return keys[fragment];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	V getValueAt(int fragment) {
+		return (V) content[fragment];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	PackedNode<V> getSubNodeAt(int fragment) {
+		return (PackedNode<V>) content[fragment];
+	}
+
+	@Override
+	public V getValue(long key, long hash, V defaultValue, int depth) {
+		int selectedHashFragment = hashFragment(hash, depth);
+		int bitPosition = 1 << selectedHashFragment;
+		if ((dataMap & bitPosition) != 0) {
+			if (keys[selectedHashFragment] == key) {
+				@SuppressWarnings("unchecked") V value = (V) content[selectedHashFragment];
+				return value;
+			} else {
+				return defaultValue;
+			}
+		} else if ((nodeMap & bitPosition) != 0) {
+			@SuppressWarnings("unchecked") var subNode = (PackedNode<V>) content[selectedHashFragment];
+			return subNode.getValue(key, hash, defaultValue, depth + 1);
+		} else {
+			return defaultValue;
+		}
+	}
+
+	@Override
+	public PackedNode<V> putValue(long key, V value, OldValueBox<V> oldValue, long hash, V defaultValue, int depth) {
+		int selectedHashFragment = hashFragment(hash, depth);
+		int bitPosition = 1 << selectedHashFragment;
+		if ((dataMap & bitPosition) != 0) {
+			if (keys[selectedHashFragment] == key) {
+				// The key is equals to an existing key -> update entry
+				if (value == defaultValue) {
+					return removeEntry(selectedHashFragment, oldValue);
+				} else {
+					return updateValue(value, oldValue, selectedHashFragment);
+				}
+			}
+			// The key is not equivalent to an existing key on the same hash bin
+			oldValue.setOldValue(defaultValue);
+			if (value == defaultValue) {
+				// Value is default -> do not need to add new node
+				return this;
+			}
+			// Value is not default -> Split entry data to a new node
+			return moveDownAndSplit(key, value, hash, depth, selectedHashFragment);
+		} else if ((nodeMap & bitPosition) != 0) {
+			// If it has a sub-node -> update that
+			@SuppressWarnings("unchecked") var subNode = (PackedNode<V>) content[selectedHashFragment];
+			var newSubNode = subNode.putValue(key, value, oldValue, hash, defaultValue, depth + 1);
+			// Mutable sub-nodes may change in place, so the cached hash is invalidated even if newSubNode == subNode.
+			return updateWithSubNode(selectedHashFragment, newSubNode);
+		} else {
+			// If it does not have value, put it in the empty place
+			oldValue.setOldValue(defaultValue);
+			if (value != defaultValue) {
+				setEntry(selectedHashFragment, key, value);
+			}
+			return this;
+		}
+	}
+
+	private void setEntry(int fragment, long key, V value) {
+		dataMap |= 1 << fragment;
+		keys[fragment] = key;
+		content[fragment] = value;
+		invalidateHash();
+	}
+
+	/**
+	 * Updates an entry in a selected hash-fragment to a non-default value.
+	 *
+	 * @param value                new value
+	 * @param selectedHashFragment position of the value
+	 * @return updated node
+	 */
+	@SuppressWarnings("unchecked")
+	private PackedNode<V> updateValue(V value, OldValueBox<V> oldValue, int selectedHashFragment) {
+		oldValue.setOldValue((V) content[selectedHashFragment]);
+		content[selectedHashFragment] = value;
+		invalidateHash();
+		return this;
+	}
+
+	@SuppressWarnings("unchecked")
+	private PackedNode<V> removeEntry(int selectedHashFragment, OldValueBox<V> oldValue) {
+		oldValue.setOldValue((V) content[selectedHashFragment]);
+		dataMap &= ~(1 << selectedHashFragment);
+		keys[selectedHashFragment] = 0;
+		content[selectedHashFragment] = null;
+		if ((dataMap | nodeMap) == 0) {
+			return null;
+		}
+		invalidateHash();
+		return this;
+	}
+
+	/**
+	 * Updates an entry in a selected hash-fragment with a subtree. If the subtree became empty, it is removed, and if
+	 * it became orphaned (i.e., contains a single entry), its entry is pulled up to this node. Therefore, the shape of
+	 * the tree depends only on its contents.
+	 *
+	 * @param selectedHashFragment position of the value
+	 * @param newNode              the subtree
+	 * @return updated node
+	 */
+	PackedNode<V> updateWithSubNode(int selectedHashFragment, PackedNode<V> newNode) {
+		int bitPosition = 1 << selectedHashFragment;
+		if (newNode == null) {
+			nodeMap &= ~bitPosition;
+			content[selectedHashFragment] = null;
+			if ((dataMap | nodeMap) == 0) {
+				return null;
+			}
+		} else if (newNode.isOrphaned()) {
+			int orphanFragment = Integer.numberOfTrailingZeros(newNode.getDataMap());
+			nodeMap &= ~bitPosition;
+			dataMap |= bitPosition;
+			keys[selectedHashFragment] = newNode.getKeyAt(orphanFragment);
+			content[selectedHashFragment] = newNode.getValueAt(orphanFragment);
+		} else {
+			content[selectedHashFragment] = newNode;
+		}
+		invalidateHash();
+		return this;
+	}
+
+	@SuppressWarnings("unchecked")
+	private PackedNode<V> moveDownAndSplit(long key, V value, long hash, int depth, int selectedHashFragment) {
+		long previousKey = keys[selectedHashFragment];
+		V previousValue = (V) content[selectedHashFragment];
+		var newSubNode = newNodeWithTwoEntries(previousKey, previousValue, hash(previousKey), key, value, hash,
+				depth + 1);
+		int bitPosition = 1 << selectedHashFragment;
+		dataMap &= ~bitPosition;
+		nodeMap |= bitPosition;
+		keys[selectedHashFragment] = 0;
+		content[selectedHashFragment] = newSubNode;
+		invalidateHash();
+		return this;
+	}
+
+	private static <V> PackedMutableNode<V> newNodeWithTwoEntries(long key1, V value1, long hash1, long key2,
+																  V value2, long hash2, int depth) {
+		PackedMutableNode<V> subNode = new PackedMutableNode<>();
+		int fragment1 = hashFragment(hash1, depth);
+		int fragment2 = hashFragment(hash2, depth);
+		if (fragment1 != fragment2) {
+			subNode.setEntry(fragment1, key1, value1);
+			subNode.setEntry(fragment2, key2, value2);
+		} else {
+			subNode.nodeMap |= 1 << fragment1;
+			subNode.content[fragment1] = newNodeWithTwoEntries(key1, value1, hash1, key2, value2, hash2, depth + 1);
+			subNode.invalidateHash();
+		}
+		return subNode;
+	}
+
+	@Override
+	PackedMutableNode<V> toMutable() {
+		return this;
+	}
+
+	@Override
+	public PackedImmutableNode<V> toImmutable(Map<PackedNode<V>, PackedImmutableNode<V>> cache) {
+		return PackedImmutableNode.constructImmutable(this, cache);
+	}
+
+	@Override
+	public void checkIntegrity(V defaultValue, int depth) {
+		checkData(defaultValue, depth);
+		for (int bits = nodeMap; bits != 0; bits &= bits - 1) {
+			getSubNodeAt(Integer.numberOfTrailingZeros(bits)).checkIntegrity(defaultValue, depth + 1);
+		}
+		if (cachedHashValid && cachedHash != calculateHashCode()) {
+			throw new IllegalStateException("Cached hash is invalid!");
+		}
+	}
+
+	protected void invalidateHash() {
+		this.cachedHashValid = false;
+	}
+
+	@Override
+	public int hashCode() {
+		if (!this.cachedHashValid) {
+			this.cachedHash = calculateHashCode();
+			this.cachedHashValid = true;
+		}
+		return this.cachedHash;
+	}
+}
@@ -0,0 +1,235 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.packed;
+
+import tools.refinery.store.map.internal.state.Node;
+import tools.refinery.store.map.internal.state.OldValueBox;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Node of a hash array mapped trie with primitive {@code long} keys.
+ * <p>
+ * Unlike {@link Node}, the keys are not hashed with a {@link tools.refinery.store.map.ContinuousHashProvider}.
+ * Instead, each key is scrambled by a bijective function, and the 64 bits of the scrambled key are consumed
+ * {@link #BRANCHING_FACTOR_BITS} at a time. Therefore, two different keys are always separated after at most
+ * {@link #MAX_DEPTH} levels.
+ * </p>
+ *
+ * @param <V> Value type.
+ */
+public abstract class PackedNode<V> {
+	public static final int BRANCHING_FACTOR_BITS = Node.BRANCHING_FACTOR_BITS;
+	public static final int FACTOR = Node.FACTOR;
+	protected static final int FACTOR_MASK = FACTOR - 1;
+	public static final int MAX_DEPTH = (Long.SIZE + BRANCHING_FACTOR_BITS - 1) / BRANCHING_FACTOR_BITS;
+
+	/**
+	 * Scrambles a packed key with the (bijective) finalizer of the SplitMix64 generator.
+	 *
+	 * @param packedKey The packed key.
+	 * @return The hash of the key, which is different for every different key.
+	 */
+	public static long hash(long packedKey) {
+		long z = packedKey;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Selects the segment of a hash for a given depth.
+	 *
+	 * @param hash  The complete hash.
+	 * @param depth The depth of the node in the tree.
+	 * @return The segment as an integer.
+	 */
+	protected static int hashFragment(long hash, int depth) {
+		if (depth < 0 || depth >= MAX_DEPTH) {
+			throw new IllegalArgumentException("Invalid depth! valid interval=[0;%d), input=%d"
+					.formatted(MAX_DEPTH, depth));
+		}
+		return (int) (hash >>> (depth * BRANCHING_FACTOR_BITS)) & FACTOR_MASK;
+	}
+
+	protected static int index(int bitmap, int bitPosition) {
+		return Integer.bitCount(bitmap & (bitPosition - 1));
+	}
+
+	abstract int getDataMap();
+
+	abstract int getNodeMap();
+
+	/**
+	 * Returns the key stored in a given position. The bit of the position must be set in {@link #getDataMap()}.
+	 *
+	 * @param fragment The position.
+	 * @return The packed key.
+	 */
+	abstract long getKeyAt(int fragment);
+
+	/**
+	 * Returns the value stored in a given position. The bit of the position must be set in {@link #getDataMap()}.
+	 *
+	 * @param fragment The position.
+	 * @return The value.
+	 */
+	abstract V getValueAt(int fragment);
+
+	/**
+	 * Returns the sub-node stored in a given position. The bit of the position must be set in
+	 * {@link #getNodeMap()}.
+	 *
+	 * @param fragment The position.
+	 * @return The sub-node.
+	 */
+	abstract PackedNode<V> getSubNodeAt(int fragment);
+
+	public abstract V getValue(long key, long hash, V defaultValue, int depth);
+
+	public abstract PackedNode<V> putValue(long key, V value, OldValueBox<V> oldValue, long hash, V defaultValue,
+										   int depth);
+
+	abstract PackedMutableNode<V> toMutable();
+
+	public abstract PackedImmutableNode<V> toImmutable(Map<PackedNode<V>, PackedImmutableNode<V>> cache);
+
+	public abstract void checkIntegrity(V defaultValue, int depth);
+
+	public long getSize() {
+		long size = Integer.bitCount(getDataMap());
+		for (int bits = getNodeMap(); bits != 0; bits &= bits - 1) {
+			size += getSubNodeAt(Integer.numberOfTrailingZeros(bits)).getSize();
+		}
+		return size;
+	}
+
+	/**
+	 * Checks whether two node objects represent the same stored node.
+	 *
+	 * @param other The other node.
+	 * @return {@code true} if the nodes are the same, which implies that they have the same contents.
+	 */
+	boolean isSameNode(PackedNode<?> other) {
+		return this == other;
+	}
+
+	boolean isOrphaned() {
+		return getNodeMap() == 0 && Integer.bitCount(getDataMap()) == 1;
+	}
+
+	protected void checkData(V defaultValue, int depth) {
+		if (depth > 0 && isOrphaned()) {
+			throw new IllegalStateException("Orphaned node! " + getDataMap());
+		}
+		if ((getDataMap() & getNodeMap()) != 0) {
+			throw new IllegalStateException("Data and sub-node stored in the same position!");
+		}
+		for (int bits = getDataMap(); bits != 0; bits &= bits - 1) {
+			int fragment = Integer.numberOfTrailingZeros(bits);
+			long key = getKeyAt(fragment);
+			if (getValueAt(fragment) == defaultValue) {
+				throw new IllegalStateException("Node contains default value!");
+			}
+			int selectedHashFragment = hashFragment(hash(key), depth);
+			if (fragment != selectedHashFragment) {
+				throw new IllegalStateException("Key " + key + " is in bad place! Fragment=" +
+						selectedHashFragment + ", Place=" + fragment);
+			}
+		}
+	}
+
+	/**
+	 * Calculates the hash code of the node from its contents. Mutable and immutable nodes with the same contents
+	 * have the same hash code, which lets the node cache look up an immutable node with a mutable one.
+	 *
+	 * @return The hash code.
+	 */
+	protected int calculateHashCode() {
+		int dataMap = getDataMap();
+		int nodeMap = getNodeMap();
+		int result = 31 * dataMap + nodeMap;
+		for (int bits = dataMap; bits != 0; bits &= bits - 1) {
+			int fragment = Integer.numberOfTrailingZeros(bits);
+			result = 31 * result + Long.hashCode(getKeyAt(fragment));
+			result = 31 * result + Objects.hashCode(getValueAt(fragment));
+		}
+		for (int bits = nodeMap; bits != 0; bits &= bits - 1) {
+			result = 31 * result + getSubNodeAt(Integer.numberOfTrailingZeros(bits)).hashCode();
+		}
+		return result;
+	}
+
+	@Override
+	public abstract int hashCode();
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof PackedNode<?> other) || hashCode() != other.hashCode()) {
+			return false;
+		}
+		int dataMap = getDataMap();
+		int nodeMap = getNodeMap();
+		if (dataMap != other.getDataMap() || nodeMap != other.getNodeMap()) {
+			return false;
+		}
+		for (int bits = dataMap; bits != 0; bits &= bits - 1) {
+			int fragment = Integer.numberOfTrailingZeros(bits);
+			if (getKeyAt(fragment) != other.getKeyAt(fragment) ||
+					!Objects.equals(getValueAt(fragment), other.getValueAt(fragment))) {
+				return false;
+			}
+		}
+		for (int bits = nodeMap; bits != 0; bits &= bits - 1) {
+			int fragment = Integer.numberOfTrailingZeros(bits);
+			if (!getSubNodeAt(fragment).equals(other.getSubNodeAt(fragment))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public void prettyPrint(StringBuilder builder, int depth, int code) {
+		builder.append("\t".repeat(Math.max(0, depth)));
+		if (code >= 0) {
+			builder.append(code);
+			builder.append(":");
+		}
+		builder.append(getClass().getSimpleName());
+		builder.append("(");
+		boolean hadContent = false;
+		for (int bits = getDataMap(); bits != 0; bits &= bits - 1) {
+			int fragment = Integer.numberOfTrailingZeros(bits);
+			if (hadContent) {
+				builder.append(",");
+			}
+			builder.append(fragment);
+			builder.append(":[");
+			builder.append(getKeyAt(fragment));
+			builder.append("]->[");
+			builder.append(getValueAt(fragment));
+			builder.append("]");
+			hadContent = true;
+		}
+		builder.append(")");
+		for (int bits = getNodeMap(); bits != 0; bits &= bits - 1) {
+			int fragment = Integer.numberOfTrailingZeros(bits);
+			builder.append("\n");
+			getSubNodeAt(fragment).prettyPrint(builder, depth + 1, fragment);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder stringBuilder = new StringBuilder();
+		prettyPrint(stringBuilder, 0, -1);
+		return stringBuilder.toString();
+	}
+}
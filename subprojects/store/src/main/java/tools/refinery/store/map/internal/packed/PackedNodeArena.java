@@ -0,0 +1,374 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.packed;
+
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only storage of committed {@link PackedNode}s outside the Java heap.
+ * <p>
+ * Nodes are stored as records of fixed layout in chunks of direct or memory-mapped {@link ByteBuffer}s:
+ * <pre>
+ * int dataMap, int nodeMap, int hashCode, long[bitCount(dataMap)] keys, int[bitCount(dataMap)] valueIds,
+ * long[bitCount(nodeMap)] subNodeAddresses
+ * </pre>
+ * Since values are arbitrary objects, they are interned into a table on the heap and referred to by their index.
+ * This keeps the heap footprint of a committed version proportional to the number of <em>distinct</em> values instead
+ * of the number of nodes.
+ * </p>
+ * <p>
+ * If deduplication is enabled, nodes with the same contents are stored only once, which plays the role of the node
+ * cache of heap-based stores. Stored nodes are never reclaimed.
+ * </p>
+ */
+public class PackedNodeArena {
+	private static final int CHUNK_BITS = 20;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	private static final int HEADER_SIZE = 3 * Integer.BYTES;
+	private static final int DATA_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+	private static final int INITIAL_INDEX_CAPACITY = 1 << 10;
+	private static final Object NULL_VALUE = new Object();
+
+	private final VersionedMapStoreFactoryBuilder.NodeStorage storage;
+	private final boolean deduplicate;
+	private final boolean readOnly;
+	private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+	private int writeChunk = -1;
+	private int writeOffset = CHUNK_SIZE;
+	private Path mappedFile;
+
+	private final Map<Object, Integer> valueIds = new HashMap<>();
+	private volatile Object[] values = new Object[16];
+	private int valueCount;
+
+	// Open addressing hash table of stored node addresses (plus one, so that 0 marks empty slots).
+	private long[] index;
+	private int indexSize;
+
+	public PackedNodeArena(VersionedMapStoreFactoryBuilder.NodeStorage storage, boolean deduplicate) {
+		if (storage == VersionedMapStoreFactoryBuilder.NodeStorage.HEAP) {
+			throw new IllegalArgumentException("Heap storage does not need a node arena");
+		}
+		this.storage = storage;
+		this.deduplicate = deduplicate;
+		readOnly = false;
+		index = deduplicate ? new long[INITIAL_INDEX_CAPACITY] : null;
+	}
+
+	private PackedNodeArena(ByteBuffer[] chunks, Object[] values) {
+		storage = VersionedMapStoreFactoryBuilder.NodeStorage.MEMORY_MAPPED;
+		deduplicate = false;
+		readOnly = true;
+		this.chunks = chunks;
+		writeChunk = chunks.length - 1;
+		this.values = values;
+		valueCount = values.length;
+		index = null;
+	}
+
+	/**
+	 * Opens the nodes written by {@link #write(FileChannel, long)} as a read-only arena. Chunks are memory-mapped, so
+	 * nodes are only loaded from the file when they are accessed.
+	 *
+	 * @param channel    The file containing the nodes.
+	 * @param position   The position of the first chunk in the file.
+	 * @param chunkSizes The sizes of the chunks returned by {@link #getChunkSizes()} when the nodes were written.
+	 * @param values     The values returned by {@link #getValues()} when the nodes were written.
+	 * @return The read-only arena.
+	 * @throws IOException If the file could not be mapped.
+	 */
+	public static PackedNodeArena open(FileChannel channel, long position, int[] chunkSizes, Object[] values)
+			throws IOException {
+		var mappedChunks = new ByteBuffer[chunkSizes.length];
+		for (int i = 0; i < chunkSizes.length; i++) {
+			mappedChunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + (long) i * CHUNK_SIZE,
+					chunkSizes[i]);
+		}
+		return new PackedNodeArena(mappedChunks, values.clone());
+	}
+
+	/**
+	 * Writes the stored nodes to a file. Each chunk is written to its own {@code CHUNK_SIZE} aligned region after
+	 * {@code position}, so that node addresses remain valid when the file is opened with
+	 * {@link #open(FileChannel, long, int[], Object[])}.
+	 *
+	 * @param channel  The file to write.
+	 * @param position The position of the first chunk in the file.
+	 * @return The position after the last region.
+	 * @throws IOException If the file could not be written.
+	 */
+	public synchronized long write(FileChannel channel, long position) throws IOException {
+		var chunkSizes = getChunkSizes();
+		for (int i = 0; i < chunkSizes.length; i++) {
+			// Duplicate the buffer so that concurrent readers are not affected by the change of position.
+			var buffer = chunks[i].duplicate().position(0).limit(chunkSizes[i]);
+			long chunkPosition = position + (long) i * CHUNK_SIZE;
+			while (buffer.hasRemaining()) {
+				chunkPosition += channel.write(buffer, chunkPosition);
+			}
+		}
+		return position + (long) chunkSizes.length * CHUNK_SIZE;
+	}
+
+	public synchronized int[] getChunkSizes() {
+		var chunkSizes = new int[writeChunk + 1];
+		if (readOnly) {
+			for (int i = 0; i < chunkSizes.length; i++) {
+				chunkSizes[i] = chunks[i].capacity();
+			}
+		} else {
+			Arrays.fill(chunkSizes, CHUNK_SIZE);
+			if (writeChunk >= 0) {
+				chunkSizes[writeChunk] = writeOffset;
+			}
+		}
+		return chunkSizes;
+	}
+
+	/**
+	 * Returns the interned values. Stored nodes refer to values by their index in the returned array.
+	 *
+	 * @return The interned values.
+	 */
+	public synchronized Object[] getValues() {
+		return Arrays.copyOf(values, valueCount);
+	}
+
+	public <V> PackedSpilledNode<V> getNode(long address) {
+		return new PackedSpilledNode<>(this, address);
+	}
+
+	/**
+	 * Stores a node and its sub-nodes recursively. Sub-nodes already stored in this arena are not copied again.
+	 *
+	 * @param node The node to store.
+	 * @param <V>  Value type.
+	 * @return A handle to the stored node.
+	 */
+	public synchronized <V> PackedSpilledNode<V> store(PackedNode<V> node) {
+		if (readOnly) {
+			throw new IllegalStateException("Cannot store nodes in a read-only arena");
+		}
+		return new PackedSpilledNode<>(this, storeNode(node));
+	}
+
+	private long storeNode(PackedNode<?> node) {
+		if (node instanceof PackedSpilledNode<?> spilledNode && spilledNode.arena == this) {
+			return spilledNode.address;
+		}
+		int dataMap = node.getDataMap();
+		int nodeMap = node.getNodeMap();
+		int dataCount = Integer.bitCount(dataMap);
+		long[] keys = new long[dataCount];
+		int[] ids = new int[dataCount];
+		int dataUsed = 0;
+		for (int bits = dataMap; bits != 0; bits &= bits - 1) {
+			int fragment = Integer.numberOfTrailingZeros(bits);
+			keys[dataUsed] = node.getKeyAt(fragment);
+			ids[dataUsed] = internValue(node.getValueAt(fragment));
+			dataUsed++;
+		}
+		long[] subNodeAddresses = new long[Integer.bitCount(nodeMap)];
+		int nodeUsed = 0;
+		for (int bits = nodeMap; bits != 0; bits &= bits - 1) {
+			subNodeAddresses[nodeUsed] = storeNode(node.getSubNodeAt(Integer.numberOfTrailingZeros(bits)));
+			nodeUsed++;
+		}
+		int hashCode = node.hashCode();
+		if (deduplicate) {
+			long existing = findNode(dataMap, nodeMap, hashCode, keys, ids, subNodeAddresses);
+			if (existing >= 0) {
+				return existing;
+			}
+		}
+		long address = writeNode(dataMap, nodeMap, hashCode, keys, ids, subNodeAddresses);
+		if (deduplicate) {
+			addToIndex(address, hashCode);
+		}
+		return address;
+	}
+
+	private int internValue(Object value) {
+		Object key = value == null ? NULL_VALUE : value;
+		Integer id = valueIds.get(key);
+		if (id != null) {
+			return id;
+		}
+		int newId = valueCount;
+		Object[] currentValues = values;
+		if (newId == currentValues.length) {
+			currentValues = Arrays.copyOf(currentValues, newId * 2);
+		}
+		currentValues[newId] = value;
+		values = currentValues;
+		valueCount++;
+		valueIds.put(key, newId);
+		return newId;
+	}
+
+	private long writeNode(int dataMap, int nodeMap, int hashCode, long[] keys, int[] ids, long[] subNodeAddresses) {
+		int recordSize = HEADER_SIZE + keys.length * DATA_ENTRY_SIZE + subNodeAddresses.length * Long.BYTES;
+		if (writeOffset + recordSize > CHUNK_SIZE) {
+			allocateChunk();
+		}
+		var chunk = chunks[writeChunk];
+		int offset = writeOffset;
+		chunk.putInt(offset, dataMap);
+		chunk.putInt(offset + Integer.BYTES, nodeMap);
+		chunk.putInt(offset + 2 * Integer.BYTES, hashCode);
+		int position = offset + HEADER_SIZE;
+		for (long key : keys) {
+			chunk.putLong(position, key);
+			position += Long.BYTES;
+		}
+		for (int id : ids) {
+			chunk.putInt(position, id);
+			position += Integer.BYTES;
+		}
+		for (long subNodeAddress : subNodeAddresses) {
+			chunk.putLong(position, subNodeAddress);
+			position += Long.BYTES;
+		}
+		writeOffset = position;
+		return ((long) writeChunk << CHUNK_BITS) | offset;
+	}
+
+	private void allocateChunk() {
+		int newChunkIndex = writeChunk + 1;
+		ByteBuffer newChunk = switch (storage) {
+			case OFF_HEAP -> ByteBuffer.allocateDirect(CHUNK_SIZE);
+			case MEMORY_MAPPED -> mapChunk(newChunkIndex);
+			case HEAP -> throw new IllegalStateException("Heap storage does not need a node arena");
+		};
+		var newChunks = Arrays.copyOf(chunks, newChunkIndex + 1);
+		newChunks[newChunkIndex] = newChunk;
+		chunks = newChunks;
+		writeChunk = newChunkIndex;
+		writeOffset = 0;
+	}
+
+	private ByteBuffer mapChunk(int chunkIndex) {
+		try {
+			if (mappedFile == null) {
+				mappedFile = Files.createTempFile("refinery-nodes-", ".bin");
+				mappedFile.toFile().deleteOnExit();
+			}
+			// The mapping stays valid after the channel is closed.
+			try (var channel = FileChannel.open(mappedFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				return channel.map(FileChannel.MapMode.READ_WRITE, (long) chunkIndex * CHUNK_SIZE, CHUNK_SIZE);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to map node storage file", e);
+		}
+	}
+
+	private long findNode(int dataMap, int nodeMap, int hashCode, long[] keys, int[] ids, long[] subNodeAddresses) {
+		int mask = index.length - 1;
+		for (int slot = mix(hashCode) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+			long address = index[slot] - 1;
+			if (recordEquals(address, dataMap, nodeMap, hashCode, keys, ids, subNodeAddresses)) {
+				return address;
+			}
+		}
+		return -1;
+	}
+
+	private boolean recordEquals(long address, int dataMap, int nodeMap, int hashCode, long[] keys, int[] ids,
+								 long[] subNodeAddresses) {
+		if (getHashCode(address) != hashCode || getDataMap(address) != dataMap || getNodeMap(address) != nodeMap) {
+			return false;
+		}
+		for (int i = 0; i < keys.length; i++) {
+			if (getKey(address, i) != keys[i] || getValueId(address, keys.length, i) != ids[i]) {
+				return false;
+			}
+		}
+		for (int i = 0; i < subNodeAddresses.length; i++) {
+			if (getSubNodeAddress(address, keys.length, i) != subNodeAddresses[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void addToIndex(long address, int hashCode) {
+		if (2 * (indexSize + 1) > index.length) {
+			var oldIndex = index;
+			index = new long[oldIndex.length * 2];
+			for (long entry : oldIndex) {
+				if (entry != 0) {
+					insertIntoIndex(entry, getHashCode(entry - 1));
+				}
+			}
+		}
+		insertIntoIndex(address + 1, hashCode);
+		indexSize++;
+	}
+
+	private void insertIntoIndex(long entry, int hashCode) {
+		int mask = index.length - 1;
+		int slot = mix(hashCode) & mask;
+		while (index[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		index[slot] = entry;
+	}
+
+	private static int mix(int hashCode) {
+		int h = hashCode * 0x9e3779b9;
+		return h ^ (h >>> 16);
+	}
+
+	private ByteBuffer chunk(long address) {
+		return chunks[(int) (address >>> CHUNK_BITS)];
+	}
+
+	private static int offset(long address) {
+		return (int) (address & CHUNK_MASK);
+	}
+
+	int getDataMap(long address) {
+		return chunk(address).getInt(offset(address));
+	}
+
+	int getNodeMap(long address) {
+		return chunk(address).getInt(offset(address) + Integer.BYTES);
+	}
+
+	int getHashCode(long address) {
+		return chunk(address).getInt(offset(address) + 2 * Integer.BYTES);
+	}
+
+	long getKey(long address, int dataIndex) {
+		return chunk(address).getLong(offset(address) + HEADER_SIZE + dataIndex * Long.BYTES);
+	}
+
+	private int getValueId(long address, int dataCount, int dataIndex) {
+		return chunk(address).getInt(offset(address) + HEADER_SIZE + dataCount * Long.BYTES +
+				dataIndex * Integer.BYTES);
+	}
+
+	Object getValue(long address, int dataCount, int dataIndex) {
+		return values[getValueId(address, dataCount, dataIndex)];
+	}
+
+	long getSubNodeAddress(long address, int dataCount, int nodeIndex) {
+		return chunk(address).getLong(offset(address) + HEADER_SIZE + dataCount * DATA_ENTRY_SIZE +
+				nodeIndex * Long.BYTES);
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.packed;
+
+import tools.refinery.store.map.Version;
+import tools.refinery.store.map.internal.state.OldValueBox;
+
+import java.util.Map;
+
+/**
+ * Handle of an immutable node stored in a {@link PackedNodeArena}. Handles are light-weight and are created on demand
+ * when the tree is traversed, so the contents of the node are not retained on the heap.
+ *
+ * @param <V> Value type.
+ */
+public final class PackedSpilledNode<V> extends PackedNode<V> implements Version {
+	final PackedNodeArena arena;
+	final long address;
+	private final int dataMap;
+	private final int nodeMap;
+
+	PackedSpilledNode(PackedNodeArena arena, long address) {
+		this.arena = arena;
+		this.address = address;
+		dataMap = arena.getDataMap(address);
+		nodeMap = arena.getNodeMap(address);
+	}
+
+	public long getAddress() {
+		return address;
+	}
+
+	@Override
+	int getDataMap() {
+		return dataMap;
+	}
+
+	@Override
+	int getNodeMap() {
+		return nodeMap;
+	}
+
+	@Override
+	long getKeyAt(int fragment) {
+		return arena.getKey(address, index(dataMap, 1 << fragment));
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	V getValueAt(int fragment) {
+		return (V) arena.getValue(address, Integer.bitCount(dataMap), index(dataMap, 1 << fragment));
+	}
+
+	@Override
+	PackedNode<V> getSubNodeAt(int fragment) {
+		long subNodeAddress = arena.getSubNodeAddress(address, Integer.bitCount(dataMap),
+				index(nodeMap, 1 << fragment));
+		return new PackedSpilledNode<>(arena, subNodeAddress);
+	}
+
+	@Override
+	boolean isSameNode(PackedNode<?> other) {
+		return this == other || (other instanceof PackedSpilledNode<?> otherSpilledNode &&
+				arena == otherSpilledNode.arena && address == otherSpilledNode.address);
+	}
+
+	@Override
+	public V getValue(long key, long hash, V defaultValue, int depth) {
+		int selectedHashFragment = hashFragment(hash, depth);
+		int bitPosition = 1 << selectedHashFragment;
+		if ((dataMap & bitPosition) != 0) {
+			int dataIndex = index(dataMap, bitPosition);
+			if (arena.getKey(address, dataIndex) == key) {
+				@SuppressWarnings("unchecked") V value = (V) arena.getValue(address, Integer.bitCount(dataMap),
+						dataIndex);
+				return value;
+			} else {
+				return defaultValue;
+			}
+		} else if ((nodeMap & bitPosition) != 0) {
+			return getSubNodeAt(selectedHashFragment).getValue(key, hash, defaultValue, depth + 1);
+		} else {
+			return defaultValue;
+		}
+	}
+
+	@Override
+	public PackedNode<V> putValue(long key, V value, OldValueBox<V> oldValue, long hash, V defaultValue, int depth) {
+		int selectedHashFragment = hashFragment(hash, depth);
+		int bitPosition = 1 << selectedHashFragment;
+		if ((dataMap & bitPosition) != 0) {
+			if (getKeyAt(selectedHashFragment) == key) {
+				if (value == getValueAt(selectedHashFragment)) {
+					// don't change
+					oldValue.setOldValue(value);
+					return this;
+				}
+				// delete or update existing value
+				return toMutable().putValue(key, value, oldValue, hash, defaultValue, depth);
+			} else if (value == defaultValue) {
+				// don't change
+				oldValue.setOldValue(defaultValue);
+				return this;
+			} else {
+				// add new key + value
+				return toMutable().putValue(key, value, oldValue, hash, defaultValue, depth);
+			}
+		} else if ((nodeMap & bitPosition) != 0) {
+			var subNode = getSubNodeAt(selectedHashFragment);
+			var newSubNode = subNode.putValue(key, value, oldValue, hash, defaultValue, depth + 1);
+			if (subNode == newSubNode) {
+				// nothing changed
+				return this;
+			}
+			return toMutable().updateWithSubNode(selectedHashFragment, newSubNode);
+		} else if (value == defaultValue) {
+			// don't change
+			oldValue.setOldValue(defaultValue);
+			return this;
+		} else {
+			// add new key + value
+			return toMutable().putValue(key, value, oldValue, hash, defaultValue, depth);
+		}
+	}
+
+	@Override
+	PackedMutableNode<V> toMutable() {
+		return new PackedMutableNode<>(this);
+	}
+
+	/**
+	 * Faults the node and its sub-nodes back onto the heap.
+	 *
+	 * @param cache A cache of existing immutable nodes.
+	 * @return The heap-based copy of this node.
+	 */
+	@Override
+	public PackedImmutableNode<V> toImmutable(Map<PackedNode<V>, PackedImmutableNode<V>> cache) {
+		return PackedImmutableNode.constructImmutable(toMutable(), cache);
+	}
+
+	@Override
+	public void checkIntegrity(V defaultValue, int depth) {
+		checkData(defaultValue, depth);
+		for (int bits = nodeMap; bits != 0; bits &= bits - 1) {
+			getSubNodeAt(Integer.numberOfTrailingZeros(bits)).checkIntegrity(defaultValue, depth + 1);
+		}
+		if (hashCode() != calculateHashCode()) {
+			throw new IllegalStateException("Stored hash code does not match the content!");
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return arena.getHashCode(address);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return (obj instanceof PackedNode<?> other && isSameNode(other)) || super.equals(obj);
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.packed;
+
+import tools.refinery.store.map.PackedKeyCodec;
+import tools.refinery.store.map.VersionedMapStore;
+import tools.refinery.store.map.VersionedMapStoreFactory;
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder;
+import tools.refinery.store.map.internal.state.VersionedMapStoreStateConfiguration;
+
+import java.util.List;
+
+public class PackedStateBasedVersionedMapStoreFactory<K, V> implements VersionedMapStoreFactory<K, V> {
+	private final V defaultValue;
+	private final PackedKeyCodec<K> keyCodec;
+	private final VersionedMapStoreStateConfiguration config;
+	private final VersionedMapStoreFactoryBuilder.NodeStorage nodeStorage;
+
+	public PackedStateBasedVersionedMapStoreFactory(V defaultValue, Boolean transformToImmutable,
+													VersionedMapStoreFactoryBuilder.SharingStrategy sharingStrategy,
+													boolean versionFreeingEnabled, PackedKeyCodec<K> keyCodec,
+													VersionedMapStoreFactoryBuilder.NodeStorage nodeStorage) {
+		this.defaultValue = defaultValue;
+		this.keyCodec = keyCodec;
+		this.nodeStorage = nodeStorage;
+
+		this.config = new VersionedMapStoreStateConfiguration(
+				transformToImmutable,
+				sharingStrategy == VersionedMapStoreFactoryBuilder.SharingStrategy.SHARED_NODE_CACHE
+						|| sharingStrategy == VersionedMapStoreFactoryBuilder.SharingStrategy.SHARED_NODE_CACHE_IN_GROUP,
+				sharingStrategy == VersionedMapStoreFactoryBuilder.SharingStrategy.SHARED_NODE_CACHE_IN_GROUP,
+				versionFreeingEnabled);
+	}
+
+	@Override
+	public VersionedMapStore<K, V> createOne() {
+		return new VersionedMapStorePackedImpl<>(keyCodec, defaultValue, config, nodeStorage);
+	}
+
+	@Override
+	public List<VersionedMapStore<K, V>> createGroup(int amount) {
+		return VersionedMapStorePackedImpl.createSharedVersionedMapStores(amount, keyCodec, defaultValue, config,
+				nodeStorage);
+	}
+}
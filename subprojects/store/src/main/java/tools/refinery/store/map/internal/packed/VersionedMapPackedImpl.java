@@ -0,0 +1,163 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.packed;
+
+import tools.refinery.store.map.*;
+import tools.refinery.store.map.internal.state.OldValueBox;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * State based versioned map storing its keys packed into primitive {@code long} values. Not thread safe in itself.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public class VersionedMapPackedImpl<K, V> implements VersionedMap<K, V> {
+	protected final VersionedMapStorePackedImpl<K, V> store;
+
+	protected final PackedKeyCodec<K> keyCodec;
+	protected final V defaultValue;
+	protected PackedNode<V> root;
+
+	private final OldValueBox<V> oldValueBox = new OldValueBox<>();
+
+	public VersionedMapPackedImpl(VersionedMapStorePackedImpl<K, V> store, PackedKeyCodec<K> keyCodec,
+								  V defaultValue, PackedNode<V> data) {
+		this.store = store;
+		this.keyCodec = keyCodec;
+		this.defaultValue = defaultValue;
+		this.root = data;
+	}
+
+	@Override
+	public V getDefaultValue() {
+		return defaultValue;
+	}
+
+	public PackedKeyCodec<K> getKeyCodec() {
+		return keyCodec;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		return putPacked(keyCodec.pack(key), value);
+	}
+
+	@Override
+	public void putAll(Cursor<K, V> cursor) {
+		if (cursor.getDependingMaps().contains(this)) {
+			// Packed keys and values are buffered in arrays to avoid concurrent modification of the iterated map.
+			long[] keys = new long[16];
+			Object[] values = new Object[keys.length];
+			int size = 0;
+			while (cursor.move()) {
+				if (size == keys.length) {
+					keys = Arrays.copyOf(keys, size * 2);
+					values = Arrays.copyOf(values, size * 2);
+				}
+				keys[size] = keyCodec.pack(cursor.getKey());
+				values[size] = cursor.getValue();
+				size++;
+			}
+			for (int i = 0; i < size; i++) {
+				@SuppressWarnings("unchecked") V value = (V) values[i];
+				putPacked(keys[i], value);
+			}
+		} else {
+			while (cursor.move()) {
+				this.put(cursor.getKey(), cursor.getValue());
+			}
+		}
+	}
+
+	private V putPacked(long packedKey, V value) {
+		long hash = PackedNode.hash(packedKey);
+		if (root != null) {
+			root = root.putValue(packedKey, value, oldValueBox, hash, defaultValue, 0);
+			return oldValueBox.getOldValue();
+		} else {
+			root = PackedMutableNode.initialize(packedKey, value, hash, defaultValue);
+			return defaultValue;
+		}
+	}
+
+	@Override
+	public V get(K key) {
+		if (root != null) {
+			long packedKey = keyCodec.pack(key);
+			return root.getValue(packedKey, PackedNode.hash(packedKey), defaultValue, 0);
+		} else {
+			return defaultValue;
+		}
+	}
+
+	@Override
+	public long getSize() {
+		if (root == null) {
+			return 0;
+		} else {
+			return root.getSize();
+		}
+	}
+
+	@Override
+	public Cursor<K, V> getAll() {
+		return new PackedMapCursor<>(this.root, this);
+	}
+
+	@Override
+	public DiffCursor<K, V> getDiffCursor(Version toVersion) {
+		return new PackedDiffCursor<>(keyCodec, defaultValue, root, store.revert(toVersion));
+	}
+
+	@Override
+	public Version commit() {
+		return this.store.commit(root, this);
+	}
+
+	public void setRoot(PackedNode<V> root) {
+		this.root = root;
+	}
+
+	@Override
+	public void restore(Version state) {
+		root = this.store.revert(state);
+	}
+
+	public String prettyPrint() {
+		if (this.root != null) {
+			StringBuilder s = new StringBuilder();
+			this.root.prettyPrint(s, 0, -1);
+			return s.toString();
+		} else {
+			return "empty tree";
+		}
+	}
+
+	@Override
+	public void checkIntegrity() {
+		if (this.root != null) {
+			this.root.checkIntegrity(defaultValue, 0);
+		}
+	}
+
+	@Override
+	public int contentHashCode(ContentHashCode mode) {
+		// Calculating the root hashCode is always fast, because {@link PackedNode} caches its hashCode.
+		if (root == null) {
+			return 0;
+		} else {
+			return root.hashCode();
+		}
+	}
+
+	@Override
+	public boolean contentEquals(AnyVersionedMap other) {
+		return other instanceof VersionedMapPackedImpl<?, ?> otherImpl && Objects.equals(root, otherImpl.root);
+	}
+}
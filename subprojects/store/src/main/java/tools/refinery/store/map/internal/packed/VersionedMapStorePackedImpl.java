@@ -0,0 +1,142 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.packed;
+
+import tools.refinery.store.map.*;
+import tools.refinery.store.map.internal.state.VersionedMapStoreStateConfiguration;
+import tools.refinery.store.map.internal.state.WeakNodeCache;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class VersionedMapStorePackedImpl<K, V> implements VersionedMapStore<K, V> {
+	// Configuration
+	private final boolean immutableWhenCommitting;
+
+	// Static data
+	protected final PackedKeyCodec<K> keyCodec;
+	protected final V defaultValue;
+
+	protected final Map<PackedNode<V>, PackedImmutableNode<V>> nodeCache;
+
+	/**
+	 * Storage of committed nodes outside the heap, or {@code null} if committed nodes are kept on the heap.
+	 */
+	protected final PackedNodeArena arena;
+
+	public VersionedMapStorePackedImpl(PackedKeyCodec<K> keyCodec, V defaultValue,
+									   VersionedMapStoreStateConfiguration config) {
+		this(keyCodec, defaultValue, config, VersionedMapStoreFactoryBuilder.NodeStorage.HEAP);
+	}
+
+	public VersionedMapStorePackedImpl(PackedKeyCodec<K> keyCodec, V defaultValue,
+									   VersionedMapStoreStateConfiguration config,
+									   VersionedMapStoreFactoryBuilder.NodeStorage nodeStorage) {
+		this(keyCodec, defaultValue, config.isSharedNodeCacheInStore() ? createNodeCache(config) : null,
+				createArena(nodeStorage, config), config);
+	}
+
+	/**
+	 * Creates a store that commits nodes into an existing arena without a separate node cache.
+	 *
+	 * @param keyCodec     The codec of the keys.
+	 * @param defaultValue The default value.
+	 * @param arena        The arena to store committed nodes in.
+	 */
+	public VersionedMapStorePackedImpl(PackedKeyCodec<K> keyCodec, V defaultValue, PackedNodeArena arena) {
+		this(keyCodec, defaultValue, null, arena, new VersionedMapStoreStateConfiguration());
+	}
+
+	private VersionedMapStorePackedImpl(PackedKeyCodec<K> keyCodec, V defaultValue,
+										Map<PackedNode<V>, PackedImmutableNode<V>> nodeCache, PackedNodeArena arena,
+										VersionedMapStoreStateConfiguration config) {
+		this.immutableWhenCommitting = config.isImmutableWhenCommitting();
+		this.keyCodec = keyCodec;
+		this.defaultValue = defaultValue;
+		this.nodeCache = arena == null ? nodeCache : null;
+		this.arena = arena;
+	}
+
+	public static <K, V> List<VersionedMapStore<K, V>> createSharedVersionedMapStores(
+			int amount, PackedKeyCodec<K> keyCodec, V defaultValue, VersionedMapStoreStateConfiguration config,
+			VersionedMapStoreFactoryBuilder.NodeStorage nodeStorage) {
+		List<VersionedMapStore<K, V>> result = new ArrayList<>(amount);
+		if (config.isSharedNodeCacheInStoreGroups()) {
+			Map<PackedNode<V>, PackedImmutableNode<V>> nodeCache;
+			if (config.isSharedNodeCacheInStore()) {
+				nodeCache = createNodeCache(config);
+			} else {
+				nodeCache = null;
+			}
+			var arena = createArena(nodeStorage, config);
+			for (int i = 0; i < amount; i++) {
+				result.add(new VersionedMapStorePackedImpl<>(keyCodec, defaultValue, nodeCache, arena, config));
+			}
+		} else {
+			for (int i = 0; i < amount; i++) {
+				result.add(new VersionedMapStorePackedImpl<>(keyCodec, defaultValue, config, nodeStorage));
+			}
+		}
+		return result;
+	}
+
+	private static PackedNodeArena createArena(VersionedMapStoreFactoryBuilder.NodeStorage nodeStorage,
+											   VersionedMapStoreStateConfiguration config) {
+		if (nodeStorage == VersionedMapStoreFactoryBuilder.NodeStorage.HEAP) {
+			return null;
+		}
+		return new PackedNodeArena(nodeStorage, config.isSharedNodeCacheInStore());
+	}
+
+	private static <K, V> Map<K, V> createNodeCache(VersionedMapStoreStateConfiguration config) {
+		if (config.isVersionFreeingEnabled()) {
+			return new WeakNodeCache<>();
+		} else {
+			return new ConcurrentHashMap<>();
+		}
+	}
+
+	@Override
+	public VersionedMap<K, V> createMap() {
+		return new VersionedMapPackedImpl<>(this, keyCodec, defaultValue, null);
+	}
+
+	@Override
+	public VersionedMap<K, V> createMap(Version state) {
+		return new VersionedMapPackedImpl<>(this, keyCodec, defaultValue, revert(state));
+	}
+
+	@SuppressWarnings("unchecked")
+	public PackedNode<V> revert(Version state) {
+		return (PackedNode<V>) state;
+	}
+
+	public Version commit(PackedNode<V> data, VersionedMapPackedImpl<K, V> mapToUpdateRoot) {
+		if (data == null) {
+			if (this.immutableWhenCommitting) {
+				mapToUpdateRoot.setRoot(null);
+			}
+			return null;
+		}
+		if (arena != null) {
+			PackedSpilledNode<V> spilled = arena.store(data);
+			if (this.immutableWhenCommitting) {
+				mapToUpdateRoot.setRoot(spilled);
+			}
+			return spilled;
+		}
+		PackedImmutableNode<V> immutable = data.toImmutable(this.nodeCache);
+		if (this.immutableWhenCommitting) {
+			mapToUpdateRoot.setRoot(immutable);
+		}
+		return immutable;
+	}
+
+	@Override
+	public DiffCursor<K, V> getDiffCursor(Version fromState, Version toState) {
+		return new PackedDiffCursor<>(keyCodec, defaultValue, revert(fromState), revert(toState));
+	}
+}
@@ -93,9 +93,12 @@ public class ImmutableNode<K, V> extends Node<K, V> implements Version {
 		final int resultHash = node.hashCode();
 		var newImmutable = new ImmutableNode<K, V>(resultDataMap, resultNodeMap, resultContent, resultHash);
 
-		// 3. save new immutable.
+		// 3. save new immutable, unless a concurrent commit has already saved an equal one.
 		if (cache != null) {
-			cache.put(newImmutable, newImmutable);
+			var cachedResult = cache.putIfAbsent(newImmutable, newImmutable);
+			if (cachedResult != null) {
+				return cachedResult;
+			}
 		}
 		return newImmutable;
 	}
@@ -259,6 +262,32 @@ public class ImmutableNode<K, V> extends Node<K, V> implements Version {
 		}
 	}
 
+	@Override
+	@SuppressWarnings("unchecked")
+	K getKeyAt(int fragment) {
+		int bitPosition = 1 << fragment;
+		if ((dataMap & bitPosition) == 0) {
+			return null;
+		}
+		return (K) content[2 * index(dataMap, bitPosition)];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	V getValueAt(int fragment) {
+		return (V) content[2 * index(dataMap, 1 << fragment) + 1];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	Node<K, V> getSubNodeAt(int fragment) {
+		int bitPosition = 1 << fragment;
+		if ((nodeMap & bitPosition) == 0) {
+			return null;
+		}
+		return (Node<K, V>) content[content.length - 1 - index(nodeMap, bitPosition)];
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	boolean moveToNextInorder(InOrderMapCursor<K, V> cursor) {
@@ -8,6 +8,7 @@ package tools.refinery.store.map.internal.state;
 import tools.refinery.store.map.ContinuousHashProvider;
 
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
 
 public class MutableNode<K, V> extends Node<K, V> {
@@ -34,6 +35,127 @@ public class MutableNode<K, V> extends Node<K, V> {
 		}
 	}
 
+	/**
+	 * Builds a tree bottom-up from a batch of entries. This is faster than putting the entries one by one, because
+	 * the entries are sorted once by their hash fragments, so the entries of each node form a contiguous range and
+	 * each node is created only once, instead of descending from the root and splitting nodes for every key. The
+	 * resulting tree is the same as if the entries were put one by one.
+	 *
+	 * @param keys         The keys of the entries. The array is reordered.
+	 * @param values       The values of the entries. They must differ from the default value of the map. The array
+	 *                     is reordered.
+	 * @param size         The number of entries. If a key appears multiple times, its last value is used.
+	 * @param hashProvider The hash provider.
+	 * @return The root of the new tree, or {@code null} if there were no entries.
+	 */
+	static <K, V> MutableNode<K, V> bulkLoad(Object[] keys, Object[] values, int size,
+											 ContinuousHashProvider<? super K> hashProvider) {
+		if (size == 0) {
+			return null;
+		}
+		var hashes = new int[size];
+		for (int i = 0; i < size; i++) {
+			@SuppressWarnings("unchecked") var key = (K) keys[i];
+			hashes[i] = hashProvider.getHash(key, 0);
+		}
+		sortByHashFragments(keys, values, hashes, 0, size);
+		int end = removeDuplicatesIfColliding(keys, values, hashes, 0, size);
+		MutableNode<K, V> root = new MutableNode<>();
+		root.bulkFill(keys, values, hashes, 0, end, hashProvider, 0);
+		return root;
+	}
+
+	// Pass everything as parameters for performance.
+	@SuppressWarnings("squid:S107")
+	private void bulkFill(Object[] keys, Object[] values, int[] hashes, int from, int to,
+						  ContinuousHashProvider<? super K> hashProvider, int depth) {
+		int shift = shiftDepth(depth);
+		int start = from;
+		while (start < to) {
+			int fragment = hashFragment(hashes[start], shift);
+			int next = start + 1;
+			while (next < to && hashFragment(hashes[next], shift) == fragment) {
+				next++;
+			}
+			int end = next > start + 1 ? removeDuplicatesIfColliding(keys, values, hashes, start, next) : next;
+			if (end - start == 1) {
+				content[2 * fragment] = keys[start];
+				content[2 * fragment + 1] = values[start];
+			} else {
+				MutableNode<K, V> subNode = new MutableNode<>();
+				int newDepth = incrementDepth(depth);
+				if (shiftDepth(newDepth) == 0) {
+					// The sub-node uses the next continuous hash, so the entries have to be sorted again.
+					for (int i = start; i < end; i++) {
+						@SuppressWarnings("unchecked") var key = (K) keys[i];
+						hashes[i] = subNode.newHash(hashProvider, key, hashes[i], newDepth);
+					}
+					sortByHashFragments(keys, values, hashes, start, end);
+				}
+				subNode.bulkFill(keys, values, hashes, start, end, hashProvider, newDepth);
+				content[2 * fragment + 1] = subNode;
+			}
+			start = next;
+		}
+		invalidateHash();
+	}
+
+	/**
+	 * Sorts a range of entries by the hash fragments of their hash codes, starting from the fragment selected at the
+	 * lowest depth. Entries with the same hash code keep their relative order.
+	 */
+	private static void sortByHashFragments(Object[] keys, Object[] values, int[] hashes, int from, int to) {
+		int length = to - from;
+		var order = new long[length];
+		for (int i = 0; i < length; i++) {
+			int hash = hashes[from + i];
+			int fragments = 0;
+			for (int shift = 0; shift < NUMBER_OF_FACTORS; shift++) {
+				fragments = (fragments << BRANCHING_FACTOR_BITS) | hashFragment(hash, shift);
+			}
+			// Sort by the fragments first, and by the original position second to keep the sort stable.
+			order[i] = ((long) fragments << Integer.SIZE) | i;
+		}
+		Arrays.sort(order);
+		var sortedKeys = new Object[length];
+		var sortedValues = new Object[length];
+		var sortedHashes = new int[length];
+		for (int i = 0; i < length; i++) {
+			int index = from + (int) order[i];
+			sortedKeys[i] = keys[index];
+			sortedValues[i] = values[index];
+			sortedHashes[i] = hashes[index];
+		}
+		System.arraycopy(sortedKeys, 0, keys, from, length);
+		System.arraycopy(sortedValues, 0, values, from, length);
+		System.arraycopy(sortedHashes, 0, hashes, from, length);
+	}
+
+	/**
+	 * Removes the duplicate keys from a range of entries if all of them have the same hash code, since duplicate keys
+	 * could never be separated into different nodes. Only the last value of each key is kept.
+	 *
+	 * @return The new end of the range.
+	 */
+	private static int removeDuplicatesIfColliding(Object[] keys, Object[] values, int[] hashes, int from, int to) {
+		int hash = hashes[from];
+		for (int i = from + 1; i < to; i++) {
+			if (hashes[i] != hash) {
+				return to;
+			}
+		}
+		var seen = new HashSet<>();
+		int end = to;
+		for (int i = to - 1; i >= from; i--) {
+			if (!seen.add(keys[i])) {
+				end--;
+				System.arraycopy(keys, i + 1, keys, i, end - i);
+				System.arraycopy(values, i + 1, values, i, end - i);
+			}
+		}
+		return end;
+	}
+
 	/**
 	 * Constructs a {@link MutableNode} as a copy of an {@link ImmutableNode}
 	 *
@@ -339,6 +461,27 @@ public class MutableNode<K, V> extends Node<K, V> {
 		}
 	}
 
+	@Override
+	@SuppressWarnings("unchecked")
+	K getKeyAt(int fragment) {
+		return (K) content[2 * fragment];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	V getValueAt(int fragment) {
+		return (V) content[2 * fragment + 1];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	Node<K, V> getSubNodeAt(int fragment) {
+		if (content[2 * fragment] != null) {
+			return null;
+		}
+		return (Node<K, V>) content[2 * fragment + 1];
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	boolean moveToNextInorder(InOrderMapCursor<K,V> cursor) {
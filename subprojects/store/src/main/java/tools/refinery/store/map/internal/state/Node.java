@@ -115,6 +115,30 @@ public abstract class Node<K, V> {
 	abstract boolean moveToNext(MapCursor<K, V> cursor);
 	abstract boolean moveToNextInorder(InOrderMapCursor<K, V> cursor);
 
+	/**
+	 * Returns the key stored directly in this node at a hash fragment.
+	 *
+	 * @param fragment the hash fragment
+	 * @return The key, or {@code null} if the fragment is empty or refers to a sub-node.
+	 */
+	abstract K getKeyAt(int fragment);
+
+	/**
+	 * Returns the value stored directly in this node at a hash fragment.
+	 *
+	 * @param fragment the hash fragment, which must refer to a key stored in this node
+	 * @return The value.
+	 */
+	abstract V getValueAt(int fragment);
+
+	/**
+	 * Returns the sub-node at a hash fragment.
+	 *
+	 * @param fragment the hash fragment
+	 * @return The sub-node, or {@code null} if the fragment is empty or refers to a key stored in this node.
+	 */
+	abstract Node<K, V> getSubNodeAt(int fragment);
+
 	///////// FOR printing
 	public abstract void prettyPrint(StringBuilder builder, int depth, int code);
 
@@ -0,0 +1,214 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.state;
+
+import tools.refinery.store.map.DiffCursor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A cursor representing the difference between two states of a map, which is computed by walking the two trees
+ * side by side.
+ * <p>
+ * Versions of the same store share their unchanged sub-nodes, so a sub-node present in both trees is skipped
+ * without visiting its contents. Therefore, computing the difference takes time proportional to the number of
+ * changes (times the depth of the tree) instead of the size of the map.
+ * </p>
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class StructuralDiffCursor<K, V> implements DiffCursor<K, V> {
+	private final V defaultValue;
+	private final List<K> keys = new ArrayList<>();
+	private final List<V> fromValues = new ArrayList<>();
+	private final List<V> toValues = new ArrayList<>();
+	private int index = -1;
+
+	public StructuralDiffCursor(V defaultValue, Node<K, V> fromRoot, Node<K, V> toRoot) {
+		this.defaultValue = defaultValue;
+		diffNodes(fromRoot, toRoot);
+	}
+
+	@Override
+	public K getKey() {
+		return isValid() ? keys.get(index) : null;
+	}
+
+	@Override
+	public V getFromValue() {
+		return isValid() ? fromValues.get(index) : null;
+	}
+
+	@Override
+	public V getToValue() {
+		return isValid() ? toValues.get(index) : null;
+	}
+
+	@Override
+	public V getValue() {
+		return getToValue();
+	}
+
+	private boolean isValid() {
+		return index >= 0 && index < keys.size();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return index >= keys.size();
+	}
+
+	@Override
+	public boolean move() {
+		if (index < keys.size()) {
+			index++;
+		}
+		return index < keys.size();
+	}
+
+	private void addChange(K key, V fromValue, V toValue) {
+		keys.add(key);
+		fromValues.add(fromValue);
+		toValues.add(toValue);
+	}
+
+	private void diffNodes(Node<K, V> fromNode, Node<K, V> toNode) {
+		if (fromNode == toNode) {
+			// Shared sub-node, nothing has changed below this point.
+			return;
+		}
+		if (fromNode == null) {
+			addAll(toNode, false);
+			return;
+		}
+		if (toNode == null) {
+			addAll(fromNode, true);
+			return;
+		}
+		for (int fragment = 0; fragment < Node.FACTOR; fragment++) {
+			diffFragment(fromNode, toNode, fragment);
+		}
+	}
+
+	private void diffFragment(Node<K, V> fromNode, Node<K, V> toNode, int fragment) {
+		K fromKey = fromNode.getKeyAt(fragment);
+		K toKey = toNode.getKeyAt(fragment);
+		if (fromKey != null) {
+			V fromValue = fromNode.getValueAt(fragment);
+			if (toKey != null) {
+				V toValue = toNode.getValueAt(fragment);
+				if (fromKey.equals(toKey)) {
+					if (!Objects.equals(fromValue, toValue)) {
+						addChange(fromKey, fromValue, toValue);
+					}
+				} else {
+					addChange(fromKey, fromValue, defaultValue);
+					addChange(toKey, defaultValue, toValue);
+				}
+				return;
+			}
+			var toSubNode = toNode.getSubNodeAt(fragment);
+			if (toSubNode == null) {
+				addChange(fromKey, fromValue, defaultValue);
+			} else {
+				diffEntryAndNode(fromKey, fromValue, toSubNode, true);
+			}
+			return;
+		}
+		var fromSubNode = fromNode.getSubNodeAt(fragment);
+		if (toKey != null) {
+			V toValue = toNode.getValueAt(fragment);
+			if (fromSubNode == null) {
+				addChange(toKey, defaultValue, toValue);
+			} else {
+				diffEntryAndNode(toKey, toValue, fromSubNode, false);
+			}
+			return;
+		}
+		diffNodes(fromSubNode, toNode.getSubNodeAt(fragment));
+	}
+
+	/**
+	 * Computes the difference between a single entry in one tree and a sub-node at the same position in the other
+	 * tree.
+	 *
+	 * @param key        The key of the entry.
+	 * @param value      The value of the entry.
+	 * @param node       The sub-node.
+	 * @param entryIsOld Whether the entry is in the tree we compute the difference from.
+	 */
+	private void diffEntryAndNode(K key, V value, Node<K, V> node, boolean entryIsOld) {
+		var collector = new EntryCollector<K, V>();
+		collector.collect(node);
+		boolean found = false;
+		int size = collector.keys.size();
+		for (int i = 0; i < size; i++) {
+			var nodeKey = collector.keys.get(i);
+			var nodeValue = collector.values.get(i);
+			if (nodeKey.equals(key)) {
+				found = true;
+				if (!Objects.equals(value, nodeValue)) {
+					addEntry(key, value, nodeValue, entryIsOld);
+				}
+			} else {
+				addEntry(nodeKey, defaultValue, nodeValue, entryIsOld);
+			}
+		}
+		if (!found) {
+			addEntry(key, value, defaultValue, entryIsOld);
+		}
+	}
+
+	private void addEntry(K key, V entryValue, V nodeValue, boolean entryIsOld) {
+		if (entryIsOld) {
+			addChange(key, entryValue, nodeValue);
+		} else {
+			addChange(key, nodeValue, entryValue);
+		}
+	}
+
+	private void addAll(Node<K, V> node, boolean removed) {
+		for (int fragment = 0; fragment < Node.FACTOR; fragment++) {
+			var key = node.getKeyAt(fragment);
+			if (key != null) {
+				var value = node.getValueAt(fragment);
+				if (removed) {
+					addChange(key, value, defaultValue);
+				} else {
+					addChange(key, defaultValue, value);
+				}
+			} else {
+				var subNode = node.getSubNodeAt(fragment);
+				if (subNode != null) {
+					addAll(subNode, removed);
+				}
+			}
+		}
+	}
+
+	private static class EntryCollector<K, V> {
+		private final List<K> keys = new ArrayList<>();
+		private final List<V> values = new ArrayList<>();
+
+		private void collect(Node<K, V> node) {
+			for (int fragment = 0; fragment < Node.FACTOR; fragment++) {
+				var key = node.getKeyAt(fragment);
+				if (key != null) {
+					keys.add(key);
+					values.add(node.getValueAt(fragment));
+				} else {
+					var subNode = node.getSubNodeAt(fragment);
+					if (subNode != null) {
+						collect(subNode);
+					}
+				}
+			}
+		}
+	}
+}
@@ -7,6 +7,7 @@ package tools.refinery.store.map.internal.state;
 
 import tools.refinery.store.map.*;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -20,6 +21,8 @@ import java.util.Objects;
  * @author Oszkar Semerath
  */
 public class VersionedMapStateImpl<K, V> implements VersionedMap<K, V> {
+	private static final int INITIAL_BULK_LOAD_CAPACITY = 16;
+
 	protected final VersionedMapStoreStateImpl<K, V> store;
 
 	protected final ContinuousHashProvider<K> hashProvider;
@@ -84,6 +87,8 @@ public class VersionedMapStateImpl<K, V> implements VersionedMap<K, V> {
 				var value = valueIterator.next();
 				this.put(key,value);
 			}
+		} else if (root == null) {
+			bulkLoad(cursor);
 		} else {
 			while (cursor.move()) {
 				this.put(cursor.getKey(), cursor.getValue());
@@ -91,6 +96,34 @@ public class VersionedMapStateImpl<K, V> implements VersionedMap<K, V> {
 		}
 	}
 
+	private void bulkLoad(Cursor<K, V> cursor) {
+		Object[] keys = new Object[INITIAL_BULK_LOAD_CAPACITY];
+		Object[] values = new Object[INITIAL_BULK_LOAD_CAPACITY];
+		int size = 0;
+		boolean hasDefaultValue = false;
+		while (cursor.move()) {
+			if (size == keys.length) {
+				keys = Arrays.copyOf(keys, size * 2);
+				values = Arrays.copyOf(values, size * 2);
+			}
+			keys[size] = cursor.getKey();
+			var value = cursor.getValue();
+			values[size] = value;
+			hasDefaultValue |= value == defaultValue;
+			size++;
+		}
+		if (hasDefaultValue) {
+			// Removals may cancel earlier entries of the batch, so we have to apply them in order.
+			for (int i = 0; i < size; i++) {
+				@SuppressWarnings("unchecked") var key = (K) keys[i];
+				@SuppressWarnings("unchecked") var value = (V) values[i];
+				put(key, value);
+			}
+		} else {
+			root = MutableNode.bulkLoad(keys, values, size, hashProvider);
+		}
+	}
+
 	@Override
 	public V get(K key) {
 		if (root != null) {
@@ -100,6 +133,11 @@ public class VersionedMapStateImpl<K, V> implements VersionedMap<K, V> {
 		}
 	}
 
+	@Override
+	public boolean isBulkLoadSupported() {
+		return true;
+	}
+
 	@Override
 	public long getSize() {
 		if (root == null) {
@@ -116,10 +154,7 @@ public class VersionedMapStateImpl<K, V> implements VersionedMap<K, V> {
 
 	@Override
 	public DiffCursor<K, V> getDiffCursor(Version toVersion) {
-		InOrderMapCursor<K, V> fromCursor = new InOrderMapCursor<>(this);
-		VersionedMapStateImpl<K, V> toMap = (VersionedMapStateImpl<K, V>) this.store.createMap(toVersion);
-		InOrderMapCursor<K, V> toCursor = new InOrderMapCursor<>(toMap);
-		return new MapDiffCursor<>(this.defaultValue, fromCursor, toCursor);
+		return new StructuralDiffCursor<>(this.defaultValue, this.root, this.store.revert(toVersion));
 	}
 
 
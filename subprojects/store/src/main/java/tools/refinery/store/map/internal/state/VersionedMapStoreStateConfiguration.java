@@ -55,6 +55,10 @@ public class VersionedMapStoreStateConfiguration {
 		return sharedNodeCacheInStoreGroups;
 	}
 
+	/**
+	 * If true, the node cache references its nodes weakly, so the nodes of versions that are no longer referenced
+	 * anywhere else can be garbage collected. Otherwise, every committed version is retained by the store.
+	 */
 	private boolean versionFreeingEnabled = true;
 	public boolean isVersionFreeingEnabled() {
 		return versionFreeingEnabled;
@@ -8,6 +8,7 @@ package tools.refinery.store.map.internal.state;
 import tools.refinery.store.map.*;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class VersionedMapStoreStateImpl<K, V> implements VersionedMapStore<K, V> {
 	// Configuration
@@ -67,9 +68,9 @@ public class VersionedMapStoreStateImpl<K, V> implements VersionedMapStore<K, V>
 
 	private static <K,V> Map<K,V> createNoteCache(VersionedMapStoreStateConfiguration config) {
 		if(config.isVersionFreeingEnabled()) {
-			return new WeakHashMap<>();
+			return new WeakNodeCache<>();
 		} else {
-			return new HashMap<>();
+			return new ConcurrentHashMap<>();
 		}
 	}
 
@@ -90,11 +91,11 @@ public class VersionedMapStoreStateImpl<K, V> implements VersionedMapStore<K, V>
 	}
 
 	@SuppressWarnings("unchecked")
-	public synchronized ImmutableNode<K, V> revert(Version state) {
+	public ImmutableNode<K, V> revert(Version state) {
 		return (ImmutableNode<K, V>) state;
 	}
 
-	public synchronized Version commit(Node<K, V> data, VersionedMapStateImpl<K, V> mapToUpdateRoot) {
+	public Version commit(Node<K, V> data, VersionedMapStateImpl<K, V> mapToUpdateRoot) {
 		ImmutableNode<K, V> immutable;
 		if (data != null) {
 			immutable = data.toImmutable(this.nodeCache);
@@ -110,10 +111,6 @@ public class VersionedMapStoreStateImpl<K, V> implements VersionedMapStore<K, V>
 
 	@Override
 	public DiffCursor<K, V> getDiffCursor(Version fromState, Version toState) {
-		VersionedMapStateImpl<K, V> map1 = (VersionedMapStateImpl<K, V>) createMap(fromState);
-		VersionedMapStateImpl<K, V> map2 = (VersionedMapStateImpl<K, V>) createMap(toState);
-		InOrderMapCursor<K, V> cursor1 = new InOrderMapCursor<>(map1);
-		InOrderMapCursor<K, V> cursor2 = new InOrderMapCursor<>(map2);
-		return new MapDiffCursor<>(this.defaultValue, cursor1, cursor2);
+		return new StructuralDiffCursor<>(this.defaultValue, revert(fromState), revert(toState));
 	}
 }
@@ -0,0 +1,125 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.state;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+/**
+ * Node cache that references both the keys and the values weakly.
+ * <p>
+ * Immutable nodes are cached with themselves as values. A {@link WeakHashMap} would reference the values strongly,
+ * which keeps every key reachable, so no node (and no version) could ever be freed. With this cache, nodes are
+ * reclaimed as soon as no committed version refers to them.
+ * </p>
+ * <p>
+ * The cache is thread-safe. Keys are distributed among several segments, each guarded by its own lock, so that
+ * concurrent commits to the same store rarely contend for the same lock.
+ * </p>
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public class WeakNodeCache<K, V> extends AbstractMap<K, V> {
+	private static final int SEGMENT_COUNT = 16;
+
+	private final List<WeakHashMap<K, WeakReference<V>>> segments;
+
+	public WeakNodeCache() {
+		segments = new ArrayList<>(SEGMENT_COUNT);
+		for (int i = 0; i < SEGMENT_COUNT; i++) {
+			segments.add(new WeakHashMap<>());
+		}
+	}
+
+	private WeakHashMap<K, WeakReference<V>> getSegment(Object key) {
+		int hash = key.hashCode();
+		hash ^= hash >>> 16;
+		return segments.get(hash & (SEGMENT_COUNT - 1));
+	}
+
+	private static <V> V dereference(WeakReference<V> reference) {
+		return reference == null ? null : reference.get();
+	}
+
+	@Override
+	public V get(Object key) {
+		var segment = getSegment(key);
+		synchronized (segment) {
+			return dereference(segment.get(key));
+		}
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		var segment = getSegment(key);
+		synchronized (segment) {
+			return dereference(segment.put(key, new WeakReference<>(value)));
+		}
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value) {
+		var segment = getSegment(key);
+		synchronized (segment) {
+			var existing = dereference(segment.get(key));
+			if (existing != null) {
+				return existing;
+			}
+			segment.put(key, new WeakReference<>(value));
+			return null;
+		}
+	}
+
+	@Override
+	public V remove(Object key) {
+		var segment = getSegment(key);
+		synchronized (segment) {
+			return dereference(segment.remove(key));
+		}
+	}
+
+	@Override
+	public void clear() {
+		for (var segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (var segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		var entries = new LinkedHashSet<Entry<K, V>>();
+		for (var segment : segments) {
+			synchronized (segment) {
+				for (var entry : segment.entrySet()) {
+					var value = entry.getValue().get();
+					if (value != null) {
+						entries.add(new SimpleImmutableEntry<>(entry.getKey(), value));
+					}
+				}
+			}
+		}
+		return Collections.unmodifiableSet(entries);
+	}
+}
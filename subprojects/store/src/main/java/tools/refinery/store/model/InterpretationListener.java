@@ -5,8 +5,26 @@
  */
 package tools.refinery.store.model;
 
+import tools.refinery.store.map.Cursor;
+import tools.refinery.store.map.DiffCursor;
 import tools.refinery.store.tuple.Tuple;
 
 public interface InterpretationListener<T> {
 	void put(Tuple key, T fromValue, T toValue, boolean restoring);
+
+	/**
+	 * Notifies the listener about a batch of changes made by {@link Interpretation#putAll(Cursor)}.
+	 * <p>
+	 * The batch is reported after all of its changes were applied to the interpretation. By default, the changes
+	 * are forwarded one by one to {@link #put(Tuple, Object, Object, boolean)}.
+	 * </p>
+	 *
+	 * @param changes   The changed keys with their old and new values.
+	 * @param restoring Whether the changes are caused by restoring a model state.
+	 */
+	default void putAll(DiffCursor<Tuple, T> changes, boolean restoring) {
+		while (changes.move()) {
+			put(changes.getKey(), changes.getFromValue(), changes.getToValue(), restoring);
+		}
+	}
 }
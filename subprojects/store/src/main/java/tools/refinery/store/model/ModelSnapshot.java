@@ -0,0 +1,29 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model;
+
+import tools.refinery.store.map.Version;
+
+/**
+ * Versions of a {@link ModelStore} loaded from a snapshot file written by
+ * {@link ModelStore#writeSnapshot(java.nio.file.Path, java.util.List)}.
+ * <p>
+ * Versions are loaded lazily: the file is memory-mapped, and the contents of a version are only read when it is
+ * requested with {@link #getVersion(int)}.
+ * </p>
+ */
+public interface ModelSnapshot {
+	int getVersionCount();
+
+	/**
+	 * Loads a version from the snapshot into the model store.
+	 *
+	 * @param index The index of the version in the list passed to
+	 *              {@link ModelStore#writeSnapshot(java.nio.file.Path, java.util.List)}.
+	 * @return The loaded version, which can be passed to {@link ModelStore#createModelForState(Version)}.
+	 */
+	Version getVersion(int index);
+}
@@ -10,7 +10,10 @@ import tools.refinery.store.map.Version;
 import tools.refinery.store.model.internal.ModelStoreBuilderImpl;
 import tools.refinery.store.representation.AnySymbol;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ModelStore {
@@ -22,6 +25,25 @@ public interface ModelStore {
 
 	ModelDiffCursor getDiffCursor(Version from, Version to);
 
+	/**
+	 * Writes committed versions of this store into a snapshot file. Parts of the models shared between the versions
+	 * are only written once.
+	 *
+	 * @param path     The file to write.
+	 * @param versions The versions to save.
+	 * @throws IOException If the file could not be written.
+	 */
+	void writeSnapshot(Path path, List<Version> versions) throws IOException;
+
+	/**
+	 * Opens a snapshot file written by a model store with the same symbols.
+	 *
+	 * @param path The file to open.
+	 * @return The snapshot, which can load the saved versions into this store.
+	 * @throws IOException If the file could not be read.
+	 */
+	ModelSnapshot openSnapshot(Path path) throws IOException;
+
 	<T extends ModelStoreAdapter> Optional<T> tryGetAdapter(Class<? extends T> adapterType);
 
 	<T extends ModelStoreAdapter> T getAdapter(Class<T> adapterType);
@@ -13,6 +13,7 @@ import tools.refinery.store.util.CancellationToken;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 
 public interface ModelStoreBuilder {
 	ModelStoreBuilder cancellationToken(CancellationToken cancellationToken);
@@ -32,6 +33,44 @@ public interface ModelStoreBuilder {
 
 	<T> ModelStoreBuilder symbol(Symbol<T> symbol);
 
+	<T> ModelStoreBuilder snapshotValueCodec(Class<T> valueType, SnapshotValueCodec<T> codec);
+
+	/**
+	 * Commits and restores the interpretations of models in parallel on the common {@link ForkJoinPool}.
+	 *
+	 * @return This builder.
+	 * @see #parallelCommitAndRestore(ForkJoinPool)
+	 */
+	default ModelStoreBuilder parallelCommitAndRestore() {
+		return parallelCommitAndRestore(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Commits and restores the interpretations of models in parallel on the given pool.
+	 * <p>
+	 * The stores of the interpretations are independent, so they can be committed and restored concurrently.
+	 * Listeners are still notified on the calling thread in the same order as in sequential mode. Restore listeners
+	 * of interpretations, however, only receive the changes after the interpretation was restored.
+	 * </p>
+	 *
+	 * @param forkJoinPool The pool to run the commit and restore tasks on.
+	 * @return This builder.
+	 */
+	ModelStoreBuilder parallelCommitAndRestore(ForkJoinPool forkJoinPool);
+
+	/**
+	 * Selects the store strategy of each symbol based on how its interpretations are written.
+	 * <p>
+	 * Interpretations start in delta-based stores. After the given number of commits, the store of each symbol
+	 * migrates to a state-based store if the interpretation changes in most commits, or to a delta-based store
+	 * with summarized transactions if keys are written several times between commits.
+	 * </p>
+	 *
+	 * @param profiledCommits The number of commits to profile before selecting the strategy of a symbol.
+	 * @return This builder.
+	 */
+	ModelStoreBuilder adaptiveStoreStrategy(int profiledCommits);
+
 	ModelStoreBuilder with(ModelAdapterBuilder adapterBuilder);
 
 	ModelStoreBuilder with(ModelStoreConfiguration configuration);
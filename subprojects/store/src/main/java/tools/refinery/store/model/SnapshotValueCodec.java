@@ -0,0 +1,26 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Serializes the values of symbols into model snapshots.
+ * <p>
+ * Codecs for {@link Boolean}, {@link Integer}, {@link String}, and enum values are provided by default. Codecs for
+ * other value types have to be registered with {@link ModelStoreBuilder#snapshotValueCodec(Class,
+ * SnapshotValueCodec)}. Codecs never receive {@code null} values.
+ * </p>
+ *
+ * @param <T> The type of the values.
+ */
+public interface SnapshotValueCodec<T> {
+	void write(DataOutput output, T value) throws IOException;
+
+	T read(DataInput input) throws IOException;
+}
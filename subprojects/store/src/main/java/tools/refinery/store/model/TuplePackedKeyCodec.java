@@ -0,0 +1,60 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model;
+
+import tools.refinery.store.map.PackedKeyCodec;
+import tools.refinery.store.tuple.Tuple;
+
+/**
+ * Packs tuples of at most two elements into a single {@code long} value.
+ */
+public enum TuplePackedKeyCodec implements PackedKeyCodec<Tuple> {
+	NULLARY {
+		@Override
+		public long pack(Tuple key) {
+			return 0;
+		}
+
+		@Override
+		public Tuple unpack(long packedKey) {
+			return Tuple.of();
+		}
+	},
+	UNARY {
+		@Override
+		public long pack(Tuple key) {
+			return key.get(0);
+		}
+
+		@Override
+		public Tuple unpack(long packedKey) {
+			return Tuple.of((int) packedKey);
+		}
+	},
+	BINARY {
+		@Override
+		public long pack(Tuple key) {
+			return ((long) key.get(0) << Integer.SIZE) | (key.get(1) & 0xffffffffL);
+		}
+
+		@Override
+		public Tuple unpack(long packedKey) {
+			return Tuple.of((int) (packedKey >>> Integer.SIZE), (int) packedKey);
+		}
+	};
+
+	public static final int MAX_ARITY = 2;
+
+	public static TuplePackedKeyCodec of(int arity) {
+		return switch (arity) {
+			case 0 -> NULLARY;
+			case 1 -> UNARY;
+			case 2 -> BINARY;
+			default -> throw new IllegalArgumentException("Tuples of arity %d cannot be packed into a long value"
+					.formatted(arity));
+		};
+	}
+}
@@ -12,6 +12,7 @@ import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
 import tools.refinery.store.map.*;
 import tools.refinery.store.tuple.Tuple;
 
+import java.util.Objects;
 import java.util.Set;
 
 class BaseIndexer<T> {
@@ -40,28 +41,54 @@ class BaseIndexer<T> {
 
 	public void put(Tuple key, T value) {
 		for (int i = 0; i < maps.length; i++) {
-			var map = maps[i];
-			int element = key.get(i);
-			var adjacentTuples = map.getIfAbsentPut(element, Maps.mutable::empty);
-			adjacentTuples.put(key, value);
+			put(maps[i], key.get(i), key, value);
 		}
 	}
 
 	public void remove(Tuple key) {
 		for (int i = 0; i < maps.length; i++) {
-			var map = maps[i];
-			int element = key.get(i);
-			var adjacentTuples = map.get(element);
-			if (adjacentTuples == null) {
-				continue;
-			}
-			adjacentTuples.remove(key);
-			if (adjacentTuples.isEmpty()) {
-				map.remove(element);
+			remove(maps[i], key.get(i), key);
+		}
+	}
+
+	/**
+	 * Updates the index with a batch of changes. The index for each slot is updated separately to improve locality.
+	 *
+	 * @param changes      The changes.
+	 * @param defaultValue The default value of the indexed symbol.
+	 */
+	public void update(ChangeBatch<T> changes, T defaultValue) {
+		int size = changes.size();
+		for (int slot = 0; slot < maps.length; slot++) {
+			var map = maps[slot];
+			for (int i = 0; i < size; i++) {
+				var key = changes.getKey(i);
+				var toValue = changes.getToValue(i);
+				if (Objects.equals(toValue, defaultValue)) {
+					remove(map, key.get(slot), key);
+				} else {
+					put(map, key.get(slot), key, toValue);
+				}
 			}
 		}
 	}
 
+	private void put(MutableIntObjectMap<MutableMap<Tuple, T>> map, int element, Tuple key, T value) {
+		var adjacentTuples = map.getIfAbsentPut(element, Maps.mutable::empty);
+		adjacentTuples.put(key, value);
+	}
+
+	private void remove(MutableIntObjectMap<MutableMap<Tuple, T>> map, int element, Tuple key) {
+		var adjacentTuples = map.get(element);
+		if (adjacentTuples == null) {
+			return;
+		}
+		adjacentTuples.remove(key);
+		if (adjacentTuples.isEmpty()) {
+			map.remove(element);
+		}
+	}
+
 	private MutableMap<Tuple, T> getAdjacentMap(int slot, int node) {
 		if (slot < 0 || slot >= maps.length) {
 			throw new IllegalArgumentException("Invalid index: " + slot);
@@ -0,0 +1,111 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model.internal;
+
+import tools.refinery.store.map.DiffCursor;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.Arrays;
+
+/**
+ * Collects the changes of an interpretation, so that listeners and indexes can be notified about them at once.
+ *
+ * @param <T> Value type of the interpretation.
+ */
+class ChangeBatch<T> {
+	private static final int INITIAL_CAPACITY = 16;
+
+	private Tuple[] keys = new Tuple[INITIAL_CAPACITY];
+	private Object[] fromValues = new Object[INITIAL_CAPACITY];
+	private Object[] toValues = new Object[INITIAL_CAPACITY];
+	private int size;
+
+	public void add(Tuple key, T fromValue, T toValue) {
+		if (size == keys.length) {
+			int newCapacity = size * 2;
+			keys = Arrays.copyOf(keys, newCapacity);
+			fromValues = Arrays.copyOf(fromValues, newCapacity);
+			toValues = Arrays.copyOf(toValues, newCapacity);
+		}
+		keys[size] = key;
+		fromValues[size] = fromValue;
+		toValues[size] = toValue;
+		size++;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public Tuple getKey(int index) {
+		return keys[index];
+	}
+
+	@SuppressWarnings("unchecked")
+	public T getFromValue(int index) {
+		return (T) fromValues[index];
+	}
+
+	@SuppressWarnings("unchecked")
+	public T getToValue(int index) {
+		return (T) toValues[index];
+	}
+
+	/**
+	 * Creates a new cursor over the changes. Every listener needs its own cursor, because cursors can only be
+	 * iterated once.
+	 *
+	 * @return The cursor, where {@link DiffCursor#getValue()} returns the new value.
+	 */
+	public DiffCursor<Tuple, T> cursor() {
+		return new ChangeBatchCursor();
+	}
+
+	private class ChangeBatchCursor implements DiffCursor<Tuple, T> {
+		private int index = -1;
+
+		@Override
+		public Tuple getKey() {
+			return isValid() ? ChangeBatch.this.getKey(index) : null;
+		}
+
+		@Override
+		public T getValue() {
+			return getToValue();
+		}
+
+		@Override
+		public T getFromValue() {
+			return isValid() ? ChangeBatch.this.getFromValue(index) : null;
+		}
+
+		@Override
+		public T getToValue() {
+			return isValid() ? ChangeBatch.this.getToValue(index) : null;
+		}
+
+		private boolean isValid() {
+			return index >= 0 && index < size;
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return index >= size;
+		}
+
+		@Override
+		public boolean move() {
+			if (index < size) {
+				index++;
+			}
+			return index < size;
+		}
+	}
+}
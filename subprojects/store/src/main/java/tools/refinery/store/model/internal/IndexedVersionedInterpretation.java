@@ -45,4 +45,9 @@ class IndexedVersionedInterpretation<T> extends VersionedInterpretation<T> {
 		}
 		super.valueChanged(key, fromValue, toValue, restoring);
 	}
+
+	@Override
+	protected void updateIndex(ChangeBatch<T> changes) {
+		indexer.update(changes, getSymbol().defaultValue());
+	}
 }
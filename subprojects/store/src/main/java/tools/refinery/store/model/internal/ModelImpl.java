@@ -15,14 +15,20 @@ import tools.refinery.store.representation.Symbol;
 import tools.refinery.store.util.CancellationToken;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 public class ModelImpl implements Model {
 	private final ModelStoreImpl store;
 	private Version state;
 	private LinkedHashMap<? extends AnySymbol, ? extends VersionedInterpretation<?>> interpretations;
+	private VersionedInterpretation<?>[] interpretationArray;
 	private final List<ModelAdapter> adapters;
 	private final List<ModelListener> listeners = new ArrayList<>();
 	private final CancellationToken cancellationToken;
+	private final ForkJoinPool forkJoinPool;
 	private boolean uncommittedChanges;
 	private ModelAction pendingAction = ModelAction.NONE;
 	private Version restoringToState = null;
@@ -32,10 +38,12 @@ public class ModelImpl implements Model {
 		this.state = state;
 		adapters = new ArrayList<>(adapterCount);
 		cancellationToken = store.getCancellationToken();
+		forkJoinPool = store.getForkJoinPool();
 	}
 
 	void setInterpretations(LinkedHashMap<? extends AnySymbol, ? extends VersionedInterpretation<?>> interpretations) {
 		this.interpretations = interpretations;
+		interpretationArray = interpretations.values().toArray(new VersionedInterpretation<?>[0]);
 	}
 
 	@Override
@@ -106,11 +114,17 @@ public class ModelImpl implements Model {
 			}
 
 			// Doing the commit on the interpretations
-			Version[] interpretationVersions = new Version[interpretations.size()];
-			int j = 0;
-			for (var interpretationEntry : interpretations.entrySet()) {
-				checkCancelled();
-				interpretationVersions[j++] = interpretationEntry.getValue().commit();
+			Version[] interpretationVersions = new Version[interpretationArray.length];
+			if (isParallel()) {
+				forEachInterpretationInParallel(j -> {
+					checkCancelled();
+					interpretationVersions[j] = interpretationArray[j].commit();
+				});
+			} else {
+				for (int j = 0; j < interpretationArray.length; j++) {
+					checkCancelled();
+					interpretationVersions[j] = interpretationArray[j].commit();
+				}
 			}
 			ModelVersion modelVersion = new ModelVersion(interpretationVersions);
 			setState(modelVersion);
@@ -143,10 +157,20 @@ public class ModelImpl implements Model {
 				i--;
 				listeners.get(i).beforeRestore(version);
 			}
-			int j = 0;
-			for (var interpretation : interpretations.values()) {
-				checkCancelled();
-				interpretation.restore(ModelVersion.getInternalVersion(version, j++));
+			if (isParallel()) {
+				forEachInterpretationInParallel(j -> {
+					checkCancelled();
+					interpretationArray[j].prepareRestore(ModelVersion.getInternalVersion(version, j));
+				});
+				// Listeners are not thread-safe, so we notify them sequentially in the order of the interpretations.
+				for (var interpretation : interpretationArray) {
+					interpretation.finishRestore();
+				}
+			} else {
+				for (int j = 0; j < interpretationArray.length; j++) {
+					checkCancelled();
+					interpretationArray[j].restore(ModelVersion.getInternalVersion(version, j));
+				}
 			}
 
 			setState(version);
@@ -160,6 +184,16 @@ public class ModelImpl implements Model {
 		}
 	}
 
+	private boolean isParallel() {
+		return forkJoinPool != null && interpretationArray.length > 1;
+	}
+
+	private void forEachInterpretationInParallel(IntConsumer action) {
+		var stream = IntStream.range(0, interpretationArray.length).parallel();
+		// A parallel stream started from a fork-join task runs on the pool of the task.
+		forkJoinPool.invoke(ForkJoinTask.adapt(() -> stream.forEach(action)));
+	}
+
 	public RuntimeException pendingActionError(String currentActionName) {
 		var pendingActionName = switch (pendingAction) {
 			case NONE -> throw new IllegalArgumentException("Trying to throw pending action error when there is no " +
@@ -0,0 +1,229 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model.internal;
+
+import tools.refinery.store.map.PackedKeyCodec;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.map.VersionedMapStore;
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder;
+import tools.refinery.store.map.internal.packed.PackedNodeArena;
+import tools.refinery.store.map.internal.packed.PackedSpilledNode;
+import tools.refinery.store.map.internal.packed.VersionedMapStorePackedImpl;
+import tools.refinery.store.model.TuplePackedKeyCodec;
+import tools.refinery.store.representation.AnySymbol;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes model snapshot files.
+ * <p>
+ * The interpretation of each symbol in the saved versions is converted into a tree of packed nodes, which is stored
+ * in a {@link PackedNodeArena} with deduplication, so that the parts of the interpretation shared between versions
+ * are only written once. The file has the following layout:
+ * <ol>
+ *     <li>a prelude with the magic number, the format version, and the position of the trailer,</li>
+ *     <li>the chunks of the node arenas of each symbol (memory-mapped when the file is opened), and</li>
+ *     <li>a trailer with the symbols, the roots of the saved versions, the value tables, and the key tables.</li>
+ * </ol>
+ * </p>
+ */
+final class ModelSnapshotFormat {
+	private static final int MAGIC = 0x52464E53;
+	private static final int FORMAT_VERSION = 1;
+	private static final int PRELUDE_SIZE = 2 * Integer.BYTES + Long.BYTES;
+	static final long EMPTY_ROOT = -1;
+
+	private ModelSnapshotFormat() {
+		throw new UnsupportedOperationException();
+	}
+
+	static void write(Path path, Map<? extends AnySymbol, ? extends VersionedMapStore<Tuple, ?>> stores,
+					  List<Version> versions, SnapshotValueCodecs valueCodecs) throws IOException {
+		var trailerBytes = new ByteArrayOutputStream();
+		var trailer = new DataOutputStream(trailerBytes);
+		trailer.writeInt(stores.size());
+		trailer.writeInt(versions.size());
+		try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			long position = PRELUDE_SIZE;
+			int interpretationIndex = 0;
+			for (var entry : stores.entrySet()) {
+				position = writeSymbol(channel, position, trailer, (Symbol<?>) entry.getKey(), entry.getValue(),
+						versions, interpretationIndex, valueCodecs);
+				interpretationIndex++;
+			}
+			trailer.flush();
+			writeFully(channel, ByteBuffer.wrap(trailerBytes.toByteArray()), position);
+			var prelude = ByteBuffer.allocate(PRELUDE_SIZE);
+			prelude.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(position).flip();
+			writeFully(channel, prelude, 0);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> long writeSymbol(FileChannel channel, long position, DataOutput trailer, Symbol<T> symbol,
+										VersionedMapStore<Tuple, ?> store, List<Version> versions,
+										int interpretationIndex, SnapshotValueCodecs valueCodecs) throws IOException {
+		var mapStore = (VersionedMapStore<Tuple, T>) store;
+		int arity = symbol.arity();
+		PackedKeyCodec<Tuple> keyCodec = arity <= TuplePackedKeyCodec.MAX_ARITY ? TuplePackedKeyCodec.of(arity) :
+				new TupleTableKeyCodec();
+		var arena = new PackedNodeArena(VersionedMapStoreFactoryBuilder.NodeStorage.OFF_HEAP, true);
+		var packedStore = new VersionedMapStorePackedImpl<>(keyCodec, symbol.defaultValue(), arena);
+		var packedMap = packedStore.createMap();
+		var roots = new long[versions.size()];
+		Version previousVersion = null;
+		for (int i = 0; i < roots.length; i++) {
+			var version = ModelVersion.getInternalVersion(versions.get(i), interpretationIndex);
+			// Only the changes since the previous version have to be converted.
+			packedMap.putAll(mapStore.getDiffCursor(previousVersion, version));
+			var root = packedMap.commit();
+			roots[i] = root == null ? EMPTY_ROOT : ((PackedSpilledNode<?>) root).getAddress();
+			previousVersion = version;
+		}
+
+		trailer.writeUTF(symbol.name());
+		trailer.writeInt(arity);
+		trailer.writeUTF(symbol.valueType().getName());
+		trailer.writeLong(position);
+		var chunkSizes = arena.getChunkSizes();
+		trailer.writeInt(chunkSizes.length);
+		for (int chunkSize : chunkSizes) {
+			trailer.writeInt(chunkSize);
+		}
+		for (long root : roots) {
+			trailer.writeLong(root);
+		}
+		var valueCodec = valueCodecs.getCodec(symbol.valueType());
+		var values = arena.getValues();
+		trailer.writeInt(values.length);
+		for (var value : values) {
+			trailer.writeBoolean(value != null);
+			if (value != null) {
+				valueCodec.write(trailer, symbol.valueType().cast(value));
+			}
+		}
+		if (keyCodec instanceof TupleTableKeyCodec tupleTable) {
+			var tuples = tupleTable.getTuples();
+			trailer.writeInt(tuples.size());
+			for (var tuple : tuples) {
+				for (int i = 0; i < arity; i++) {
+					trailer.writeInt(tuple.get(i));
+				}
+			}
+		}
+		return arena.write(channel, position);
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		long currentPosition = position;
+		while (buffer.hasRemaining()) {
+			currentPosition += channel.write(buffer, currentPosition);
+		}
+	}
+
+	static ModelSnapshotImpl open(Path path, ModelStoreImpl modelStore,
+								  Map<? extends AnySymbol, ? extends VersionedMapStore<Tuple, ?>> stores,
+								  SnapshotValueCodecs valueCodecs) throws IOException {
+		try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			var prelude = ByteBuffer.allocate(PRELUDE_SIZE);
+			readFully(channel, prelude, 0);
+			prelude.flip();
+			if (prelude.getInt() != MAGIC) {
+				throw new IOException("Not a model snapshot file: " + path);
+			}
+			int formatVersion = prelude.getInt();
+			if (formatVersion != FORMAT_VERSION) {
+				throw new IOException("Unsupported model snapshot format version: " + formatVersion);
+			}
+			long trailerPosition = prelude.getLong();
+			var trailerBuffer = ByteBuffer.allocate(Math.toIntExact(channel.size() - trailerPosition));
+			readFully(channel, trailerBuffer, trailerPosition);
+			var trailer = new DataInputStream(new ByteArrayInputStream(trailerBuffer.array()));
+			int symbolCount = trailer.readInt();
+			if (symbolCount != stores.size()) {
+				throw new IllegalArgumentException("Snapshot has %d symbols, but the model store has %d"
+						.formatted(symbolCount, stores.size()));
+			}
+			int versionCount = trailer.readInt();
+			var symbolSnapshots = new ArrayList<ModelSnapshotImpl.SymbolSnapshot<?>>(symbolCount);
+			for (var entry : stores.entrySet()) {
+				symbolSnapshots.add(readSymbol(channel, trailer, (Symbol<?>) entry.getKey(), entry.getValue(),
+						versionCount, valueCodecs));
+			}
+			return new ModelSnapshotImpl(modelStore, versionCount, symbolSnapshots);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> ModelSnapshotImpl.SymbolSnapshot<T> readSymbol(
+			FileChannel channel, DataInput trailer, Symbol<T> symbol, VersionedMapStore<Tuple, ?> store,
+			int versionCount, SnapshotValueCodecs valueCodecs) throws IOException {
+		var name = trailer.readUTF();
+		int arity = trailer.readInt();
+		var valueTypeName = trailer.readUTF();
+		if (!symbol.name().equals(name) || symbol.arity() != arity ||
+				!symbol.valueType().getName().equals(valueTypeName)) {
+			throw new IllegalArgumentException("Snapshot symbol %s/%d of type %s does not match %s of type %s"
+					.formatted(name, arity, valueTypeName, symbol, symbol.valueType().getName()));
+		}
+		long position = trailer.readLong();
+		var chunkSizes = new int[trailer.readInt()];
+		for (int i = 0; i < chunkSizes.length; i++) {
+			chunkSizes[i] = trailer.readInt();
+		}
+		var roots = new long[versionCount];
+		for (int i = 0; i < versionCount; i++) {
+			roots[i] = trailer.readLong();
+		}
+		var valueCodec = valueCodecs.getCodec(symbol.valueType());
+		var values = new Object[trailer.readInt()];
+		for (int i = 0; i < values.length; i++) {
+			if (trailer.readBoolean()) {
+				values[i] = valueCodec.read(trailer);
+			}
+		}
+		PackedKeyCodec<Tuple> keyCodec;
+		if (arity <= TuplePackedKeyCodec.MAX_ARITY) {
+			keyCodec = TuplePackedKeyCodec.of(arity);
+		} else {
+			int tupleCount = trailer.readInt();
+			var tuples = new ArrayList<Tuple>(tupleCount);
+			var elements = new int[arity];
+			for (int i = 0; i < tupleCount; i++) {
+				for (int j = 0; j < arity; j++) {
+					elements[j] = trailer.readInt();
+				}
+				tuples.add(Tuple.of(elements));
+			}
+			keyCodec = new TupleTableKeyCodec(tuples);
+		}
+		var arena = PackedNodeArena.open(channel, position, chunkSizes, values);
+		var packedStore = new VersionedMapStorePackedImpl<>(keyCodec, symbol.defaultValue(), arena);
+		return new ModelSnapshotImpl.SymbolSnapshot<>((VersionedMapStore<Tuple, T>) store, packedStore, arena,
+				roots);
+	}
+
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		long currentPosition = position;
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, currentPosition);
+			if (read < 0) {
+				throw new EOFException("Unexpected end of model snapshot file");
+			}
+			currentPosition += read;
+		}
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model.internal;
+
+import tools.refinery.store.map.Version;
+import tools.refinery.store.map.VersionedMapStore;
+import tools.refinery.store.map.internal.packed.PackedNodeArena;
+import tools.refinery.store.map.internal.packed.VersionedMapStorePackedImpl;
+import tools.refinery.store.model.ModelSnapshot;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.List;
+
+class ModelSnapshotImpl implements ModelSnapshot {
+	private final ModelStoreImpl modelStore;
+	private final List<SymbolSnapshot<?>> symbolSnapshots;
+	private final Version[] loadedVersions;
+	private int lastLoadedIndex = -1;
+
+	ModelSnapshotImpl(ModelStoreImpl modelStore, int versionCount, List<SymbolSnapshot<?>> symbolSnapshots) {
+		this.modelStore = modelStore;
+		this.symbolSnapshots = symbolSnapshots;
+		loadedVersions = new Version[versionCount];
+	}
+
+	@Override
+	public int getVersionCount() {
+		return loadedVersions.length;
+	}
+
+	@Override
+	public synchronized Version getVersion(int index) {
+		var version = loadedVersions[index];
+		if (version != null) {
+			return version;
+		}
+		modelStore.checkCancelled();
+		int symbolCount = symbolSnapshots.size();
+		var mapVersions = new Version[symbolCount];
+		for (int i = 0; i < symbolCount; i++) {
+			mapVersions[i] = symbolSnapshots.get(i).load(lastLoadedIndex, lastLoadedIndex < 0 ? null :
+					ModelVersion.getInternalVersion(loadedVersions[lastLoadedIndex], i), index);
+		}
+		version = new ModelVersion(mapVersions);
+		loadedVersions[index] = version;
+		lastLoadedIndex = index;
+		return version;
+	}
+
+	record SymbolSnapshot<T>(VersionedMapStore<Tuple, T> targetStore,
+							 VersionedMapStorePackedImpl<Tuple, T> packedStore, PackedNodeArena arena,
+							 long[] roots) {
+		/**
+		 * Loads a version into the target store by applying its difference from an already loaded version.
+		 *
+		 * @param baseIndex   The index of the loaded version, or -1 if no version was loaded yet.
+		 * @param baseVersion The loaded version in the target store, or {@code null} if no version was loaded yet.
+		 * @param index       The index of the version to load.
+		 * @return The loaded version in the target store.
+		 */
+		Version load(int baseIndex, Version baseVersion, int index) {
+			var targetMap = baseVersion == null ? targetStore.createMap() : targetStore.createMap(baseVersion);
+			var diffCursor = packedStore.getDiffCursor(getRoot(baseIndex), getRoot(index));
+			targetMap.putAll(diffCursor);
+			return targetMap.commit();
+		}
+
+		private Version getRoot(int index) {
+			if (index < 0 || roots[index] == ModelSnapshotFormat.EMPTY_ROOT) {
+				return null;
+			}
+			return arena.getNode(roots[index]);
+		}
+	}
+}
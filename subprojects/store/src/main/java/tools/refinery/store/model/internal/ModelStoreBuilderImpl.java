@@ -10,21 +10,29 @@ import tools.refinery.store.adapter.ModelAdapterBuilder;
 import tools.refinery.store.map.VersionedMapStore;
 import tools.refinery.store.map.VersionedMapStoreFactory;
 import tools.refinery.store.map.VersionedMapStoreFactoryBuilder;
+import tools.refinery.store.map.internal.adaptive.AdaptiveVersionedMapStoreFactory;
 import tools.refinery.store.model.ModelStore;
 import tools.refinery.store.model.ModelStoreBuilder;
 import tools.refinery.store.model.ModelStoreConfiguration;
+import tools.refinery.store.model.SnapshotValueCodec;
+import tools.refinery.store.model.TupleHashProvider;
+import tools.refinery.store.model.TuplePackedKeyCodec;
 import tools.refinery.store.representation.AnySymbol;
 import tools.refinery.store.representation.Symbol;
 import tools.refinery.store.tuple.Tuple;
 import tools.refinery.store.util.CancellationToken;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 public class ModelStoreBuilderImpl implements ModelStoreBuilder {
 	private CancellationToken cancellationToken;
 	private final LinkedHashSet<AnySymbol> allSymbols = new LinkedHashSet<>();
 	private final LinkedHashMap<SymbolEquivalenceClass<?>, List<AnySymbol>> equivalenceClasses = new LinkedHashMap<>();
 	private final List<ModelAdapterBuilder> adapters = new ArrayList<>();
+	private final Map<Class<?>, SnapshotValueCodec<?>> snapshotValueCodecs = new HashMap<>();
+	private ForkJoinPool forkJoinPool;
+	private int adaptiveProfiledCommits;
 
 	@Override
 	public ModelStoreBuilder cancellationToken(CancellationToken cancellationToken) {
@@ -51,6 +59,40 @@ public class ModelStoreBuilderImpl implements ModelStoreBuilder {
 		return this;
 	}
 
+	@Override
+	public <T> ModelStoreBuilder snapshotValueCodec(Class<T> valueType, SnapshotValueCodec<T> codec) {
+		if (snapshotValueCodecs.putIfAbsent(valueType, codec) != null) {
+			throw new IllegalArgumentException("Snapshot value codec for %s was already configured"
+					.formatted(valueType.getName()));
+		}
+		return this;
+	}
+
+	@Override
+	public ModelStoreBuilder parallelCommitAndRestore(ForkJoinPool forkJoinPool) {
+		if (this.forkJoinPool != null) {
+			throw new IllegalStateException("Parallel commit and restore was already configured");
+		}
+		if (forkJoinPool == null) {
+			throw new IllegalArgumentException("Fork-join pool must not be null");
+		}
+		this.forkJoinPool = forkJoinPool;
+		return this;
+	}
+
+	@Override
+	public ModelStoreBuilder adaptiveStoreStrategy(int profiledCommits) {
+		if (adaptiveProfiledCommits > 0) {
+			throw new IllegalStateException("Adaptive store strategy was already configured");
+		}
+		if (profiledCommits <= 0) {
+			throw new IllegalArgumentException("Number of profiled commits must be positive, got %d"
+					.formatted(profiledCommits));
+		}
+		adaptiveProfiledCommits = profiledCommits;
+		return this;
+	}
+
 	@Override
 	public ModelStoreBuilder with(ModelAdapterBuilder adapterBuilder) {
 		for (var existingAdapter : adapters) {
@@ -90,7 +132,7 @@ public class ModelStoreBuilderImpl implements ModelStoreBuilder {
 			createStores(stores, entry.getKey(), entry.getValue());
 		}
 		var modelStore = new ModelStoreImpl(stores, adapters.size(), cancellationToken == null ?
-				CancellationToken.NONE : cancellationToken);
+				CancellationToken.NONE : cancellationToken, new SnapshotValueCodecs(snapshotValueCodecs), forkJoinPool);
 		for (var adapterBuilder : adapters) {
 			var storeAdapter = adapterBuilder.build(modelStore);
 			modelStore.addAdapter(storeAdapter);
@@ -101,14 +143,36 @@ public class ModelStoreBuilderImpl implements ModelStoreBuilder {
 	private <T> void createStores(Map<AnySymbol, VersionedMapStore<Tuple, ?>> stores,
 								  SymbolEquivalenceClass<T> equivalenceClass, List<AnySymbol> symbols) {
 		int size = symbols.size();
-		VersionedMapStoreFactory<Tuple, T> mapFactory = VersionedMapStore
-				.<Tuple, T>builder()
-				.strategy(VersionedMapStoreFactoryBuilder.StoreStrategy.DELTA)
-				.defaultValue(equivalenceClass.defaultValue())
-				.build();
+		VersionedMapStoreFactory<Tuple, T> mapFactory;
+		if (adaptiveProfiledCommits > 0) {
+			mapFactory = createAdaptiveFactory(equivalenceClass);
+		} else {
+			mapFactory = VersionedMapStore
+					.<Tuple, T>builder()
+					.strategy(VersionedMapStoreFactoryBuilder.StoreStrategy.DELTA)
+					.defaultValue(equivalenceClass.defaultValue())
+					.build();
+		}
 		var storeGroup = mapFactory.createGroup(size);
 		for (int i = 0; i < size; i++) {
 			stores.put(symbols.get(i), storeGroup.get(i));
 		}
 	}
+
+	private <T> VersionedMapStoreFactory<Tuple, T> createAdaptiveFactory(
+			SymbolEquivalenceClass<T> equivalenceClass) {
+		int arity = equivalenceClass.arity();
+		var stateBasedBuilder = VersionedMapStore.<Tuple, T>builder()
+				.defaultValue(equivalenceClass.defaultValue());
+		VersionedMapStoreFactoryBuilder.StoreStrategy stateBasedStrategy;
+		if (arity <= TuplePackedKeyCodec.MAX_ARITY) {
+			stateBasedBuilder.packedStateKeyCodec(TuplePackedKeyCodec.of(arity));
+			stateBasedStrategy = VersionedMapStoreFactoryBuilder.StoreStrategy.PACKED_STATE;
+		} else {
+			stateBasedBuilder.stateBasedHashProvider(TupleHashProvider.INSTANCE);
+			stateBasedStrategy = VersionedMapStoreFactoryBuilder.StoreStrategy.STATE;
+		}
+		return new AdaptiveVersionedMapStoreFactory<>(equivalenceClass.defaultValue(), stateBasedBuilder.build(),
+				stateBasedStrategy, adaptiveProfiledCommits);
+	}
 }
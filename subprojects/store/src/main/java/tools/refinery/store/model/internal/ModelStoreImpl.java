@@ -11,23 +11,36 @@ import tools.refinery.store.map.DiffCursor;
 import tools.refinery.store.map.Version;
 import tools.refinery.store.map.VersionedMapStore;
 import tools.refinery.store.model.ModelDiffCursor;
+import tools.refinery.store.model.ModelSnapshot;
 import tools.refinery.store.model.ModelStore;
 import tools.refinery.store.representation.AnySymbol;
 import tools.refinery.store.tuple.Tuple;
 import tools.refinery.store.util.CancellationToken;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 public class ModelStoreImpl implements ModelStore {
 	private final LinkedHashMap<? extends AnySymbol, ? extends VersionedMapStore<Tuple, ?>> stores;
 	private final List<ModelStoreAdapter> adapters;
 	private final CancellationToken cancellationToken;
+	private final SnapshotValueCodecs snapshotValueCodecs;
+
+	/**
+	 * Pool to commit and restore interpretations on, or {@code null} if they are committed and restored sequentially.
+	 */
+	private final ForkJoinPool forkJoinPool;
 
 	ModelStoreImpl(LinkedHashMap<? extends AnySymbol, ? extends VersionedMapStore<Tuple, ?>> stores, int adapterCount,
-				   CancellationToken cancellationToken) {
+				   CancellationToken cancellationToken, SnapshotValueCodecs snapshotValueCodecs,
+				   ForkJoinPool forkJoinPool) {
 		this.stores = stores;
 		adapters = new ArrayList<>(adapterCount);
 		this.cancellationToken = cancellationToken;
+		this.snapshotValueCodecs = snapshotValueCodecs;
+		this.forkJoinPool = forkJoinPool;
 	}
 
 	@Override
@@ -58,7 +71,7 @@ public class ModelStoreImpl implements ModelStore {
 	}
 
 	@Override
-	public synchronized ModelImpl createModelForState(Version state) {
+	public ModelImpl createModelForState(Version state) {
 		var model = createModelWithoutInterpretations(state);
 		try {
 			var interpretations = LinkedHashMap.<AnySymbol, VersionedInterpretation<?>>newLinkedHashMap(stores.size());
@@ -90,16 +103,29 @@ public class ModelStoreImpl implements ModelStore {
 	}
 
 	@Override
-	public synchronized ModelDiffCursor getDiffCursor(Version from, Version to) {
+	public ModelDiffCursor getDiffCursor(Version from, Version to) {
 		var diffCursors = new HashMap<AnySymbol, DiffCursor<?, ?>>();
+		int i = 0;
 		for (var entry : stores.entrySet()) {
 			var representation = entry.getKey();
-			var diffCursor = entry.getValue().getDiffCursor(from, to);
+			var diffCursor = entry.getValue().getDiffCursor(ModelVersion.getInternalVersion(from, i),
+					ModelVersion.getInternalVersion(to, i));
 			diffCursors.put(representation, diffCursor);
+			i++;
 		}
 		return new ModelDiffCursor(diffCursors);
 	}
 
+	@Override
+	public void writeSnapshot(Path path, List<Version> versions) throws IOException {
+		ModelSnapshotFormat.write(path, stores, versions, snapshotValueCodecs);
+	}
+
+	@Override
+	public ModelSnapshot openSnapshot(Path path) throws IOException {
+		return ModelSnapshotFormat.open(path, this, stores, snapshotValueCodecs);
+	}
+
 	@Override
 	public <T extends ModelStoreAdapter> Optional<T> tryGetAdapter(Class<? extends T> adapterType) {
 		return AdapterUtils.tryGetAdapter(adapters, adapterType);
@@ -122,4 +148,8 @@ public class ModelStoreImpl implements ModelStore {
 	CancellationToken getCancellationToken() {
 		return cancellationToken;
 	}
+
+	ForkJoinPool getForkJoinPool() {
+		return forkJoinPool;
+	}
 }
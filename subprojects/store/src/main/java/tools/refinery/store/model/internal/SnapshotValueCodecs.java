@@ -0,0 +1,92 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model.internal;
+
+import tools.refinery.store.model.SnapshotValueCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+
+class SnapshotValueCodecs {
+	private static final SnapshotValueCodec<Boolean> BOOLEAN_CODEC = new SnapshotValueCodec<>() {
+		@Override
+		public void write(DataOutput output, Boolean value) throws IOException {
+			output.writeBoolean(value);
+		}
+
+		@Override
+		public Boolean read(DataInput input) throws IOException {
+			return input.readBoolean();
+		}
+	};
+
+	private static final SnapshotValueCodec<Integer> INTEGER_CODEC = new SnapshotValueCodec<>() {
+		@Override
+		public void write(DataOutput output, Integer value) throws IOException {
+			output.writeInt(value);
+		}
+
+		@Override
+		public Integer read(DataInput input) throws IOException {
+			return input.readInt();
+		}
+	};
+
+	private static final SnapshotValueCodec<String> STRING_CODEC = new SnapshotValueCodec<>() {
+		@Override
+		public void write(DataOutput output, String value) throws IOException {
+			output.writeUTF(value);
+		}
+
+		@Override
+		public String read(DataInput input) throws IOException {
+			return input.readUTF();
+		}
+	};
+
+	private final Map<Class<?>, SnapshotValueCodec<?>> codecs;
+
+	SnapshotValueCodecs(Map<Class<?>, SnapshotValueCodec<?>> codecs) {
+		this.codecs = Map.copyOf(codecs);
+	}
+
+	@SuppressWarnings("unchecked")
+	<T> SnapshotValueCodec<T> getCodec(Class<T> valueType) {
+		var codec = codecs.get(valueType);
+		if (codec != null) {
+			return (SnapshotValueCodec<T>) codec;
+		}
+		if (Boolean.class.equals(valueType)) {
+			return (SnapshotValueCodec<T>) BOOLEAN_CODEC;
+		}
+		if (Integer.class.equals(valueType)) {
+			return (SnapshotValueCodec<T>) INTEGER_CODEC;
+		}
+		if (String.class.equals(valueType)) {
+			return (SnapshotValueCodec<T>) STRING_CODEC;
+		}
+		if (valueType.isEnum()) {
+			return (SnapshotValueCodec<T>) createEnumCodec(valueType.asSubclass(Enum.class));
+		}
+		throw new IllegalArgumentException("No snapshot value codec was registered for " + valueType.getName());
+	}
+
+	private static <E extends Enum<E>> SnapshotValueCodec<E> createEnumCodec(Class<E> enumType) {
+		return new SnapshotValueCodec<>() {
+			@Override
+			public void write(DataOutput output, E value) throws IOException {
+				output.writeUTF(value.name());
+			}
+
+			@Override
+			public E read(DataInput input) throws IOException {
+				return Enum.valueOf(enumType, input.readUTF());
+			}
+		};
+	}
+}
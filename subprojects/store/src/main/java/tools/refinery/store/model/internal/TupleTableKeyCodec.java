@@ -0,0 +1,48 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model.internal;
+
+import tools.refinery.store.map.PackedKeyCodec;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Packs tuples that do not fit into a {@code long} value by assigning consecutive identifiers to them.
+ */
+class TupleTableKeyCodec implements PackedKeyCodec<Tuple> {
+	private final Map<Tuple, Long> identifiers = new HashMap<>();
+	private final List<Tuple> tuples;
+
+	TupleTableKeyCodec() {
+		tuples = new ArrayList<>();
+	}
+
+	TupleTableKeyCodec(List<Tuple> tuples) {
+		this.tuples = tuples;
+	}
+
+	List<Tuple> getTuples() {
+		return tuples;
+	}
+
+	@Override
+	public long pack(Tuple key) {
+		return identifiers.computeIfAbsent(key, ignored -> {
+			long identifier = tuples.size();
+			tuples.add(key);
+			return identifier;
+		});
+	}
+
+	@Override
+	public Tuple unpack(long packedKey) {
+		return tuples.get((int) packedKey);
+	}
+}
@@ -22,6 +22,7 @@ public abstract class VersionedInterpretation<T> implements Interpretation<T> {
 	private final VersionedMap<Tuple, T> map;
 	private final List<InterpretationListener<T>> listeners = new ArrayList<>();
 	private final List<InterpretationListener<T>> restoreListeners = new ArrayList<>();
+	private ChangeBatch<T> pendingRestoreChanges;
 
 	protected VersionedInterpretation(ModelImpl model, Symbol<T> symbol, VersionedMap<Tuple, T> map) {
 		this.model = model;
@@ -82,9 +83,37 @@ public abstract class VersionedInterpretation<T> implements Interpretation<T> {
 		return oldValue;
 	}
 
+	protected void valuesChanged(ChangeBatch<T> changes, boolean restoring) {
+		updateIndex(changes);
+		notifyListeners(changes, restoring);
+	}
+
+	/**
+	 * Updates the indexes of this interpretation (if any) with a batch of changes.
+	 * <p>
+	 * Unlike listener notifications, this method may be called concurrently for different interpretations.
+	 * </p>
+	 *
+	 * @param changes The changes to apply to the indexes.
+	 */
+	protected void updateIndex(ChangeBatch<T> changes) {
+		// No indexes to update by default.
+	}
+
+	private void notifyListeners(ChangeBatch<T> changes, boolean restoring) {
+		var listenerList = restoring ? restoreListeners : listeners;
+		int listenerCount = listenerList.size();
+		// Use a for loop instead of a for-each loop to avoid <code>Iterator</code> allocation overhead.
+		//noinspection ForLoopReplaceableByForEach
+		for (int i = 0; i < listenerCount; i++) {
+			listenerList.get(i).putAll(changes.cursor(), restoring);
+		}
+	}
+
 	@Override
 	public void putAll(Cursor<Tuple, T> cursor) {
 		model.markAsChanged();
+		var changes = new ChangeBatch<T>();
 		if (cursor.getDependingMaps().contains(map)) {
 			List<Tuple> keys = new ArrayList<>();
 			List<T> values = new ArrayList<>();
@@ -96,13 +125,49 @@ public abstract class VersionedInterpretation<T> implements Interpretation<T> {
 			var keyIterator = keys.iterator();
 			var valueIterator = values.iterator();
 			while (keyIterator.hasNext()) {
-				put(keyIterator.next(), valueIterator.next());
+				putWithoutNotification(keyIterator.next(), valueIterator.next(), changes);
 			}
+		} else if (map.isBulkLoadSupported() && map.getSize() == 0) {
+			bulkLoad(cursor, changes);
 		} else {
 			while (cursor.move()) {
-				put(cursor.getKey(), cursor.getValue());
+				putWithoutNotification(cursor.getKey(), cursor.getValue(), changes);
 			}
 		}
+		if (!changes.isEmpty()) {
+			valuesChanged(changes, false);
+		}
+	}
+
+	private void putWithoutNotification(Tuple key, T value, ChangeBatch<T> changes) {
+		checkKey(key);
+		model.checkCancelled();
+		var oldValue = map.put(key, value);
+		changes.add(key, oldValue, value);
+	}
+
+	/**
+	 * Loads a batch of tuples into an empty interpretation with {@link VersionedMap#putAll(Cursor)}, which may build
+	 * the underlying map in bulk.
+	 *
+	 * @param cursor  The tuples to load.
+	 * @param changes The batch to collect the resulting changes into.
+	 */
+	private void bulkLoad(Cursor<Tuple, T> cursor, ChangeBatch<T> changes) {
+		var defaultValue = symbol.defaultValue();
+		var entries = new ChangeBatch<T>();
+		while (cursor.move()) {
+			var key = cursor.getKey();
+			checkKey(key);
+			model.checkCancelled();
+			entries.add(key, defaultValue, cursor.getValue());
+		}
+		map.putAll(entries.cursor());
+		// Report the net changes only, since the batch may have set a key more than once.
+		var loadedCursor = map.getAll();
+		while (loadedCursor.move()) {
+			changes.add(loadedCursor.getKey(), defaultValue, loadedCursor.getValue());
+		}
 	}
 
 	@Override
@@ -128,6 +193,43 @@ public abstract class VersionedInterpretation<T> implements Interpretation<T> {
 		map.restore(state);
 	}
 
+	/**
+	 * Restores the underlying map and the indexes, but defers notifying the restore listeners until
+	 * {@link #finishRestore()} is called.
+	 * <p>
+	 * This method may be called concurrently for different interpretations of the same model.
+	 * </p>
+	 *
+	 * @param state The state to restore.
+	 */
+	void prepareRestore(Version state) {
+		pendingRestoreChanges = null;
+		if (shouldNotifyRestoreListeners()) {
+			var changes = new ChangeBatch<T>();
+			var diffCursor = getDiffCursor(state);
+			while (diffCursor.move()) {
+				changes.add(diffCursor.getKey(), diffCursor.getFromValue(), diffCursor.getToValue());
+			}
+			updateIndex(changes);
+			pendingRestoreChanges = changes;
+		}
+		map.restore(state);
+	}
+
+	/**
+	 * Notifies the restore listeners about the changes collected by {@link #prepareRestore(Version)}.
+	 */
+	void finishRestore() {
+		var changes = pendingRestoreChanges;
+		if (changes == null) {
+			return;
+		}
+		pendingRestoreChanges = null;
+		if (!changes.isEmpty()) {
+			notifyListeners(changes, true);
+		}
+	}
+
 	@Override
 	public void addListener(InterpretationListener<T> listener, boolean alsoWhenRestoring) {
 		listeners.add(listener);
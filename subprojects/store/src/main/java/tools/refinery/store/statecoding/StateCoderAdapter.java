@@ -13,6 +13,9 @@ public interface StateCoderAdapter extends ModelAdapter {
 	default int calculateModelCode() {
 		return calculateStateCode().modelCode();
 	}
+	default long calculateWideModelCode() {
+		return calculateStateCode().wideModelCode();
+	}
 	default ObjectCode calculateObjectCode() {
 		return calculateStateCode().objectCode();
 	}
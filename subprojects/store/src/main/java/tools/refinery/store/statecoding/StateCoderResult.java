@@ -1,9 +1,23 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
 package tools.refinery.store.statecoding;
 
-public record StateCoderResult(int modelCode, ObjectCode objectCode) {
+/**
+ * Result of a state code calculation.
+ *
+ * @param wideModelCode The 64-bit code of the model, which is less likely to collide when many states are visited.
+ * @param objectCode    The codes of the objects.
+ */
+public record StateCoderResult(long wideModelCode, ObjectCode objectCode) {
+	/**
+	 * Gets the 32-bit code of the model.
+	 *
+	 * @return The lower 32 bits of {@link #wideModelCode()}.
+	 */
+	public int modelCode() {
+		return (int) wideModelCode;
+	}
 }
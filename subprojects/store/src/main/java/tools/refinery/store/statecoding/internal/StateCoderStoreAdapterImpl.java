@@ -51,20 +51,20 @@ public class StateCoderStoreAdapterImpl implements StateCoderStoreAdapter {
 		if (Objects.equals(v1, v2)) {
 			return StateEquivalenceChecker.EquivalenceResult.ISOMORPHIC;
 		}
-		var model1 = this.getStore().createModelForState(v1);
-		var model2 = this.getStore().createModelForState(v2);
+		try (var model1 = this.getStore().createModelForState(v1);
+			 var model2 = this.getStore().createModelForState(v2)) {
+			var s1 = model1.getAdapter(StateCoderAdapter.class).calculateStateCode();
+			var s2 = model2.getAdapter(StateCoderAdapter.class).calculateStateCode();
 
-		var s1 = model1.getAdapter(StateCoderAdapter.class).calculateStateCode();
-		var s2 = model2.getAdapter(StateCoderAdapter.class).calculateStateCode();
+			if (s1.wideModelCode() != s2.wideModelCode()) {
+				return StateEquivalenceChecker.EquivalenceResult.DIFFERENT;
+			}
 
-		if (s1.modelCode() != s2.modelCode()) {
-			return StateEquivalenceChecker.EquivalenceResult.DIFFERENT;
-		}
-
-		var i1 = symbols.stream().map(model1::getInterpretation).toList();
-		var i2 = symbols.stream().map(model2::getInterpretation).toList();
+			var i1 = symbols.stream().map(model1::getInterpretation).toList();
+			var i2 = symbols.stream().map(model2::getInterpretation).toList();
 
-		return equivalenceChecker.constructMorphism(individuals, i1, s1.objectCode(), i2, s2.objectCode());
+			return equivalenceChecker.constructMorphism(individuals, i1, s1.objectCode(), i2, s2.objectCode());
+		}
 	}
 
 	@Override
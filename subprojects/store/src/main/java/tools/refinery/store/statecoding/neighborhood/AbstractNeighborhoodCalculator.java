@@ -38,6 +38,24 @@ public abstract class AbstractNeighborhoodCalculator<T> implements StateCodeCalc
 		return model;
 	}
 
+	protected IndividualsSet getIndividuals() {
+		return individuals;
+	}
+
+	protected int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Gets the impact values of the interpretations with a positive arity.
+	 *
+	 * @return The impact value of each parameter of each interpretation.
+	 */
+	protected Map<T, long[]> getImpactValues() {
+		ensureInitialized();
+		return impactValues;
+	}
+
 	protected abstract List<T> getInterpretations();
 
 	protected abstract int getArity(T interpretation);
@@ -68,7 +86,7 @@ public abstract class AbstractNeighborhoodCalculator<T> implements StateCodeCalc
 		} while (rounds <= depth && rounds <= previousObjectCode.getEffectiveSize());
 
 		long result = calculateLastSum(previousObjectCode);
-		return new StateCoderResult((int) result, previousObjectCode);
+		return new StateCoderResult(result, previousObjectCode);
 	}
 
 	private void ensureInitialized() {
@@ -101,11 +119,7 @@ public abstract class AbstractNeighborhoodCalculator<T> implements StateCodeCalc
 	}
 
 	private long calculateLastSum(ObjectCode codes) {
-		long result = 0;
-		for (var nullImpactValue : nullImpactValues) {
-			result = result * PRIME + Objects.hashCode(getNullValue(nullImpactValue));
-		}
-
+		long result = calculateNullaryHash();
 		for (int i = 0; i < codes.getSize(); i++) {
 			final long hash = codes.get(i);
 			result += hash*PRIME;
@@ -114,6 +128,15 @@ public abstract class AbstractNeighborhoodCalculator<T> implements StateCodeCalc
 		return result;
 	}
 
+	protected long calculateNullaryHash() {
+		ensureInitialized();
+		long result = 0;
+		for (var nullImpactValue : nullImpactValues) {
+			result = result * PRIME + Objects.hashCode(getNullValue(nullImpactValue));
+		}
+		return result;
+	}
+
 	private void constructNextObjectCodes(ObjectCodeImpl previous, ObjectCodeImpl next) {
 		for (var impactValueEntry : this.impactValues.entrySet()) {
 			model.checkCancelled();
@@ -213,7 +236,23 @@ public abstract class AbstractNeighborhoodCalculator<T> implements StateCodeCalc
 	}
 
 	protected void addHash(ObjectCodeImpl objectCodeImpl, int o, long impact, long tupleHash) {
+		objectCodeImpl.set(o, objectCodeImpl.get(o) + getContribution(impact, tupleHash));
+	}
+
+	/**
+	 * Gets the amount a tuple adds to the code of an object.
+	 * <p>
+	 * Zero contributions are replaced with {@code 1}, because {@link ObjectCodeImpl#set(int, long)} would otherwise
+	 * turn the code of an object without any previous contributions into {@code 1}, which would make the sum depend
+	 * on the order of the tuples.
+	 * </p>
+	 *
+	 * @param impact    The impact value of the parameter of the object.
+	 * @param tupleHash The hash of the tuple.
+	 * @return The contribution of the tuple.
+	 */
+	protected static long getContribution(long impact, long tupleHash) {
 		long x = tupleHash * impact;
-		objectCodeImpl.set(o, objectCodeImpl.get(o) + x);
+		return x == 0 ? 1 : x;
 	}
 }
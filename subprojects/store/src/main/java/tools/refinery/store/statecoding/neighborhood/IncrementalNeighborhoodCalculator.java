@@ -0,0 +1,348 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.statecoding.neighborhood;
+
+import org.eclipse.collections.api.factory.primitive.IntLongMaps;
+import org.eclipse.collections.api.factory.primitive.IntSets;
+import org.eclipse.collections.api.map.primitive.MutableIntLongMap;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import tools.refinery.store.model.Interpretation;
+import tools.refinery.store.model.Model;
+import tools.refinery.store.statecoding.ObjectCode;
+import tools.refinery.store.statecoding.StateCodeCalculatorFactory;
+import tools.refinery.store.statecoding.StateCoderResult;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.*;
+
+/**
+ * Neighborhood calculator that updates the object codes of the previous calculation according to the changes of the
+ * model since then.
+ * <p>
+ * The code of an object in a round is a sum of the contributions of the tuples it appears in, which only depend on
+ * the codes of the objects in the previous round. Since sums can be updated by subtracting old contributions and
+ * adding new ones, each round only has to visit the changed tuples and the tuples adjacent to objects whose code
+ * changed in the previous round. If the changes spread to most of the model, the remaining rounds are recalculated
+ * from scratch.
+ * </p>
+ */
+public class IncrementalNeighborhoodCalculator extends NeighborhoodCalculator {
+	private static final int INITIAL_CAPACITY = 16;
+
+	// Old values of the tuples changed since the last calculation for each interpretation.
+	private final Map<Interpretation<?>, Map<Tuple, Object>> pendingChanges = new LinkedHashMap<>();
+	private int pendingChangeCount;
+	private boolean upToDate;
+	private int rounds;
+	private ObjectCodeImpl[] codes = new ObjectCodeImpl[0];
+	private long[][] sums = new long[0][];
+	private int[] degrees = new int[INITIAL_CAPACITY];
+	private int connectedObjectCount;
+	private long lastSum;
+
+	protected IncrementalNeighborhoodCalculator(Model model, List<? extends Interpretation<?>> interpretations,
+												IndividualsSet individuals, int depth) {
+		super(model, interpretations, individuals, depth);
+		for (var interpretation : getInterpretations()) {
+			if (getArity(interpretation) > 0) {
+				addListener(interpretation);
+			}
+		}
+	}
+
+	private <T> void addListener(Interpretation<T> interpretation) {
+		interpretation.addListener((key, fromValue, toValue, restoring) -> {
+			if (!upToDate) {
+				// We'll recalculate everything anyway.
+				return;
+			}
+			var changes = pendingChanges.computeIfAbsent(interpretation, ignored -> new HashMap<>());
+			if (!changes.containsKey(key)) {
+				changes.put(key, fromValue);
+				pendingChangeCount++;
+			}
+		}, true);
+	}
+
+	@Override
+	public StateCoderResult calculateCodes() {
+		getModel().checkCancelled();
+		boolean wasUpToDate = upToDate;
+		// Make sure that we start from scratch next time if the calculation gets cancelled.
+		upToDate = false;
+		if (wasUpToDate && pendingChangeCount <= countTuples() / 2) {
+			updateCodes();
+		} else {
+			calculateAllCodes();
+		}
+		pendingChanges.clear();
+		pendingChangeCount = 0;
+		upToDate = true;
+		return new StateCoderResult(calculateNullaryHash() + lastSum, codes[rounds]);
+	}
+
+	private long countTuples() {
+		long count = 0;
+		for (var interpretation : getImpactValues().keySet()) {
+			count += interpretation.getSize();
+		}
+		return count;
+	}
+
+	private void calculateAllCodes() {
+		Arrays.fill(degrees, 0);
+		connectedObjectCount = 0;
+		for (var interpretation : getImpactValues().keySet()) {
+			var cursor = interpretation.getAll();
+			while (cursor.move()) {
+				updateDegrees(cursor.getKey(), 1);
+			}
+		}
+		setRounds(getRoundCount());
+		codes[0].clear();
+		initializeWithIndividuals(codes[0]);
+		calculateRoundsFrom(1);
+	}
+
+	private void updateCodes() {
+		List<Change> changes = collectChanges();
+		for (var change : changes) {
+			if (change.oldValue() != null) {
+				updateDegrees(change.tuple(), -1);
+			}
+			if (change.newValue() != null) {
+				updateDegrees(change.tuple(), 1);
+			}
+		}
+		int newRounds = getRoundCount();
+		if (newRounds != rounds) {
+			// Only happens for very small models, where we can afford to start from scratch.
+			setRounds(newRounds);
+			calculateRoundsFrom(1);
+			return;
+		}
+		// Round 0 only contains the codes of individuals, which never change.
+		MutableIntLongMap previousOldCodes = IntLongMaps.mutable.empty();
+		for (int round = 1; round <= rounds; round++) {
+			getModel().checkCancelled();
+			if (previousOldCodes.size() > connectedObjectCount / 2) {
+				calculateRoundsFrom(round);
+				return;
+			}
+			previousOldCodes = updateRound(round, changes, previousOldCodes);
+		}
+	}
+
+	private List<Change> collectChanges() {
+		var changes = new ArrayList<Change>(pendingChangeCount);
+		for (var entry : pendingChanges.entrySet()) {
+			var interpretation = entry.getKey();
+			var defaultValue = interpretation.getSymbol().defaultValue();
+			for (var tupleEntry : entry.getValue().entrySet()) {
+				var tuple = tupleEntry.getKey();
+				var oldValue = tupleEntry.getValue();
+				Object newValue = interpretation.get(tuple);
+				if (!Objects.equals(oldValue, newValue)) {
+					changes.add(new Change(interpretation, tuple, Objects.equals(oldValue, defaultValue) ? null :
+							oldValue, Objects.equals(newValue, defaultValue) ? null : newValue));
+				}
+			}
+		}
+		return changes;
+	}
+
+	private MutableIntLongMap updateRound(int round, List<Change> changes, MutableIntLongMap previousOldCodes) {
+		var previousCodes = codes[round - 1];
+		ObjectCode previousOldCode = new ObjectCode() {
+			@Override
+			public long get(int object) {
+				return previousOldCodes.containsKey(object) ? previousOldCodes.get(object) :
+						previousCodes.get(object);
+			}
+
+			@Override
+			public int getSize() {
+				return previousCodes.getSize();
+			}
+		};
+		var roundSums = sums[round];
+		MutableIntSet touchedObjects = IntSets.mutable.empty();
+		Map<Interpretation<?>, Set<Tuple>> visitedTuples = new HashMap<>();
+		for (var change : changes) {
+			var interpretation = change.interpretation();
+			visitedTuples.computeIfAbsent(interpretation, ignored -> new HashSet<>()).add(change.tuple());
+			updateContribution(roundSums, touchedObjects, interpretation, change.tuple(), change.oldValue(),
+					previousOldCode, -1);
+			updateContribution(roundSums, touchedObjects, interpretation, change.tuple(), change.newValue(),
+					previousCodes, 1);
+		}
+		if (!previousOldCodes.isEmpty()) {
+			for (var interpretation : getImpactValues().keySet()) {
+				var visited = visitedTuples.computeIfAbsent(interpretation, ignored -> new HashSet<>());
+				int arity = getArity(interpretation);
+				for (var entry : previousOldCodes.keyValuesView()) {
+					int object = entry.getOne();
+					for (int slot = 0; slot < arity; slot++) {
+						var cursor = interpretation.getAdjacent(slot, object);
+						while (cursor.move()) {
+							var tuple = cursor.getKey();
+							if (visited.add(tuple)) {
+								var value = cursor.getValue();
+								updateContribution(roundSums, touchedObjects, interpretation, tuple, value,
+										previousOldCode, -1);
+								updateContribution(roundSums, touchedObjects, interpretation, tuple, value,
+										previousCodes, 1);
+							}
+						}
+					}
+				}
+			}
+		}
+		var roundCodes = codes[round];
+		MutableIntLongMap oldCodes = IntLongMaps.mutable.empty();
+		touchedObjects.forEach(object -> {
+			long oldCode = roundCodes.get(object);
+			long newCode = 0;
+			if (degrees[object] > 0) {
+				long sum = roundSums[object];
+				newCode = sum == 0 ? 1 : sum;
+			}
+			if (oldCode == newCode) {
+				return;
+			}
+			oldCodes.put(object, oldCode);
+			if (newCode == 0) {
+				roundCodes.remove(object);
+			} else {
+				roundCodes.set(object, newCode);
+			}
+			if (round == rounds) {
+				lastSum += (newCode - oldCode) * PRIME;
+			}
+		});
+		return oldCodes;
+	}
+
+	private void updateContribution(long[] roundSums, MutableIntSet touchedObjects, Interpretation<?> interpretation,
+									Tuple tuple, Object value, ObjectCode previousCodes, int sign) {
+		if (value == null) {
+			return;
+		}
+		long[] impactValue = getImpactValues().get(interpretation);
+		long tupleHash = getTupleHash(tuple, value, previousCodes);
+		for (int i = 0; i < impactValue.length; i++) {
+			int object = tuple.get(i);
+			roundSums[object] += sign * getContribution(impactValue[i], tupleHash);
+			touchedObjects.add(object);
+		}
+	}
+
+	private void calculateRoundsFrom(int firstRound) {
+		for (int round = firstRound; round <= rounds; round++) {
+			getModel().checkCancelled();
+			var roundSums = sums[round];
+			Arrays.fill(roundSums, 0);
+			var previousCodes = codes[round - 1];
+			for (var entry : getImpactValues().entrySet()) {
+				long[] impactValue = entry.getValue();
+				var cursor = entry.getKey().getAll();
+				while (cursor.move()) {
+					var tuple = cursor.getKey();
+					long tupleHash = getTupleHash(tuple, cursor.getValue(), previousCodes);
+					for (int i = 0; i < impactValue.length; i++) {
+						roundSums[tuple.get(i)] += getContribution(impactValue[i], tupleHash);
+					}
+				}
+			}
+			var roundCodes = codes[round];
+			roundCodes.clear();
+			for (int object = 0; object < degrees.length; object++) {
+				if (degrees[object] > 0) {
+					roundCodes.set(object, roundSums[object]);
+				}
+			}
+		}
+		var lastCodes = codes[rounds];
+		lastSum = 0;
+		for (int object = 0; object < lastCodes.getSize(); object++) {
+			lastSum += lastCodes.get(object) * PRIME;
+		}
+	}
+
+	private long getTupleHash(Tuple tuple, Object value, ObjectCode previousCodes) {
+		return switch (tuple.getSize()) {
+			case 1 -> getTupleHash1(tuple, value, previousCodes);
+			case 2 -> getTupleHash2(tuple, value, previousCodes);
+			default -> getTupleHashN(tuple, value, previousCodes);
+		};
+	}
+
+	private void updateDegrees(Tuple tuple, int delta) {
+		int size = tuple.getSize();
+		for (int i = 0; i < size; i++) {
+			int object = tuple.get(i);
+			ensureCapacity(object);
+			int oldDegree = degrees[object];
+			int newDegree = oldDegree + delta;
+			degrees[object] = newDegree;
+			if (oldDegree == 0) {
+				connectedObjectCount++;
+			} else if (newDegree == 0) {
+				connectedObjectCount--;
+			}
+		}
+	}
+
+	private void ensureCapacity(int object) {
+		if (object < degrees.length) {
+			return;
+		}
+		int newLength = degrees.length * 2;
+		while (object >= newLength) {
+			newLength *= 2;
+		}
+		degrees = Arrays.copyOf(degrees, newLength);
+		for (int round = 1; round < sums.length; round++) {
+			sums[round] = Arrays.copyOf(sums[round], newLength);
+		}
+	}
+
+	/**
+	 * Gets the number of rounds the same way as {@link AbstractNeighborhoodCalculator#calculateCodes()}, which stops
+	 * after {@code depth} rounds or after as many rounds as there are objects with a code.
+	 *
+	 * @return The number of rounds.
+	 */
+	private int getRoundCount() {
+		return Math.min(getDepth(), connectedObjectCount) + 1;
+	}
+
+	private void setRounds(int rounds) {
+		this.rounds = rounds;
+		if (codes.length > rounds) {
+			return;
+		}
+		int oldLength = codes.length;
+		codes = Arrays.copyOf(codes, rounds + 1);
+		sums = Arrays.copyOf(sums, rounds + 1);
+		for (int round = oldLength; round <= rounds; round++) {
+			codes[round] = new ObjectCodeImpl();
+			sums[round] = new long[degrees.length];
+		}
+	}
+
+	private record Change(Interpretation<?> interpretation, Tuple tuple, Object oldValue, Object newValue) {
+	}
+
+	public static StateCodeCalculatorFactory factory(int depth) {
+		return (model, interpretations, individuals) -> new IncrementalNeighborhoodCalculator(model,
+				interpretations, individuals, depth);
+	}
+
+	public static StateCodeCalculatorFactory factory() {
+		return factory(DEFAULT_DEPTH);
+	}
+}
@@ -71,6 +71,18 @@ public class ObjectCodeImpl implements ObjectCode {
 		vector[object] = valueToPut;
 	}
 
+	/**
+	 * Removes the code of an object.
+	 *
+	 * @param object The object whose code should be reset to {@code 0}.
+	 */
+	public void remove(int object) {
+		if (object < vector.length && vector[object] != 0) {
+			vector[object] = 0;
+			effectiveSize--;
+		}
+	}
+
 	public int getSize() {
 		return this.size;
 	}
@@ -0,0 +1,114 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.map.internal.adaptive;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.map.DiffCursor;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.map.VersionedMap;
+import tools.refinery.store.map.VersionedMapStore;
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder.StoreStrategy;
+import tools.refinery.store.model.TupleHashProvider;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveVersionedMapTest {
+	private static final int PROFILED_COMMITS = 8;
+
+	@Test
+	void restoreMigratedVersionTest() {
+		var store = createStore();
+		var map = store.createMap();
+		var initialVersion = migrateToStateBased(map);
+
+		map.restore(initialVersion);
+		assertEquals(1, map.get(Tuple.of(3)));
+		var migratedVersion = store.getMigratedVersion((AdaptiveVersion<Tuple, Integer>) initialVersion,
+				store.getCurrentStore());
+		assertNotNull(migratedVersion);
+
+		var otherMap = store.createMap();
+		otherMap.restore(initialVersion);
+		assertEquals(100, otherMap.getSize());
+		assertEquals(1, otherMap.get(Tuple.of(3)));
+		assertSame(migratedVersion, store.getMigratedVersion((AdaptiveVersion<Tuple, Integer>) initialVersion,
+				store.getCurrentStore()));
+	}
+
+	@Test
+	void diffMigratedVersionTest() {
+		var store = createStore();
+		var map = store.createMap();
+		var initialVersion = migrateToStateBased(map);
+		var finalVersion = map.commit();
+
+		var contentDiffCursor = store.getDiffCursor(initialVersion, finalVersion);
+		assertTrue(contentDiffCursor instanceof ContentDiffCursor);
+		var expectedChanges = getChanges(contentDiffCursor);
+
+		map.restore(initialVersion);
+		var diffCursor = store.getDiffCursor(initialVersion, finalVersion);
+		assertFalse(diffCursor instanceof ContentDiffCursor);
+		assertEquals(expectedChanges, getChanges(diffCursor));
+		assertEquals(List.of(1, 4), expectedChanges.get(Tuple.of(3)));
+
+		map.restore(finalVersion);
+		var mapDiffCursor = map.getDiffCursor(initialVersion);
+		assertFalse(mapDiffCursor instanceof ContentDiffCursor);
+		var reverseChanges = getChanges(mapDiffCursor);
+		assertEquals(List.of(4, 1), reverseChanges.get(Tuple.of(3)));
+	}
+
+	@Test
+	void restoreEmptyMigratedVersionTest() {
+		var store = createStore();
+		var map = store.createMap();
+		map.put(Tuple.of(0), 1);
+		map.commit();
+		map.put(Tuple.of(0), 0);
+		var emptyVersion = map.commit();
+		migrateToStateBased(map);
+		map.commit();
+		assertEquals(StoreStrategy.STATE, store.getStrategy());
+
+		map.restore(emptyVersion);
+		assertEquals(0, map.getSize());
+		assertEquals(0, map.get(Tuple.of(0)));
+	}
+
+	private static AdaptiveVersionedMapStore<Tuple, Integer> createStore() {
+		var factory = new AdaptiveVersionedMapStoreFactory<Tuple, Integer>(0, VersionedMapStore.<Tuple, Integer>builder()
+				.defaultValue(0).stateBasedHashProvider(TupleHashProvider.INSTANCE).build(), StoreStrategy.STATE,
+				PROFILED_COMMITS);
+		return (AdaptiveVersionedMapStore<Tuple, Integer>) factory.createOne();
+	}
+
+	private static Version migrateToStateBased(VersionedMap<Tuple, Integer> map) {
+		for (int i = 0; i < 100; i++) {
+			map.put(Tuple.of(i), 1);
+		}
+		var initialVersion = map.commit();
+		for (int i = 1; i < PROFILED_COMMITS; i++) {
+			map.put(Tuple.of(i), i + 1);
+			map.commit();
+		}
+		map.put(Tuple.of(100), 1);
+		return initialVersion;
+	}
+
+	private static Map<Tuple, List<Integer>> getChanges(DiffCursor<Tuple, Integer> diffCursor) {
+		var changes = new HashMap<Tuple, List<Integer>>();
+		while (diffCursor.move()) {
+			changes.put(diffCursor.getKey(), List.of(diffCursor.getFromValue(), diffCursor.getToValue()));
+		}
+		return changes;
+	}
+}
@@ -6,12 +6,31 @@
 package tools.refinery.store.map.tests;
 
 import org.junit.jupiter.api.Test;
+import tools.refinery.store.map.Cursors;
+import tools.refinery.store.map.Version;
 import tools.refinery.store.map.VersionedMapStore;
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder.DeltaTransactionStrategy;
+import tools.refinery.store.map.VersionedMapStoreFactoryBuilder.StoreStrategy;
+import tools.refinery.store.map.internal.adaptive.AdaptiveVersionedMapStore;
+import tools.refinery.store.map.internal.adaptive.AdaptiveVersionedMapStoreFactory;
+import tools.refinery.store.map.internal.state.VersionedMapStoreStateConfiguration;
 import tools.refinery.store.map.internal.state.VersionedMapStoreStateImpl;
 import tools.refinery.store.model.TupleHashProvider;
 import tools.refinery.store.tuple.Tuple;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class MapUnitTests {
 	@Test
@@ -94,4 +113,142 @@ class MapUnitTests {
 		map.restore(version2);
 		assertEquals(0,map.getSize());
 	}
+
+	@Test
+	void bulkLoadTest() {
+		VersionedMapStore<Tuple, Integer> store = new VersionedMapStoreStateImpl<>(TupleHashProvider.INSTANCE, 0);
+		List<Map.Entry<Tuple, Integer>> entries = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			for (int j = 0; j < 100; j++) {
+				entries.add(Map.entry(Tuple.of(i, j), i + j + 1));
+			}
+		}
+		// Duplicate keys in the batch must keep their last value.
+		entries.add(Map.entry(Tuple.of(3, 4), 100));
+		var incrementalMap = store.createMap();
+		for (var entry : entries) {
+			incrementalMap.put(entry.getKey(), entry.getValue());
+		}
+		var bulkMap = store.createMap();
+		assertTrue(bulkMap.isBulkLoadSupported());
+		bulkMap.putAll(Cursors.of(entries.iterator()));
+		bulkMap.checkIntegrity();
+		assertEquals(10000, bulkMap.getSize());
+		assertEquals(100, bulkMap.get(Tuple.of(3, 4)));
+		assertEquals(42, bulkMap.get(Tuple.of(20, 21)));
+		assertTrue(bulkMap.contentEquals(incrementalMap));
+	}
+
+	@Test
+	void deltaMapBulkLoadNotSupportedTest() {
+		VersionedMapStore<Tuple, Integer> store = VersionedMapStore.<Tuple, Integer>builder()
+				.strategy(StoreStrategy.DELTA)
+				.defaultValue(0)
+				.build()
+				.createOne();
+		assertFalse(store.createMap().isBulkLoadSupported());
+	}
+
+	@Test
+	void siblingDiffTest() {
+		VersionedMapStore<Tuple, Integer> store = new VersionedMapStoreStateImpl<>(TupleHashProvider.INSTANCE, 0);
+		var map = store.createMap();
+		for (int i = 0; i < 1000; i++) {
+			map.put(Tuple.of(i), i + 1);
+		}
+		var parent = map.commit();
+		map.put(Tuple.of(3), 100);
+		map.put(Tuple.of(1000), 1);
+		var sibling1 = map.commit();
+		map.restore(parent);
+		map.put(Tuple.of(3), 0);
+		var sibling2 = map.commit();
+
+		var diffCursor = store.getDiffCursor(sibling1, sibling2);
+		Map<Tuple, List<Integer>> changes = new HashMap<>();
+		while (diffCursor.move()) {
+			changes.put(diffCursor.getKey(), List.of(diffCursor.getFromValue(), diffCursor.getToValue()));
+		}
+		assertEquals(Map.of(Tuple.of(3), List.of(100, 0), Tuple.of(1000), List.of(1, 0)), changes);
+		assertFalse(store.getDiffCursor(sibling2, sibling2).move());
+	}
+
+	@Test
+	void concurrentCommitTest() throws Exception {
+		var stores = VersionedMapStoreStateImpl.createSharedVersionedMapStores(2, TupleHashProvider.INSTANCE, 0,
+				new VersionedMapStoreStateConfiguration());
+		List<Callable<Version>> tasks = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			var store = stores.get(i % 2);
+			int seed = i;
+			tasks.add(() -> {
+				List<Integer> values = new ArrayList<>();
+				for (int j = 0; j < 1000; j++) {
+					values.add(j);
+				}
+				Collections.shuffle(values, new Random(seed));
+				var map = store.createMap();
+				for (var value : values) {
+					map.put(Tuple.of(value), value + 1);
+				}
+				return map.commit();
+			});
+		}
+		var executor = Executors.newFixedThreadPool(4);
+		try {
+			var results = executor.invokeAll(tasks);
+			var expected = results.get(0).get();
+			for (var result : results) {
+				// Equal trees committed concurrently must still share their nodes.
+				assertSame(expected, result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void adaptiveStoreTest() {
+		var factory = new AdaptiveVersionedMapStoreFactory<Tuple, Integer>(0, VersionedMapStore.<Tuple, Integer>builder()
+				.defaultValue(0).stateBasedHashProvider(TupleHashProvider.INSTANCE).build(), StoreStrategy.STATE, 8);
+		var stores = factory.createGroup(2);
+		var frequentStore = (AdaptiveVersionedMapStore<Tuple, Integer>) stores.get(0);
+		var rareStore = (AdaptiveVersionedMapStore<Tuple, Integer>) stores.get(1);
+		var frequentMap = frequentStore.createMap();
+		var rareMap = rareStore.createMap();
+		for (int i = 0; i < 100; i++) {
+			frequentMap.put(Tuple.of(i), 1);
+		}
+		rareMap.put(Tuple.of(0), 1);
+		var frequentInitial = frequentMap.commit();
+		rareMap.commit();
+		for (int i = 1; i < 8; i++) {
+			frequentMap.put(Tuple.of(i), i + 1);
+			frequentMap.commit();
+			rareMap.commit();
+		}
+		assertEquals(StoreStrategy.STATE, frequentStore.getStrategy());
+		assertEquals(StoreStrategy.DELTA, rareStore.getStrategy());
+		assertEquals(DeltaTransactionStrategy.LIST, rareStore.getDeltaTransactionStrategy());
+
+		frequentMap.put(Tuple.of(100), 1);
+		var frequentMigrated = frequentMap.commit();
+		assertEquals(101, frequentMap.getSize());
+		Map<Tuple, List<Integer>> changes = new HashMap<>();
+		var diffCursor = frequentStore.getDiffCursor(frequentInitial, frequentMigrated);
+		while (diffCursor.move()) {
+			changes.put(diffCursor.getKey(), List.of(diffCursor.getFromValue(), diffCursor.getToValue()));
+		}
+		assertEquals(8, changes.size());
+		assertEquals(List.of(1, 4), changes.get(Tuple.of(3)));
+		assertEquals(List.of(0, 1), changes.get(Tuple.of(100)));
+
+		frequentMap.restore(frequentInitial);
+		assertEquals(100, frequentMap.getSize());
+		assertEquals(1, frequentMap.get(Tuple.of(3)));
+		assertEquals(0, frequentMap.get(Tuple.of(100)));
+		frequentMap.restore(frequentMigrated);
+		assertEquals(4, frequentMap.get(Tuple.of(3)));
+		assertEquals(1, frequentMap.get(Tuple.of(100)));
+	}
 }
@@ -42,6 +42,26 @@ public final class FuzzTestCollections {
 					.stateBasedHashProvider(MapTestEnvironment.prepareHashProvider(false))
 					.stateBasedSharingStrategy(VersionedMapStoreFactoryBuilder.SharingStrategy.NO_NODE_CACHE),
 
+			// Packed state based
+			// Default
+			VersionedMapStore.<Integer,String>builder()
+					.packedStateKeyCodec(MapTestEnvironment.preparePackedKeyCodec())
+					.stateBasedSharingStrategy(VersionedMapStoreFactoryBuilder.SharingStrategy.SHARED_NODE_CACHE),
+			// Copy when committing, do not hurt the work copy, do not share between states.
+			VersionedMapStore.<Integer,String>builder()
+					.stateBasedImmutableWhenCommitting(false)
+					.packedStateKeyCodec(MapTestEnvironment.preparePackedKeyCodec())
+					.stateBasedSharingStrategy(VersionedMapStoreFactoryBuilder.SharingStrategy.NO_NODE_CACHE),
+			// Committed nodes outside the heap
+			VersionedMapStore.<Integer,String>builder()
+					.packedStateKeyCodec(MapTestEnvironment.preparePackedKeyCodec())
+					.packedStateNodeStorage(VersionedMapStoreFactoryBuilder.NodeStorage.OFF_HEAP),
+			// Committed nodes in a memory-mapped file, without deduplication
+			VersionedMapStore.<Integer,String>builder()
+					.packedStateKeyCodec(MapTestEnvironment.preparePackedKeyCodec())
+					.packedStateNodeStorage(VersionedMapStoreFactoryBuilder.NodeStorage.MEMORY_MAPPED)
+					.stateBasedSharingStrategy(VersionedMapStoreFactoryBuilder.SharingStrategy.NO_NODE_CACHE),
+
 			// Delta based
 			// Set based transactions
 			VersionedMapStore.<Integer,String>builder()
@@ -45,6 +45,20 @@ public class MapTestEnvironment<K, V> {
 		};
 	}
 
+	public static PackedKeyCodec<Integer> preparePackedKeyCodec() {
+		return new PackedKeyCodec<>() {
+			@Override
+			public long pack(Integer key) {
+				return key;
+			}
+
+			@Override
+			public Integer unpack(long packedKey) {
+				return (int) packedKey;
+			}
+		};
+	}
+
 	public static void printStatus(String scenario, int actual, int max, String stepName) {
 		if (actual % 10000 == 0) {
 			String printStepName = stepName == null ? "" : stepName;
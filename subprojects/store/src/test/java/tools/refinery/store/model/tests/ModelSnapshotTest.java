@@ -0,0 +1,110 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.model.tests;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelSnapshotTest {
+	private static final Symbol<Boolean> person = Symbol.of("Person", 1);
+	private static final Symbol<Integer> age = Symbol.of("age", 1, Integer.class);
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private static final Symbol<String> label = Symbol.of("label", 3, String.class);
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void snapshotRoundTripTest() throws IOException {
+		var store = ModelStore.builder().symbols(person, age, friend, label).build();
+		Version version1;
+		Version version2;
+		Version version3;
+		try (var model = store.createEmptyModel()) {
+			var personInterpretation = model.getInterpretation(person);
+			var ageInterpretation = model.getInterpretation(age);
+			var friendInterpretation = model.getInterpretation(friend);
+			var labelInterpretation = model.getInterpretation(label);
+
+			personInterpretation.put(Tuple.of(0), true);
+			ageInterpretation.put(Tuple.of(0), 3);
+			labelInterpretation.put(Tuple.of(0, 1, 2), "a");
+			version1 = model.commit();
+
+			personInterpretation.put(Tuple.of(1), true);
+			ageInterpretation.put(Tuple.of(1), 5);
+			friendInterpretation.put(Tuple.of(0, 1), true);
+			labelInterpretation.put(Tuple.of(2, 1, 0), "b");
+			version2 = model.commit();
+
+			personInterpretation.put(Tuple.of(0), false);
+			ageInterpretation.put(Tuple.of(0), null);
+			friendInterpretation.put(Tuple.of(1, 0), true);
+			labelInterpretation.put(Tuple.of(0, 1, 2), null);
+			version3 = model.commit();
+		}
+
+		var path = tempDir.resolve("model.snapshot");
+		store.writeSnapshot(path, List.of(version1, version2, version3));
+
+		var otherStore = ModelStore.builder().symbols(person, age, friend, label).build();
+		var snapshot = otherStore.openSnapshot(path);
+		assertEquals(3, snapshot.getVersionCount());
+
+		try (var model = otherStore.createModelForState(snapshot.getVersion(2))) {
+			assertFalse(model.getInterpretation(person).get(Tuple.of(0)));
+			assertTrue(model.getInterpretation(person).get(Tuple.of(1)));
+			assertNull(model.getInterpretation(age).get(Tuple.of(0)));
+			assertEquals(5, model.getInterpretation(age).get(Tuple.of(1)));
+			assertTrue(model.getInterpretation(friend).get(Tuple.of(0, 1)));
+			assertTrue(model.getInterpretation(friend).get(Tuple.of(1, 0)));
+			assertNull(model.getInterpretation(label).get(Tuple.of(0, 1, 2)));
+			assertEquals("b", model.getInterpretation(label).get(Tuple.of(2, 1, 0)));
+			assertEquals(1, model.getInterpretation(person).getSize());
+		}
+
+		try (var model = otherStore.createModelForState(snapshot.getVersion(0))) {
+			assertTrue(model.getInterpretation(person).get(Tuple.of(0)));
+			assertFalse(model.getInterpretation(person).get(Tuple.of(1)));
+			assertEquals(3, model.getInterpretation(age).get(Tuple.of(0)));
+			assertEquals(0, model.getInterpretation(friend).getSize());
+			assertEquals("a", model.getInterpretation(label).get(Tuple.of(0, 1, 2)));
+			assertEquals(1, model.getInterpretation(label).getSize());
+		}
+
+		try (var model = otherStore.createModelForState(snapshot.getVersion(1))) {
+			assertEquals(2, model.getInterpretation(person).getSize());
+			assertEquals(2, model.getInterpretation(age).getSize());
+			assertEquals(1, model.getInterpretation(friend).getSize());
+			assertEquals(2, model.getInterpretation(label).getSize());
+		}
+	}
+
+	@Test
+	void snapshotSymbolMismatchTest() throws IOException {
+		var store = ModelStore.builder().symbols(person, friend).build();
+		Version version;
+		try (var model = store.createEmptyModel()) {
+			model.getInterpretation(person).put(Tuple.of(0), true);
+			version = model.commit();
+		}
+		var path = tempDir.resolve("model.snapshot");
+		store.writeSnapshot(path, List.of(version));
+
+		var otherStore = ModelStore.builder().symbols(person, age).build();
+		assertThrows(IllegalArgumentException.class, () -> otherStore.openSnapshot(path));
+	}
+}
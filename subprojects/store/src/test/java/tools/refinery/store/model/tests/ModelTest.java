@@ -6,12 +6,24 @@
 package tools.refinery.store.model.tests;
 
 import org.junit.jupiter.api.Test;
+import tools.refinery.store.adapter.AbstractModelAdapterBuilder;
+import tools.refinery.store.adapter.ModelAdapter;
+import tools.refinery.store.adapter.ModelStoreAdapter;
+import tools.refinery.store.map.Cursors;
 import tools.refinery.store.map.Version;
 import tools.refinery.store.model.Model;
+import tools.refinery.store.model.ModelListener;
 import tools.refinery.store.model.ModelStore;
 import tools.refinery.store.representation.Symbol;
 import tools.refinery.store.tuple.Tuple;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ModelTest {
@@ -164,4 +176,170 @@ class ModelTest {
 			assertTrue(friendInterpretation.get(Tuple.of(0, 2)));
 		}
 	}
+
+	@Test
+	void putAllTest() {
+		var store = ModelStore.builder().symbols(friend).build();
+		try (var model = store.createEmptyModel()) {
+			var friendInterpretation = model.getInterpretation(friend);
+			List<Tuple> notifiedKeys = new ArrayList<>();
+			friendInterpretation.addListener((key, fromValue, toValue, restoring) -> notifiedKeys.add(key), false);
+
+			friendInterpretation.putAll(Cursors.of(Map.of(Tuple.of(0, 1), true, Tuple.of(0, 2), true)));
+			assertTrue(model.hasUncommittedChanges());
+			assertTrue(friendInterpretation.get(Tuple.of(0, 1)));
+			assertTrue(friendInterpretation.get(Tuple.of(0, 2)));
+			assertEquals(2, friendInterpretation.getAdjacentSize(0, 0));
+			assertEquals(1, friendInterpretation.getAdjacentSize(1, 2));
+			assertEquals(2, notifiedKeys.size());
+
+			friendInterpretation.putAll(Cursors.of(Map.of(Tuple.of(0, 1), false, Tuple.of(1, 0), true)));
+			assertFalse(friendInterpretation.get(Tuple.of(0, 1)));
+			assertTrue(friendInterpretation.get(Tuple.of(1, 0)));
+			assertEquals(1, friendInterpretation.getAdjacentSize(0, 0));
+			assertEquals(0, friendInterpretation.getAdjacentSize(1, 1));
+			assertEquals(4, notifiedKeys.size());
+		}
+	}
+
+	@Test
+	void parallelRestoreTest() {
+		var store = ModelStore.builder().symbols(person, age, friend).parallelCommitAndRestore().build();
+		try (var model = store.createEmptyModel()) {
+			var personInterpretation = model.getInterpretation(person);
+			var ageInterpretation = model.getInterpretation(age);
+			var friendInterpretation = model.getInterpretation(friend);
+			List<String> notifications = new ArrayList<>();
+			model.addListener(new ModelListener() {
+				@Override
+				public void beforeRestore(Version state) {
+					notifications.add("beforeRestore");
+				}
+
+				@Override
+				public void afterRestore() {
+					notifications.add("afterRestore");
+				}
+			});
+			personInterpretation.addListener((key, fromValue, toValue, restoring) ->
+					notifications.add("person" + key), true);
+			friendInterpretation.addListener((key, fromValue, toValue, restoring) ->
+					notifications.add("friend" + key), true);
+
+			personInterpretation.put(Tuple.of(0), true);
+			friendInterpretation.put(Tuple.of(0, 1), true);
+			var state1 = model.commit();
+			personInterpretation.put(Tuple.of(1), true);
+			ageInterpretation.put(Tuple.of(1), 30);
+			friendInterpretation.put(Tuple.of(1, 0), true);
+			var state2 = model.commit();
+			notifications.clear();
+
+			model.restore(state1);
+			assertEquals(state1, model.getState());
+			assertFalse(personInterpretation.get(Tuple.of(1)));
+			assertNull(ageInterpretation.get(Tuple.of(1)));
+			assertFalse(friendInterpretation.get(Tuple.of(1, 0)));
+			assertEquals(0, friendInterpretation.getAdjacentSize(0, 1));
+			assertEquals(List.of("beforeRestore", "person[1]", "friend[1, 0]", "afterRestore"), notifications);
+
+			model.restore(state2);
+			assertTrue(personInterpretation.get(Tuple.of(1)));
+			assertEquals(30, ageInterpretation.get(Tuple.of(1)));
+			assertTrue(friendInterpretation.get(Tuple.of(1, 0)));
+			assertEquals(1, friendInterpretation.getAdjacentSize(0, 1));
+		}
+	}
+
+	@Test
+	void storeDiffCursorTest() {
+		var store = ModelStore.builder().symbols(person, friend).build();
+		try (var model = store.createEmptyModel()) {
+			var personInterpretation = model.getInterpretation(person);
+			var friendInterpretation = model.getInterpretation(friend);
+			personInterpretation.put(Tuple.of(0), true);
+			var state1 = model.commit();
+			friendInterpretation.put(Tuple.of(0, 0), true);
+			var state2 = model.commit();
+
+			var diffCursor = store.getDiffCursor(state1, state2);
+			assertFalse(diffCursor.getCursor(person).move());
+			var friendCursor = diffCursor.getCursor(friend);
+			assertTrue(friendCursor.move());
+			assertEquals(Tuple.of(0, 0), friendCursor.getKey());
+			assertFalse(friendCursor.getFromValue());
+			assertTrue(friendCursor.getToValue());
+			assertFalse(friendCursor.move());
+		}
+	}
+
+	@Test
+	void concurrentModelCreationTest() throws Exception {
+		var adapterBuilder = new CountingAdapterBuilder();
+		var store = ModelStore.builder().symbols(person, friend).with(adapterBuilder).build();
+		Version state;
+		try (var model = store.createEmptyModel()) {
+			model.getInterpretation(person).put(Tuple.of(0), true);
+			model.getInterpretation(friend).put(Tuple.of(0, 0), true);
+			state = model.commit();
+		}
+		var storeAdapter = store.getAdapter(CountingStoreAdapter.class);
+		List<Callable<Boolean>> tasks = new ArrayList<>();
+		for (int i = 0; i < 16; i++) {
+			tasks.add(() -> {
+				try (var model = store.createModelForState(state)) {
+					return model.getInterpretation(person).get(Tuple.of(0)) &&
+							model.getInterpretation(friend).get(Tuple.of(0, 0)) &&
+							model.getAdapter(CountingModelAdapter.class).getModel() == model;
+				}
+			});
+		}
+		try (var executor = Executors.newFixedThreadPool(4)) {
+			for (var future : executor.invokeAll(tasks)) {
+				assertTrue(future.get());
+			}
+		}
+		assertEquals(17, storeAdapter.createdCount.get());
+	}
+
+	private static class CountingAdapterBuilder
+			extends AbstractModelAdapterBuilder<CountingStoreAdapter> {
+		@Override
+		protected CountingStoreAdapter doBuild(ModelStore store) {
+			return new CountingStoreAdapter(store);
+		}
+	}
+
+	private static class CountingStoreAdapter implements ModelStoreAdapter {
+		private final ModelStore store;
+		private final AtomicInteger createdCount = new AtomicInteger();
+
+		private CountingStoreAdapter(ModelStore store) {
+			this.store = store;
+		}
+
+		@Override
+		public ModelStore getStore() {
+			return store;
+		}
+
+		@Override
+		public ModelAdapter createModelAdapter(Model model) {
+			createdCount.incrementAndGet();
+			return new CountingModelAdapter(model, this);
+		}
+	}
+
+	private record CountingModelAdapter(Model model, ModelStoreAdapter storeAdapter)
+			implements ModelAdapter {
+		@Override
+		public Model getModel() {
+			return model;
+		}
+
+		@Override
+		public ModelStoreAdapter getStoreAdapter() {
+			return storeAdapter;
+		}
+	}
 }
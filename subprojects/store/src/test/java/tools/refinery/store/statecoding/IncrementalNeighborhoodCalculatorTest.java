@@ -0,0 +1,91 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.statecoding;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.model.Interpretation;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.statecoding.neighborhood.IncrementalNeighborhoodCalculator;
+import tools.refinery.store.statecoding.neighborhood.IndividualsArray;
+import tools.refinery.store.statecoding.neighborhood.NeighborhoodCalculator;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IncrementalNeighborhoodCalculatorTest {
+	private static final int NODE_COUNT = 12;
+
+	Symbol<Boolean> person = new Symbol<>("Person", 1, Boolean.class, false);
+	Symbol<Integer> age = new Symbol<>("age", 1, Integer.class, null);
+	Symbol<Boolean> friend = new Symbol<>("friend", 2, Boolean.class, false);
+	Symbol<Boolean> parents = new Symbol<>("parents", 3, Boolean.class, false);
+	Symbol<Integer> population = new Symbol<>("population", 0, Integer.class, 0);
+
+	@ParameterizedTest
+	@ValueSource(ints = {0, 1, 2, 3, 4})
+	void randomChangesTest(int seed) {
+		var store = ModelStore.builder()
+				.symbols(person, age, friend, parents, population)
+				.build();
+		var model = store.createEmptyModel();
+		var personI = model.getInterpretation(person);
+		var ageI = model.getInterpretation(age);
+		var friendI = model.getInterpretation(friend);
+		var parentsI = model.getInterpretation(parents);
+		var populationI = model.getInterpretation(population);
+		List<Interpretation<?>> interpretations = List.of(personI, ageI, friendI, parentsI, populationI);
+		var individuals = new IndividualsArray(new int[]{0, 1});
+		var incremental = IncrementalNeighborhoodCalculator.factory(3).create(model, interpretations, individuals);
+		var full = NeighborhoodCalculator.factory(3).create(model, interpretations, individuals);
+		assertSameCodes(full, incremental);
+
+		var random = new Random(seed);
+		var versions = new ArrayList<Version>();
+		for (int i = 0; i < 200; i++) {
+			int changes = random.nextInt(5) == 0 ? 20 : random.nextInt(4);
+			for (int j = 0; j < changes; j++) {
+				switch (random.nextInt(5)) {
+				case 0 -> personI.put(Tuple.of(randomNode(random)), random.nextBoolean());
+				case 1 -> ageI.put(Tuple.of(randomNode(random)), random.nextBoolean() ? null : random.nextInt(3));
+				case 2 -> friendI.put(Tuple.of(randomNode(random), randomNode(random)), random.nextBoolean());
+				case 3 -> parentsI.put(Tuple.of(randomNode(random), randomNode(random), randomNode(random)),
+						random.nextBoolean());
+				default -> populationI.put(Tuple.of(), random.nextInt(3));
+				}
+			}
+			if (random.nextInt(3) == 0) {
+				versions.add(model.commit());
+			}
+			if (!versions.isEmpty() && random.nextInt(6) == 0) {
+				model.restore(versions.get(random.nextInt(versions.size())));
+			}
+			assertSameCodes(full, incremental);
+		}
+	}
+
+	private static int randomNode(Random random) {
+		return random.nextInt(NODE_COUNT);
+	}
+
+	private static void assertSameCodes(StateCodeCalculator expected, StateCodeCalculator actual) {
+		var expectedResult = expected.calculateCodes();
+		var actualResult = actual.calculateCodes();
+		var expectedObjectCode = expectedResult.objectCode();
+		var actualObjectCode = actualResult.objectCode();
+		int size = Math.max(expectedObjectCode.getSize(), actualObjectCode.getSize());
+		for (int i = 0; i < size; i++) {
+			assertEquals(expectedObjectCode.get(i), actualObjectCode.get(i), "Code of object " + i);
+		}
+		assertEquals(expectedResult.modelCode(), actualResult.modelCode(), "model");
+	}
+}